@@ -0,0 +1,94 @@
+package io.vertx.cassandra;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.cassandra.BlobStoreOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.cassandra.BlobStoreOptions} original class using Vert.x codegen.
+ */
+public class BlobStoreOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, BlobStoreOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "chunkColumn":
+          if (member.getValue() instanceof String) {
+            obj.setChunkColumn((String)member.getValue());
+          }
+          break;
+        case "chunkCountColumn":
+          if (member.getValue() instanceof String) {
+            obj.setChunkCountColumn((String)member.getValue());
+          }
+          break;
+        case "chunkSize":
+          if (member.getValue() instanceof Number) {
+            obj.setChunkSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "dataColumn":
+          if (member.getValue() instanceof String) {
+            obj.setDataColumn((String)member.getValue());
+          }
+          break;
+        case "keyColumn":
+          if (member.getValue() instanceof String) {
+            obj.setKeyColumn((String)member.getValue());
+          }
+          break;
+        case "lengthColumn":
+          if (member.getValue() instanceof String) {
+            obj.setLengthColumn((String)member.getValue());
+          }
+          break;
+        case "maxConcurrentWrites":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxConcurrentWrites(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "prefetch":
+          if (member.getValue() instanceof Number) {
+            obj.setPrefetch(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "table":
+          if (member.getValue() instanceof String) {
+            obj.setTable((String)member.getValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(BlobStoreOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(BlobStoreOptions obj, java.util.Map<String, Object> json) {
+    if (obj.getChunkColumn() != null) {
+      json.put("chunkColumn", obj.getChunkColumn());
+    }
+    if (obj.getChunkCountColumn() != null) {
+      json.put("chunkCountColumn", obj.getChunkCountColumn());
+    }
+    json.put("chunkSize", obj.getChunkSize());
+    if (obj.getDataColumn() != null) {
+      json.put("dataColumn", obj.getDataColumn());
+    }
+    if (obj.getKeyColumn() != null) {
+      json.put("keyColumn", obj.getKeyColumn());
+    }
+    if (obj.getLengthColumn() != null) {
+      json.put("lengthColumn", obj.getLengthColumn());
+    }
+    json.put("maxConcurrentWrites", obj.getMaxConcurrentWrites());
+    json.put("prefetch", obj.getPrefetch());
+    if (obj.getTable() != null) {
+      json.put("table", obj.getTable());
+    }
+  }
+}
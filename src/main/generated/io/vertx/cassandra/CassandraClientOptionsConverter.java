@@ -15,6 +15,26 @@ public class CassandraClientOptionsConverter {
   public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, CassandraClientOptions obj) {
     for (java.util.Map.Entry<String, Object> member : json) {
       switch (member.getKey()) {
+        case "admissionTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setAdmissionTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "autoPrepareThreshold":
+          if (member.getValue() instanceof Number) {
+            obj.setAutoPrepareThreshold(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "coalesceReads":
+          if (member.getValue() instanceof Boolean) {
+            obj.setCoalesceReads((Boolean)member.getValue());
+          }
+          break;
+        case "collectorParallelism":
+          if (member.getValue() instanceof Number) {
+            obj.setCollectorParallelism(((Number)member.getValue()).intValue());
+          }
+          break;
         case "contactPoints":
           if (member.getValue() instanceof JsonObject) {
             ((Iterable<java.util.Map.Entry<String, Object>>)member.getValue()).forEach(entry -> {
@@ -28,6 +48,26 @@ public class CassandraClientOptionsConverter {
             obj.setKeyspace((String)member.getValue());
           }
           break;
+        case "maxAutoPreparedStatements":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxAutoPreparedStatements(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxBufferedBytes":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxBufferedBytes(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "packedRows":
+          if (member.getValue() instanceof Boolean) {
+            obj.setPackedRows((Boolean)member.getValue());
+          }
+          break;
+        case "pausedStreamTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setPausedStreamTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
       }
     }
   }
@@ -37,8 +77,16 @@ public class CassandraClientOptionsConverter {
   }
 
   public static void toJson(CassandraClientOptions obj, java.util.Map<String, Object> json) {
+    json.put("admissionTimeout", obj.getAdmissionTimeout());
+    json.put("autoPrepareThreshold", obj.getAutoPrepareThreshold());
+    json.put("coalesceReads", obj.isCoalesceReads());
+    json.put("collectorParallelism", obj.getCollectorParallelism());
     if (obj.getKeyspace() != null) {
       json.put("keyspace", obj.getKeyspace());
     }
+    json.put("maxAutoPreparedStatements", obj.getMaxAutoPreparedStatements());
+    json.put("maxBufferedBytes", obj.getMaxBufferedBytes());
+    json.put("packedRows", obj.isPackedRows());
+    json.put("pausedStreamTimeout", obj.getPausedStreamTimeout());
   }
 }
@@ -0,0 +1,46 @@
+package io.vertx.cassandra;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.cassandra.CounterAggregatorOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.cassandra.CounterAggregatorOptions} original class using Vert.x codegen.
+ */
+public class CounterAggregatorOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, CounterAggregatorOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "flushInterval":
+          if (member.getValue() instanceof Number) {
+            obj.setFlushInterval(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "maxConcurrentWrites":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxConcurrentWrites(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxPendingKeys":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxPendingKeys(((Number)member.getValue()).intValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(CounterAggregatorOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(CounterAggregatorOptions obj, java.util.Map<String, Object> json) {
+    json.put("flushInterval", obj.getFlushInterval());
+    json.put("maxConcurrentWrites", obj.getMaxConcurrentWrites());
+    json.put("maxPendingKeys", obj.getMaxPendingKeys());
+  }
+}
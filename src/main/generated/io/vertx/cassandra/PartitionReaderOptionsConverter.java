@@ -0,0 +1,117 @@
+package io.vertx.cassandra;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.cassandra.PartitionReaderOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.cassandra.PartitionReaderOptions} original class using Vert.x codegen.
+ */
+public class PartitionReaderOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, PartitionReaderOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "clusteringColumns":
+          if (member.getValue() instanceof JsonArray) {
+            java.util.ArrayList<java.lang.String> list =  new java.util.ArrayList<>();
+            ((Iterable<Object>)member.getValue()).forEach( item -> {
+              if (item instanceof String)
+                list.add((String)item);
+            });
+            obj.setClusteringColumns(list);
+          }
+          break;
+        case "columns":
+          if (member.getValue() instanceof JsonArray) {
+            java.util.ArrayList<java.lang.String> list =  new java.util.ArrayList<>();
+            ((Iterable<Object>)member.getValue()).forEach( item -> {
+              if (item instanceof String)
+                list.add((String)item);
+            });
+            obj.setColumns(list);
+          }
+          break;
+        case "descending":
+          if (member.getValue() instanceof Boolean) {
+            obj.setDescending((Boolean)member.getValue());
+          }
+          break;
+        case "initialSliceSize":
+          if (member.getValue() instanceof Number) {
+            obj.setInitialSliceSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxSliceSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxSliceSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "minSliceSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMinSliceSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "parallelism":
+          if (member.getValue() instanceof Number) {
+            obj.setParallelism(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "partitionKeyColumns":
+          if (member.getValue() instanceof JsonArray) {
+            java.util.ArrayList<java.lang.String> list =  new java.util.ArrayList<>();
+            ((Iterable<Object>)member.getValue()).forEach( item -> {
+              if (item instanceof String)
+                list.add((String)item);
+            });
+            obj.setPartitionKeyColumns(list);
+          }
+          break;
+        case "table":
+          if (member.getValue() instanceof String) {
+            obj.setTable((String)member.getValue());
+          }
+          break;
+        case "targetSliceLatency":
+          if (member.getValue() instanceof Number) {
+            obj.setTargetSliceLatency(((Number)member.getValue()).longValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(PartitionReaderOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(PartitionReaderOptions obj, java.util.Map<String, Object> json) {
+    if (obj.getClusteringColumns() != null) {
+      JsonArray array = new JsonArray();
+      obj.getClusteringColumns().forEach(item -> array.add(item));
+      json.put("clusteringColumns", array);
+    }
+    if (obj.getColumns() != null) {
+      JsonArray array = new JsonArray();
+      obj.getColumns().forEach(item -> array.add(item));
+      json.put("columns", array);
+    }
+    json.put("descending", obj.isDescending());
+    json.put("initialSliceSize", obj.getInitialSliceSize());
+    json.put("maxSliceSize", obj.getMaxSliceSize());
+    json.put("minSliceSize", obj.getMinSliceSize());
+    json.put("parallelism", obj.getParallelism());
+    if (obj.getPartitionKeyColumns() != null) {
+      JsonArray array = new JsonArray();
+      obj.getPartitionKeyColumns().forEach(item -> array.add(item));
+      json.put("partitionKeyColumns", array);
+    }
+    if (obj.getTable() != null) {
+      json.put("table", obj.getTable());
+    }
+    json.put("targetSliceLatency", obj.getTargetSliceLatency());
+  }
+}
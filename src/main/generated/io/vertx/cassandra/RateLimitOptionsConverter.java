@@ -0,0 +1,70 @@
+package io.vertx.cassandra;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.cassandra.RateLimitOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.cassandra.RateLimitOptions} original class using Vert.x codegen.
+ */
+public class RateLimitOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, RateLimitOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "burst":
+          if (member.getValue() instanceof Number) {
+            obj.setBurst(((Number)member.getValue()).doubleValue());
+          }
+          break;
+        case "bytesPerSecond":
+          if (member.getValue() instanceof Number) {
+            obj.setBytesPerSecond(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "executionProfile":
+          if (member.getValue() instanceof String) {
+            obj.setExecutionProfile((String)member.getValue());
+          }
+          break;
+        case "keyspace":
+          if (member.getValue() instanceof String) {
+            obj.setKeyspace((String)member.getValue());
+          }
+          break;
+        case "rowsPerSecond":
+          if (member.getValue() instanceof Number) {
+            obj.setRowsPerSecond(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "table":
+          if (member.getValue() instanceof String) {
+            obj.setTable((String)member.getValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(RateLimitOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(RateLimitOptions obj, java.util.Map<String, Object> json) {
+    json.put("burst", obj.getBurst());
+    json.put("bytesPerSecond", obj.getBytesPerSecond());
+    if (obj.getExecutionProfile() != null) {
+      json.put("executionProfile", obj.getExecutionProfile());
+    }
+    if (obj.getKeyspace() != null) {
+      json.put("keyspace", obj.getKeyspace());
+    }
+    json.put("rowsPerSecond", obj.getRowsPerSecond());
+    if (obj.getTable() != null) {
+      json.put("table", obj.getTable());
+    }
+  }
+}
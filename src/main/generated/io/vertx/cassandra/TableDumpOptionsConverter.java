@@ -0,0 +1,46 @@
+package io.vertx.cassandra;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.cassandra.TableDumpOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.cassandra.TableDumpOptions} original class using Vert.x codegen.
+ */
+public class TableDumpOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, TableDumpOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "blockSize":
+          if (member.getValue() instanceof Number) {
+            obj.setBlockSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxConcurrentWrites":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxConcurrentWrites(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "pageSize":
+          if (member.getValue() instanceof Number) {
+            obj.setPageSize(((Number)member.getValue()).intValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(TableDumpOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(TableDumpOptions obj, java.util.Map<String, Object> json) {
+    json.put("blockSize", obj.getBlockSize());
+    json.put("maxConcurrentWrites", obj.getMaxConcurrentWrites());
+    json.put("pageSize", obj.getPageSize());
+  }
+}
@@ -0,0 +1,129 @@
+package io.vertx.cassandra;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.cassandra.TimeSeriesOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.cassandra.TimeSeriesOptions} original class using Vert.x codegen.
+ */
+public class TimeSeriesOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, TimeSeriesOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "allowedLateness":
+          if (member.getValue() instanceof Number) {
+            obj.setAllowedLateness(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "bucketColumn":
+          if (member.getValue() instanceof String) {
+            obj.setBucketColumn((String)member.getValue());
+          }
+          break;
+        case "bucketGranularity":
+          if (member.getValue() instanceof Number) {
+            obj.setBucketGranularity(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "flushInterval":
+          if (member.getValue() instanceof Number) {
+            obj.setFlushInterval(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "maxBatchSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxBatchSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxBufferedPoints":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxBufferedPoints(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxConcurrentWrites":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxConcurrentWrites(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxPollInterval":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxPollInterval(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "minPollInterval":
+          if (member.getValue() instanceof Number) {
+            obj.setMinPollInterval(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "pollSize":
+          if (member.getValue() instanceof Number) {
+            obj.setPollSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "seriesColumn":
+          if (member.getValue() instanceof String) {
+            obj.setSeriesColumn((String)member.getValue());
+          }
+          break;
+        case "table":
+          if (member.getValue() instanceof String) {
+            obj.setTable((String)member.getValue());
+          }
+          break;
+        case "timestampColumn":
+          if (member.getValue() instanceof String) {
+            obj.setTimestampColumn((String)member.getValue());
+          }
+          break;
+        case "valueColumns":
+          if (member.getValue() instanceof JsonArray) {
+            java.util.ArrayList<java.lang.String> list =  new java.util.ArrayList<>();
+            ((Iterable<Object>)member.getValue()).forEach( item -> {
+              if (item instanceof String)
+                list.add((String)item);
+            });
+            obj.setValueColumns(list);
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(TimeSeriesOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(TimeSeriesOptions obj, java.util.Map<String, Object> json) {
+    json.put("allowedLateness", obj.getAllowedLateness());
+    if (obj.getBucketColumn() != null) {
+      json.put("bucketColumn", obj.getBucketColumn());
+    }
+    json.put("bucketGranularity", obj.getBucketGranularity());
+    json.put("flushInterval", obj.getFlushInterval());
+    json.put("maxBatchSize", obj.getMaxBatchSize());
+    json.put("maxBufferedPoints", obj.getMaxBufferedPoints());
+    json.put("maxConcurrentWrites", obj.getMaxConcurrentWrites());
+    json.put("maxPollInterval", obj.getMaxPollInterval());
+    json.put("minPollInterval", obj.getMinPollInterval());
+    json.put("pollSize", obj.getPollSize());
+    if (obj.getSeriesColumn() != null) {
+      json.put("seriesColumn", obj.getSeriesColumn());
+    }
+    if (obj.getTable() != null) {
+      json.put("table", obj.getTable());
+    }
+    if (obj.getTimestampColumn() != null) {
+      json.put("timestampColumn", obj.getTimestampColumn());
+    }
+    if (obj.getValueColumns() != null) {
+      JsonArray array = new JsonArray();
+      obj.getValueColumns().forEach(item -> array.add(item));
+      json.put("valueColumns", array);
+    }
+  }
+}
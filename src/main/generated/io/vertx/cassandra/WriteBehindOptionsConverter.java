@@ -0,0 +1,52 @@
+package io.vertx.cassandra;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter and mapper for {@link io.vertx.cassandra.WriteBehindOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.cassandra.WriteBehindOptions} original class using Vert.x codegen.
+ */
+public class WriteBehindOptionsConverter {
+
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, WriteBehindOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "flushInterval":
+          if (member.getValue() instanceof Number) {
+            obj.setFlushInterval(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "maxBatchSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxBatchSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxBufferedWrites":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxBufferedWrites(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxConcurrentWrites":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxConcurrentWrites(((Number)member.getValue()).intValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(WriteBehindOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(WriteBehindOptions obj, java.util.Map<String, Object> json) {
+    json.put("flushInterval", obj.getFlushInterval());
+    json.put("maxBatchSize", obj.getMaxBatchSize());
+    json.put("maxBufferedWrites", obj.getMaxBufferedWrites());
+    json.put("maxConcurrentWrites", obj.getMaxConcurrentWrites());
+  }
+}
@@ -16,13 +16,45 @@
 package examples;
 
 import com.datastax.oss.driver.api.core.cql.*;
+import io.vertx.cassandra.BlobStore;
+import io.vertx.cassandra.BlobStoreOptions;
 import io.vertx.cassandra.CassandraClient;
 import io.vertx.cassandra.CassandraClientOptions;
+import io.vertx.cassandra.CassandraInterceptor;
 import io.vertx.cassandra.CassandraRowStream;
+import io.vertx.cassandra.CounterAggregator;
+import io.vertx.cassandra.CounterAggregatorOptions;
+import io.vertx.cassandra.EventBusRows;
+import io.vertx.cassandra.FanOutResult;
+import io.vertx.cassandra.PackedRows;
+import io.vertx.cassandra.PartitionReader;
+import io.vertx.cassandra.PartitionReaderOptions;
+import io.vertx.cassandra.PreparedQuery;
+import io.vertx.cassandra.RateLimitOptions;
+import io.vertx.cassandra.RateLimiter;
 import io.vertx.cassandra.ResultSet;
+import io.vertx.cassandra.StatementStatistics;
+import io.vertx.cassandra.TableDump;
+import io.vertx.cassandra.TableDumpOptions;
+import io.vertx.cassandra.TimeSeriesOptions;
+import io.vertx.cassandra.TimeSeriesReader;
+import io.vertx.cassandra.TimeSeriesWriter;
+import io.vertx.cassandra.WriteBehindBuffer;
+import io.vertx.cassandra.WriteBehindOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.file.OpenOptions;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collector;
 
@@ -52,6 +84,101 @@ public class CassandraClientExamples {
     CassandraClient client = CassandraClient.createShared(vertx, "sharedClientName", options);
   }
 
+  public void keyspaceRouting(CassandraClient cassandraClient, String tenant) {
+    // a lightweight view executing statements in the keyspace of the tenant
+    CassandraClient tenantClient = cassandraClient.withKeyspace(tenant);
+
+    tenantClient.prepare("SELECT * FROM invoices WHERE id = ?")
+      .flatMap(prepared -> tenantClient.execute(prepared.bind(42)))
+      .onComplete(ar -> {
+        if (ar.succeeded()) {
+          System.out.println("Invoice of tenant " + tenant + ": " + ar.result().one());
+        } else {
+          ar.cause().printStackTrace();
+        }
+      });
+  }
+
+  public void memoryBudget(Vertx vertx) {
+    CassandraClientOptions options = new CassandraClientOptions()
+      // 64 MB of result pages
+      .setMaxBufferedBytes(64 * 1024 * 1024)
+      // wait up to 500 ms for the budget to become available
+      .setAdmissionTimeout(500)
+      // release streams paused for more than 30 seconds
+      .setPausedStreamTimeout(30_000);
+    CassandraClient client = CassandraClient.create(vertx, options);
+  }
+
+  public void deadlines(CassandraClient cassandraClient, HttpServerResponse response) {
+    // every page must be received within 200 ms of the call
+    cassandraClient.withTimeout(200).queryStream("SELECT * FROM users", ar -> {
+      if (ar.succeeded()) {
+        CassandraRowStream stream = ar.result();
+        // stop fetching pages when the HTTP client goes away
+        response.closeHandler(v -> stream.handler(null));
+        stream.endHandler(v -> response.end())
+          .exceptionHandler(t -> response.setStatusCode(503).end())
+          .handler(row -> response.write(row.getString("name") + "\n"));
+      } else {
+        response.setStatusCode(503).end();
+      }
+    });
+  }
+
+  public void interceptor(Vertx vertx) {
+    CassandraClientOptions options = new CassandraClientOptions()
+      .addContactPoint("localhost", 9142)
+      .addInterceptor(new CassandraInterceptor() {
+        @Override
+        public Future<AsyncResultSet> execute(Statement statement, Execution next) {
+          long start = System.nanoTime();
+          return next.execute(statement.setExecutionProfileName("oltp")).onComplete(ar -> {
+            System.out.println("Executed in " + (System.nanoTime() - start) + " ns");
+          });
+        }
+      });
+    CassandraClient client = CassandraClient.create(vertx, options);
+  }
+
+  public void rateLimiting(Vertx vertx) {
+    RateLimiter rateLimiter = RateLimiter.create(vertx)
+      // the backfill of this table should not exceed 5000 rows per second
+      .addLimit(new RateLimitOptions()
+        .setKeyspace("events")
+        .setTable("events_by_day")
+        .setRowsPerSecond(5000))
+      // nor 10 MB per second overall, when executed with the batch profile
+      .addLimit(new RateLimitOptions()
+        .setExecutionProfile("batch")
+        .setBytesPerSecond(10 * 1024 * 1024));
+
+    CassandraClientOptions options = new CassandraClientOptions()
+      .addInterceptor(rateLimiter);
+    CassandraClient client = CassandraClient.create(vertx, options);
+
+    vertx.setPeriodic(10_000, id -> {
+      System.out.println("Rate limiter statistics: " + rateLimiter.statistics().encodePrettily());
+    });
+  }
+
+  public void statementStatistics(Vertx vertx) {
+    StatementStatistics statistics = StatementStatistics.create();
+    CassandraClientOptions options = new CassandraClientOptions()
+      .addInterceptor(statistics);
+    CassandraClient client = CassandraClient.create(vertx, options);
+
+    vertx.setPeriodic(60_000, id -> {
+      // statements are sorted by total execution time
+      JsonArray statements = statistics.statistics().getJsonArray("statements");
+      for (int i = 0; i < Math.min(10, statements.size()); i++) {
+        JsonObject statement = statements.getJsonObject(i);
+        System.out.println(statement.getString("query") + ": " + statement.getDouble("totalTime") + "ms");
+      }
+      statistics.reset();
+    });
+  }
+
   public void lowLevelQuerying(CassandraClient cassandraClient) {
     cassandraClient.execute("SELECT * FROM my_keyspace.my_table where my_key = 'my_value'", execute -> {
       if (execute.succeeded()) {
@@ -138,6 +265,96 @@ public class CassandraClientExamples {
     });
   }
 
+  public void packedRows(Vertx vertx) {
+    CassandraClientOptions options = new CassandraClientOptions()
+      .setPackedRows(true);
+    CassandraClient cassandraClient = CassandraClient.createShared(vertx, options);
+
+    // Rows are packed when fetched all at once
+    cassandraClient.executeWithFullFetch("SELECT * FROM reference.countries", ar -> {
+      if (ar.succeeded()) {
+        List<Row> countries = ar.result();
+      }
+    });
+
+    // Or with the collector, regardless of the options
+    cassandraClient.execute("SELECT * FROM reference.currencies", PackedRows.toList(), ar -> {
+      if (ar.succeeded()) {
+        List<Row> currencies = ar.result();
+      }
+    });
+  }
+
+  public void columnarScan(CassandraClient cassandraClient) {
+    SimpleStatement statement = SimpleStatement.newInstance("SELECT sensor, value FROM metrics.samples WHERE day = 20191015")
+      .setPageSize(5000);
+    cassandraClient.columnarStream(statement, ar -> {
+      if (ar.succeeded()) {
+        double[] sum = new double[1];
+        ar.result()
+          .handler(batch -> {
+            // values are decoded into a primitive array, without boxing
+            double[] values = batch.doubles(1);
+            BitSet nulls = batch.nulls(1);
+            for (int i = 0; i < batch.size(); i++) {
+              if (!nulls.get(i)) {
+                sum[0] += values[i];
+              }
+            }
+          })
+          .endHandler(v -> System.out.println("Sum: " + sum[0]));
+      } else {
+        ar.cause().printStackTrace();
+      }
+    });
+  }
+
+  public void mergedStream(CassandraClient cassandraClient) {
+    List<Statement> statements = new ArrayList<>();
+    for (String device : Arrays.asList("d1", "d2", "d3")) {
+      statements.add(SimpleStatement.newInstance("SELECT device, ts, value FROM metrics.by_device WHERE device = ? LIMIT 100", device)
+        .setPageSize(50));
+    }
+    // each partition is ordered by ts
+    Comparator<Row> byTs = Comparator.comparingLong(row -> row.getLong("ts"));
+    cassandraClient.mergedStream(statements, byTs, 100, ar -> {
+      if (ar.succeeded()) {
+        ar.result()
+          .handler(row -> System.out.println(row.getLong("ts") + " " + row.getString("device") + " " + row.getDouble("value")))
+          .endHandler(v -> System.out.println("End of stream"));
+      } else {
+        ar.cause().printStackTrace();
+      }
+    });
+  }
+
+  public void eventBusRows(Vertx vertx, CassandraClient cassandraClient) {
+    EventBusRows.registerCodec(vertx);
+
+    // in the data verticle
+    vertx.eventBus().<String>consumer("orders.by-customer", message -> {
+      SimpleStatement statement = SimpleStatement.newInstance("SELECT * FROM shop.orders WHERE customer = ?", message.body());
+      cassandraClient.execute(statement)
+        .flatMap(resultSet -> EventBusRows.replyWithStream(vertx, message, resultSet))
+        .onFailure(Throwable::printStackTrace);
+    });
+
+    // in the HTTP verticle
+    EventBusRows.requestStream(vertx, "orders.by-customer", "customer-42").onComplete(ar -> {
+      if (ar.succeeded()) {
+        ar.result()
+          .handler(page -> {
+            for (Row row : page.rows()) {
+              System.out.println(row.getFormattedContents());
+            }
+          })
+          .endHandler(v -> System.out.println("All orders received"));
+      } else {
+        ar.cause().printStackTrace();
+      }
+    });
+  }
+
   public void prepareQuery(CassandraClient cassandraClient) {
     cassandraClient.prepare("SELECT * FROM my_keyspace.my_table where my_key = ? ", preparedStatementResult -> {
       if (preparedStatementResult.succeeded()) {
@@ -173,6 +390,67 @@ public class CassandraClientExamples {
     });
   }
 
+  public void preparedQuery(CassandraClient cassandraClient) {
+    cassandraClient.prepareQuery("INSERT INTO metrics.samples (sensor, ts, value) VALUES (?, ?, ?)", ar -> {
+      if (ar.succeeded()) {
+        PreparedQuery.Binding binding = ar.result().binding();
+        binding
+          .setString(0, "s1")
+          .setLong(1, System.currentTimeMillis())
+          .setDouble(2, 21.5)
+          .execute(done -> {
+            // the binding can be reused for the next sample
+          });
+      }
+    });
+  }
+
+  public void autoPrepare(Vertx vertx, String productId) {
+    CassandraClientOptions options = new CassandraClientOptions()
+      .setAutoPrepareThreshold(10);
+    CassandraClient cassandraClient = CassandraClient.createShared(vertx, options);
+
+    // After 10 executions, this query is prepared and sent as a bound statement
+    cassandraClient.execute(SimpleStatement.newInstance("SELECT * FROM shop.products WHERE id = ?", productId), ar -> {
+      if (ar.succeeded()) {
+        Row product = ar.result().one();
+      }
+    });
+  }
+
+  public void executeAll(CassandraClient cassandraClient, PreparedStatement selectProduct, List<String> productIds) {
+    List<List<String>> values = new ArrayList<>();
+    for (String productId : productIds) {
+      values.add(Collections.singletonList(productId));
+    }
+    // One execution per product, at most 16 at a time
+    cassandraClient.executeAll(selectProduct, values, 16, ar -> {
+      if (ar.succeeded()) {
+        FanOutResult result = ar.result();
+        for (int i = 0; i < result.size(); i++) {
+          if (result.succeeded(i)) {
+            System.out.println(productIds.get(i) + ": " + result.rows(i).size() + " rows");
+          } else {
+            System.out.println(productIds.get(i) + " failed: " + result.cause(i).getMessage());
+          }
+        }
+      }
+    });
+  }
+
+  public void coalesceReads(Vertx vertx, PreparedStatement selectProduct, String productId) {
+    CassandraClientOptions options = new CassandraClientOptions()
+      .setCoalesceReads(true);
+    CassandraClient cassandraClient = CassandraClient.createShared(vertx, options);
+
+    // Concurrent executions for the same product are sent once
+    cassandraClient.execute(selectProduct.bind(productId), ar -> {
+      if (ar.succeeded()) {
+        Row product = ar.result().one();
+      }
+    });
+  }
+
   public void batching(CassandraClient cassandraClient) {
     BatchStatement batchStatement = BatchStatement.newInstance(BatchType.LOGGED)
       .add(SimpleStatement.newInstance("INSERT INTO NAMES (name) VALUES ('Pavel')"))
@@ -189,4 +467,130 @@ public class CassandraClientExamples {
     });
   }
 
+  public void counterAggregation(Vertx vertx, CassandraClient cassandraClient) {
+    CounterAggregatorOptions options = new CounterAggregatorOptions()
+      .setFlushInterval(500)
+      .setMaxConcurrentWrites(16);
+    String update = "UPDATE stats.views_by_page SET views = views + ? WHERE page = ? AND day = ?";
+    CounterAggregator aggregator = CounterAggregator.create(vertx, cassandraClient, update, options);
+
+    aggregator.exceptionHandler(Throwable::printStackTrace);
+
+    // increment the counter, the update is sent later
+    aggregator.increment(Arrays.asList("/index.html", 20191231), 1);
+  }
+
+  public void writeBehind(Vertx vertx, CassandraClient cassandraClient, PreparedStatement upsertDeviceState) {
+    WriteBehindOptions options = new WriteBehindOptions()
+      .setFlushInterval(50)
+      .setMaxBufferedWrites(5000);
+    WriteBehindBuffer buffer = WriteBehindBuffer.create(vertx, cassandraClient, options);
+
+    buffer.write(upsertDeviceState.bind("device-42", "ONLINE"), ar -> {
+      if (ar.succeeded()) {
+        System.out.println("Device state persisted");
+      } else {
+        ar.cause().printStackTrace();
+      }
+    });
+  }
+
+  public void partitionReader(Vertx vertx, CassandraClient cassandraClient) {
+    PartitionReaderOptions options = new PartitionReaderOptions()
+      .setTable("events.by_tenant")
+      .addPartitionKeyColumn("tenant_id")
+      .addClusteringColumn("event_time")
+      .addClusteringColumn("event_id");
+    PartitionReader reader = PartitionReader.create(vertx, cassandraClient, options);
+
+    // the whole partition, slice after slice
+    reader.read(Collections.singletonList("tenant-1"))
+      .handler(row -> System.out.println(row.getString("event_id")))
+      .exceptionHandler(Throwable::printStackTrace)
+      .endHandler(v -> System.out.println("Done"));
+
+    // one range per quarter, read in parallel
+    List<List<Object>> splits = Arrays.asList(
+      Arrays.asList(Instant.parse("2020-04-01T00:00:00Z"), ""),
+      Arrays.asList(Instant.parse("2020-07-01T00:00:00Z"), ""),
+      Arrays.asList(Instant.parse("2020-10-01T00:00:00Z"), ""));
+    reader.read(Collections.singletonList("tenant-1"), splits)
+      .handler(row -> System.out.println(row.getString("event_id")))
+      .endHandler(v -> System.out.println("Done"));
+  }
+
+  public void timeSeries(Vertx vertx, CassandraClient cassandraClient) {
+    TimeSeriesOptions options = new TimeSeriesOptions()
+      .setTable("metrics.samples")
+      .addValueColumn("value")
+      // one partition per series and per hour
+      .setBucketGranularity(60 * 60 * 1000);
+    TimeSeriesWriter writer = TimeSeriesWriter.create(vertx, cassandraClient, options);
+
+    writer.append("cpu.host-1", System.currentTimeMillis(), Collections.singletonList(0.42), ar -> {
+      if (ar.failed()) {
+        ar.cause().printStackTrace();
+      }
+    });
+
+    // the points of the last 24 hours, bucket after bucket
+    long now = System.currentTimeMillis();
+    TimeSeriesReader reader = TimeSeriesReader.create(vertx, cassandraClient, options);
+    reader.read("cpu.host-1", now - 24 * 60 * 60 * 1000, now)
+      .handler(row -> System.out.println(row.getInstant("ts") + " " + row.getDouble("value")))
+      .endHandler(v -> System.out.println("Done"));
+  }
+
+  public void timeSeriesTail(Vertx vertx, CassandraClient cassandraClient) {
+    TimeSeriesOptions options = new TimeSeriesOptions()
+      .setTable("audit.events")
+      .setTimestampColumn("event_id")
+      .addValueColumn("payload")
+      .setBucketGranularity(60 * 60 * 1000)
+      .setMaxPollInterval(1000);
+    TimeSeriesReader reader = TimeSeriesReader.create(vertx, cassandraClient, options);
+
+    // the events of the last minute, then new events as they are written
+    ReadStream<Row> tail = reader.tail("tenant-1", System.currentTimeMillis() - 60 * 1000);
+    tail.handler(row -> System.out.println(row.getUuid("event_id") + " " + row.getString("payload")))
+      .exceptionHandler(Throwable::printStackTrace);
+  }
+
+  public void tableDump(Vertx vertx, CassandraClient cassandraClient) {
+    TableDump tableDump = TableDump.create(vertx, cassandraClient, new TableDumpOptions().setPageSize(1000));
+
+    tableDump.dump("stats", "views_by_page", "views_by_page.dump")
+      .flatMap(rows -> {
+        System.out.println(rows + " rows dumped");
+        // restore the dump to another table with the same columns
+        return tableDump.restore("views_by_page.dump", "stats", "views_by_page_copy");
+      })
+      .onComplete(ar -> {
+        if (ar.succeeded()) {
+          System.out.println(ar.result() + " rows restored");
+        } else {
+          ar.cause().printStackTrace();
+        }
+      });
+  }
+
+  public void blobStore(Vertx vertx, CassandraClient cassandraClient, HttpServerResponse response) {
+    BlobStoreOptions options = new BlobStoreOptions()
+      .setTable("files.chunks")
+      .setChunkSize(256 * 1024);
+    BlobStore blobStore = BlobStore.create(vertx, cassandraClient, options);
+
+    vertx.fileSystem().open("report.pdf", new OpenOptions().setRead(true))
+      .flatMap(file -> blobStore.write("reports/2020/report.pdf", file))
+      .onComplete(ar -> {
+        if (ar.succeeded()) {
+          System.out.println(ar.result() + " bytes stored");
+        } else {
+          ar.cause().printStackTrace();
+        }
+      });
+
+    // serve a blob chunk by chunk
+    blobStore.read("reports/2020/report.pdf").pipeTo(response);
+  }
 }
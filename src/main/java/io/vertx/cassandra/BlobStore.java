@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.cassandra.impl.BlobStoreImpl;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+
+/**
+ * Stores large binary objects as rows of fixed-size chunks, streamed in and out without holding a whole blob in memory.
+ * <p>
+ * A blob is written to its own partition, one row per chunk, and its number of chunks and length are written in static
+ * columns once all the chunks have been written. Writing a blob replaces the chunks written before with the same key.
+ * Blobs are not written atomically: a blob being written again may be read with chunks of both versions, and a failed
+ * write leaves the blob partially written until it is written again or deleted.
+ */
+@VertxGen
+public interface BlobStore {
+
+  /**
+   * Create a blob store.
+   *
+   * @param vertx   the Vert.x instance
+   * @param client  the client used to execute queries
+   * @param options the options
+   * @return the blob store
+   */
+  static BlobStore create(Vertx vertx, CassandraClient client, BlobStoreOptions options) {
+    return new BlobStoreImpl(vertx, client, options);
+  }
+
+  /**
+   * Create a stream writing a blob.
+   * <p>
+   * Data is split in chunks of {@link BlobStoreOptions#getChunkSize()} bytes, each one written as soon as it is full.
+   * When {@link BlobStoreOptions#getMaxConcurrentWrites()} chunks are being written, {@code writeQueueFull} returns
+   * {@code true}. When the stream is ended, the last chunk is written, then the number of chunks and the length of the
+   * blob, and chunks left by a previous, longer, blob are deleted.
+   *
+   * @param key the key of the blob, bound to the key column
+   * @return the stream
+   */
+  WriteStream<Buffer> writeStream(Object key);
+
+  /**
+   * Write a blob from a stream, pausing the stream while chunks are being written.
+   *
+   * @param key  the key of the blob, bound to the key column
+   * @param data the data of the blob
+   * @return a future completed with the number of bytes written when the blob has been written
+   */
+  Future<Long> write(Object key, ReadStream<Buffer> data);
+
+  /**
+   * Read a blob, chunk after chunk.
+   * <p>
+   * The number of chunks and the length of the blob are read first. Up to {@link BlobStoreOptions#getPrefetch()} chunks
+   * are then read ahead, including the chunks not emitted yet. Each chunk is emitted as a buffer wrapping the bytes
+   * received from the server, without copying them. A blob which does not exist is read as an empty stream. The stream
+   * fails if a chunk is missing, if the chunks do not add up to the length of the blob, or if the number of chunks has
+   * not been written.
+   *
+   * @param key the key of the blob, bound to the key column
+   * @return the stream of chunks
+   */
+  ReadStream<Buffer> read(Object key);
+
+  /**
+   * Delete a blob.
+   *
+   * @param key the key of the blob, bound to the key column
+   * @return a future completed when the blob has been deleted
+   */
+  Future<Void> delete(Object key);
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for {@link BlobStore}.
+ * <p>
+ * The table must be partitioned by blob key, and clustered by chunk index, with two static columns holding the number
+ * of chunks and the length of the blob, e.g.
+ * <pre>
+ * CREATE TABLE files.chunks (blob_id text, chunk int, data blob, chunk_count int static, length bigint static,
+ *   PRIMARY KEY (blob_id, chunk))
+ * </pre>
+ */
+@DataObject(generateConverter = true)
+public class BlobStoreOptions {
+
+  /**
+   * The default name of the key column = {@code blob_id}
+   */
+  public static final String DEFAULT_KEY_COLUMN = "blob_id";
+
+  /**
+   * The default name of the chunk index column = {@code chunk}
+   */
+  public static final String DEFAULT_CHUNK_COLUMN = "chunk";
+
+  /**
+   * The default name of the data column = {@code data}
+   */
+  public static final String DEFAULT_DATA_COLUMN = "data";
+
+  /**
+   * The default name of the chunk count column = {@code chunk_count}
+   */
+  public static final String DEFAULT_CHUNK_COUNT_COLUMN = "chunk_count";
+
+  /**
+   * The default name of the length column = {@code length}
+   */
+  public static final String DEFAULT_LENGTH_COLUMN = "length";
+
+  /**
+   * Default size of a chunk, in bytes = 512 KiB.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 512 * 1024;
+
+  /**
+   * Default maximum number of chunks being written.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_WRITES = 4;
+
+  /**
+   * Default number of chunks read ahead.
+   */
+  public static final int DEFAULT_PREFETCH = 4;
+
+  private String table;
+  private String keyColumn;
+  private String chunkColumn;
+  private String dataColumn;
+  private String chunkCountColumn;
+  private String lengthColumn;
+  private int chunkSize;
+  private int maxConcurrentWrites;
+  private int prefetch;
+
+  /**
+   * Default constructor.
+   */
+  public BlobStoreOptions() {
+    keyColumn = DEFAULT_KEY_COLUMN;
+    chunkColumn = DEFAULT_CHUNK_COLUMN;
+    dataColumn = DEFAULT_DATA_COLUMN;
+    chunkCountColumn = DEFAULT_CHUNK_COUNT_COLUMN;
+    lengthColumn = DEFAULT_LENGTH_COLUMN;
+    chunkSize = DEFAULT_CHUNK_SIZE;
+    maxConcurrentWrites = DEFAULT_MAX_CONCURRENT_WRITES;
+    prefetch = DEFAULT_PREFETCH;
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy from
+   */
+  public BlobStoreOptions(BlobStoreOptions other) {
+    table = other.table;
+    keyColumn = other.keyColumn;
+    chunkColumn = other.chunkColumn;
+    dataColumn = other.dataColumn;
+    chunkCountColumn = other.chunkCountColumn;
+    lengthColumn = other.lengthColumn;
+    chunkSize = other.chunkSize;
+    maxConcurrentWrites = other.maxConcurrentWrites;
+    prefetch = other.prefetch;
+  }
+
+  /**
+   * Constructor to create options from JSON.
+   *
+   * @param json the JSON
+   */
+  public BlobStoreOptions(JsonObject json) {
+    this();
+    BlobStoreOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return a JSON representation of these options
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    BlobStoreOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the table, possibly qualified with its keyspace
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Set the table, possibly qualified with its keyspace. Required.
+   *
+   * @param table the table
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BlobStoreOptions setTable(String table) {
+    this.table = table;
+    return this;
+  }
+
+  /**
+   * @return the name of the key column
+   */
+  public String getKeyColumn() {
+    return keyColumn;
+  }
+
+  /**
+   * Set the name of the key column, the partition key. Defaults to {@code blob_id}.
+   *
+   * @param keyColumn the name of the key column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BlobStoreOptions setKeyColumn(String keyColumn) {
+    this.keyColumn = keyColumn;
+    return this;
+  }
+
+  /**
+   * @return the name of the chunk index column
+   */
+  public String getChunkColumn() {
+    return chunkColumn;
+  }
+
+  /**
+   * Set the name of the chunk index column, an {@code int} clustering column. Defaults to {@code chunk}.
+   *
+   * @param chunkColumn the name of the chunk index column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BlobStoreOptions setChunkColumn(String chunkColumn) {
+    this.chunkColumn = chunkColumn;
+    return this;
+  }
+
+  /**
+   * @return the name of the data column
+   */
+  public String getDataColumn() {
+    return dataColumn;
+  }
+
+  /**
+   * Set the name of the data column, a {@code blob} column. Defaults to {@code data}.
+   *
+   * @param dataColumn the name of the data column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BlobStoreOptions setDataColumn(String dataColumn) {
+    this.dataColumn = dataColumn;
+    return this;
+  }
+
+  /**
+   * @return the name of the chunk count column
+   */
+  public String getChunkCountColumn() {
+    return chunkCountColumn;
+  }
+
+  /**
+   * Set the name of the chunk count column, a static {@code int} column. Defaults to {@code chunk_count}.
+   * <p>
+   * The number of chunks is written when all the chunks of the blob have been written, readers read no chunk beyond.
+   *
+   * @param chunkCountColumn the name of the chunk count column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BlobStoreOptions setChunkCountColumn(String chunkCountColumn) {
+    this.chunkCountColumn = chunkCountColumn;
+    return this;
+  }
+
+  /**
+   * @return the name of the length column
+   */
+  public String getLengthColumn() {
+    return lengthColumn;
+  }
+
+  /**
+   * Set the name of the length column, a static {@code bigint} column holding the number of bytes of the blob. Defaults
+   * to {@code length}.
+   *
+   * @param lengthColumn the name of the length column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BlobStoreOptions setLengthColumn(String lengthColumn) {
+    this.lengthColumn = lengthColumn;
+    return this;
+  }
+
+  /**
+   * @return the size of a chunk, in bytes
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Set the size of a chunk, in bytes. Defaults to 512 KiB.
+   * <p>
+   * All the chunks of a blob have this size, except the last one. Readers hold at most {@link #getPrefetch()} chunks
+   * and writers at most {@link #getMaxConcurrentWrites()} chunks, plus the one being filled.
+   *
+   * @param chunkSize the size of a chunk, in bytes
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BlobStoreOptions setChunkSize(int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("chunkSize must be strictly positive");
+    }
+    this.chunkSize = chunkSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of chunks being written
+   */
+  public int getMaxConcurrentWrites() {
+    return maxConcurrentWrites;
+  }
+
+  /**
+   * Set the maximum number of chunks being written by a writer. Defaults to {@code 4}.
+   * <p>
+   * When the limit is reached, {@code writeQueueFull} returns {@code true}.
+   *
+   * @param maxConcurrentWrites the maximum number of chunks being written
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BlobStoreOptions setMaxConcurrentWrites(int maxConcurrentWrites) {
+    if (maxConcurrentWrites < 1) {
+      throw new IllegalArgumentException("maxConcurrentWrites must be strictly positive");
+    }
+    this.maxConcurrentWrites = maxConcurrentWrites;
+    return this;
+  }
+
+  /**
+   * @return the number of chunks read ahead
+   */
+  public int getPrefetch() {
+    return prefetch;
+  }
+
+  /**
+   * Set the number of chunks read ahead by a reader, including the chunks not emitted yet. Defaults to {@code 4}.
+   *
+   * @param prefetch the number of chunks read ahead
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BlobStoreOptions setPrefetch(int prefetch) {
+    if (prefetch < 1) {
+      throw new IllegalArgumentException("prefetch must be strictly positive");
+    }
+    this.prefetch = prefetch;
+    return this;
+  }
+}
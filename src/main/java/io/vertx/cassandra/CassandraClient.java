@@ -28,7 +28,9 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collector;
@@ -252,6 +254,24 @@ public interface CassandraClient {
   @GenIgnore(GenIgnore.PERMITTED_TYPE)
   Future<PreparedStatement> prepare(SimpleStatement statement);
 
+  /**
+   * Prepares the provided query string and resolves the codecs of its variables.
+   *
+   * @param query the query to prepare
+   * @param resultHandler handler called when result of query preparation is present
+   *
+   * @return current Cassandra client instance
+   */
+  @GenIgnore
+  @Fluent
+  CassandraClient prepareQuery(String query, Handler<AsyncResult<PreparedQuery>> resultHandler);
+
+  /**
+   * Like {@link #prepareQuery(String, Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  @GenIgnore
+  Future<PreparedQuery> prepareQuery(String query);
+
   /**
    * Executes the given SQL <code>SELECT</code> statement which returns the results of the query as a read stream.
    *
@@ -286,6 +306,121 @@ public interface CassandraClient {
   @GenIgnore(GenIgnore.PERMITTED_TYPE)
   Future<CassandraRowStream> queryStream(Statement statement);
 
+  /**
+   * Executes the given statement and streams the results as one {@link ColumnarBatch} per page.
+   * <p>
+   * While a batch is processed, the next page is fetched in the background.
+   *
+   * @param statement the statement to execute
+   * @param batchStreamHandler the handler which is called once the operation completes
+   *
+   * @return current Cassandra client instance
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  @Fluent
+  CassandraClient columnarStream(Statement statement, Handler<AsyncResult<ReadStream<ColumnarBatch>>> batchStreamHandler);
+
+  /**
+   * Like {@link #columnarStream(Statement, Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  Future<ReadStream<ColumnarBatch>> columnarStream(Statement statement);
+
+  /**
+   * Executes a prepared statement once per set of values, e.g. once per partition key instead of a single
+   * {@code IN} query, and fetches all the rows of each execution.
+   * <p>
+   * At most {@code concurrency} executions are in flight. Bound statements carry the routing key of the partition, so
+   * that each execution is sent to a replica of its partition. The future succeeds when all the executions are done,
+   * whether they succeeded or not: failures are reported per set of values in the result.
+   *
+   * @param preparedStatement the statement to execute
+   * @param values the values to bind, one list per execution
+   * @param concurrency the max number of executions in flight
+   * @param resultHandler the handler which is called once the operation completes
+   *
+   * @return current Cassandra client instance
+   */
+  @GenIgnore
+  @Fluent
+  CassandraClient executeAll(PreparedStatement preparedStatement, List<? extends List<?>> values, int concurrency, Handler<AsyncResult<FanOutResult>> resultHandler);
+
+  /**
+   * Like {@link #executeAll(PreparedStatement, List, int, Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  @GenIgnore
+  Future<FanOutResult> executeAll(PreparedStatement preparedStatement, List<? extends List<?>> values, int concurrency);
+
+  /**
+   * Like {@link #executeAll(PreparedStatement, List, int, Handler)} but streams the rows as executions complete.
+   * <p>
+   * Rows of an execution are emitted together, executions in completion order. The executions start when a handler is
+   * set, and no new execution starts while the stream is paused. The stream fails with the first failed execution.
+   *
+   * @param preparedStatement the statement to execute
+   * @param values the values to bind, one list per execution
+   * @param concurrency the max number of executions in flight
+   * @return the stream of rows
+   */
+  @GenIgnore
+  ReadStream<Row> executeAllStream(PreparedStatement preparedStatement, List<? extends List<?>> values, int concurrency);
+
+  /**
+   * Executes the given statements concurrently and merges their results into a single stream, ordered by
+   * {@code comparator}.
+   * <p>
+   * The results of each statement must already be ordered by {@code comparator}, e.g. when each statement reads a
+   * single partition ordered by clustering key. Up to two pages of each statement are held in memory: as soon as a page
+   * is loaded, the next one is fetched while the rows of the first are merged, and the stream only waits for a page
+   * which has not arrived yet when the previous one has been consumed.
+   *
+   * @param statements the statements to execute
+   * @param comparator the order of the rows
+   * @param limit the max number of rows to emit across all statements, {@code 0} meaning no limit
+   * @param rowStreamHandler the handler which is called once the operation completes
+   *
+   * @return current Cassandra client instance
+   */
+  @GenIgnore
+  @Fluent
+  CassandraClient mergedStream(List<Statement> statements, Comparator<Row> comparator, long limit, Handler<AsyncResult<ReadStream<Row>>> rowStreamHandler);
+
+  /**
+   * Like {@link #mergedStream(List, Comparator, long, Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  @GenIgnore
+  Future<ReadStream<Row>> mergedStream(List<Statement> statements, Comparator<Row> comparator, long limit);
+
+  /**
+   * Get a view of this client executing statements in another keyspace, over the same session.
+   * <p>
+   * The table of simple statements and of prepared queries is qualified with the keyspace, unless it is already
+   * qualified or the statement has a keyspace. When the table cannot be found in the query, the keyspace of the
+   * statement is set instead, which requires protocol v5. Prepared statements are cached per keyspace.
+   * <p>
+   * Views are lightweight and can be created per request. Closing a view has no effect: the session is closed with
+   * this client.
+   *
+   * @param keyspace the keyspace, as in CQL: quote it if it is case-sensitive
+   * @return the view
+   */
+  CassandraClient withKeyspace(String keyspace);
+
+  /**
+   * Get a view of this client bounding every call by a deadline, over the same session.
+   * <p>
+   * The deadline starts when the call is made and covers all the pages of the call, including the time spent waiting
+   * for the memory budget. The request timeout of each page is reduced to the time left, and a page fetch still in
+   * progress when the deadline passes is cancelled. Calls that exceed the deadline fail with a
+   * {@link com.datastax.oss.driver.api.core.DriverTimeoutException}.
+   * <p>
+   * Views are lightweight and can be created per request. The keyspace of a {@link #withKeyspace(String)} view is kept.
+   *
+   * @param timeout the timeout in milliseconds, {@code 0} for no deadline
+   * @return the view
+   */
+  CassandraClient withTimeout(long timeout);
+
   /**
    * Like {@link #close(Handler)} but returns a {@code Future} of the asynchronous result.
    */
@@ -18,10 +18,13 @@ package io.vertx.cassandra;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.CqlSessionBuilder;
 import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.core.json.JsonObject;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Eclipse Vert.x Cassandra client options.
@@ -42,8 +45,57 @@ public class CassandraClientOptions {
    */
   public static final String DEFAULT_HOST = "localhost";
 
+  /**
+   * Default value of packed rows = {@code false}
+   */
+  public static final boolean DEFAULT_PACKED_ROWS = false;
+
+  /**
+   * Default max buffered bytes = {@code 0} (unlimited)
+   */
+  public static final long DEFAULT_MAX_BUFFERED_BYTES = 0;
+
+  /**
+   * Default admission timeout = {@code 1000} ms
+   */
+  public static final long DEFAULT_ADMISSION_TIMEOUT = 1000;
+
+  /**
+   * Default paused stream timeout = {@code 0} (disabled)
+   */
+  public static final long DEFAULT_PAUSED_STREAM_TIMEOUT = 0;
+
+  /**
+   * Default value of coalesce reads = {@code false}
+   */
+  public static final boolean DEFAULT_COALESCE_READS = false;
+
+  /**
+   * Default auto-prepare threshold = {@code 0} (disabled)
+   */
+  public static final int DEFAULT_AUTO_PREPARE_THRESHOLD = 0;
+
+  /**
+   * Default max auto-prepared statements = {@code 1000}
+   */
+  public static final int DEFAULT_MAX_AUTO_PREPARED_STATEMENTS = 1000;
+
+  /**
+   * Default collector parallelism = {@code 0}
+   */
+  public static final int DEFAULT_COLLECTOR_PARALLELISM = 0;
+
   private CqlSessionBuilder builder;
   private String keyspace;
+  private List<CassandraInterceptor> interceptors = new ArrayList<>();
+  private boolean packedRows = DEFAULT_PACKED_ROWS;
+  private long maxBufferedBytes = DEFAULT_MAX_BUFFERED_BYTES;
+  private long admissionTimeout = DEFAULT_ADMISSION_TIMEOUT;
+  private long pausedStreamTimeout = DEFAULT_PAUSED_STREAM_TIMEOUT;
+  private boolean coalesceReads = DEFAULT_COALESCE_READS;
+  private int autoPrepareThreshold = DEFAULT_AUTO_PREPARE_THRESHOLD;
+  private int maxAutoPreparedStatements = DEFAULT_MAX_AUTO_PREPARED_STATEMENTS;
+  private int collectorParallelism = DEFAULT_COLLECTOR_PARALLELISM;
 
   /**
    * Default constructor.
@@ -59,6 +111,15 @@ public class CassandraClientOptions {
   public CassandraClientOptions(CassandraClientOptions other) {
     this(other.dataStaxClusterBuilder());
     this.setKeyspace(other.getKeyspace());
+    this.interceptors = new ArrayList<>(other.interceptors);
+    this.packedRows = other.packedRows;
+    this.maxBufferedBytes = other.maxBufferedBytes;
+    this.admissionTimeout = other.admissionTimeout;
+    this.pausedStreamTimeout = other.pausedStreamTimeout;
+    this.coalesceReads = other.coalesceReads;
+    this.autoPrepareThreshold = other.autoPrepareThreshold;
+    this.maxAutoPreparedStatements = other.maxAutoPreparedStatements;
+    this.collectorParallelism = other.collectorParallelism;
   }
 
   /**
@@ -136,4 +197,227 @@ public class CassandraClientOptions {
     builder.withKeyspace(keyspace);
     return this;
   }
+
+  /**
+   * @return whether rows fetched all at once are packed
+   */
+  public boolean isPackedRows() {
+    return packedRows;
+  }
+
+  /**
+   * Set whether the rows returned by {@link CassandraClient#executeWithFullFetch(String)} and
+   * {@link ResultSet#all()} are packed in a compact representation, see {@link PackedRows}. Defaults to
+   * {@code false}.
+   * <p>
+   * Packed rows use less memory than the rows provided by the driver, which matters when they are retained.
+   *
+   * @param packedRows {@code true} to pack rows
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CassandraClientOptions setPackedRows(boolean packedRows) {
+    this.packedRows = packedRows;
+    return this;
+  }
+
+  /**
+   * @return the max number of bytes of results buffered by the client
+   */
+  public long getMaxBufferedBytes() {
+    return maxBufferedBytes;
+  }
+
+  /**
+   * Set the max number of bytes of results buffered by the client, {@code 0} meaning unlimited. Defaults to
+   * {@code 0}.
+   * <p>
+   * The size of results is estimated from the size of the pages received from the server. When the limit is reached,
+   * bulk fetching, collector and streaming queries wait for bytes to be released, up to the
+   * {@link #setAdmissionTimeout(long) admission timeout}. Operations in progress are not limited, so the actual usage
+   * can exceed the limit.
+   *
+   * @param maxBufferedBytes the max number of bytes
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CassandraClientOptions setMaxBufferedBytes(long maxBufferedBytes) {
+    if (maxBufferedBytes < 0) {
+      throw new IllegalArgumentException("maxBufferedBytes must be positive or zero");
+    }
+    this.maxBufferedBytes = maxBufferedBytes;
+    return this;
+  }
+
+  /**
+   * @return the max time, in ms, an operation waits for buffered bytes to be released
+   */
+  public long getAdmissionTimeout() {
+    return admissionTimeout;
+  }
+
+  /**
+   * Set the max time, in ms, an operation waits for buffered bytes to be released when the
+   * {@link #setMaxBufferedBytes(long) limit} is reached, before failing. Set to {@code 0} to fail immediately.
+   * Defaults to {@code 1000}.
+   *
+   * @param admissionTimeout the timeout, in ms
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CassandraClientOptions setAdmissionTimeout(long admissionTimeout) {
+    if (admissionTimeout < 0) {
+      throw new IllegalArgumentException("admissionTimeout must be positive or zero");
+    }
+    this.admissionTimeout = admissionTimeout;
+    return this;
+  }
+
+  /**
+   * @return the max time, in ms, a stream can stay paused when the buffered bytes are limited
+   */
+  public long getPausedStreamTimeout() {
+    return pausedStreamTimeout;
+  }
+
+  /**
+   * Set the max time, in ms, a stream can stay paused when the {@link #setMaxBufferedBytes(long) buffered bytes} are
+   * limited, {@code 0} meaning no limit. Defaults to {@code 0}.
+   * <p>
+   * When a stream stays paused for longer, its buffered rows are released and the stream fails.
+   *
+   * @param pausedStreamTimeout the timeout, in ms
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CassandraClientOptions setPausedStreamTimeout(long pausedStreamTimeout) {
+    if (pausedStreamTimeout < 0) {
+      throw new IllegalArgumentException("pausedStreamTimeout must be positive or zero");
+    }
+    this.pausedStreamTimeout = pausedStreamTimeout;
+    return this;
+  }
+
+  /**
+   * @return whether identical concurrent reads are coalesced
+   */
+  public boolean isCoalesceReads() {
+    return coalesceReads;
+  }
+
+  /**
+   * Set whether identical concurrent reads are coalesced. Defaults to {@code false}.
+   * <p>
+   * While a prepared {@code SELECT} is in flight, executions of the same prepared statement with the same bound
+   * values, consistency level, execution profile, page size and paging state get the same result instead of being
+   * sent to the cluster. The rows of the first page are shared and must not be modified.
+   *
+   * @param coalesceReads {@code true} to coalesce reads
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CassandraClientOptions setCoalesceReads(boolean coalesceReads) {
+    this.coalesceReads = coalesceReads;
+    return this;
+  }
+
+  /**
+   * @return the number of executions of a simple statement after which it is prepared, {@code 0} if disabled
+   */
+  public int getAutoPrepareThreshold() {
+    return autoPrepareThreshold;
+  }
+
+  /**
+   * Set the number of executions of a simple statement after which it is prepared, {@code 0} meaning never.
+   * Defaults to {@code 0}.
+   * <p>
+   * Simple statements without values or with positional values are counted by query string. Once the threshold has
+   * been reached, the statement is prepared in the background, and later executions are sent as bound statements.
+   * Statements with named values, a keyspace or a paging state are always executed as is.
+   *
+   * @param autoPrepareThreshold the number of executions
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CassandraClientOptions setAutoPrepareThreshold(int autoPrepareThreshold) {
+    if (autoPrepareThreshold < 0) {
+      throw new IllegalArgumentException("autoPrepareThreshold must be positive or zero");
+    }
+    this.autoPrepareThreshold = autoPrepareThreshold;
+    return this;
+  }
+
+  /**
+   * @return the max number of simple statements tracked for auto-prepare
+   */
+  public int getMaxAutoPreparedStatements() {
+    return maxAutoPreparedStatements;
+  }
+
+  /**
+   * Set the max number of simple statements tracked for {@link #setAutoPrepareThreshold(int) auto-prepare}, whether
+   * they have been prepared or not. The least recently executed statements are evicted first. Defaults to
+   * {@code 1000}.
+   *
+   * @param maxAutoPreparedStatements the max number of statements
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CassandraClientOptions setMaxAutoPreparedStatements(int maxAutoPreparedStatements) {
+    if (maxAutoPreparedStatements < 1) {
+      throw new IllegalArgumentException("maxAutoPreparedStatements must be strictly positive");
+    }
+    this.maxAutoPreparedStatements = maxAutoPreparedStatements;
+    return this;
+  }
+
+  /**
+   * @return the number of pages accumulated in parallel on the worker pool by collector queries, {@code 0} if rows are
+   * accumulated on the event loop
+   */
+  public int getCollectorParallelism() {
+    return collectorParallelism;
+  }
+
+  /**
+   * Set the number of pages accumulated in parallel on the worker pool by collector queries, {@code 0} meaning rows
+   * are accumulated on the event loop as they are received. Defaults to {@code 0}.
+   * <p>
+   * When set, the rows of each page are accumulated in a separate container on the worker pool while the next page is
+   * fetched, and the containers are merged in page order with the combiner of the collector. Use it with collectors
+   * doing CPU-heavy work per row. No page is fetched while this number of pages are being accumulated.
+   *
+   * @param collectorParallelism the number of pages
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CassandraClientOptions setCollectorParallelism(int collectorParallelism) {
+    if (collectorParallelism < 0) {
+      throw new IllegalArgumentException("collectorParallelism must be positive or zero");
+    }
+    this.collectorParallelism = collectorParallelism;
+    return this;
+  }
+
+  /**
+   * @return the interceptors invoked when executing statements
+   */
+  @GenIgnore
+  public List<CassandraInterceptor> getInterceptors() {
+    return interceptors;
+  }
+
+  /**
+   * Add an interceptor invoked when executing statements. Interceptors are invoked in the order they were added.
+   *
+   * @param interceptor the interceptor
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  @GenIgnore
+  public CassandraClientOptions addInterceptor(CassandraInterceptor interceptor) {
+    interceptors.add(Objects.requireNonNull(interceptor, "interceptor"));
+    return this;
+  }
 }
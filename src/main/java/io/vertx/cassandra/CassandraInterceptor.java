@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.core.Future;
+
+/**
+ * Intercepts the statements executed by a {@link CassandraClient}.
+ * <p>
+ * Interceptors are installed with {@link CassandraClientOptions#addInterceptor(CassandraInterceptor)} and invoked in
+ * the order they were added. They are invoked on the context of the caller and must not block.
+ * <p>
+ * Both methods have a pass-through default implementation, so that an interceptor only overrides what it needs.
+ */
+public interface CassandraInterceptor {
+
+  /**
+   * Invoked before a statement is executed.
+   * <p>
+   * Implementations continue the execution by invoking {@code next}, possibly with a different statement, e.g. to
+   * change the execution profile or the timeout. They can also short-circuit the execution by returning a future of
+   * their own, e.g. when the result is cached.
+   *
+   * @param statement the statement to execute
+   * @param next      the rest of the interceptor chain, ending with the execution of the statement by the driver
+   * @return the future result of the execution
+   */
+  default Future<AsyncResultSet> execute(Statement statement, Execution next) {
+    return next.execute(statement);
+  }
+
+  /**
+   * Invoked when a page of results has been received, including the first one.
+   *
+   * @param statement the statement executed by the client, as provided by the caller
+   * @param page      the page
+   * @return the page to hand over to the next interceptor, and eventually to the caller
+   */
+  default AsyncResultSet page(Statement statement, AsyncResultSet page) {
+    return page;
+  }
+
+  /**
+   * The rest of an interceptor chain.
+   */
+  @FunctionalInterface
+  interface Execution {
+
+    /**
+     * Continue the execution of a statement.
+     *
+     * @param statement the statement to execute
+     * @return the future result of the execution
+     */
+    Future<AsyncResultSet> execute(Statement statement);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A page of results decoded into column-oriented arrays.
+ * <p>
+ * Numeric columns are decoded straight into primitive arrays, without boxing:
+ * <ul>
+ *   <li>{@code bigint}, {@code counter}, {@code timestamp} (milliseconds since the epoch) and {@code time}
+ *   (nanoseconds since midnight) columns into a {@code long[]},</li>
+ *   <li>{@code int}, {@code smallint} and {@code tinyint} columns into an {@code int[]},</li>
+ *   <li>{@code double} and {@code float} columns into a {@code double[]}.</li>
+ * </ul>
+ * {@code text} and {@code ascii} columns are dictionary-encoded: each row holds the index of its value in the
+ * dictionary of the batch. Other columns are decoded into an {@code Object[]}.
+ * <p>
+ * The value of a null cell in a primitive array is {@code 0}, use {@link #isNull(int, int)} or {@link #nulls(int)} to
+ * tell them apart.
+ */
+public interface ColumnarBatch {
+
+  /**
+   * How a column is stored in the batch.
+   */
+  enum ColumnType {
+    LONG, INT, DOUBLE, TEXT, OBJECT
+  }
+
+  /**
+   * @return the definitions of the columns of this batch
+   */
+  ColumnDefinitions columnDefinitions();
+
+  /**
+   * @return the number of rows in this batch
+   */
+  int size();
+
+  /**
+   * @param column the column index
+   * @return how the column is stored
+   */
+  ColumnType columnType(int column);
+
+  /**
+   * @param column the column index
+   * @return the rows where the column is null, must not be modified
+   */
+  BitSet nulls(int column);
+
+  /**
+   * @param column the column index
+   * @param row    the row index
+   * @return whether the value is null
+   */
+  boolean isNull(int column, int row);
+
+  /**
+   * @param column the index of a {@link ColumnType#LONG} column
+   * @return the column values, must not be modified
+   * @throws IllegalArgumentException if the column is not stored as {@link ColumnType#LONG}
+   */
+  long[] longs(int column);
+
+  /**
+   * @param column the index of a {@link ColumnType#INT} column
+   * @return the column values, must not be modified
+   * @throws IllegalArgumentException if the column is not stored as {@link ColumnType#INT}
+   */
+  int[] ints(int column);
+
+  /**
+   * @param column the index of a {@link ColumnType#DOUBLE} column
+   * @return the column values, must not be modified
+   * @throws IllegalArgumentException if the column is not stored as {@link ColumnType#DOUBLE}
+   */
+  double[] doubles(int column);
+
+  /**
+   * @param column the index of a {@link ColumnType#TEXT} column
+   * @return the dictionary index of each row, {@code -1} for null values, must not be modified
+   * @throws IllegalArgumentException if the column is not stored as {@link ColumnType#TEXT}
+   */
+  int[] textCodes(int column);
+
+  /**
+   * @param column the index of a {@link ColumnType#TEXT} column
+   * @return the distinct values of the column in this batch
+   * @throws IllegalArgumentException if the column is not stored as {@link ColumnType#TEXT}
+   */
+  List<String> textDictionary(int column);
+
+  /**
+   * @param column the index of a {@link ColumnType#OBJECT} column
+   * @return the column values, must not be modified
+   * @throws IllegalArgumentException if the column is not stored as {@link ColumnType#OBJECT}
+   */
+  Object[] objects(int column);
+
+  /**
+   * @param column the index of a {@link ColumnType#TEXT} column
+   * @param row    the row index
+   * @return the value, or {@code null}
+   */
+  default String text(int column, int row) {
+    int code = textCodes(column)[row];
+    return code < 0 ? null : textDictionary(column).get(code);
+  }
+}
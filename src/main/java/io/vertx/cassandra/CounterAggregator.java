@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.cassandra.impl.CounterAggregatorImpl;
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.List;
+
+/**
+ * Sums counter increments in memory and writes them to Cassandra periodically.
+ * <p>
+ * The aggregator is created with a counter update statement, where the first bind marker is the delta and the
+ * following ones identify the counter, e.g. {@code UPDATE stats.views SET count = count + ? WHERE page = ? AND day = ?}.
+ * <p>
+ * Pending deltas are flushed when the flush interval elapses, when the number of distinct keys reaches the
+ * configured maximum, and when the aggregator is closed. Delivery guarantees are the following:
+ * <ul>
+ *   <li>deltas are kept in memory until flushed: they are lost if the process crashes,</li>
+ *   <li>when Cassandra reports the update was not applied (e.g. not enough replicas available), the delta is added
+ *   back and retried during the next flush,</li>
+ *   <li>any other failure, including timeouts for which it is unknown whether the update was applied, drops the delta
+ *   and reports the failure to the {@link #exceptionHandler(Handler)}: counter updates are not idempotent, so a delta
+ *   is never written twice.</li>
+ * </ul>
+ */
+@VertxGen
+public interface CounterAggregator {
+
+  /**
+   * Create a counter aggregator.
+   *
+   * @param vertx   the Vert.x instance
+   * @param client  the client used to write counter updates
+   * @param query   the counter update query, the delta being the first bind marker
+   * @param options the options
+   * @return the aggregator
+   */
+  static CounterAggregator create(Vertx vertx, CassandraClient client, String query, CounterAggregatorOptions options) {
+    return new CounterAggregatorImpl(vertx, client, query, options);
+  }
+
+  /**
+   * Add {@code delta} to the counter identified by {@code key}.
+   * <p>
+   * This method can be invoked from any thread.
+   *
+   * @param key   the values bound to the key columns of the update query, in order
+   * @param delta the value to add, may be negative
+   *
+   * @return a reference to this, so the API can be used fluently
+   * @throws IllegalStateException if the aggregator is closed
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  @Fluent
+  CounterAggregator increment(List<Object> key, long delta);
+
+  /**
+   * @return the number of distinct counter keys waiting to be flushed
+   */
+  int pendingKeys();
+
+  /**
+   * Set a handler notified when a delta is dropped.
+   *
+   * @param handler the handler
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  CounterAggregator exceptionHandler(Handler<Throwable> handler);
+
+  /**
+   * Write pending deltas now.
+   *
+   * @param handler handler called when all deltas pending at the time of invocation have been processed
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  CounterAggregator flush(Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Like {@link #flush(Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  Future<Void> flush();
+
+  /**
+   * Flush pending deltas and stop the periodic flush.
+   *
+   * @param handler handler called when the aggregator is closed
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  CounterAggregator close(Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Like {@link #close(Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  Future<Void> close();
+}
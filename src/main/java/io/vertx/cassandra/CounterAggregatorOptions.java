@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for {@link CounterAggregator}.
+ */
+@DataObject(generateConverter = true)
+public class CounterAggregatorOptions {
+
+  /**
+   * Default delay between two flushes, in milliseconds.
+   */
+  public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+  /**
+   * Default number of distinct counter keys which triggers a flush before the interval elapses.
+   */
+  public static final int DEFAULT_MAX_PENDING_KEYS = 10_000;
+
+  /**
+   * Default maximum number of counter updates in progress during a flush.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_WRITES = 32;
+
+  private long flushInterval;
+  private int maxPendingKeys;
+  private int maxConcurrentWrites;
+
+  /**
+   * Default constructor.
+   */
+  public CounterAggregatorOptions() {
+    flushInterval = DEFAULT_FLUSH_INTERVAL;
+    maxPendingKeys = DEFAULT_MAX_PENDING_KEYS;
+    maxConcurrentWrites = DEFAULT_MAX_CONCURRENT_WRITES;
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy from
+   */
+  public CounterAggregatorOptions(CounterAggregatorOptions other) {
+    flushInterval = other.flushInterval;
+    maxPendingKeys = other.maxPendingKeys;
+    maxConcurrentWrites = other.maxConcurrentWrites;
+  }
+
+  /**
+   * Constructor to create options from JSON.
+   *
+   * @param json the JSON
+   */
+  public CounterAggregatorOptions(JsonObject json) {
+    this();
+    CounterAggregatorOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return a JSON representation of these options
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    CounterAggregatorOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the delay between two flushes, in milliseconds
+   */
+  public long getFlushInterval() {
+    return flushInterval;
+  }
+
+  /**
+   * Set the delay between two flushes, in milliseconds. Defaults to {@code 1000}.
+   *
+   * @param flushInterval the delay between two flushes, in milliseconds
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CounterAggregatorOptions setFlushInterval(long flushInterval) {
+    if (flushInterval < 1) {
+      throw new IllegalArgumentException("flushInterval must be strictly positive");
+    }
+    this.flushInterval = flushInterval;
+    return this;
+  }
+
+  /**
+   * @return the number of distinct counter keys which triggers a flush
+   */
+  public int getMaxPendingKeys() {
+    return maxPendingKeys;
+  }
+
+  /**
+   * Set the number of distinct counter keys which triggers a flush before the interval elapses. Defaults to {@code 10000}.
+   *
+   * @param maxPendingKeys the number of distinct counter keys which triggers a flush
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CounterAggregatorOptions setMaxPendingKeys(int maxPendingKeys) {
+    if (maxPendingKeys < 1) {
+      throw new IllegalArgumentException("maxPendingKeys must be strictly positive");
+    }
+    this.maxPendingKeys = maxPendingKeys;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of counter updates in progress during a flush
+   */
+  public int getMaxConcurrentWrites() {
+    return maxConcurrentWrites;
+  }
+
+  /**
+   * Set the maximum number of counter updates in progress during a flush. Defaults to {@code 32}.
+   *
+   * @param maxConcurrentWrites the maximum number of counter updates in progress during a flush
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CounterAggregatorOptions setMaxConcurrentWrites(int maxConcurrentWrites) {
+    if (maxConcurrentWrites < 1) {
+      throw new IllegalArgumentException("maxConcurrentWrites must be strictly positive");
+    }
+    this.maxConcurrentWrites = maxConcurrentWrites;
+    return this;
+  }
+}
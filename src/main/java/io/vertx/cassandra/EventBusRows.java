@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.cassandra.impl.RowPageCodec;
+import io.vertx.cassandra.impl.RowPageReceiver;
+import io.vertx.cassandra.impl.RowPageSender;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.Objects;
+
+/**
+ * Sends rows over the event bus without converting them.
+ * <p>
+ * {@link RowPage} instances are sent as is once the codec has been registered. Larger results can be streamed page by
+ * page: the requester sends a message with {@link #requestStream(Vertx, String, Object)}, and the consumer of the
+ * message executes the query and replies with {@link #replyWithStream(Vertx, Message, ResultSet)}. Pages are only sent
+ * when the requester has asked for them, so that a slow reader does not accumulate pages in memory.
+ */
+public final class EventBusRows {
+
+  /**
+   * The name of the {@link RowPage} codec.
+   */
+  public static final String CODEC_NAME = RowPageCodec.NAME;
+
+  /**
+   * Default number of pages a stream requests ahead of its handler.
+   */
+  public static final int DEFAULT_PREFETCH = 2;
+
+  /**
+   * Default delay after which a stream which does not request pages is abandoned, in milliseconds.
+   */
+  public static final long DEFAULT_IDLE_TIMEOUT = 30_000;
+
+  /**
+   * Register the {@link RowPage} codec as the default codec of {@link RowPage} messages. Must be invoked once per
+   * Vert.x instance, on every node in clustered mode.
+   *
+   * @param vertx the Vert.x instance
+   */
+  public static void registerCodec(Vertx vertx) {
+    vertx.eventBus().registerDefaultCodec(RowPage.class, new RowPageCodec());
+  }
+
+  /**
+   * Like {@link #replyWithStream(Vertx, Message, ResultSet, long)} with the {@link #DEFAULT_IDLE_TIMEOUT}.
+   */
+  public static Future<Void> replyWithStream(Vertx vertx, Message<?> request, ResultSet resultSet) {
+    return replyWithStream(vertx, request, resultSet, DEFAULT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * Reply to a stream request with the pages of a result set, starting with the current page.
+   *
+   * @param vertx       the Vert.x instance
+   * @param request     a message sent with {@link #requestStream(Vertx, String, Object)}
+   * @param resultSet   the result set
+   * @param idleTimeout the delay after which the stream is abandoned if the requester does not ask for pages, in
+   *                    milliseconds, {@code 0} meaning never
+   * @return a future completed when the last page has been sent or the requester has cancelled the stream, failed if
+   * the request is not a stream request, if a page cannot be fetched or if the stream has been abandoned
+   */
+  public static Future<Void> replyWithStream(Vertx vertx, Message<?> request, ResultSet resultSet, long idleTimeout) {
+    Objects.requireNonNull(request, "request");
+    Objects.requireNonNull(resultSet, "resultSet");
+    if (idleTimeout < 0) {
+      throw new IllegalArgumentException("idleTimeout must be positive or zero");
+    }
+    return new RowPageSender((VertxInternal) vertx, resultSet, idleTimeout).start(request);
+  }
+
+  /**
+   * Like {@link #requestStream(Vertx, String, Object, DeliveryOptions, int)} with the {@link #DEFAULT_PREFETCH}.
+   */
+  public static Future<ReadStream<RowPage>> requestStream(Vertx vertx, String address, Object body) {
+    return requestStream(vertx, address, body, null, DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Send a stream request. The consumer of the request replies with
+   * {@link #replyWithStream(Vertx, Message, ResultSet)}.
+   * <p>
+   * Setting the stream handler to {@code null} before the end of the stream cancels it.
+   *
+   * @param vertx    the Vert.x instance
+   * @param address  the address of the consumer
+   * @param body     the request body, e.g. the query parameters
+   * @param options  the delivery options of the request, may be {@code null}
+   * @param prefetch the maximum number of pages in flight or buffered
+   * @return a future of the stream, failed if the request fails
+   */
+  public static Future<ReadStream<RowPage>> requestStream(Vertx vertx, String address, Object body, DeliveryOptions options, int prefetch) {
+    Objects.requireNonNull(address, "address");
+    if (prefetch < 1) {
+      throw new IllegalArgumentException("prefetch must be strictly positive");
+    }
+    return new RowPageReceiver((VertxInternal) vertx, prefetch).start(address, body, options);
+  }
+
+  private EventBusRows() {
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.util.List;
+
+/**
+ * The results of a statement executed once per set of values, in the order of the values.
+ * <p>
+ * Each execution succeeds or fails on its own: check {@link #failureCount()} before using {@link #rows()}.
+ *
+ * @see CassandraClient#executeAll(com.datastax.oss.driver.api.core.cql.PreparedStatement, List, int)
+ */
+public interface FanOutResult {
+
+  /**
+   * @return the number of executions, i.e. the number of sets of values
+   */
+  int size();
+
+  /**
+   * @param index the index of the values
+   * @return the values bound for this execution
+   */
+  List<?> values(int index);
+
+  /**
+   * @param index the index of the values
+   * @return whether this execution succeeded
+   */
+  boolean succeeded(int index);
+
+  /**
+   * @param index the index of the values
+   * @return the rows of this execution, or {@code null} if it failed
+   */
+  List<Row> rows(int index);
+
+  /**
+   * @param index the index of the values
+   * @return the failure of this execution, or {@code null} if it succeeded
+   */
+  Throwable cause(int index);
+
+  /**
+   * @return the number of failed executions
+   */
+  int failureCount();
+
+  /**
+   * @return the rows of all the successful executions, in the order of the values
+   */
+  List<Row> rows();
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.impl.PackedRowsBuilder;
+
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Compact representation of rows meant to be retained in memory.
+ * <p>
+ * The driver stores each cell of a {@link Row} in its own {@link java.nio.ByteBuffer}. Packed rows store the cells of
+ * a page in a single byte array with an offsets table, and the returned list creates lightweight {@link Row} views
+ * when elements are accessed. Getters behave the same as with the rows provided by the driver.
+ * <p>
+ * Packed lists are immutable.
+ */
+public final class PackedRows {
+
+  /**
+   * @return a collector packing rows into an immutable list
+   */
+  public static Collector<Row, ?, List<Row>> toList() {
+    return Collector.of(PackedRowsBuilder::new, PackedRowsBuilder::add, PackedRowsBuilder::combine, PackedRowsBuilder::build);
+  }
+
+  /**
+   * Pack rows into an immutable list.
+   *
+   * @param rows the rows to pack
+   * @return the packed rows
+   */
+  public static List<Row> pack(Iterable<Row> rows) {
+    PackedRowsBuilder builder = new PackedRowsBuilder();
+    for (Row row : rows) {
+      builder.add(row);
+    }
+    return builder.build();
+  }
+
+  private PackedRows() {
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.impl.PartitionReaderImpl;
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.List;
+
+/**
+ * Reads large partitions in slices, paginated on the clustering key rather than with the paging state of the driver.
+ * <p>
+ * Each slice is a separate query selecting the rows after the last row of the previous slice, e.g.
+ * {@code WHERE pk = ? AND ck > ? LIMIT ?}, so that a slice can go to any replica and be retried on its own. The number
+ * of rows of a slice adapts to the observed latency: slices are made smaller when they take longer than
+ * {@link PartitionReaderOptions#getTargetSliceLatency()} or when the server warns about tombstones, larger when they are
+ * fast. A slice which times out is retried with half as many rows.
+ * <p>
+ * The slice size learnt by a reader is used by its next reads.
+ */
+@VertxGen
+public interface PartitionReader {
+
+  /**
+   * Create a partition reader.
+   *
+   * @param vertx   the Vert.x instance
+   * @param client  the client used to execute reads
+   * @param options the options
+   * @return the reader
+   */
+  static PartitionReader create(Vertx vertx, CassandraClient client, PartitionReaderOptions options) {
+    return new PartitionReaderImpl(vertx, client, options);
+  }
+
+  /**
+   * Read a partition in clustering order, one slice after the other.
+   *
+   * @param partitionKey the values of the partition key columns
+   * @return the stream of rows
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  ReadStream<Row> read(List<Object> partitionKey);
+
+  /**
+   * Read a partition split in ranges, reading up to {@link PartitionReaderOptions#getParallelism()} ranges in parallel.
+   * <p>
+   * The ranges are delimited by {@code splits}: the first range ends before the first split, the next one starts at the
+   * first split and ends before the second, and so on. Rows of a range are emitted in clustering order, but rows of
+   * different ranges are interleaved.
+   *
+   * @param partitionKey the values of the partition key columns
+   * @param splits       the values of the clustering columns where ranges start, in clustering order (descending for
+   *                     a {@link PartitionReaderOptions#isDescending() descending} table)
+   * @return the stream of rows
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  ReadStream<Row> read(List<Object> partitionKey, List<List<Object>> splits);
+
+  /**
+   * @return the number of rows of the next slice
+   */
+  int sliceSize();
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Options for {@link PartitionReader}.
+ */
+@DataObject(generateConverter = true)
+public class PartitionReaderOptions {
+
+  /**
+   * Default number of rows of the first slice.
+   */
+  public static final int DEFAULT_INITIAL_SLICE_SIZE = 1000;
+
+  /**
+   * Default minimum number of rows of a slice.
+   */
+  public static final int DEFAULT_MIN_SLICE_SIZE = 50;
+
+  /**
+   * Default maximum number of rows of a slice.
+   */
+  public static final int DEFAULT_MAX_SLICE_SIZE = 10_000;
+
+  /**
+   * Default target latency of a slice, in milliseconds.
+   */
+  public static final long DEFAULT_TARGET_SLICE_LATENCY = 200;
+
+  /**
+   * Default maximum number of ranges read in parallel.
+   */
+  public static final int DEFAULT_PARALLELISM = 4;
+
+  private String table;
+  private List<String> partitionKeyColumns;
+  private List<String> clusteringColumns;
+  private List<String> columns;
+  private boolean descending;
+  private int initialSliceSize;
+  private int minSliceSize;
+  private int maxSliceSize;
+  private long targetSliceLatency;
+  private int parallelism;
+
+  /**
+   * Default constructor.
+   */
+  public PartitionReaderOptions() {
+    partitionKeyColumns = new ArrayList<>();
+    clusteringColumns = new ArrayList<>();
+    columns = new ArrayList<>();
+    initialSliceSize = DEFAULT_INITIAL_SLICE_SIZE;
+    minSliceSize = DEFAULT_MIN_SLICE_SIZE;
+    maxSliceSize = DEFAULT_MAX_SLICE_SIZE;
+    targetSliceLatency = DEFAULT_TARGET_SLICE_LATENCY;
+    parallelism = DEFAULT_PARALLELISM;
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy from
+   */
+  public PartitionReaderOptions(PartitionReaderOptions other) {
+    table = other.table;
+    partitionKeyColumns = new ArrayList<>(other.partitionKeyColumns);
+    clusteringColumns = new ArrayList<>(other.clusteringColumns);
+    columns = new ArrayList<>(other.columns);
+    descending = other.descending;
+    initialSliceSize = other.initialSliceSize;
+    minSliceSize = other.minSliceSize;
+    maxSliceSize = other.maxSliceSize;
+    targetSliceLatency = other.targetSliceLatency;
+    parallelism = other.parallelism;
+  }
+
+  /**
+   * Constructor to create options from JSON.
+   *
+   * @param json the JSON
+   */
+  public PartitionReaderOptions(JsonObject json) {
+    this();
+    PartitionReaderOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return a JSON representation of these options
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    PartitionReaderOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the table, possibly qualified with its keyspace
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Set the table, possibly qualified with its keyspace. Required.
+   *
+   * @param table the table
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setTable(String table) {
+    this.table = table;
+    return this;
+  }
+
+  /**
+   * @return the names of the partition key columns
+   */
+  public List<String> getPartitionKeyColumns() {
+    return partitionKeyColumns;
+  }
+
+  /**
+   * Set the names of the partition key columns, in the order of the partition key. Required.
+   *
+   * @param partitionKeyColumns the names of the partition key columns
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setPartitionKeyColumns(List<String> partitionKeyColumns) {
+    this.partitionKeyColumns = Objects.requireNonNull(partitionKeyColumns, "partitionKeyColumns");
+    return this;
+  }
+
+  /**
+   * Add a partition key column.
+   *
+   * @param partitionKeyColumn the name of the partition key column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions addPartitionKeyColumn(String partitionKeyColumn) {
+    partitionKeyColumns.add(Objects.requireNonNull(partitionKeyColumn, "partitionKeyColumn"));
+    return this;
+  }
+
+  /**
+   * @return the names of the clustering columns
+   */
+  public List<String> getClusteringColumns() {
+    return clusteringColumns;
+  }
+
+  /**
+   * Set the names of the clustering columns, in the order of the clustering key. Required.
+   *
+   * @param clusteringColumns the names of the clustering columns
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setClusteringColumns(List<String> clusteringColumns) {
+    this.clusteringColumns = Objects.requireNonNull(clusteringColumns, "clusteringColumns");
+    return this;
+  }
+
+  /**
+   * Add a clustering column.
+   *
+   * @param clusteringColumn the name of the clustering column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions addClusteringColumn(String clusteringColumn) {
+    clusteringColumns.add(Objects.requireNonNull(clusteringColumn, "clusteringColumn"));
+    return this;
+  }
+
+  /**
+   * @return the names of the columns read
+   */
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Set the names of the columns read, which must include the clustering columns. Defaults to all the columns.
+   *
+   * @param columns the names of the columns read
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setColumns(List<String> columns) {
+    this.columns = Objects.requireNonNull(columns, "columns");
+    return this;
+  }
+
+  /**
+   * Add a column read.
+   *
+   * @param column the name of the column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions addColumn(String column) {
+    columns.add(Objects.requireNonNull(column, "column"));
+    return this;
+  }
+
+  /**
+   * @return whether the clustering columns are in descending order
+   */
+  public boolean isDescending() {
+    return descending;
+  }
+
+  /**
+   * Set whether the clustering columns are in descending order, as declared by the {@code CLUSTERING ORDER BY} of the
+   * table. Defaults to {@code false}.
+   * <p>
+   * Slices are delimited with a single comparison of the clustering columns, so all of them must be in the same order:
+   * tables mixing ascending and descending clustering columns cannot be read.
+   *
+   * @param descending whether the clustering columns are in descending order
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setDescending(boolean descending) {
+    this.descending = descending;
+    return this;
+  }
+
+  /**
+   * @return the number of rows of the first slice
+   */
+  public int getInitialSliceSize() {
+    return initialSliceSize;
+  }
+
+  /**
+   * Set the number of rows of the first slice. Defaults to {@code 1000}.
+   *
+   * @param initialSliceSize the number of rows of the first slice
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setInitialSliceSize(int initialSliceSize) {
+    if (initialSliceSize < 1) {
+      throw new IllegalArgumentException("initialSliceSize must be strictly positive");
+    }
+    this.initialSliceSize = initialSliceSize;
+    return this;
+  }
+
+  /**
+   * @return the minimum number of rows of a slice
+   */
+  public int getMinSliceSize() {
+    return minSliceSize;
+  }
+
+  /**
+   * Set the minimum number of rows of a slice. Defaults to {@code 50}.
+   * <p>
+   * A slice which times out is retried with half as many rows, until this size is reached.
+   *
+   * @param minSliceSize the minimum number of rows of a slice
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setMinSliceSize(int minSliceSize) {
+    if (minSliceSize < 1) {
+      throw new IllegalArgumentException("minSliceSize must be strictly positive");
+    }
+    this.minSliceSize = minSliceSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of rows of a slice
+   */
+  public int getMaxSliceSize() {
+    return maxSliceSize;
+  }
+
+  /**
+   * Set the maximum number of rows of a slice. Defaults to {@code 10000}.
+   *
+   * @param maxSliceSize the maximum number of rows of a slice
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setMaxSliceSize(int maxSliceSize) {
+    if (maxSliceSize < 1) {
+      throw new IllegalArgumentException("maxSliceSize must be strictly positive");
+    }
+    this.maxSliceSize = maxSliceSize;
+    return this;
+  }
+
+  /**
+   * @return the target latency of a slice, in milliseconds
+   */
+  public long getTargetSliceLatency() {
+    return targetSliceLatency;
+  }
+
+  /**
+   * Set the target latency of a slice, in milliseconds. Defaults to {@code 200}.
+   * <p>
+   * Slices are made smaller when they take longer than this, and larger when they take less than half of it.
+   *
+   * @param targetSliceLatency the target latency of a slice, in milliseconds
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setTargetSliceLatency(long targetSliceLatency) {
+    if (targetSliceLatency < 1) {
+      throw new IllegalArgumentException("targetSliceLatency must be strictly positive");
+    }
+    this.targetSliceLatency = targetSliceLatency;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of ranges read in parallel
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Set the maximum number of ranges read in parallel, when the partition is split. Defaults to {@code 4}.
+   *
+   * @param parallelism the maximum number of ranges read in parallel
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PartitionReaderOptions setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be strictly positive");
+    }
+    this.parallelism = parallelism;
+    return this;
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+import java.util.UUID;
+
+/**
+ * A prepared statement with the codecs of its variables resolved once, created with
+ * {@link CassandraClient#prepareQuery(String)}.
+ * <p>
+ * Values are set on a {@link Binding}, which encodes primitive values straight into a buffer allocated with the binding,
+ * without boxing nor codec lookup. Each statement takes a copy of that buffer, so a binding can be changed and executed
+ * again right away, and a hot write path allocates little more than the statement and one buffer.
+ * <p>
+ * Prepared queries can be shared, bindings must be confined to a single thread, e.g. created per verticle.
+ */
+public interface PreparedQuery {
+
+  /**
+   * @return the prepared statement
+   */
+  PreparedStatement preparedStatement();
+
+  /**
+   * @return a new binding, with all values unset
+   */
+  Binding binding();
+
+  /**
+   * The values of an execution of a {@link PreparedQuery}.
+   * <p>
+   * Setters throw an {@link IllegalArgumentException} when the value does not match the type of the variable. They do
+   * not change the statements already created from the binding.
+   */
+  interface Binding {
+
+    /**
+     * Set a {@code bigint}, {@code counter}, {@code timestamp} (milliseconds since the epoch) or {@code time}
+     * (nanoseconds since midnight) value.
+     */
+    Binding setLong(int index, long value);
+
+    /**
+     * Set an {@code int} value.
+     */
+    Binding setInt(int index, int value);
+
+    /**
+     * Set a {@code smallint} value.
+     */
+    Binding setShort(int index, short value);
+
+    /**
+     * Set a {@code tinyint} value.
+     */
+    Binding setByte(int index, byte value);
+
+    /**
+     * Set a {@code double} value.
+     */
+    Binding setDouble(int index, double value);
+
+    /**
+     * Set a {@code float} value.
+     */
+    Binding setFloat(int index, float value);
+
+    /**
+     * Set a {@code boolean} value.
+     */
+    Binding setBoolean(int index, boolean value);
+
+    /**
+     * Set a {@code uuid} or {@code timeuuid} value.
+     */
+    Binding setUuid(int index, UUID value);
+
+    /**
+     * Set a {@code text}, {@code varchar} or {@code ascii} value.
+     */
+    Binding setString(int index, String value);
+
+    /**
+     * Set a value of any type, encoded with the codec resolved for the variable.
+     */
+    Binding setObject(int index, Object value);
+
+    /**
+     * Set a null value.
+     */
+    Binding setNull(int index);
+
+    /**
+     * Unset all values.
+     */
+    Binding clear();
+
+    /**
+     * Build a statement with the current values.
+     * <p>
+     * The statement shares the buffers of this binding: values must not be changed until it has been executed.
+     *
+     * @return the statement
+     */
+    BoundStatement statement();
+
+    /**
+     * Execute a statement with the current values.
+     * <p>
+     * Values keep their value after the execution, and can be changed again once it has completed. Next pages of the
+     * result are fetched with the values of the statement: fetch them before changing values.
+     *
+     * @return a future of the result
+     */
+    Future<ResultSet> execute();
+
+    /**
+     * Like {@link #execute()} with a handler.
+     */
+    Binding execute(Handler<AsyncResult<ResultSet>> resultHandler);
+  }
+}
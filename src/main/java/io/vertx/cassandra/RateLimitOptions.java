@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A write rate limit of a {@link RateLimiter}.
+ * <p>
+ * The limit applies to the writes targeting a keyspace, a table, or executed with an execution profile. A write
+ * matching several limits waits for all of them.
+ */
+@DataObject(generateConverter = true)
+public class RateLimitOptions {
+
+  /**
+   * Default max number of rows written per second = {@code 0} (unlimited)
+   */
+  public static final long DEFAULT_ROWS_PER_SECOND = 0;
+
+  /**
+   * Default max number of bytes written per second = {@code 0} (unlimited)
+   */
+  public static final long DEFAULT_BYTES_PER_SECOND = 0;
+
+  /**
+   * Default burst duration, in seconds.
+   */
+  public static final double DEFAULT_BURST = 1;
+
+  private String keyspace;
+  private String table;
+  private String executionProfile;
+  private long rowsPerSecond;
+  private long bytesPerSecond;
+  private double burst;
+
+  /**
+   * Default constructor.
+   */
+  public RateLimitOptions() {
+    rowsPerSecond = DEFAULT_ROWS_PER_SECOND;
+    bytesPerSecond = DEFAULT_BYTES_PER_SECOND;
+    burst = DEFAULT_BURST;
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy from
+   */
+  public RateLimitOptions(RateLimitOptions other) {
+    keyspace = other.keyspace;
+    table = other.table;
+    executionProfile = other.executionProfile;
+    rowsPerSecond = other.rowsPerSecond;
+    bytesPerSecond = other.bytesPerSecond;
+    burst = other.burst;
+  }
+
+  /**
+   * Constructor to create options from JSON.
+   *
+   * @param json the JSON
+   */
+  public RateLimitOptions(JsonObject json) {
+    this();
+    RateLimitOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return a JSON representation of these options
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    RateLimitOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the keyspace of the limited writes
+   */
+  public String getKeyspace() {
+    return keyspace;
+  }
+
+  /**
+   * Set the keyspace of the limited writes. Defaults to {@code null}, meaning any keyspace.
+   *
+   * @param keyspace the keyspace
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setKeyspace(String keyspace) {
+    this.keyspace = keyspace;
+    return this;
+  }
+
+  /**
+   * @return the table of the limited writes
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Set the table of the limited writes. Defaults to {@code null}, meaning any table.
+   *
+   * @param table the table
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setTable(String table) {
+    this.table = table;
+    return this;
+  }
+
+  /**
+   * @return the name of the execution profile of the limited writes
+   */
+  public String getExecutionProfile() {
+    return executionProfile;
+  }
+
+  /**
+   * Set the name of the execution profile of the limited writes. Defaults to {@code null}, meaning any profile.
+   *
+   * @param executionProfile the name of the execution profile
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setExecutionProfile(String executionProfile) {
+    this.executionProfile = executionProfile;
+    return this;
+  }
+
+  /**
+   * @return the max number of rows written per second
+   */
+  public long getRowsPerSecond() {
+    return rowsPerSecond;
+  }
+
+  /**
+   * Set the max number of rows written per second, {@code 0} meaning unlimited. A batch counts as many rows as it
+   * has statements. Defaults to {@code 0}.
+   *
+   * @param rowsPerSecond the max number of rows written per second
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setRowsPerSecond(long rowsPerSecond) {
+    if (rowsPerSecond < 0) {
+      throw new IllegalArgumentException("rowsPerSecond must be positive or zero");
+    }
+    this.rowsPerSecond = rowsPerSecond;
+    return this;
+  }
+
+  /**
+   * @return the max number of bytes written per second
+   */
+  public long getBytesPerSecond() {
+    return bytesPerSecond;
+  }
+
+  /**
+   * Set the max number of bytes written per second, {@code 0} meaning unlimited. The size of a write is estimated
+   * from its bound values, or from the query string for simple statements. Defaults to {@code 0}.
+   *
+   * @param bytesPerSecond the max number of bytes written per second
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setBytesPerSecond(long bytesPerSecond) {
+    if (bytesPerSecond < 0) {
+      throw new IllegalArgumentException("bytesPerSecond must be positive or zero");
+    }
+    this.bytesPerSecond = bytesPerSecond;
+    return this;
+  }
+
+  /**
+   * @return the burst duration, in seconds
+   */
+  public double getBurst() {
+    return burst;
+  }
+
+  /**
+   * Set the burst duration, in seconds: after a quiet period, writes are not delayed until they have used this many
+   * seconds worth of rate. Defaults to {@code 1}.
+   *
+   * @param burst the burst duration, in seconds
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setBurst(double burst) {
+    if (burst <= 0) {
+      throw new IllegalArgumentException("burst must be strictly positive");
+    }
+    this.burst = burst;
+    return this;
+  }
+}
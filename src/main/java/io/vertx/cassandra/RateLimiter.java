@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.cassandra.impl.RateLimiterImpl;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A {@link CassandraInterceptor} which paces writes with token buckets.
+ * <p>
+ * Writes exceeding a limit are delayed with a timer, they never block the calling thread. Reads are never delayed,
+ * so that online traffic on a table is not slowed down by a backfill of the same table.
+ * <p>
+ * The target of bound statements is determined from their prepared statement. For simple statements, it is parsed
+ * from the query: unqualified table names only match limits without keyspace, unless the statement keyspace is set.
+ */
+public interface RateLimiter extends CassandraInterceptor {
+
+  /**
+   * Create a rate limiter without limits.
+   *
+   * @param vertx the Vert.x instance
+   * @return the rate limiter
+   */
+  static RateLimiter create(Vertx vertx) {
+    return new RateLimiterImpl(vertx);
+  }
+
+  /**
+   * Add a limit.
+   *
+   * @param options the limit options
+   * @return a reference to this, so the API can be used fluently
+   */
+  RateLimiter addLimit(RateLimitOptions options);
+
+  /**
+   * Get the wait statistics of each limit, e.g.:
+   * <pre>
+   * {
+   *   "backfill.events" : {
+   *     "requests" : 1200,
+   *     "delayed" : 850,
+   *     "totalWaitTime" : 61250,
+   *     "maxWaitTime" : 140
+   *   }
+   * }
+   * </pre>
+   * Limits are named after their keyspace, table and execution profile. Wait times are in milliseconds.
+   *
+   * @return the statistics
+   */
+  JsonObject statistics();
+}
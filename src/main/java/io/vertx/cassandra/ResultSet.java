@@ -96,4 +96,13 @@ public interface ResultSet {
    * @see AsyncResultSet#wasApplied()
    */
   boolean wasApplied();
+
+  /**
+   * Cancels the fetch of the next page if it is in progress, and fails the next fetches with a
+   * {@link java.util.concurrent.CancellationException}.
+   * <p>
+   * Use it when the rows are no longer needed, e.g. when the client of a request has disconnected, so that the cluster
+   * stops serving pages nobody reads. Rows of the current page remain available.
+   */
+  void cancel();
 }
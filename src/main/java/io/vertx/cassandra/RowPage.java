@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A group of rows sharing the same column definitions, meant to be sent over the event bus.
+ * <p>
+ * Once the codec has been registered with {@link EventBusRows#registerCodec(io.vertx.core.Vertx)}, pages are passed by
+ * reference between verticles of the same Vert.x instance, and encoded in a compact binary form in clustered mode.
+ * Pages received from another node hold packed rows, see {@link PackedRows}.
+ */
+public class RowPage {
+
+  private final ColumnDefinitions columnDefinitions;
+  private final List<Row> rows;
+
+  /**
+   * Create a page.
+   *
+   * @param columnDefinitions the definitions of the columns of the rows, may be {@code null} if there is no row
+   * @param rows              the rows, must not be modified afterwards
+   */
+  public RowPage(ColumnDefinitions columnDefinitions, List<Row> rows) {
+    Objects.requireNonNull(rows, "rows");
+    if (columnDefinitions == null && !rows.isEmpty()) {
+      columnDefinitions = rows.get(0).getColumnDefinitions();
+    }
+    this.columnDefinitions = columnDefinitions;
+    this.rows = Collections.unmodifiableList(rows);
+  }
+
+  /**
+   * Create a page with the rows remaining in the current page of a result set. The rows are consumed.
+   *
+   * @param resultSet the result set
+   * @return the page
+   */
+  public static RowPage of(ResultSet resultSet) {
+    List<Row> rows = new ArrayList<>(resultSet.remaining());
+    for (int i = resultSet.remaining(); i > 0; i--) {
+      rows.add(resultSet.one());
+    }
+    return new RowPage(resultSet.getColumnDefinitions(), rows);
+  }
+
+  /**
+   * @return the definitions of the columns of the rows, {@code null} if unknown
+   */
+  public ColumnDefinitions columnDefinitions() {
+    return columnDefinitions;
+  }
+
+  /**
+   * @return the rows of this page
+   */
+  public List<Row> rows() {
+    return rows;
+  }
+
+  /**
+   * @return the number of rows of this page
+   */
+  public int size() {
+    return rows.size();
+  }
+}
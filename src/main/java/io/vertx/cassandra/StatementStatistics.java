@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.cassandra.impl.StatementStatisticsImpl;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A {@link CassandraInterceptor} which keeps running statistics per statement.
+ * <p>
+ * Bound statements are tracked by prepared statement. Simple statements are tracked by normalized query: literals
+ * are replaced with {@code ?} and whitespace is collapsed, so that queries differing only by their values share the
+ * same statistics. Batches are tracked by their type and the queries of their statements.
+ * <p>
+ * The number of tracked statements is bounded: when the limit is reached, the least recently executed statements are
+ * evicted.
+ */
+public interface StatementStatistics extends CassandraInterceptor {
+
+  /**
+   * Default maximum number of tracked statements.
+   */
+  int DEFAULT_MAX_STATEMENTS = 5000;
+
+  /**
+   * Like {@link #create(int)} with {@link #DEFAULT_MAX_STATEMENTS}.
+   */
+  static StatementStatistics create() {
+    return create(DEFAULT_MAX_STATEMENTS);
+  }
+
+  /**
+   * Create a statistics registry.
+   *
+   * @param maxStatements the maximum number of tracked statements
+   * @return the registry
+   */
+  static StatementStatistics create(int maxStatements) {
+    return new StatementStatisticsImpl(maxStatements);
+  }
+
+  /**
+   * Get the statistics, statements being sorted by total execution time, e.g.:
+   * <pre>
+   * {
+   *   "evicted" : 0,
+   *   "statements" : [ {
+   *     "query" : "SELECT * FROM shop.orders WHERE customer = ?",
+   *     "preparedId" : "2f9c5a1e8b3d4c6f",
+   *     "calls" : 1200,
+   *     "errors" : 3,
+   *     "timeouts" : 2,
+   *     "rows" : 48000,
+   *     "pages" : 1250,
+   *     "bytes" : 5120000,
+   *     "totalTime" : 2450.5,
+   *     "meanTime" : 2.042,
+   *     "maxTime" : 75.1,
+   *     "latency" : { "1" : 150, "2" : 700, "4" : 320, "8" : 25, "128" : 5 }
+   *   } ]
+   * }
+   * </pre>
+   * Times are in milliseconds and measure the execution of the first page. The latency histogram counts executions by
+   * upper bound in milliseconds, in powers of two, executions longer than the last bound being counted in
+   * {@code "+Inf"}. {@code evicted} is the number of statements evicted since the last reset.
+   *
+   * @return the statistics
+   */
+  JsonObject statistics();
+
+  /**
+   * Discard all statistics.
+   */
+  void reset();
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.cassandra.impl.TableDumpImpl;
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * Copies tables to and from local files.
+ * <p>
+ * A dump file starts with a header describing the table and its columns, followed by blocks of rows. Each block is
+ * compressed with the deflate algorithm, and rows are stored as the raw bytes of their cells, prefixed by their
+ * length. Cells are copied as they are encoded by Cassandra: restoring a dump requires a table with compatible column
+ * types.
+ * <p>
+ * Counter tables cannot be dumped, since counters can only be incremented.
+ */
+@VertxGen
+public interface TableDump {
+
+  /**
+   * Create a table dump utility.
+   *
+   * @param vertx   the Vert.x instance
+   * @param client  the client used to read and write tables
+   * @param options the options
+   * @return the utility
+   */
+  static TableDump create(Vertx vertx, CassandraClient client, TableDumpOptions options) {
+    return new TableDumpImpl(vertx, client, options);
+  }
+
+  /**
+   * Dump a table to a file, replacing any existing file.
+   *
+   * @param keyspace the keyspace of the table
+   * @param table    the table
+   * @param path     the path of the file
+   * @param handler  the handler called with the number of rows dumped
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  TableDump dump(String keyspace, String table, String path, Handler<AsyncResult<Long>> handler);
+
+  /**
+   * Like {@link #dump(String, String, String, Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  Future<Long> dump(String keyspace, String table, String path);
+
+  /**
+   * Restore a dump file into the table it was created from.
+   *
+   * @param path    the path of the file
+   * @param handler the handler called with the number of rows restored
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  TableDump restore(String path, Handler<AsyncResult<Long>> handler);
+
+  /**
+   * Like {@link #restore(String, Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  Future<Long> restore(String path);
+
+  /**
+   * Restore a dump file into another table, which must have columns with the same names.
+   *
+   * @param path     the path of the file
+   * @param keyspace the keyspace of the target table
+   * @param table    the target table
+   * @param handler  the handler called with the number of rows restored
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  TableDump restore(String path, String keyspace, String table, Handler<AsyncResult<Long>> handler);
+
+  /**
+   * Like {@link #restore(String, String, String, Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  Future<Long> restore(String path, String keyspace, String table);
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for {@link TableDump}.
+ */
+@DataObject(generateConverter = true)
+public class TableDumpOptions {
+
+  /**
+   * Default number of rows fetched per page when dumping a table.
+   */
+  public static final int DEFAULT_PAGE_SIZE = 5000;
+
+  /**
+   * Default size of uncompressed blocks, in bytes.
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+  /**
+   * Default maximum number of inserts in progress when restoring a table.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_WRITES = 32;
+
+  private int pageSize;
+  private int blockSize;
+  private int maxConcurrentWrites;
+
+  /**
+   * Default constructor.
+   */
+  public TableDumpOptions() {
+    pageSize = DEFAULT_PAGE_SIZE;
+    blockSize = DEFAULT_BLOCK_SIZE;
+    maxConcurrentWrites = DEFAULT_MAX_CONCURRENT_WRITES;
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy from
+   */
+  public TableDumpOptions(TableDumpOptions other) {
+    pageSize = other.pageSize;
+    blockSize = other.blockSize;
+    maxConcurrentWrites = other.maxConcurrentWrites;
+  }
+
+  /**
+   * Constructor to create options from JSON.
+   *
+   * @param json the JSON
+   */
+  public TableDumpOptions(JsonObject json) {
+    this();
+    TableDumpOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return a JSON representation of these options
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    TableDumpOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the number of rows fetched per page when dumping a table
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Set the number of rows fetched per page when dumping a table. Defaults to {@code 5000}.
+   *
+   * @param pageSize the number of rows fetched per page
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TableDumpOptions setPageSize(int pageSize) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("pageSize must be strictly positive");
+    }
+    this.pageSize = pageSize;
+    return this;
+  }
+
+  /**
+   * @return the size of uncompressed blocks, in bytes
+   */
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Set the size of uncompressed blocks, in bytes. Rows are compressed by blocks: larger blocks compress better but
+   * use more memory. Defaults to {@code 65536}.
+   *
+   * @param blockSize the size of uncompressed blocks, in bytes
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TableDumpOptions setBlockSize(int blockSize) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("blockSize must be strictly positive");
+    }
+    this.blockSize = blockSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of inserts in progress when restoring a table
+   */
+  public int getMaxConcurrentWrites() {
+    return maxConcurrentWrites;
+  }
+
+  /**
+   * Set the maximum number of inserts in progress when restoring a table. Defaults to {@code 32}.
+   *
+   * @param maxConcurrentWrites the maximum number of inserts in progress
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TableDumpOptions setMaxConcurrentWrites(int maxConcurrentWrites) {
+    if (maxConcurrentWrites < 1) {
+      throw new IllegalArgumentException("maxConcurrentWrites must be strictly positive");
+    }
+    this.maxConcurrentWrites = maxConcurrentWrites;
+    return this;
+  }
+}
@@ -0,0 +1,501 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Options for {@link TimeSeriesWriter} and {@link TimeSeriesReader}.
+ * <p>
+ * The table must be partitioned by series and bucket, and clustered by timestamp, e.g.
+ * <pre>
+ * CREATE TABLE metrics.samples (series_id text, bucket bigint, ts timestamp, value double,
+ *   PRIMARY KEY ((series_id, bucket), ts))
+ * </pre>
+ * The bucket of a point is the start of the bucket in milliseconds since the epoch, it can be stored in a
+ * {@code bigint} or a {@code timestamp} column. The timestamp column can be a {@code timestamp}, a {@code bigint} or,
+ * for reads only, a {@code timeuuid}: writes to a {@code timeuuid} column fail with an
+ * {@link IllegalArgumentException}, since points of the same millisecond would overwrite each other.
+ */
+@DataObject(generateConverter = true)
+public class TimeSeriesOptions {
+
+  /**
+   * The default name of the series column = {@code series_id}
+   */
+  public static final String DEFAULT_SERIES_COLUMN = "series_id";
+
+  /**
+   * The default name of the bucket column = {@code bucket}
+   */
+  public static final String DEFAULT_BUCKET_COLUMN = "bucket";
+
+  /**
+   * The default name of the timestamp column = {@code ts}
+   */
+  public static final String DEFAULT_TIMESTAMP_COLUMN = "ts";
+
+  /**
+   * Default duration of a bucket, in milliseconds = one day.
+   */
+  public static final long DEFAULT_BUCKET_GRANULARITY = 24 * 60 * 60 * 1000L;
+
+  /**
+   * Default maximum number of points grouped in a single-partition batch.
+   */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+  /**
+   * Default delay between two flushes, in milliseconds.
+   */
+  public static final long DEFAULT_FLUSH_INTERVAL = 100;
+
+  /**
+   * Default maximum number of points held by the writer, including points being written.
+   */
+  public static final int DEFAULT_MAX_BUFFERED_POINTS = 10_000;
+
+  /**
+   * Default maximum number of batches in progress.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_WRITES = 32;
+
+  /**
+   * Default minimum delay between two polls of a tailing reader, in milliseconds.
+   */
+  public static final long DEFAULT_MIN_POLL_INTERVAL = 100;
+
+  /**
+   * Default maximum delay between two polls of a tailing reader, in milliseconds.
+   */
+  public static final long DEFAULT_MAX_POLL_INTERVAL = 5000;
+
+  /**
+   * Default maximum number of rows read by a poll.
+   */
+  public static final int DEFAULT_POLL_SIZE = 1000;
+
+  /**
+   * Default delay after the end of a bucket during which a tailing reader keeps polling it, in milliseconds.
+   */
+  public static final long DEFAULT_ALLOWED_LATENESS = DEFAULT_MAX_POLL_INTERVAL;
+
+  private String table;
+  private String seriesColumn;
+  private String bucketColumn;
+  private String timestampColumn;
+  private List<String> valueColumns;
+  private long bucketGranularity;
+  private int maxBatchSize;
+  private long flushInterval;
+  private int maxBufferedPoints;
+  private int maxConcurrentWrites;
+  private long minPollInterval;
+  private long maxPollInterval;
+  private int pollSize;
+  private long allowedLateness;
+
+  /**
+   * Default constructor.
+   */
+  public TimeSeriesOptions() {
+    seriesColumn = DEFAULT_SERIES_COLUMN;
+    bucketColumn = DEFAULT_BUCKET_COLUMN;
+    timestampColumn = DEFAULT_TIMESTAMP_COLUMN;
+    valueColumns = new ArrayList<>();
+    bucketGranularity = DEFAULT_BUCKET_GRANULARITY;
+    maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    flushInterval = DEFAULT_FLUSH_INTERVAL;
+    maxBufferedPoints = DEFAULT_MAX_BUFFERED_POINTS;
+    maxConcurrentWrites = DEFAULT_MAX_CONCURRENT_WRITES;
+    minPollInterval = DEFAULT_MIN_POLL_INTERVAL;
+    maxPollInterval = DEFAULT_MAX_POLL_INTERVAL;
+    pollSize = DEFAULT_POLL_SIZE;
+    allowedLateness = DEFAULT_ALLOWED_LATENESS;
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy from
+   */
+  public TimeSeriesOptions(TimeSeriesOptions other) {
+    table = other.table;
+    seriesColumn = other.seriesColumn;
+    bucketColumn = other.bucketColumn;
+    timestampColumn = other.timestampColumn;
+    valueColumns = new ArrayList<>(other.valueColumns);
+    bucketGranularity = other.bucketGranularity;
+    maxBatchSize = other.maxBatchSize;
+    flushInterval = other.flushInterval;
+    maxBufferedPoints = other.maxBufferedPoints;
+    maxConcurrentWrites = other.maxConcurrentWrites;
+    minPollInterval = other.minPollInterval;
+    maxPollInterval = other.maxPollInterval;
+    pollSize = other.pollSize;
+    allowedLateness = other.allowedLateness;
+  }
+
+  /**
+   * Constructor to create options from JSON.
+   *
+   * @param json the JSON
+   */
+  public TimeSeriesOptions(JsonObject json) {
+    this();
+    TimeSeriesOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return a JSON representation of these options
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    TimeSeriesOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the table, possibly qualified with its keyspace
+   */
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * Set the table, possibly qualified with its keyspace. Required.
+   *
+   * @param table the table
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setTable(String table) {
+    this.table = table;
+    return this;
+  }
+
+  /**
+   * @return the name of the series column
+   */
+  public String getSeriesColumn() {
+    return seriesColumn;
+  }
+
+  /**
+   * Set the name of the series column, the first column of the partition key. Defaults to {@code series_id}.
+   *
+   * @param seriesColumn the name of the series column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setSeriesColumn(String seriesColumn) {
+    this.seriesColumn = Objects.requireNonNull(seriesColumn, "seriesColumn");
+    return this;
+  }
+
+  /**
+   * @return the name of the bucket column
+   */
+  public String getBucketColumn() {
+    return bucketColumn;
+  }
+
+  /**
+   * Set the name of the bucket column, the second column of the partition key. Defaults to {@code bucket}.
+   *
+   * @param bucketColumn the name of the bucket column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setBucketColumn(String bucketColumn) {
+    this.bucketColumn = Objects.requireNonNull(bucketColumn, "bucketColumn");
+    return this;
+  }
+
+  /**
+   * @return the name of the timestamp column
+   */
+  public String getTimestampColumn() {
+    return timestampColumn;
+  }
+
+  /**
+   * Set the name of the timestamp column, the clustering column. Defaults to {@code ts}.
+   *
+   * @param timestampColumn the name of the timestamp column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setTimestampColumn(String timestampColumn) {
+    this.timestampColumn = Objects.requireNonNull(timestampColumn, "timestampColumn");
+    return this;
+  }
+
+  /**
+   * @return the names of the value columns
+   */
+  public List<String> getValueColumns() {
+    return valueColumns;
+  }
+
+  /**
+   * Set the names of the value columns, in the order of the values of a point. Required.
+   *
+   * @param valueColumns the names of the value columns
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setValueColumns(List<String> valueColumns) {
+    this.valueColumns = Objects.requireNonNull(valueColumns, "valueColumns");
+    return this;
+  }
+
+  /**
+   * Add a value column.
+   *
+   * @param valueColumn the name of the value column
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions addValueColumn(String valueColumn) {
+    valueColumns.add(Objects.requireNonNull(valueColumn, "valueColumn"));
+    return this;
+  }
+
+  /**
+   * @return the duration of a bucket, in milliseconds
+   */
+  public long getBucketGranularity() {
+    return bucketGranularity;
+  }
+
+  /**
+   * Set the duration of a bucket, in milliseconds. Defaults to one day.
+   * <p>
+   * Choose it so that a partition holds at most a few hundred thousand points. Readers query every bucket of a range,
+   * so buckets should not be much smaller than the usual range.
+   *
+   * @param bucketGranularity the duration of a bucket, in milliseconds
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setBucketGranularity(long bucketGranularity) {
+    if (bucketGranularity < 1) {
+      throw new IllegalArgumentException("bucketGranularity must be strictly positive");
+    }
+    this.bucketGranularity = bucketGranularity;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of points grouped in a single-partition batch
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Set the maximum number of points grouped in a single-partition batch. Defaults to {@code 50}.
+   * <p>
+   * A partition is written as soon as it has this number of points buffered.
+   *
+   * @param maxBatchSize the maximum number of points grouped in a single-partition batch
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setMaxBatchSize(int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be strictly positive");
+    }
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
+  /**
+   * @return the delay between two flushes, in milliseconds
+   */
+  public long getFlushInterval() {
+    return flushInterval;
+  }
+
+  /**
+   * Set the delay between two flushes, in milliseconds. Defaults to {@code 100}.
+   * <p>
+   * Partitions with fewer than {@link #getMaxBatchSize()} points buffered are written when the writer is flushed.
+   *
+   * @param flushInterval the delay between two flushes, in milliseconds
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setFlushInterval(long flushInterval) {
+    if (flushInterval < 1) {
+      throw new IllegalArgumentException("flushInterval must be strictly positive");
+    }
+    this.flushInterval = flushInterval;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of points held by the writer
+   */
+  public int getMaxBufferedPoints() {
+    return maxBufferedPoints;
+  }
+
+  /**
+   * Set the maximum number of points held by the writer, including points being written. Defaults to {@code 10000}.
+   * <p>
+   * When the limit is reached, {@link TimeSeriesWriter#writeQueueFull()} returns {@code true}.
+   *
+   * @param maxBufferedPoints the maximum number of points held by the writer
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setMaxBufferedPoints(int maxBufferedPoints) {
+    if (maxBufferedPoints < 2) {
+      throw new IllegalArgumentException("maxBufferedPoints must be greater than 1");
+    }
+    this.maxBufferedPoints = maxBufferedPoints;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of batches in progress
+   */
+  public int getMaxConcurrentWrites() {
+    return maxConcurrentWrites;
+  }
+
+  /**
+   * Set the maximum number of batches in progress. Defaults to {@code 32}.
+   * <p>
+   * A partition has at most one batch in progress, so that its points are written in order.
+   *
+   * @param maxConcurrentWrites the maximum number of batches in progress
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setMaxConcurrentWrites(int maxConcurrentWrites) {
+    if (maxConcurrentWrites < 1) {
+      throw new IllegalArgumentException("maxConcurrentWrites must be strictly positive");
+    }
+    this.maxConcurrentWrites = maxConcurrentWrites;
+    return this;
+  }
+
+  /**
+   * @return the minimum delay between two polls of a tailing reader, in milliseconds
+   */
+  public long getMinPollInterval() {
+    return minPollInterval;
+  }
+
+  /**
+   * Set the minimum delay between two polls of a tailing reader, in milliseconds. Defaults to {@code 100}.
+   * <p>
+   * The delay is halved after a poll which returned rows, and doubled after a poll which returned none, within the
+   * minimum and the {@link #setMaxPollInterval(long) maximum}.
+   *
+   * @param minPollInterval the minimum delay between two polls, in milliseconds
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setMinPollInterval(long minPollInterval) {
+    if (minPollInterval < 1) {
+      throw new IllegalArgumentException("minPollInterval must be strictly positive");
+    }
+    this.minPollInterval = minPollInterval;
+    return this;
+  }
+
+  /**
+   * @return the maximum delay between two polls of a tailing reader, in milliseconds
+   */
+  public long getMaxPollInterval() {
+    return maxPollInterval;
+  }
+
+  /**
+   * Set the maximum delay between two polls of a tailing reader, in milliseconds. Defaults to {@code 5000}.
+   *
+   * @param maxPollInterval the maximum delay between two polls, in milliseconds
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setMaxPollInterval(long maxPollInterval) {
+    if (maxPollInterval < 1) {
+      throw new IllegalArgumentException("maxPollInterval must be strictly positive");
+    }
+    this.maxPollInterval = maxPollInterval;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of rows read by a poll
+   */
+  public int getPollSize() {
+    return pollSize;
+  }
+
+  /**
+   * Set the maximum number of rows read by a poll of a tailing reader. Defaults to {@code 1000}.
+   * <p>
+   * When a poll returns this number of rows, the next poll is sent as soon as they have been emitted.
+   *
+   * @param pollSize the maximum number of rows read by a poll
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setPollSize(int pollSize) {
+    if (pollSize < 1) {
+      throw new IllegalArgumentException("pollSize must be strictly positive");
+    }
+    this.pollSize = pollSize;
+    return this;
+  }
+
+  /**
+   * @return the delay after the end of a bucket during which a tailing reader keeps polling it, in milliseconds
+   */
+  public long getAllowedLateness() {
+    return allowedLateness;
+  }
+
+  /**
+   * Set how long after the end of a bucket a tailing reader keeps polling it, in milliseconds. Defaults to {@code 5000}.
+   * <p>
+   * Rows written late, with a timestamp in a bucket which is over, are still seen during this delay. The reader moves
+   * on to the next bucket after a last poll of the bucket, sent once the delay has elapsed, so the rows of the next
+   * bucket are emitted with this delay. The delay is at least the {@link #setMaxPollInterval(long) maximum poll
+   * interval}.
+   *
+   * @param allowedLateness the delay after the end of a bucket, in milliseconds
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TimeSeriesOptions setAllowedLateness(long allowedLateness) {
+    if (allowedLateness < 0) {
+      throw new IllegalArgumentException("allowedLateness must be >= 0");
+    }
+    this.allowedLateness = allowedLateness;
+    return this;
+  }
+}
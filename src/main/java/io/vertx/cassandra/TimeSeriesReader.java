@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.impl.TimeSeriesReaderImpl;
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * Reads ranges of time series written by a {@link TimeSeriesWriter}.
+ */
+@VertxGen
+public interface TimeSeriesReader {
+
+  /**
+   * Create a time series reader.
+   *
+   * @param vertx   the Vert.x instance
+   * @param client  the client used to execute reads
+   * @param options the options, with the same table, columns and bucket granularity as the writer
+   * @return the reader
+   */
+  static TimeSeriesReader create(Vertx vertx, CassandraClient client, TimeSeriesOptions options) {
+    return new TimeSeriesReaderImpl(vertx, client, options);
+  }
+
+  /**
+   * Read the points of a series within a range, in timestamp order.
+   * <p>
+   * Buckets are queried one after the other, when the rows of the previous bucket have been emitted. Rows hold the
+   * timestamp column followed by the value columns.
+   *
+   * @param series the series
+   * @param from   the start of the range, inclusive, in milliseconds since the epoch
+   * @param to     the end of the range, exclusive, in milliseconds since the epoch
+   * @return the stream of rows
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  ReadStream<Row> read(Object series, long from, long to);
+
+  /**
+   * Tail a series: emit the points from {@code from}, then poll for new points as they are written.
+   * <p>
+   * The reader keeps the timestamp of the last row emitted, and each poll reads only the rows after it, in the current
+   * bucket. When a bucket is over, the reader moves on to the next one. The delay between two polls adapts to the rate
+   * of new rows, see {@link TimeSeriesOptions#setMinPollInterval(long)}, and no poll is sent until the rows of the
+   * previous one have been emitted.
+   * <p>
+   * Points written with a timestamp before the last row emitted, or in a bucket which is over, are not seen. The
+   * stream ends only when its handler is set to {@code null}.
+   *
+   * @param series the series
+   * @param from   the start of the tail, inclusive, in milliseconds since the epoch
+   * @return the stream of rows
+   */
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  ReadStream<Row> tail(Object series, long from);
+}
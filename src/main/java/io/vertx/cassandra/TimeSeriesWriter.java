@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.cassandra.impl.TimeSeriesWriterImpl;
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.List;
+
+/**
+ * Appends points to time series stored in {@code (series, bucket)} partitions, see {@link TimeSeriesOptions}.
+ * <p>
+ * Points are buffered per partition and written in unlogged single-partition batches of at most
+ * {@link TimeSeriesOptions#getMaxBatchSize()} points: a partition is written as soon as it has a full batch, and
+ * partially filled partitions every {@link TimeSeriesOptions#getFlushInterval()}. A partition has at most one batch in
+ * progress, so that its points are written in order.
+ */
+@VertxGen
+public interface TimeSeriesWriter {
+
+  /**
+   * Create a time series writer.
+   *
+   * @param vertx   the Vert.x instance
+   * @param client  the client used to execute writes
+   * @param options the options
+   * @return the writer
+   */
+  static TimeSeriesWriter create(Vertx vertx, CassandraClient client, TimeSeriesOptions options) {
+    return new TimeSeriesWriterImpl(vertx, client, options);
+  }
+
+  /**
+   * Append a point.
+   *
+   * @param series    the series, bound to the series column
+   * @param timestamp the timestamp of the point, in milliseconds since the epoch
+   * @param values    the values, in the order of {@link TimeSeriesOptions#getValueColumns()}
+   * @param handler   the handler called when the point has been written
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  TimeSeriesWriter append(Object series, long timestamp, List<Object> values, Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Like {@link #append(Object, long, List, Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  Future<Void> append(Object series, long timestamp, List<Object> values);
+
+  /**
+   * @param timestamp a timestamp, in milliseconds since the epoch
+   * @return the bucket of the timestamp, i.e. the start of the bucket in milliseconds since the epoch
+   */
+  long bucket(long timestamp);
+
+  /**
+   * Write buffered points now.
+   *
+   * @return a future completed when the points appended before the invocation have been written
+   */
+  Future<Void> flush();
+
+  /**
+   * @return {@code true} when the writer holds {@link TimeSeriesOptions#getMaxBufferedPoints()} points
+   */
+  boolean writeQueueFull();
+
+  /**
+   * Set a handler called when the writer is no longer full, once half of the points held have been written.
+   *
+   * @param handler the handler
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  TimeSeriesWriter drainHandler(Handler<Void> handler);
+
+  /**
+   * Set a handler called when a batch fails, in addition to the failure of the points of the batch.
+   *
+   * @param handler the handler
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  TimeSeriesWriter exceptionHandler(Handler<Throwable> handler);
+
+  /**
+   * @return the number of points currently buffered, excluding points being written
+   */
+  int size();
+
+  /**
+   * Write buffered points and stop accepting new points.
+   *
+   * @param handler the handler called when the buffered points have been written
+   */
+  void close(Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Like {@link #close(Handler)} but returns a {@code Future} of the asynchronous result.
+   */
+  Future<Void> close();
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import io.vertx.cassandra.impl.WriteBehindBufferImpl;
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.WriteStream;
+
+/**
+ * A {@link WriteStream} of upserts which keeps only the latest write per primary key within a flush window.
+ * <p>
+ * The primary key of a write is determined from the prepared statement of the {@link BoundStatement} and the schema
+ * metadata of the table. Writes without a query timestamp get one when they enter the buffer, so that a delayed write
+ * does not override a more recent write made by another client.
+ * <p>
+ * When several writes with the same query timestamp target the same partition, they are grouped in unlogged batches:
+ * the protocol allows a single timestamp per batch, so that each write keeps its own. Timestamps given by the buffer are
+ * distinct, writes are grouped when the application sets the same timestamp on them.
+ * <p>
+ * The future returned by {@link #write(Object)} is completed when the write, or the write which replaced it, has been
+ * executed.
+ */
+@VertxGen
+public interface WriteBehindBuffer extends WriteStream<BoundStatement> {
+
+  /**
+   * Create a write-behind buffer.
+   *
+   * @param vertx   the Vert.x instance
+   * @param client  the client used to execute writes
+   * @param options the options
+   * @return the buffer
+   */
+  static WriteBehindBuffer create(Vertx vertx, CassandraClient client, WriteBehindOptions options) {
+    return new WriteBehindBufferImpl(vertx, client, options);
+  }
+
+  @Override
+  WriteBehindBuffer exceptionHandler(Handler<Throwable> handler);
+
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  @Override
+  Future<Void> write(BoundStatement statement);
+
+  @GenIgnore(GenIgnore.PERMITTED_TYPE)
+  @Override
+  void write(BoundStatement statement, Handler<AsyncResult<Void>> handler);
+
+  @Override
+  WriteBehindBuffer setWriteQueueMaxSize(int maxSize);
+
+  @Override
+  WriteBehindBuffer drainHandler(Handler<Void> handler);
+
+  /**
+   * Execute buffered writes now.
+   *
+   * @return a future completed when the writes buffered at the time of invocation have been executed
+   */
+  Future<Void> flush();
+
+  /**
+   * @return the number of writes currently buffered, excluding writes in progress
+   */
+  int size();
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for {@link WriteBehindBuffer}.
+ */
+@DataObject(generateConverter = true)
+public class WriteBehindOptions {
+
+  /**
+   * Default delay between two flushes, in milliseconds.
+   */
+  public static final long DEFAULT_FLUSH_INTERVAL = 100;
+
+  /**
+   * Default maximum number of writes held by the buffer, including writes in progress.
+   */
+  public static final int DEFAULT_MAX_BUFFERED_WRITES = 10_000;
+
+  /**
+   * Default maximum number of writes grouped in a single-partition batch.
+   */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 10;
+
+  /**
+   * Default maximum number of statements in progress during a flush.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_WRITES = 32;
+
+  private long flushInterval;
+  private int maxBufferedWrites;
+  private int maxBatchSize;
+  private int maxConcurrentWrites;
+
+  /**
+   * Default constructor.
+   */
+  public WriteBehindOptions() {
+    flushInterval = DEFAULT_FLUSH_INTERVAL;
+    maxBufferedWrites = DEFAULT_MAX_BUFFERED_WRITES;
+    maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    maxConcurrentWrites = DEFAULT_MAX_CONCURRENT_WRITES;
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the options to copy from
+   */
+  public WriteBehindOptions(WriteBehindOptions other) {
+    flushInterval = other.flushInterval;
+    maxBufferedWrites = other.maxBufferedWrites;
+    maxBatchSize = other.maxBatchSize;
+    maxConcurrentWrites = other.maxConcurrentWrites;
+  }
+
+  /**
+   * Constructor to create options from JSON.
+   *
+   * @param json the JSON
+   */
+  public WriteBehindOptions(JsonObject json) {
+    this();
+    WriteBehindOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return a JSON representation of these options
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    WriteBehindOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the delay between two flushes, in milliseconds
+   */
+  public long getFlushInterval() {
+    return flushInterval;
+  }
+
+  /**
+   * Set the delay between two flushes, in milliseconds. Defaults to {@code 100}.
+   * <p>
+   * Repeated writes for the same primary key within this window are coalesced.
+   *
+   * @param flushInterval the delay between two flushes, in milliseconds
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WriteBehindOptions setFlushInterval(long flushInterval) {
+    if (flushInterval < 1) {
+      throw new IllegalArgumentException("flushInterval must be strictly positive");
+    }
+    this.flushInterval = flushInterval;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of writes held by the buffer
+   */
+  public int getMaxBufferedWrites() {
+    return maxBufferedWrites;
+  }
+
+  /**
+   * Set the maximum number of writes held by the buffer, including writes in progress. Defaults to {@code 10000}.
+   * <p>
+   * When the limit is reached, {@link WriteBehindBuffer#writeQueueFull()} returns {@code true}.
+   * A flush starts as soon as half of this number of writes are buffered.
+   *
+   * @param maxBufferedWrites the maximum number of writes held by the buffer
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WriteBehindOptions setMaxBufferedWrites(int maxBufferedWrites) {
+    if (maxBufferedWrites < 2) {
+      throw new IllegalArgumentException("maxBufferedWrites must be greater than 1");
+    }
+    this.maxBufferedWrites = maxBufferedWrites;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of writes grouped in a single-partition batch
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Set the maximum number of writes grouped in a single-partition batch. Defaults to {@code 10}.
+   * <p>
+   * Set to {@code 1} to disable batching.
+   *
+   * @param maxBatchSize the maximum number of writes grouped in a single-partition batch
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WriteBehindOptions setMaxBatchSize(int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be strictly positive");
+    }
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of statements in progress during a flush
+   */
+  public int getMaxConcurrentWrites() {
+    return maxConcurrentWrites;
+  }
+
+  /**
+   * Set the maximum number of statements in progress during a flush. Defaults to {@code 32}.
+   *
+   * @param maxConcurrentWrites the maximum number of statements in progress during a flush
+   *
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WriteBehindOptions setMaxConcurrentWrites(int maxConcurrentWrites) {
+    if (maxConcurrentWrites < 1) {
+      throw new IllegalArgumentException("maxConcurrentWrites must be strictly positive");
+    }
+    this.maxConcurrentWrites = maxConcurrentWrites;
+    return this;
+  }
+}
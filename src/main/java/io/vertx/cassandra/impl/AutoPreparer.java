@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.core.Future;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Replaces frequently executed simple statements with bound statements.
+ * <p>
+ * Executions are counted per query string in a bounded LRU map. When a query reaches the threshold, it is prepared in
+ * the background while executions go on as simple statements. Queries which cannot be prepared are not retried until
+ * they have been evicted.
+ */
+class AutoPreparer {
+
+  private final int threshold;
+  private final LinkedHashMap<String, Entry> entries;
+
+  AutoPreparer(int threshold, int maxStatements) {
+    this.threshold = threshold;
+    entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > maxStatements;
+      }
+    };
+  }
+
+  /**
+   * @param prepare prepares a query
+   * @return the statement to execute
+   */
+  Statement rewrite(Statement statement, Function<String, Future<PreparedStatement>> prepare) {
+    if (!(statement instanceof SimpleStatement)) {
+      return statement;
+    }
+    SimpleStatement simpleStatement = (SimpleStatement) statement;
+    // named values would have to be matched with the variables, a keyspace or a paging state would not carry over
+    if (!simpleStatement.getNamedValues().isEmpty() || simpleStatement.getKeyspace() != null || simpleStatement.getPagingState() != null) {
+      return statement;
+    }
+    String query = simpleStatement.getQuery();
+    Entry entry;
+    PreparedStatement prepared;
+    boolean startPreparing = false;
+    synchronized (this) {
+      entry = entries.computeIfAbsent(query, q -> new Entry());
+      prepared = entry.prepared;
+      if (prepared == null && !entry.preparing && !entry.failed && ++entry.executions >= threshold) {
+        entry.preparing = true;
+        startPreparing = true;
+      }
+    }
+    if (startPreparing) {
+      prepare.apply(query).onComplete(ar -> {
+        synchronized (this) {
+          entry.preparing = false;
+          if (ar.succeeded()) {
+            entry.prepared = ar.result();
+          } else {
+            entry.failed = true;
+          }
+        }
+      });
+    }
+    if (prepared == null) {
+      return statement;
+    }
+    try {
+      return bind(prepared, simpleStatement);
+    } catch (RuntimeException e) {
+      // e.g. a value which has no codec for the type of its variable, the server may still accept the simple statement
+      return statement;
+    }
+  }
+
+  private static BoundStatement bind(PreparedStatement prepared, SimpleStatement statement) {
+    List<Object> values = statement.getPositionalValues();
+    BoundStatement bound = prepared.bind(values.toArray())
+      .setConsistencyLevel(statement.getConsistencyLevel())
+      .setSerialConsistencyLevel(statement.getSerialConsistencyLevel())
+      .setPageSize(statement.getPageSize())
+      .setTimeout(statement.getTimeout())
+      .setIdempotent(statement.isIdempotent())
+      .setTracing(statement.isTracing())
+      .setQueryTimestamp(statement.getQueryTimestamp())
+      .setNode(statement.getNode())
+      .setCustomPayload(statement.getCustomPayload());
+    if (statement.getExecutionProfileName() != null) {
+      bound = bound.setExecutionProfileName(statement.getExecutionProfileName());
+    }
+    if (statement.getExecutionProfile() != null) {
+      bound = bound.setExecutionProfile(statement.getExecutionProfile());
+    }
+    if (statement.getRoutingKey() != null) {
+      bound = bound.setRoutingKey(statement.getRoutingKey());
+    }
+    if (statement.getRoutingToken() != null) {
+      bound = bound.setRoutingToken(statement.getRoutingToken());
+    }
+    return bound;
+  }
+
+  private static class Entry {
+    int executions;
+    boolean preparing;
+    boolean failed;
+    PreparedStatement prepared;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+
+import java.util.ArrayDeque;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Emits the chunks of a blob in order, reading up to {@code prefetch} chunks ahead.
+ * <p>
+ * The manifest of the blob is read first, then chunks are read one query each, so that reads of the next chunks
+ * overlap with the processing of the current one. A chunk missing within the chunk count of the manifest, or chunks
+ * which do not add up to its length, fail the stream.
+ */
+class BlobReadStream extends ConfinedReadStream<Buffer> {
+
+  /**
+   * The number of chunks and the length of a blob, as written after its chunks.
+   */
+  static final class Manifest {
+
+    static final Manifest EMPTY = new Manifest(0, 0);
+
+    final int chunkCount;
+    final long length;
+
+    Manifest(int chunkCount, long length) {
+      this.chunkCount = chunkCount;
+      this.length = length;
+    }
+  }
+
+  private final int prefetch;
+  private final Supplier<Future<Manifest>> readManifest;
+  private final IntFunction<Future<Buffer>> readChunk;
+  // chunks read or being read, in index order
+  private final ArrayDeque<Future<Buffer>> chunks = new ArrayDeque<>();
+
+  private Manifest manifest;
+  private int nextIndex;
+  private long bytes;
+
+  /**
+   * @param readManifest reads the manifest, {@link Manifest#EMPTY} if the blob does not exist
+   * @param readChunk    reads the chunk at an index, or {@code null} if there is none
+   */
+  BlobReadStream(Context context, int prefetch, Supplier<Future<Manifest>> readManifest, IntFunction<Future<Buffer>> readChunk) {
+    super(context);
+    this.prefetch = prefetch;
+    this.readManifest = readManifest;
+    this.readChunk = readChunk;
+  }
+
+  @Override
+  void start() {
+    readManifest.get().onComplete(ar -> runOnContext(v -> {
+      if (state == State.STOPPED) {
+        return;
+      }
+      if (ar.failed()) {
+        handleException(ar.cause());
+      } else {
+        manifest = ar.result();
+        emit();
+      }
+    }));
+  }
+
+  @Override
+  Buffer next() {
+    Future<Buffer> head = chunks.peek();
+    if (head == null || !head.isComplete()) {
+      return null;
+    }
+    if (head.failed()) {
+      handleException(head.cause());
+      return null;
+    }
+    Buffer chunk = head.result();
+    if (chunk == null) {
+      handleException(new VertxException("Blob chunk " + (nextIndex - chunks.size()) + " is missing, expected " + manifest.chunkCount + " chunks"));
+      return null;
+    }
+    chunks.poll();
+    bytes += chunk.length();
+    return chunk;
+  }
+
+  @Override
+  void emitted() {
+    if (manifest == null) {
+      return;
+    }
+    if (chunks.isEmpty() && nextIndex >= manifest.chunkCount) {
+      if (bytes == manifest.length) {
+        end();
+      } else {
+        handleException(new VertxException("Blob chunks hold " + bytes + " bytes, expected " + manifest.length));
+      }
+      return;
+    }
+    while (state == State.STARTED && chunks.size() < prefetch && nextIndex < manifest.chunkCount) {
+      Future<Buffer> future = readChunk.apply(nextIndex++);
+      chunks.add(future);
+      future.onComplete(ar -> runOnContext(v -> emit()));
+    }
+  }
+
+  @Override
+  void stopped() {
+    chunks.clear();
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.netty.buffer.Unpooled;
+import io.vertx.cassandra.BlobStore;
+import io.vertx.cassandra.BlobStoreOptions;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BlobStoreImpl implements BlobStore {
+
+  private final VertxInternal vertx;
+  private final CassandraClient client;
+  private final int chunkSize;
+  private final int maxConcurrentWrites;
+  private final int prefetch;
+  private final String insert;
+  private final String select;
+  private final String updateManifest;
+  private final String selectManifest;
+  private final String deleteFrom;
+  private final String deleteAll;
+  private final Map<String, Future<PreparedStatement>> preparedStatements = new ConcurrentHashMap<>();
+
+  public BlobStoreImpl(Vertx vertx, CassandraClient client, BlobStoreOptions options) {
+    this.vertx = (VertxInternal) Objects.requireNonNull(vertx, "vertx");
+    this.client = Objects.requireNonNull(client, "client");
+    Objects.requireNonNull(options, "options");
+    if (options.getTable() == null) {
+      throw new IllegalArgumentException("The table must be set");
+    }
+    chunkSize = options.getChunkSize();
+    maxConcurrentWrites = options.getMaxConcurrentWrites();
+    prefetch = options.getPrefetch();
+    String table = options.getTable();
+    String key = options.getKeyColumn();
+    String chunk = options.getChunkColumn();
+    insert = "INSERT INTO " + table + " (" + key + ", " + chunk + ", " + options.getDataColumn() + ") VALUES (?, ?, ?)";
+    select = "SELECT " + options.getDataColumn() + " FROM " + table + " WHERE " + key + " = ? AND " + chunk + " = ?";
+    updateManifest = "UPDATE " + table + " SET " + options.getChunkCountColumn() + " = ?, " + options.getLengthColumn() + " = ? WHERE " + key + " = ?";
+    selectManifest = "SELECT " + options.getChunkCountColumn() + ", " + options.getLengthColumn() + " FROM " + table + " WHERE " + key + " = ? LIMIT 1";
+    deleteFrom = "DELETE FROM " + table + " WHERE " + key + " = ? AND " + chunk + " >= ?";
+    deleteAll = "DELETE FROM " + table + " WHERE " + key + " = ?";
+  }
+
+  @Override
+  public WriteStream<Buffer> writeStream(Object key) {
+    Objects.requireNonNull(key, "key");
+    return new BlobWriteStream(vertx.getOrCreateContext(), chunkSize, maxConcurrentWrites,
+      (index, data) -> insert(key, index, data), (chunkCount, length) -> complete(key, chunkCount, length));
+  }
+
+  @Override
+  public Future<Long> write(Object key, ReadStream<Buffer> data) {
+    Objects.requireNonNull(data, "data");
+    BlobWriteStream stream = (BlobWriteStream) writeStream(key);
+    return data.pipeTo(stream).map(v -> stream.bytes());
+  }
+
+  @Override
+  public ReadStream<Buffer> read(Object key) {
+    Objects.requireNonNull(key, "key");
+    return new BlobReadStream(vertx.getOrCreateContext(), prefetch, () -> readManifest(key), index -> readChunk(key, index));
+  }
+
+  @Override
+  public Future<Void> delete(Object key) {
+    Objects.requireNonNull(key, "key");
+    return prepare(deleteAll)
+      .flatMap(prepared -> client.execute(prepared.bind(key)))
+      .mapEmpty();
+  }
+
+  private Future<Void> insert(Object key, int index, Buffer data) {
+    // the chunk is sent from the bytes of the buffer
+    ByteBuffer bytes = data.getByteBuf().nioBuffer();
+    return prepare(insert)
+      .flatMap(prepared -> client.execute(prepared.bind(key, index, bytes)))
+      .mapEmpty();
+  }
+
+  /**
+   * Write the manifest of a blob whose chunks have all been written, then delete the chunks of a previous, longer,
+   * version of the blob.
+   */
+  private Future<Void> complete(Object key, int chunkCount, long length) {
+    return prepare(updateManifest)
+      .flatMap(prepared -> client.execute(prepared.bind(chunkCount, length, key)))
+      .flatMap(rs -> prepare(deleteFrom))
+      .flatMap(prepared -> client.execute(prepared.bind(key, chunkCount)))
+      .mapEmpty();
+  }
+
+  private Future<BlobReadStream.Manifest> readManifest(Object key) {
+    return prepare(selectManifest)
+      .flatMap(prepared -> client.execute(prepared.bind(key)))
+      .flatMap(rs -> {
+        Row row = rs.one();
+        if (row == null) {
+          return Future.succeededFuture(BlobReadStream.Manifest.EMPTY);
+        }
+        if (row.isNull(0) || row.isNull(1)) {
+          return Future.failedFuture(new VertxException("Blob " + key + " has no chunk count, it is being written or its write failed"));
+        }
+        return Future.succeededFuture(new BlobReadStream.Manifest(row.getInt(0), row.getLong(1)));
+      });
+  }
+
+  /**
+   * @return the chunk, or {@code null} if there is no chunk at {@code index}
+   */
+  private Future<Buffer> readChunk(Object key, int index) {
+    return prepare(select)
+      .flatMap(prepared -> client.execute(prepared.bind(key, index)))
+      .map(rs -> {
+        Row row = rs.one();
+        if (row == null) {
+          return null;
+        }
+        ByteBuffer bytes = row.getByteBuffer(0);
+        return bytes == null ? Buffer.buffer() : Buffer.buffer(Unpooled.wrappedBuffer(bytes));
+      });
+  }
+
+  private Future<PreparedStatement> prepare(String query) {
+    Future<PreparedStatement> future = preparedStatements.get(query);
+    if (future == null || future.failed()) {
+      future = client.prepare(query);
+      preparedStatements.put(query, future);
+    }
+    return future;
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.streams.WriteStream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the data written in chunks, and writes each chunk as soon as it is full.
+ * <p>
+ * All state is confined to the creating context, except the number of chunks being written which can be read from any
+ * thread. The future of a write is completed when the chunk holding its last byte has been written. When the stream is
+ * ended and all the chunks have been written, the blob is completed with its number of chunks and its length.
+ */
+class BlobWriteStream implements WriteStream<Buffer> {
+
+  /**
+   * Writes the chunk at an index.
+   */
+  interface ChunkWriter {
+    Future<Void> write(int index, Buffer data);
+  }
+
+  /**
+   * Completes a blob whose chunks have all been written.
+   */
+  interface Completer {
+    Future<Void> complete(int chunkCount, long length);
+  }
+
+  private final ContextInternal context;
+  private final int chunkSize;
+  private final ChunkWriter writer;
+  private final Completer completer;
+
+  private volatile int maxConcurrentWrites;
+  private volatile int inFlight;
+
+  private Buffer chunk;
+  private List<Promise<Void>> waiting = new ArrayList<>();
+  private int nextIndex;
+  private long bytes;
+  private boolean ended;
+  private boolean full;
+  private Throwable failure;
+  private Promise<Void> endPromise;
+  private Handler<Void> drainHandler;
+  private Handler<Throwable> exceptionHandler;
+
+  BlobWriteStream(ContextInternal context, int chunkSize, int maxConcurrentWrites, ChunkWriter writer, Completer completer) {
+    this.context = context;
+    this.chunkSize = chunkSize;
+    this.maxConcurrentWrites = maxConcurrentWrites;
+    this.writer = writer;
+    this.completer = completer;
+  }
+
+  /**
+   * @return the number of bytes written so far
+   */
+  long bytes() {
+    return bytes;
+  }
+
+  @Override
+  public BlobWriteStream exceptionHandler(Handler<Throwable> handler) {
+    runOnContext(v -> exceptionHandler = handler);
+    return this;
+  }
+
+  @Override
+  public Future<Void> write(Buffer data) {
+    Promise<Void> promise = context.promise();
+    write(data, promise);
+    return promise.future();
+  }
+
+  @Override
+  public void write(Buffer data, Handler<AsyncResult<Void>> handler) {
+    Promise<Void> promise = context.promise();
+    if (handler != null) {
+      promise.future().onComplete(handler);
+    }
+    runOnContext(v -> doWrite(data, promise));
+  }
+
+  private void doWrite(Buffer data, Promise<Void> promise) {
+    if (ended) {
+      promise.fail("Blob stream is ended");
+      return;
+    }
+    if (failure != null) {
+      promise.fail(failure);
+      return;
+    }
+    int length = data.length();
+    if (length == 0) {
+      promise.complete();
+      return;
+    }
+    bytes += length;
+    int pos = 0;
+    while (pos < length) {
+      if (chunk == null) {
+        chunk = Buffer.buffer(chunkSize);
+      }
+      int n = Math.min(chunkSize - chunk.length(), length - pos);
+      chunk.appendBuffer(data, pos, n);
+      pos += n;
+      if (chunk.length() == chunkSize) {
+        if (pos == length) {
+          waiting.add(promise);
+        }
+        writeChunk();
+      }
+    }
+    if (chunk != null) {
+      // the last byte is in the chunk being filled
+      waiting.add(promise);
+    }
+  }
+
+  private void writeChunk() {
+    Buffer data = chunk;
+    List<Promise<Void>> promises = waiting;
+    chunk = null;
+    waiting = new ArrayList<>();
+    inFlight++;
+    if (inFlight >= maxConcurrentWrites) {
+      full = true;
+    }
+    writer.write(nextIndex++, data).onComplete(ar -> runOnContext(v -> {
+      inFlight--;
+      if (ar.succeeded()) {
+        promises.forEach(Promise::complete);
+      } else {
+        promises.forEach(p -> p.fail(ar.cause()));
+        if (failure == null) {
+          failure = ar.cause();
+          Handler<Throwable> h = exceptionHandler;
+          if (h != null) {
+            h.handle(failure);
+          }
+        }
+      }
+      if (full && inFlight < maxConcurrentWrites) {
+        full = false;
+        Handler<Void> h = drainHandler;
+        if (h != null) {
+          h.handle(null);
+        }
+      }
+      checkEnd();
+    }));
+  }
+
+  @Override
+  public void end(Handler<AsyncResult<Void>> handler) {
+    Promise<Void> promise = context.promise();
+    if (handler != null) {
+      promise.future().onComplete(handler);
+    }
+    runOnContext(v -> {
+      if (ended) {
+        promise.fail("Blob stream is already ended");
+        return;
+      }
+      ended = true;
+      endPromise = promise;
+      if (chunk != null) {
+        if (failure == null) {
+          writeChunk();
+        } else {
+          waiting.forEach(p -> p.fail(failure));
+          waiting.clear();
+          chunk = null;
+        }
+      }
+      checkEnd();
+    });
+  }
+
+  private void checkEnd() {
+    Promise<Void> promise = endPromise;
+    if (promise == null || inFlight > 0) {
+      return;
+    }
+    endPromise = null;
+    if (failure != null) {
+      promise.fail(failure);
+    } else {
+      completer.complete(nextIndex, bytes).onComplete(promise);
+    }
+  }
+
+  @Override
+  public BlobWriteStream setWriteQueueMaxSize(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be strictly positive");
+    }
+    maxConcurrentWrites = maxSize;
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return inFlight >= maxConcurrentWrites;
+  }
+
+  @Override
+  public BlobWriteStream drainHandler(Handler<Void> handler) {
+    runOnContext(v -> drainHandler = handler);
+    return this;
+  }
+
+  private void runOnContext(Handler<Void> action) {
+    if (Vertx.currentContext() == context) {
+      action.handle(null);
+    } else {
+      context.runOnContext(action);
+    }
+  }
+}
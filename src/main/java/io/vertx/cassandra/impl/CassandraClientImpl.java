@@ -17,6 +17,12 @@ package io.vertx.cassandra.impl;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.CqlSessionBuilder;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
@@ -25,18 +31,31 @@ import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.session.Session;
 import io.vertx.cassandra.CassandraClient;
 import io.vertx.cassandra.CassandraClientOptions;
+import io.vertx.cassandra.CassandraInterceptor;
 import io.vertx.cassandra.CassandraRowStream;
+import io.vertx.cassandra.ColumnarBatch;
+import io.vertx.cassandra.FanOutResult;
+import io.vertx.cassandra.PreparedQuery;
 import io.vertx.cassandra.ResultSet;
 import io.vertx.core.*;
 import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.impl.VertxInternal;
-
+import io.vertx.core.streams.ReadStream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collector;
+import java.util.stream.IntStream;
 
 import static io.vertx.cassandra.impl.Util.setHandler;
 
@@ -48,11 +67,23 @@ public class CassandraClientImpl implements CassandraClient {
 
   static final String HOLDERS_LOCAL_MAP_NAME = "__vertx.cassandraClient.sessionHolders";
 
+  // e.g. 1,000 keyspaces of 50 queries each
+  private static final int MAX_ROUTED_PREPARED_STATEMENTS = 50_000;
+
   final VertxInternal vertx;
   private final String clientName;
   private final CassandraClientOptions options;
   private final Map<String, SessionHolder> holders;
   private final ContextInternal creatingContext;
+  private final CassandraInterceptor[] interceptors;
+  private final CassandraInterceptor.Execution interceptorChain;
+  private final MemoryGovernor memoryGovernor;
+  private final ReadCoalescer readCoalescer;
+  private final AutoPreparer autoPreparer;
+  private final CassandraClientImpl root;
+  private final KeyspaceRouter router;
+  private final Map<String, PreparedStatement> routedPreparedStatements;
+  private final long timeout;
 
   private boolean closed;
 
@@ -67,10 +98,83 @@ public class CassandraClientImpl implements CassandraClient {
     holders = vertx.sharedData().getLocalMap(HOLDERS_LOCAL_MAP_NAME);
     SessionHolder current = holders.compute(clientName, (k, h) -> h == null ? new SessionHolder() : h.increment());
     creatingContext.addCloseHook(this::close);
+    List<CassandraInterceptor> interceptorList = options.getInterceptors();
+    if (interceptorList.isEmpty()) {
+      interceptors = null;
+      interceptorChain = null;
+    } else {
+      interceptors = interceptorList.toArray(new CassandraInterceptor[0]);
+      CassandraInterceptor.Execution chain = this::executeWithDriver;
+      for (int i = interceptors.length - 1; i >= 0; i--) {
+        CassandraInterceptor interceptor = interceptors[i];
+        CassandraInterceptor.Execution next = chain;
+        chain = statement -> interceptor.execute(statement, next);
+      }
+      interceptorChain = chain;
+    }
+    if (options.getMaxBufferedBytes() > 0) {
+      memoryGovernor = new MemoryGovernor(this.vertx, options.getMaxBufferedBytes(), options.getAdmissionTimeout(), options.getPausedStreamTimeout());
+    } else {
+      memoryGovernor = null;
+    }
+    readCoalescer = options.isCoalesceReads() ? new ReadCoalescer() : null;
+    if (options.getAutoPrepareThreshold() > 0) {
+      autoPreparer = new AutoPreparer(options.getAutoPrepareThreshold(), options.getMaxAutoPreparedStatements());
+    } else {
+      autoPreparer = null;
+    }
+    root = this;
+    router = null;
+    // least recently used statements are evicted first, so that the statements of active keyspaces stay cached
+    routedPreparedStatements = Collections.synchronizedMap(new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+        return size() > MAX_ROUTED_PREPARED_STATEMENTS;
+      }
+    });
+    timeout = 0;
+  }
+
+  /**
+   * Create a view of {@code root} routing statements with {@code router}, may be {@code null}, and bounding calls by
+   * {@code timeout}, may be {@code 0}.
+   */
+  private CassandraClientImpl(CassandraClientImpl root, KeyspaceRouter router, long timeout) {
+    this.vertx = root.vertx;
+    this.clientName = root.clientName;
+    this.options = root.options;
+    this.holders = root.holders;
+    this.creatingContext = root.creatingContext;
+    this.interceptors = root.interceptors;
+    this.interceptorChain = root.interceptorChain;
+    this.memoryGovernor = root.memoryGovernor;
+    this.readCoalescer = root.readCoalescer;
+    this.autoPreparer = root.autoPreparer;
+    this.root = root;
+    this.router = router;
+    this.routedPreparedStatements = root.routedPreparedStatements;
+    this.timeout = timeout;
+  }
+
+  @Override
+  public CassandraClient withKeyspace(String keyspace) {
+    Objects.requireNonNull(keyspace, "keyspace");
+    return new CassandraClientImpl(root, new KeyspaceRouter(keyspace), timeout);
+  }
+
+  @Override
+  public CassandraClient withTimeout(long timeout) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("timeout must be >= 0");
+    }
+    return new CassandraClientImpl(root, router, timeout);
   }
 
   @Override
   public synchronized boolean isConnected() {
+    if (root != this) {
+      return root.isConnected();
+    }
     if (closed) {
       return false;
     }
@@ -99,8 +203,17 @@ public class CassandraClientImpl implements CassandraClient {
 
   @Override
   public Future<List<Row>> executeWithFullFetch(Statement statement) {
-    return execute(statement)
-      .flatMap(ResultSet::all);
+    long deadline = deadline();
+    Statement routed = route(statement);
+    if (memoryGovernor == null) {
+      return executeRouted(routed, deadline)
+        .flatMap(ResultSet::all);
+    }
+    return memoryGovernor.admit(vertx.getOrCreateContext())
+      .flatMap(lease -> withDeadline(routed, deadline)
+        .flatMap(bounded -> executeInternal(bounded)
+          .flatMap(rs -> newResultSet(bounded, lease.charge(rs), lease::charge, deadline).all()))
+        .onComplete(ar -> lease.release()));
   }
 
   public CassandraClient execute(String query, Handler<AsyncResult<ResultSet>> resultHandler) {
@@ -135,9 +248,101 @@ public class CassandraClientImpl implements CassandraClient {
 
   @Override
   public Future<ResultSet> execute(Statement statement) {
+    return executeRouted(route(statement), deadline());
+  }
+
+  private Future<ResultSet> executeRouted(Statement routed, long deadline) {
+    return withDeadline(routed, deadline)
+      .flatMap(bounded -> executeInternal(bounded)
+        .map(rs -> newResultSet(bounded, rs, null, deadline)));
+  }
+
+  private Statement route(Statement statement) {
+    return router == null ? statement : router.route(statement);
+  }
+
+  /**
+   * @return the {@link System#nanoTime()} after which a call made now fails, {@code 0} for no deadline
+   */
+  private long deadline() {
+    return timeout == 0 ? 0 : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+  }
+
+  /**
+   * Reduce the request timeout of {@code statement} to the time left before {@code deadline}.
+   */
+  private Future<Statement> withDeadline(Statement statement, long deadline) {
+    ContextInternal context = vertx.getOrCreateContext();
+    if (deadline == 0) {
+      return context.succeededFuture(statement);
+    }
+    return getSession(context).flatMap(session -> {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return context.failedFuture(new DriverTimeoutException("Deadline exceeded"));
+      }
+      Duration timeout = statement.getTimeout();
+      if (timeout == null) {
+        DriverExecutionProfile profile = statement.getExecutionProfile();
+        if (profile == null) {
+          DriverConfig config = session.getContext().getConfig();
+          String name = statement.getExecutionProfileName();
+          profile = name == null ? config.getDefaultProfile() : config.getProfile(name);
+        }
+        timeout = profile.getDuration(DefaultDriverOption.REQUEST_TIMEOUT);
+      }
+      if (timeout.toNanos() <= remaining) {
+        return context.succeededFuture(statement);
+      }
+      return context.succeededFuture(statement.setTimeout(Duration.ofNanos(remaining)));
+    });
+  }
+
+  private Future<AsyncResultSet> executeInternal(Statement statement) {
+    if (interceptorChain == null) {
+      return executeWithDriver(statement);
+    }
+    return interceptorChain.execute(statement)
+      .map(rs -> interceptPage(statement, rs));
+  }
+
+  private Future<AsyncResultSet> executeWithDriver(Statement statement) {
+    if (autoPreparer != null) {
+      statement = autoPreparer.rewrite(statement, this::prepare);
+    }
+    if (readCoalescer != null) {
+      return readCoalescer.execute(vertx.getOrCreateContext(), statement, this::executeOnSession);
+    }
+    return executeOnSession(statement);
+  }
+
+  private Future<AsyncResultSet> executeOnSession(Statement statement) {
     return getSession(vertx.getOrCreateContext())
-      .flatMap(session -> Future.fromCompletionStage(session.executeAsync(statement), vertx.getContext()))
-      .map(rs -> new ResultSetImpl(rs, vertx));
+      .flatMap(session -> Future.fromCompletionStage(session.executeAsync(statement), vertx.getContext()));
+  }
+
+  /**
+   * @param pageListener applied to pages fetched after the first one before interceptors, may be {@code null}
+   * @param deadline     the deadline of the call, {@code 0} for none
+   */
+  private ResultSetImpl newResultSet(Statement statement, AsyncResultSet rs, Function<AsyncResultSet, AsyncResultSet> pageListener, long deadline) {
+    Function<AsyncResultSet, AsyncResultSet> pageInterceptor;
+    if (interceptors == null) {
+      pageInterceptor = pageListener;
+    } else if (pageListener == null) {
+      pageInterceptor = page -> interceptPage(statement, page);
+    } else {
+      pageInterceptor = page -> interceptPage(statement, pageListener.apply(page));
+    }
+    return new ResultSetImpl(rs, vertx, pageInterceptor, options.isPackedRows(), deadline);
+  }
+
+  private AsyncResultSet interceptPage(Statement statement, AsyncResultSet page) {
+    AsyncResultSet result = page;
+    for (CassandraInterceptor interceptor : interceptors) {
+      result = interceptor.page(statement, result);
+    }
+    return result;
   }
 
   @Override
@@ -153,10 +358,13 @@ public class CassandraClientImpl implements CassandraClient {
   }
 
   private <C, R> Future<R> executeAndCollect(Statement statement, Collector<Row, C, R> collector) {
+    if (options.getCollectorParallelism() > 0) {
+      return executeAndCollectOnWorkers(statement, collector);
+    }
     C container = collector.supplier().get();
     BiConsumer<C, Row> accumulator = collector.accumulator();
     Function<C, R> finisher = collector.finisher();
-    return queryStream(statement)
+    return queryStream(statement, true)
       .flatMap(cassandraRowStream -> {
         Promise<R> resultPromise = Promise.promise();
         cassandraRowStream.endHandler(end -> {
@@ -171,6 +379,27 @@ public class CassandraClientImpl implements CassandraClient {
       });
   }
 
+  private <C, R> Future<R> executeAndCollectOnWorkers(Statement statement, Collector<Row, C, R> collector) {
+    long deadline = deadline();
+    Statement routed = route(statement);
+    ContextInternal context = vertx.getOrCreateContext();
+    int parallelism = options.getCollectorParallelism();
+    if (memoryGovernor == null) {
+      PipelinedCollector<C, R> pipelinedCollector = new PipelinedCollector<>(context, collector, parallelism, null);
+      return executeRouted(routed, deadline)
+        .flatMap(pipelinedCollector::collect);
+    }
+    // pages are released once accumulated
+    return memoryGovernor.admit(context)
+      .flatMap(lease -> {
+        PipelinedCollector<C, R> pipelinedCollector = new PipelinedCollector<>(context, collector, parallelism, lease);
+        return withDeadline(routed, deadline)
+          .flatMap(bounded -> executeInternal(bounded)
+            .flatMap(rs -> pipelinedCollector.collect(newResultSet(bounded, pipelinedCollector.charge(rs), pipelinedCollector::charge, deadline))))
+          .onComplete(ar -> lease.release());
+      });
+  }
+
   @Override
   public CassandraClient prepare(String query, Handler<AsyncResult<PreparedStatement>> resultHandler) {
     Future<PreparedStatement> future = prepare(query);
@@ -180,10 +409,26 @@ public class CassandraClientImpl implements CassandraClient {
 
   @Override
   public Future<PreparedStatement> prepare(String query) {
+    if (router != null) {
+      return prepareRouted(query);
+    }
     return getSession(vertx.getOrCreateContext())
       .flatMap(session -> Future.fromCompletionStage(session.prepareAsync(query), vertx.getContext()));
   }
 
+  private Future<PreparedStatement> prepareRouted(String query) {
+    String qualified = router.qualify(query);
+    if (qualified == null) {
+      return prepare(SimpleStatement.newInstance(query));
+    }
+    // prepared statements are cached by qualified query, i.e. per keyspace
+    PreparedStatement cached = routedPreparedStatements.get(qualified);
+    if (cached != null) {
+      return vertx.getOrCreateContext().succeededFuture(cached);
+    }
+    return root.prepare(qualified).onSuccess(prepared -> routedPreparedStatements.put(qualified, prepared));
+  }
+
   @Override
   public CassandraClient prepare(SimpleStatement statement, Handler<AsyncResult<PreparedStatement>> resultHandler) {
     Future<PreparedStatement> future = prepare(statement);
@@ -193,8 +438,22 @@ public class CassandraClientImpl implements CassandraClient {
 
   @Override
   public Future<PreparedStatement> prepare(SimpleStatement statement) {
+    SimpleStatement routed = router == null ? statement : router.route(statement);
     return getSession(vertx.getOrCreateContext())
-      .flatMap(session -> Future.fromCompletionStage(session.prepareAsync(statement), vertx.getContext()));
+      .flatMap(session -> Future.fromCompletionStage(session.prepareAsync(routed), vertx.getContext()));
+  }
+
+  @Override
+  public CassandraClient prepareQuery(String query, Handler<AsyncResult<PreparedQuery>> resultHandler) {
+    Future<PreparedQuery> future = prepareQuery(query);
+    setHandler(future, resultHandler);
+    return this;
+  }
+
+  @Override
+  public Future<PreparedQuery> prepareQuery(String query) {
+    return prepare(query).flatMap(prepared -> getSession(vertx.getOrCreateContext())
+      .map(session -> new PreparedQueryImpl(this, prepared, session.getContext().getCodecRegistry(), session.getContext().getProtocolVersion())));
   }
 
   @Override
@@ -218,18 +477,138 @@ public class CassandraClientImpl implements CassandraClient {
 
   @Override
   public Future<CassandraRowStream> queryStream(Statement statement) {
-    return getSession(vertx.getOrCreateContext())
-      .flatMap(session -> Future.fromCompletionStage(session.executeAsync(statement), vertx.getContext()))
-      .map(rs -> {
-        ResultSet resultSet = new ResultSetImpl(rs, vertx);
-        return new CassandraRowStreamImpl(vertx.getContext(), resultSet);
+    return queryStream(statement, false);
+  }
+
+  /**
+   * @param retainsRows whether the rows of previous pages are still referenced when the next page is fetched
+   */
+  private Future<CassandraRowStream> queryStream(Statement statement, boolean retainsRows) {
+    long deadline = deadline();
+    Statement routed = route(statement);
+    if (memoryGovernor == null) {
+      return executeRouted(routed, deadline)
+        .map(resultSet -> new CassandraRowStreamImpl(vertx.getContext(), resultSet));
+    }
+    return memoryGovernor.admit(vertx.getOrCreateContext())
+      .flatMap(lease -> {
+        Function<AsyncResultSet, AsyncResultSet> charge = retainsRows ? lease::charge : lease::replace;
+        return withDeadline(routed, deadline)
+          .flatMap(bounded -> executeInternal(bounded)
+            .<CassandraRowStream>map(rs -> {
+              ResultSet resultSet = newResultSet(bounded, charge.apply(rs), charge, deadline);
+              return new CassandraRowStreamImpl(vertx.getContext(), resultSet, lease);
+            }))
+          .onFailure(t -> lease.release());
+      });
+  }
+
+  @Override
+  public CassandraClient columnarStream(Statement statement, Handler<AsyncResult<ReadStream<ColumnarBatch>>> batchStreamHandler) {
+    Future<ReadStream<ColumnarBatch>> future = columnarStream(statement);
+    setHandler(future, batchStreamHandler);
+    return this;
+  }
+
+  @Override
+  public Future<ReadStream<ColumnarBatch>> columnarStream(Statement statement) {
+    long deadline = deadline();
+    Statement routed = route(statement);
+    if (memoryGovernor == null) {
+      return executeRouted(routed, deadline)
+        .map(resultSet -> new ColumnarBatchStream(vertx.getContext(), resultSet));
+    }
+    return memoryGovernor.admit(vertx.getOrCreateContext())
+      .flatMap(lease -> withDeadline(routed, deadline)
+        .flatMap(bounded -> executeInternal(bounded)
+          .<ReadStream<ColumnarBatch>>map(rs -> {
+            ResultSet resultSet = newResultSet(bounded, lease.replace(rs), lease::replace, deadline);
+            return new ColumnarBatchStream(vertx.getContext(), resultSet, lease);
+          }))
+        .onFailure(t -> lease.release()));
+  }
+
+  @Override
+  public CassandraClient executeAll(PreparedStatement preparedStatement, List<? extends List<?>> values, int concurrency, Handler<AsyncResult<FanOutResult>> resultHandler) {
+    Future<FanOutResult> future = executeAll(preparedStatement, values, concurrency);
+    setHandler(future, resultHandler);
+    return this;
+  }
+
+  @Override
+  public Future<FanOutResult> executeAll(PreparedStatement preparedStatement, List<? extends List<?>> values, int concurrency) {
+    checkFanOut(preparedStatement, values, concurrency);
+    ContextInternal context = vertx.getOrCreateContext();
+    FanOutResultImpl result = new FanOutResultImpl(values);
+    Promise<FanOutResult> promise = context.promise();
+    context.runOnContext(v -> {
+      Iterator<Integer> indexes = IntStream.range(0, values.size()).iterator();
+      Util.forEachBounded(context, indexes, concurrency, index -> executeBound(preparedStatement, values.get(index))
+        .onComplete(ar -> result.complete(index, ar)))
+        .onComplete(ar -> promise.complete(result));
+    });
+    return promise.future();
+  }
+
+  @Override
+  public ReadStream<Row> executeAllStream(PreparedStatement preparedStatement, List<? extends List<?>> values, int concurrency) {
+    checkFanOut(preparedStatement, values, concurrency);
+    return new FanOutRowStream(vertx.getOrCreateContext(), values, concurrency, v -> executeBound(preparedStatement, v));
+  }
+
+  private static void checkFanOut(PreparedStatement preparedStatement, List<? extends List<?>> values, int concurrency) {
+    Objects.requireNonNull(preparedStatement, "preparedStatement");
+    Objects.requireNonNull(values, "values");
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be >= 1");
+    }
+  }
+
+  private Future<List<Row>> executeBound(PreparedStatement preparedStatement, List<?> values) {
+    BoundStatement statement;
+    try {
+      statement = preparedStatement.bind(values.toArray());
+    } catch (Exception e) {
+      return vertx.getOrCreateContext().failedFuture(e);
+    }
+    return executeWithFullFetch(statement);
+  }
+
+  @Override
+  public CassandraClient mergedStream(List<Statement> statements, Comparator<Row> comparator, long limit, Handler<AsyncResult<ReadStream<Row>>> rowStreamHandler) {
+    Future<ReadStream<Row>> future = mergedStream(statements, comparator, limit);
+    setHandler(future, rowStreamHandler);
+    return this;
+  }
+
+  @Override
+  public Future<ReadStream<Row>> mergedStream(List<Statement> statements, Comparator<Row> comparator, long limit) {
+    Objects.requireNonNull(statements, "statements");
+    Objects.requireNonNull(comparator, "comparator");
+    if (limit < 0) {
+      throw new IllegalArgumentException("limit must be >= 0");
+    }
+    List<Future> futures = new ArrayList<>(statements.size());
+    for (Statement statement : statements) {
+      futures.add(execute(statement));
+    }
+    // all the executions complete, so that the result sets of those which succeeded can be cancelled
+    return CompositeFuture.join(futures)
+      .<ReadStream<Row>>map(cf -> new MergedRowStream(vertx.getContext(), cf.list(), comparator, limit))
+      .onFailure(t -> {
+        for (Future future : futures) {
+          if (future.succeeded()) {
+            ((ResultSet) future.result()).cancel();
+          }
+        }
       });
   }
 
   @Override
   public Future<Void> close() {
     ContextInternal context = vertx.getOrCreateContext();
-    if (raiseCloseFlag()) {
+    // the session belongs to the root client
+    if (root == this && raiseCloseFlag()) {
       do {
         SessionHolder current = holders.get(clientName);
         SessionHolder next = current.decrement();
@@ -268,7 +647,11 @@ public class CassandraClientImpl implements CassandraClient {
     return false;
   }
 
-  synchronized Future<CqlSession> getSession(ContextInternal context) {
+  Future<CqlSession> getSession(ContextInternal context) {
+    return root == this ? getRootSession(context) : root.getSession(context);
+  }
+
+  private synchronized Future<CqlSession> getRootSession(ContextInternal context) {
     if (closed) {
       return context.failedFuture("Client is closed");
     }
@@ -26,6 +26,9 @@ import io.vertx.core.Vertx;
 import io.vertx.core.streams.impl.InboundBuffer;
 
 /**
+ * A stream confined to its context: calls made from other threads are executed on the context, so that rows are
+ * emitted without locking.
+ *
  * @author Pavel Drankou
  * @author Thomas Segismont
  */
@@ -38,86 +41,110 @@ public class CassandraRowStreamImpl implements CassandraRowStream {
   private final Context context;
   private final ResultSet resultSet;
   private final InboundBuffer<Row> internalQueue;
+  private final MemoryGovernor.Lease lease;
 
+  // only accessed on the context
   private State state;
-  private int inFlight;
+  private boolean fetching;
   private Handler<Row> handler;
   private Handler<Throwable> exceptionHandler;
   private Handler<Void> endHandler;
 
   public CassandraRowStreamImpl(Context context, ResultSet resultSet) {
+    this(context, resultSet, null);
+  }
+
+  /**
+   * @param lease the bytes held by the stream, released when the stream stops, may be {@code null}
+   */
+  CassandraRowStreamImpl(Context context, ResultSet resultSet, MemoryGovernor.Lease lease) {
     this.context = context;
     this.resultSet = resultSet;
+    this.lease = lease;
     internalQueue = new InboundBuffer<Row>(context)
       .exceptionHandler(this::handleException)
-      .drainHandler(v -> fetchRow());
+      .drainHandler(v -> fetchRows())
+      .emptyHandler(v -> checkEnd());
     state = State.IDLE;
   }
 
   @Override
-  public synchronized CassandraRowStream exceptionHandler(Handler<Throwable> handler) {
-    if (state != State.STOPPED) {
-      exceptionHandler = handler;
-    }
+  public CassandraRowStream exceptionHandler(Handler<Throwable> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        exceptionHandler = handler;
+      }
+    });
     return this;
   }
 
   @Override
-  public synchronized CassandraRowStream handler(Handler<Row> handler) {
-    if (state == State.STOPPED) {
-      return this;
-    }
-    if (handler == null) {
-      stop();
-      if (context != Vertx.currentContext()) {
-        context.runOnContext(v -> handleEnd());
-      } else {
-        handleEnd();
+  public CassandraRowStream handler(Handler<Row> handler) {
+    runOnContext(v -> {
+      if (state == State.STOPPED) {
+        return;
       }
-    } else {
-      this.handler = handler;
-      internalQueue.handler(this::handleRow);
-      if (state == State.IDLE) {
-        state = State.STARTED;
-        if (context != Vertx.currentContext()) {
-          context.runOnContext(v -> fetchRow());
-        } else {
-          fetchRow();
+      if (handler == null) {
+        stop();
+        handleEnd();
+      } else {
+        this.handler = handler;
+        internalQueue.handler(this::handleRow);
+        if (state == State.IDLE) {
+          state = State.STARTED;
+          fetchRows();
         }
       }
-    }
+    });
     return this;
   }
 
   @Override
-  public synchronized CassandraRowStream pause() {
-    if (state != State.STOPPED) {
-      internalQueue.pause();
-    }
+  public CassandraRowStream pause() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.pause();
+        if (lease != null) {
+          lease.paused(t -> runOnContext(v2 -> handleException(t)));
+        }
+      }
+    });
     return this;
   }
 
   @Override
-  public synchronized CassandraRowStream resume() {
-    if (state != State.STOPPED) {
-      internalQueue.resume();
-    }
+  public CassandraRowStream resume() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        if (lease != null) {
+          lease.resumed();
+        }
+        internalQueue.resume();
+      }
+    });
     return this;
   }
 
   @Override
-  public synchronized CassandraRowStream endHandler(Handler<Void> handler) {
-    if (state != State.STOPPED) {
-      endHandler = handler;
-    }
+  public CassandraRowStream endHandler(Handler<Void> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        endHandler = handler;
+      }
+    });
     return this;
   }
 
   @Override
-  public synchronized CassandraRowStream fetch(long l) {
-    if (state != State.STOPPED) {
-      internalQueue.fetch(l);
-    }
+  public CassandraRowStream fetch(long l) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        if (lease != null) {
+          lease.resumed();
+        }
+        internalQueue.fetch(l);
+      }
+    });
     return this;
   }
 
@@ -131,91 +158,83 @@ public class CassandraRowStreamImpl implements CassandraRowStream {
     return resultSet.getColumnDefinitions();
   }
 
-  private synchronized void fetchRow() {
-    if (state == State.STOPPED) {
-      return;
-    }
-
-    if (resultSet.remaining() > 0) {
-      handleFetched(resultSet.one());
-    } else {
-      if (resultSet.hasMorePages()) {
-        resultSet.fetchNextPage().map(rs -> resultSet.one())
-          .onComplete(event -> {
-            if (event.succeeded()) {
-              handleFetched(event.result());
-            } else {
-              handleException(event.cause());
-            }
-          });
+  /**
+   * Write the rows of the current page until the buffer is full, then fetch the next page.
+   */
+  private void fetchRows() {
+    while (state == State.STARTED && !fetching) {
+      if (resultSet.remaining() > 0) {
+        if (!internalQueue.write(resultSet.one())) {
+          // resumed by the drain handler
+          return;
+        }
+      } else if (resultSet.hasMorePages()) {
+        fetchPage();
       } else {
-        // last row
-        handleFetched(null);
+        state = State.EXHAUSTED;
+        checkEnd();
       }
     }
   }
 
-  private synchronized void handleFetched(Row row) {
-    if (state == State.STOPPED) {
-      return;
-    }
-    if (row != null) {
-      inFlight++;
-      if (internalQueue.write(row)) {
-        context.runOnContext(v -> fetchRow());
-      }
-    } else {
-      state = State.EXHAUSTED;
-      if (inFlight == 0) {
-        stop();
-        handleEnd();
+  private void fetchPage() {
+    fetching = true;
+    resultSet.fetchNextPage().onComplete(ar -> {
+      fetching = false;
+      if (ar.succeeded()) {
+        // pages can be empty, fetchRows fetches the next one
+        fetchRows();
+      } else {
+        handleException(ar.cause());
       }
-    }
+    });
   }
 
   private void handleRow(Row row) {
-    synchronized (this) {
-      if (state == State.STOPPED) {
-        return;
-      }
-      inFlight--;
+    if (state != State.STOPPED) {
+      handler.handle(row);
     }
-    handler.handle(row);
-    synchronized (this) {
-      if (state == State.EXHAUSTED && inFlight == 0) {
-        stop();
-        handleEnd();
-      }
+  }
+
+  private void checkEnd() {
+    if (state == State.EXHAUSTED && internalQueue.isEmpty()) {
+      stop();
+      handleEnd();
     }
   }
 
   private void handleException(Throwable cause) {
-    Handler<Throwable> h;
-    synchronized (this) {
-      if (state != State.STOPPED) {
-        stop();
-        h = exceptionHandler;
-      } else {
-        h = null;
+    if (state != State.STOPPED) {
+      stop();
+      Handler<Throwable> h = exceptionHandler;
+      if (h != null) {
+        h.handle(cause);
       }
     }
-    if (h != null) {
-      h.handle(cause);
-    }
   }
 
-  private synchronized void handleEnd() {
-    Handler<Void> h;
-    synchronized (this) {
-      h = endHandler;
-    }
+  private void handleEnd() {
+    Handler<Void> h = endHandler;
     if (h != null) {
       h.handle(null);
     }
   }
 
-  private synchronized void stop() {
+  private void stop() {
     state = State.STOPPED;
-    internalQueue.handler(null).drainHandler(null);
+    if (lease != null) {
+      lease.release();
+    }
+    // a page fetch in progress is no longer needed
+    resultSet.cancel();
+    internalQueue.handler(null).drainHandler(null).emptyHandler(null);
+  }
+
+  private void runOnContext(Handler<Void> action) {
+    if (context != Vertx.currentContext()) {
+      context.runOnContext(action);
+    } else {
+      action.handle(null);
+    }
   }
 }
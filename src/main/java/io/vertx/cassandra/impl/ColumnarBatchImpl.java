@@ -0,0 +1,235 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import io.vertx.cassandra.ColumnarBatch;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Decodes a page of rows into column arrays.
+ */
+class ColumnarBatchImpl implements ColumnarBatch {
+
+  private final ColumnDefinitions columnDefinitions;
+  private final int size;
+  private final Column[] columns;
+
+  private ColumnarBatchImpl(ColumnDefinitions columnDefinitions, int size, Column[] columns) {
+    this.columnDefinitions = columnDefinitions;
+    this.size = size;
+    this.columns = columns;
+  }
+
+  /**
+   * Decode the rows of a page.
+   */
+  static ColumnarBatchImpl decode(ColumnDefinitions definitions, List<Row> rows) {
+    int size = rows.size();
+    Column[] columns = new Column[definitions.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = new Column(definitions.get(i).getType(), size);
+    }
+    for (int row = 0; row < size; row++) {
+      Row r = rows.get(row);
+      ProtocolVersion protocolVersion = r.protocolVersion();
+      for (int i = 0; i < columns.length; i++) {
+        columns[i].read(r, i, row, protocolVersion);
+      }
+    }
+    return new ColumnarBatchImpl(definitions, size, columns);
+  }
+
+  @Override
+  public ColumnDefinitions columnDefinitions() {
+    return columnDefinitions;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public ColumnType columnType(int column) {
+    return columns[column].type;
+  }
+
+  @Override
+  public BitSet nulls(int column) {
+    return columns[column].nulls;
+  }
+
+  @Override
+  public boolean isNull(int column, int row) {
+    return columns[column].nulls.get(row);
+  }
+
+  @Override
+  public long[] longs(int column) {
+    return column(column, ColumnType.LONG).longs;
+  }
+
+  @Override
+  public int[] ints(int column) {
+    return column(column, ColumnType.INT).ints;
+  }
+
+  @Override
+  public double[] doubles(int column) {
+    return column(column, ColumnType.DOUBLE).doubles;
+  }
+
+  @Override
+  public int[] textCodes(int column) {
+    return column(column, ColumnType.TEXT).ints;
+  }
+
+  @Override
+  public List<String> textDictionary(int column) {
+    return Collections.unmodifiableList(column(column, ColumnType.TEXT).dictionary);
+  }
+
+  @Override
+  public Object[] objects(int column) {
+    return column(column, ColumnType.OBJECT).objects;
+  }
+
+  private Column column(int index, ColumnType expected) {
+    Column column = columns[index];
+    if (column.type != expected) {
+      throw new IllegalArgumentException("Column " + index + " is stored as " + column.type + ", not " + expected);
+    }
+    return column;
+  }
+
+  private enum Decoder {
+    BIGINT(ColumnType.LONG), INT(ColumnType.INT), SMALLINT(ColumnType.INT), TINYINT(ColumnType.INT),
+    DOUBLE(ColumnType.DOUBLE), FLOAT(ColumnType.DOUBLE), TEXT(ColumnType.TEXT), OBJECT(ColumnType.OBJECT);
+
+    final ColumnType columnType;
+
+    Decoder(ColumnType columnType) {
+      this.columnType = columnType;
+    }
+
+    static Decoder of(DataType type) {
+      // timestamp and time are encoded like bigint
+      if (type.equals(DataTypes.BIGINT) || type.equals(DataTypes.COUNTER) || type.equals(DataTypes.TIMESTAMP) || type.equals(DataTypes.TIME)) {
+        return BIGINT;
+      } else if (type.equals(DataTypes.INT)) {
+        return INT;
+      } else if (type.equals(DataTypes.SMALLINT)) {
+        return SMALLINT;
+      } else if (type.equals(DataTypes.TINYINT)) {
+        return TINYINT;
+      } else if (type.equals(DataTypes.DOUBLE)) {
+        return DOUBLE;
+      } else if (type.equals(DataTypes.FLOAT)) {
+        return FLOAT;
+      } else if (type.equals(DataTypes.TEXT) || type.equals(DataTypes.ASCII)) {
+        return TEXT;
+      }
+      return OBJECT;
+    }
+  }
+
+  private static class Column {
+
+    final Decoder decoder;
+    final ColumnType type;
+    final BitSet nulls = new BitSet();
+    long[] longs;
+    int[] ints;
+    double[] doubles;
+    Object[] objects;
+    Map<ByteBuffer, Integer> codes;
+    List<String> dictionary;
+
+    Column(DataType dataType, int size) {
+      decoder = Decoder.of(dataType);
+      type = decoder.columnType;
+      switch (type) {
+        case LONG:
+          longs = new long[size];
+          break;
+        case INT:
+          ints = new int[size];
+          break;
+        case DOUBLE:
+          doubles = new double[size];
+          break;
+        case TEXT:
+          ints = new int[size];
+          codes = new HashMap<>();
+          dictionary = new ArrayList<>();
+          break;
+        default:
+          objects = new Object[size];
+      }
+    }
+
+    void read(Row r, int column, int row, ProtocolVersion protocolVersion) {
+      ByteBuffer bytes = r.getBytesUnsafe(column);
+      if (bytes == null) {
+        nulls.set(row);
+        if (decoder == Decoder.TEXT) {
+          ints[row] = -1;
+        }
+        return;
+      }
+      switch (decoder) {
+        case BIGINT:
+          longs[row] = TypeCodecs.BIGINT.decodePrimitive(bytes, protocolVersion);
+          break;
+        case INT:
+          ints[row] = TypeCodecs.INT.decodePrimitive(bytes, protocolVersion);
+          break;
+        case SMALLINT:
+          ints[row] = TypeCodecs.SMALLINT.decodePrimitive(bytes, protocolVersion);
+          break;
+        case TINYINT:
+          ints[row] = TypeCodecs.TINYINT.decodePrimitive(bytes, protocolVersion);
+          break;
+        case DOUBLE:
+          doubles[row] = TypeCodecs.DOUBLE.decodePrimitive(bytes, protocolVersion);
+          break;
+        case FLOAT:
+          doubles[row] = TypeCodecs.FLOAT.decodePrimitive(bytes, protocolVersion);
+          break;
+        case TEXT:
+          Integer code = codes.get(bytes);
+          if (code == null) {
+            code = dictionary.size();
+            // only distinct values are decoded
+            dictionary.add(TypeCodecs.TEXT.decode(bytes, protocolVersion));
+            codes.put(bytes, code);
+          }
+          ints[row] = code;
+          break;
+        default:
+          objects[row] = r.getObject(column);
+      }
+    }
+  }
+}
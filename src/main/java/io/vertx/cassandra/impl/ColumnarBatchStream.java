@@ -0,0 +1,261 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.ColumnarBatch;
+import io.vertx.cassandra.ResultSet;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.impl.InboundBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emits one {@link ColumnarBatch} per page.
+ * <p>
+ * The buffer holds a single batch. The next page is fetched before the current one is decoded, so that the server
+ * round trip overlaps with decoding, unless the buffer is full: then it is fetched as soon as the buffered batch has
+ * been emitted.
+ * <p>
+ * The stream is confined to its context: calls made from other threads are executed on the context, so that batches
+ * are emitted without locking.
+ */
+public class ColumnarBatchStream implements ReadStream<ColumnarBatch> {
+
+  private enum State {
+    IDLE, STARTED, EXHAUSTED, STOPPED
+  }
+
+  private final Context context;
+  private final ResultSet resultSet;
+  private final InboundBuffer<ColumnarBatch> internalQueue;
+  private final MemoryGovernor.Lease lease;
+
+  // only accessed on the context
+  private State state;
+  private boolean fetching;
+  private boolean full;
+  private Handler<ColumnarBatch> handler;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> endHandler;
+
+  public ColumnarBatchStream(Context context, ResultSet resultSet) {
+    this(context, resultSet, null);
+  }
+
+  /**
+   * @param lease the bytes held by the stream, released when the stream stops, may be {@code null}
+   */
+  ColumnarBatchStream(Context context, ResultSet resultSet, MemoryGovernor.Lease lease) {
+    this.context = context;
+    this.resultSet = resultSet;
+    this.lease = lease;
+    internalQueue = new InboundBuffer<ColumnarBatch>(context, 1)
+      .exceptionHandler(this::handleException)
+      .drainHandler(v -> drained())
+      .emptyHandler(v -> checkEnd());
+    state = State.IDLE;
+  }
+
+  @Override
+  public ColumnarBatchStream exceptionHandler(Handler<Throwable> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        exceptionHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public ColumnarBatchStream handler(Handler<ColumnarBatch> handler) {
+    runOnContext(v -> {
+      if (state == State.STOPPED) {
+        return;
+      }
+      if (handler == null) {
+        stop();
+        handleEnd();
+      } else {
+        this.handler = handler;
+        internalQueue.handler(this::handleBatch);
+        if (state == State.IDLE) {
+          state = State.STARTED;
+          // the first page has been fetched with the query
+          handlePage();
+        }
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public ColumnarBatchStream pause() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.pause();
+        if (lease != null) {
+          lease.paused(t -> runOnContext(v2 -> handleException(t)));
+        }
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public ColumnarBatchStream resume() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        if (lease != null) {
+          lease.resumed();
+        }
+        internalQueue.resume();
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public ColumnarBatchStream fetch(long amount) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        if (lease != null) {
+          lease.resumed();
+        }
+        internalQueue.fetch(amount);
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public ColumnarBatchStream endHandler(Handler<Void> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        endHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  private void fetchPage() {
+    if (state != State.STARTED || fetching) {
+      return;
+    }
+    if (!resultSet.hasMorePages()) {
+      state = State.EXHAUSTED;
+      checkEnd();
+      return;
+    }
+    fetching = true;
+    resultSet.fetchNextPage().onComplete(ar -> {
+      fetching = false;
+      if (ar.succeeded()) {
+        handlePage();
+      } else {
+        handleException(ar.cause());
+      }
+    });
+  }
+
+  private void drained() {
+    full = false;
+    fetchPage();
+  }
+
+  private void handlePage() {
+    if (state == State.STOPPED) {
+      return;
+    }
+    // the rows are taken before the next page replaces them
+    ColumnDefinitions definitions = resultSet.getColumnDefinitions();
+    int size = resultSet.remaining();
+    List<Row> rows = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      rows.add(resultSet.one());
+    }
+    // the last page ends the stream once its batch is buffered
+    if (!full && resultSet.hasMorePages()) {
+      fetchPage();
+    }
+    ColumnarBatch batch;
+    try {
+      batch = ColumnarBatchImpl.decode(definitions, rows);
+    } catch (Exception e) {
+      handleException(e);
+      return;
+    }
+    // empty pages are skipped
+    if (batch.size() == 0 || internalQueue.write(batch)) {
+      fetchPage();
+    } else {
+      full = true;
+    }
+  }
+
+  private void handleBatch(ColumnarBatch batch) {
+    if (state != State.STOPPED) {
+      handler.handle(batch);
+    }
+  }
+
+  private void checkEnd() {
+    if (state == State.EXHAUSTED && internalQueue.isEmpty()) {
+      stop();
+      handleEnd();
+    }
+  }
+
+  private void handleException(Throwable cause) {
+    if (state != State.STOPPED) {
+      stop();
+      Handler<Throwable> h = exceptionHandler;
+      if (h != null) {
+        h.handle(cause);
+      }
+    }
+  }
+
+  private void handleEnd() {
+    Handler<Void> h = endHandler;
+    if (h != null) {
+      h.handle(null);
+    }
+  }
+
+  private void stop() {
+    state = State.STOPPED;
+    if (lease != null) {
+      lease.release();
+    }
+    // a page fetch in progress is no longer needed
+    resultSet.cancel();
+    internalQueue.handler(null).drainHandler(null).emptyHandler(null);
+  }
+
+  private void runOnContext(Handler<Void> action) {
+    if (context != Vertx.currentContext()) {
+      context.runOnContext(action);
+    } else {
+      action.handle(null);
+    }
+  }
+}
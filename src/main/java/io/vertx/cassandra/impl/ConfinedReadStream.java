@@ -0,0 +1,210 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * A stream confined to its context: calls made from other threads are executed on the context, so that items are
+ * emitted without locking.
+ * <p>
+ * The stream is started when the handler is set. Subclasses call {@link #emit()} when items are available: items are
+ * taken with {@link #next()} while there is demand, then {@link #emitted()} requests more items or ends the stream.
+ */
+abstract class ConfinedReadStream<T> implements ReadStream<T> {
+
+  enum State {
+    IDLE, STARTED, STOPPED
+  }
+
+  final Context context;
+
+  // only accessed on the context
+  State state;
+  private long demand;
+  private boolean emitting;
+  private Handler<T> handler;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> endHandler;
+
+  ConfinedReadStream(Context context) {
+    this.context = context;
+    demand = Long.MAX_VALUE;
+    state = State.IDLE;
+  }
+
+  /**
+   * Starts producing items, called once when the handler is set.
+   */
+  abstract void start();
+
+  /**
+   * @return the next item available, or {@code null} if there is none
+   */
+  abstract T next();
+
+  /**
+   * Called after items have been emitted, while the stream is started.
+   */
+  void emitted() {
+  }
+
+  /**
+   * Releases what the stream holds, called once when the stream stops.
+   */
+  void stopped() {
+  }
+
+  @Override
+  public ConfinedReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        exceptionHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public ConfinedReadStream<T> handler(Handler<T> handler) {
+    runOnContext(v -> {
+      if (state == State.STOPPED) {
+        return;
+      }
+      if (handler == null) {
+        stop();
+        handleEnd();
+      } else {
+        this.handler = handler;
+        if (state == State.IDLE) {
+          state = State.STARTED;
+          start();
+        }
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public ConfinedReadStream<T> pause() {
+    runOnContext(v -> demand = 0);
+    return this;
+  }
+
+  @Override
+  public ConfinedReadStream<T> resume() {
+    runOnContext(v -> {
+      demand = Long.MAX_VALUE;
+      emit();
+    });
+    return this;
+  }
+
+  @Override
+  public ConfinedReadStream<T> fetch(long amount) {
+    if (amount < 0) {
+      throw new IllegalArgumentException("amount must be >= 0");
+    }
+    runOnContext(v -> {
+      demand += amount;
+      if (demand < 0) {
+        demand = Long.MAX_VALUE;
+      }
+      emit();
+    });
+    return this;
+  }
+
+  @Override
+  public ConfinedReadStream<T> endHandler(Handler<Void> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        endHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Emits the items available while there is demand, must be called on the context.
+   */
+  final void emit() {
+    if (emitting || state != State.STARTED) {
+      return;
+    }
+    emitting = true;
+    try {
+      while (demand > 0 && state == State.STARTED) {
+        T item = next();
+        if (item == null) {
+          break;
+        }
+        if (demand != Long.MAX_VALUE) {
+          demand--;
+        }
+        handler.handle(item);
+      }
+    } finally {
+      emitting = false;
+    }
+    if (state == State.STARTED) {
+      emitted();
+    }
+  }
+
+  /**
+   * Stops the stream and calls the end handler.
+   */
+  final void end() {
+    if (state != State.STOPPED) {
+      stop();
+      handleEnd();
+    }
+  }
+
+  final void handleException(Throwable cause) {
+    if (state != State.STOPPED) {
+      stop();
+      Handler<Throwable> h = exceptionHandler;
+      if (h != null) {
+        h.handle(cause);
+      }
+    }
+  }
+
+  private void handleEnd() {
+    Handler<Void> h = endHandler;
+    if (h != null) {
+      h.handle(null);
+    }
+  }
+
+  private void stop() {
+    state = State.STOPPED;
+    stopped();
+  }
+
+  final void runOnContext(Handler<Void> action) {
+    if (context != Vertx.currentContext()) {
+      context.runOnContext(action);
+    } else {
+      action.handle(null);
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.NoNodeAvailableException;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.servererrors.BootstrappingException;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.UnavailableException;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.cassandra.CounterAggregator;
+import io.vertx.cassandra.CounterAggregatorOptions;
+import io.vertx.core.*;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.vertx.cassandra.impl.Util.setHandler;
+
+/**
+ * Deltas are summed in a concurrent map, under the map lock of the counter key, so that increments from any thread
+ * and removals during a flush never race. Everything else is confined to the creating context.
+ */
+public class CounterAggregatorImpl implements CounterAggregator {
+
+  private final ContextInternal context;
+  private final CassandraClient client;
+  private final String query;
+  private final int maxPendingKeys;
+  private final int maxConcurrentWrites;
+  private final long timerId;
+  private final ConcurrentMap<List<Object>, Delta> deltas = new ConcurrentHashMap<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  private volatile boolean closed;
+  private volatile Handler<Throwable> exceptionHandler;
+
+  private Future<PreparedStatement> prepared;
+  private boolean flushing;
+  private Promise<Void> nextFlush;
+
+  public CounterAggregatorImpl(Vertx vertx, CassandraClient client, String query, CounterAggregatorOptions options) {
+    Objects.requireNonNull(vertx, "vertx");
+    Objects.requireNonNull(client, "client");
+    Objects.requireNonNull(query, "query");
+    Objects.requireNonNull(options, "options");
+    this.context = ((VertxInternal) vertx).getOrCreateContext();
+    this.client = client;
+    this.query = query;
+    this.maxPendingKeys = options.getMaxPendingKeys();
+    this.maxConcurrentWrites = options.getMaxConcurrentWrites();
+    timerId = context.setPeriodic(options.getFlushInterval(), id -> flush());
+    context.addCloseHook(this::close);
+  }
+
+  @Override
+  public CounterAggregator increment(List<Object> key, long delta) {
+    Objects.requireNonNull(key, "key");
+    if (closed) {
+      throw new IllegalStateException("Counter aggregator is closed");
+    }
+    add(key, delta);
+    if (deltas.size() >= maxPendingKeys && flushScheduled.compareAndSet(false, true)) {
+      context.runOnContext(v -> {
+        flushScheduled.set(false);
+        flush();
+      });
+    }
+    return this;
+  }
+
+  private void add(List<Object> key, long delta) {
+    deltas.compute(key, (k, d) -> {
+      if (d == null) {
+        d = new Delta();
+      }
+      d.value += delta;
+      return d;
+    });
+  }
+
+  @Override
+  public int pendingKeys() {
+    return deltas.size();
+  }
+
+  @Override
+  public CounterAggregator exceptionHandler(Handler<Throwable> handler) {
+    exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public CounterAggregator flush(Handler<AsyncResult<Void>> handler) {
+    Future<Void> future = flush();
+    setHandler(future, handler);
+    return this;
+  }
+
+  @Override
+  public Future<Void> flush() {
+    Promise<Void> promise = context.promise();
+    if (Vertx.currentContext() == context) {
+      flush(promise);
+    } else {
+      context.runOnContext(v -> flush(promise));
+    }
+    return promise.future();
+  }
+
+  private void flush(Promise<Void> promise) {
+    if (flushing) {
+      // deltas added during the current flush must be written too, so wait for it and then start another one
+      if (nextFlush == null) {
+        nextFlush = context.promise();
+      }
+      nextFlush.future().onComplete(promise);
+      return;
+    }
+    flushing = true;
+    getPrepared().onComplete(ar -> {
+      if (ar.succeeded()) {
+        PreparedStatement preparedStatement = ar.result();
+        List<List<Object>> keys = new ArrayList<>(deltas.keySet());
+        Util.forEachBounded(context, keys.iterator(), maxConcurrentWrites, key -> write(preparedStatement, key))
+          .onComplete(v -> {
+            promise.complete();
+            flushDone();
+          });
+      } else {
+        // deltas stay in the map until the statement can be prepared
+        promise.fail(ar.cause());
+        flushDone();
+      }
+    });
+  }
+
+  private void flushDone() {
+    flushing = false;
+    if (nextFlush != null) {
+      Promise<Void> promise = nextFlush;
+      nextFlush = null;
+      flush(promise);
+    }
+  }
+
+  private Future<PreparedStatement> getPrepared() {
+    if (prepared == null || prepared.failed()) {
+      prepared = client.prepare(query);
+    }
+    return prepared;
+  }
+
+  private Future<?> write(PreparedStatement preparedStatement, List<Object> key) {
+    Delta delta = deltas.remove(key);
+    if (delta == null || delta.value == 0) {
+      return context.succeededFuture();
+    }
+    long value = delta.value;
+    Object[] values = new Object[key.size() + 1];
+    values[0] = value;
+    for (int i = 0; i < key.size(); i++) {
+      values[i + 1] = key.get(i);
+    }
+    return client.execute(preparedStatement.bind(values).setIdempotent(false)).onComplete(ar -> {
+      if (ar.failed()) {
+        Throwable cause = ar.cause();
+        if (notApplied(cause) && !closed) {
+          add(key, value);
+        } else {
+          Handler<Throwable> handler = exceptionHandler;
+          if (handler != null) {
+            handler.handle(new VertxException("Dropped delta " + value + " of counter " + key, cause));
+          }
+        }
+      }
+    });
+  }
+
+  private static boolean notApplied(Throwable cause) {
+    return cause instanceof UnavailableException
+      || cause instanceof OverloadedException
+      || cause instanceof BootstrappingException
+      || cause instanceof NoNodeAvailableException;
+  }
+
+  @Override
+  public CounterAggregator close(Handler<AsyncResult<Void>> handler) {
+    Future<Void> future = close();
+    setHandler(future, handler);
+    return this;
+  }
+
+  @Override
+  public Future<Void> close() {
+    if (closed) {
+      return context.succeededFuture();
+    }
+    closed = true;
+    context.owner().cancelTimer(timerId);
+    return flush();
+  }
+
+  private static class Delta {
+    long value;
+  }
+}
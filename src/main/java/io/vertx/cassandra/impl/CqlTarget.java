@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The table targeted by a single statement, as far as it can be determined without parsing CQL fully.
+ */
+class CqlTarget {
+
+  private static final String IDENTIFIER = "(\\w+|\"(?:[^\"]|\"\")+\")";
+  static final Pattern TABLE = Pattern.compile(
+    "^\\s*(?:insert\\s+into|update|(?:select|delete)\\b.*?\\bfrom)\\s+" + IDENTIFIER + "(?:\\s*\\.\\s*" + IDENTIFIER + ")?",
+    Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  final String keyspace;
+  final String table;
+  final boolean write;
+
+  private CqlTarget(String keyspace, String table, boolean write) {
+    this.keyspace = keyspace;
+    this.table = table;
+    this.write = write;
+  }
+
+  /**
+   * @param statement a bound or simple statement
+   * @return the target of the statement, {@code null} for other statements
+   */
+  static CqlTarget of(Statement<?> statement) {
+    String query;
+    CqlIdentifier keyspace;
+    if (statement instanceof BoundStatement) {
+      BoundStatement boundStatement = (BoundStatement) statement;
+      query = boundStatement.getPreparedStatement().getQuery();
+      ColumnDefinitions variables = boundStatement.getPreparedStatement().getVariableDefinitions();
+      if (variables.size() > 0) {
+        ColumnDefinition first = variables.get(0);
+        return new CqlTarget(first.getKeyspace().asInternal(), first.getTable().asInternal(), isWrite(query));
+      }
+      keyspace = statement.getKeyspace();
+    } else if (statement instanceof SimpleStatement) {
+      query = ((SimpleStatement) statement).getQuery();
+      keyspace = statement.getKeyspace();
+    } else {
+      return null;
+    }
+    Matcher matcher = TABLE.matcher(query);
+    if (!matcher.find()) {
+      return new CqlTarget(keyspace == null ? null : keyspace.asInternal(), null, isWrite(query));
+    }
+    String first = internal(matcher.group(1));
+    String second = matcher.group(2);
+    if (second == null) {
+      return new CqlTarget(keyspace == null ? null : keyspace.asInternal(), first, isWrite(query));
+    }
+    return new CqlTarget(first, internal(second), isWrite(query));
+  }
+
+  static boolean isSelect(String query) {
+    int start = 0;
+    while (start < query.length() && Character.isWhitespace(query.charAt(start))) {
+      start++;
+    }
+    return query.regionMatches(true, start, "select", 0, 6);
+  }
+
+  private static boolean isWrite(String query) {
+    return !isSelect(query);
+  }
+
+  private static String internal(String identifier) {
+    return CqlIdentifier.fromCql(identifier).asInternal();
+  }
+}
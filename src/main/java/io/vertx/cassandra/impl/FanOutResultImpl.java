@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.FanOutResult;
+import io.vertx.core.AsyncResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filled by index as executions complete, on the context of the client.
+ */
+class FanOutResultImpl implements FanOutResult {
+
+  private final List<? extends List<?>> values;
+  private final Object[] results;
+  private int failureCount;
+
+  FanOutResultImpl(List<? extends List<?>> values) {
+    this.values = values;
+    results = new Object[values.size()];
+  }
+
+  void complete(int index, AsyncResult<List<Row>> ar) {
+    if (ar.succeeded()) {
+      results[index] = ar.result();
+    } else {
+      results[index] = ar.cause();
+      failureCount++;
+    }
+  }
+
+  @Override
+  public int size() {
+    return results.length;
+  }
+
+  @Override
+  public List<?> values(int index) {
+    return values.get(index);
+  }
+
+  @Override
+  public boolean succeeded(int index) {
+    return !(results[index] instanceof Throwable);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<Row> rows(int index) {
+    Object result = results[index];
+    return result instanceof Throwable ? null : (List<Row>) result;
+  }
+
+  @Override
+  public Throwable cause(int index) {
+    Object result = results[index];
+    return result instanceof Throwable ? (Throwable) result : null;
+  }
+
+  @Override
+  public int failureCount() {
+    return failureCount;
+  }
+
+  @Override
+  public List<Row> rows() {
+    int size = 0;
+    for (int i = 0; i < results.length; i++) {
+      List<Row> rows = rows(i);
+      if (rows != null) {
+        size += rows.size();
+      }
+    }
+    List<Row> all = new ArrayList<>(size);
+    for (int i = 0; i < results.length; i++) {
+      List<Row> rows = rows(i);
+      if (rows != null) {
+        all.addAll(rows);
+      }
+    }
+    return all;
+  }
+}
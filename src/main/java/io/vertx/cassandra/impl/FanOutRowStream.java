@@ -0,0 +1,229 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.impl.InboundBuffer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Emits the rows of a statement executed once per set of values, in completion order.
+ * <p>
+ * At most {@code concurrency} executions are in flight. When the buffer is full, executions are held until it has been
+ * drained, so that no new execution starts while the stream is paused.
+ * <p>
+ * The stream is confined to its context: calls made from other threads are executed on the context, so that rows are
+ * emitted without locking.
+ */
+public class FanOutRowStream implements ReadStream<Row> {
+
+  private enum State {
+    IDLE, STARTED, EXHAUSTED, STOPPED
+  }
+
+  private final ContextInternal context;
+  private final Iterator<? extends List<?>> values;
+  private final int concurrency;
+  private final Function<List<?>, Future<List<Row>>> executor;
+  private final InboundBuffer<Row> internalQueue;
+  private final Deque<Promise<Void>> waiting = new ArrayDeque<>();
+
+  // only accessed on the context
+  private State state;
+  private Handler<Row> handler;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> endHandler;
+
+  FanOutRowStream(ContextInternal context, List<? extends List<?>> values, int concurrency, Function<List<?>, Future<List<Row>>> executor) {
+    this.context = context;
+    this.values = values.iterator();
+    this.concurrency = concurrency;
+    this.executor = executor;
+    internalQueue = new InboundBuffer<Row>(context)
+      .exceptionHandler(this::handleException)
+      .drainHandler(v -> release())
+      .emptyHandler(v -> checkEnd());
+    state = State.IDLE;
+  }
+
+  @Override
+  public FanOutRowStream exceptionHandler(Handler<Throwable> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        exceptionHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public FanOutRowStream handler(Handler<Row> handler) {
+    runOnContext(v -> {
+      if (state == State.STOPPED) {
+        return;
+      }
+      if (handler == null) {
+        stop();
+        handleEnd();
+      } else {
+        this.handler = handler;
+        internalQueue.handler(this::handleRow);
+        if (state == State.IDLE) {
+          state = State.STARTED;
+          start();
+        }
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public FanOutRowStream pause() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.pause();
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public FanOutRowStream resume() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.resume();
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public FanOutRowStream fetch(long amount) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.fetch(amount);
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public FanOutRowStream endHandler(Handler<Void> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        endHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  private void start() {
+    Util.forEachBounded(context, values, concurrency, this::execute).onComplete(v -> {
+      if (state == State.STARTED) {
+        state = State.EXHAUSTED;
+        checkEnd();
+      }
+    });
+  }
+
+  private Future<Void> execute(List<?> values) {
+    if (state != State.STARTED) {
+      return context.succeededFuture();
+    }
+    Promise<Void> promise = context.promise();
+    executor.apply(values).onComplete(ar -> runOnContext(v -> {
+      if (ar.failed()) {
+        handleException(ar.cause());
+        promise.complete();
+      } else {
+        write(ar.result(), promise);
+      }
+    }));
+    return promise.future();
+  }
+
+  private void write(List<Row> rows, Promise<Void> promise) {
+    if (state != State.STARTED || internalQueue.write(rows)) {
+      promise.complete();
+    } else {
+      // the execution slot is released when the buffer has been drained
+      waiting.add(promise);
+    }
+  }
+
+  private void release() {
+    Promise<Void> promise;
+    while ((promise = waiting.poll()) != null) {
+      promise.complete();
+    }
+  }
+
+  private void handleRow(Row row) {
+    if (state != State.STOPPED) {
+      handler.handle(row);
+    }
+  }
+
+  private void checkEnd() {
+    if (state == State.EXHAUSTED && internalQueue.isEmpty()) {
+      stop();
+      handleEnd();
+    }
+  }
+
+  private void handleException(Throwable cause) {
+    if (state != State.STOPPED) {
+      stop();
+      Handler<Throwable> h = exceptionHandler;
+      if (h != null) {
+        h.handle(cause);
+      }
+    }
+  }
+
+  private void handleEnd() {
+    Handler<Void> h = endHandler;
+    if (h != null) {
+      h.handle(null);
+    }
+  }
+
+  private void stop() {
+    state = State.STOPPED;
+    internalQueue.handler(null).drainHandler(null).emptyHandler(null);
+    // let the remaining executions complete, the iteration stops at the next one
+    release();
+  }
+
+  private void runOnContext(Handler<Void> action) {
+    if (context != Vertx.currentContext()) {
+      context.runOnContext(action);
+    } else {
+      action.handle(null);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+
+/**
+ * Routes statements to a keyspace.
+ * <p>
+ * Per-request keyspaces require protocol v5, so the table of simple statements is qualified with the keyspace
+ * instead, as long as it can be found with {@link CqlTarget#TABLE}. The keyspace of the statement is set otherwise.
+ * Bound statements are left untouched: their prepared statement has been routed when it was prepared.
+ */
+class KeyspaceRouter {
+
+  final CqlIdentifier keyspace;
+  private final String qualifier;
+
+  KeyspaceRouter(String keyspace) {
+    this.keyspace = CqlIdentifier.fromCql(keyspace);
+    this.qualifier = this.keyspace.asCql(true) + ".";
+  }
+
+  Statement route(Statement statement) {
+    if (statement instanceof SimpleStatement) {
+      return route((SimpleStatement) statement);
+    } else if (statement instanceof BatchStatement) {
+      BatchStatement batch = (BatchStatement) statement;
+      List<BatchableStatement<?>> routed = new ArrayList<>(batch.size());
+      boolean changed = false;
+      for (BatchableStatement<?> child : batch) {
+        BatchableStatement<?> routedChild = child instanceof SimpleStatement ? route((SimpleStatement) child) : child;
+        changed |= routedChild != child;
+        routed.add(routedChild);
+      }
+      return changed ? batch.clear().addAll(routed) : batch;
+    }
+    return statement;
+  }
+
+  SimpleStatement route(SimpleStatement statement) {
+    if (statement.getKeyspace() != null) {
+      return statement;
+    }
+    String query = statement.getQuery();
+    String qualified = qualify(query);
+    if (qualified == null) {
+      return statement.setKeyspace(keyspace);
+    }
+    return qualified == query ? statement : statement.setQuery(qualified);
+  }
+
+  /**
+   * @return the query with its table qualified, {@code query} if it is already qualified, or {@code null} if the
+   * table cannot be found
+   */
+  String qualify(String query) {
+    Matcher matcher = CqlTarget.TABLE.matcher(query);
+    if (!matcher.find()) {
+      return null;
+    }
+    if (matcher.group(2) != null) {
+      return query;
+    }
+    int start = matcher.start(1);
+    return query.substring(0, start) + qualifier + query.substring(start);
+  }
+}
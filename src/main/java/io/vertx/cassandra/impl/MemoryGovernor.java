@@ -0,0 +1,314 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.VertxException;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Limits the amount of result data buffered by the operations of a client.
+ * <p>
+ * An operation is admitted while the budget is not used up, and then charged for the pages it holds. Until its first
+ * page arrives, an admitted operation reserves the estimated size of a page, so that a burst of operations is not
+ * admitted against the same free bytes. Operations already admitted are never stopped, so the budget can be exceeded
+ * by the pages of operations in progress. Waiting operations are admitted one at a time, in order, as soon as enough
+ * bytes have been released.
+ */
+class MemoryGovernor {
+
+  // length prefix of a cell in a response
+  private static final int CELL_HEADER_SIZE = 4;
+  // estimated size of text, blob, varint, collection... cells
+  private static final int VARIABLE_CELL_SIZE = 64;
+  // page size reserved before any page has been charged
+  private static final long INITIAL_PAGE_ESTIMATE = 64 * 1024;
+
+  private final VertxInternal vertx;
+  private final long maxBytes;
+  private final long admissionTimeout;
+  private final long pausedStreamTimeout;
+  private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+  private long used;
+  private long reserved;
+  // moving average of the pages charged
+  private long pageEstimate = INITIAL_PAGE_ESTIMATE;
+
+  MemoryGovernor(VertxInternal vertx, long maxBytes, long admissionTimeout, long pausedStreamTimeout) {
+    this.vertx = vertx;
+    this.maxBytes = maxBytes;
+    this.admissionTimeout = admissionTimeout;
+    this.pausedStreamTimeout = pausedStreamTimeout;
+  }
+
+  /**
+   * @return a future completed with a lease when the operation is admitted, or failed if the budget has not become
+   * available within the admission timeout
+   */
+  Future<Lease> admit(ContextInternal context) {
+    Waiter waiter;
+    synchronized (this) {
+      if (used + reserved < maxBytes && waiters.isEmpty()) {
+        return context.succeededFuture(new Lease(reserve()));
+      }
+      if (admissionTimeout == 0) {
+        return context.failedFuture(exhausted());
+      }
+      waiter = new Waiter(context.promise());
+      waiters.add(waiter);
+      waiter.timerId = vertx.setTimer(admissionTimeout, id -> {
+        boolean removed;
+        synchronized (this) {
+          removed = waiters.remove(waiter);
+        }
+        if (removed) {
+          waiter.promise.fail(exhausted());
+        }
+      });
+    }
+    return waiter.promise.future();
+  }
+
+  synchronized long used() {
+    return used;
+  }
+
+  private VertxException exhausted() {
+    return new VertxException("Memory budget of " + maxBytes + " bytes used up, operation rejected", true);
+  }
+
+  private long reserve() {
+    long reservation = pageEstimate;
+    reserved += reservation;
+    return reservation;
+  }
+
+  /**
+   * Update the bytes used and reserved, and admit the waiters which fit in the budget.
+   */
+  private void add(long bytes, long reservation) {
+    Deque<Waiter> admitted = null;
+    Deque<Lease> leases = null;
+    synchronized (this) {
+      used += bytes;
+      reserved += reservation;
+      while (used + reserved < maxBytes && !waiters.isEmpty()) {
+        if (admitted == null) {
+          admitted = new ArrayDeque<>();
+          leases = new ArrayDeque<>();
+        }
+        admitted.add(waiters.poll());
+        leases.add(new Lease(reserve()));
+      }
+    }
+    if (admitted != null) {
+      for (Waiter waiter : admitted) {
+        vertx.cancelTimer(waiter.timerId);
+        Lease lease = leases.poll();
+        if (!waiter.promise.tryComplete(lease)) {
+          lease.release();
+        }
+      }
+    }
+  }
+
+  private synchronized void estimate(long pageSize) {
+    pageEstimate += (pageSize - pageEstimate) / 8;
+  }
+
+  /**
+   * @return the size of the page, as received from the server or estimated from the column types when unknown
+   */
+  static long sizeOf(AsyncResultSet page) {
+    int size = page.getExecutionInfo().getResponseSizeInBytes();
+    if (size >= 0) {
+      return size;
+    }
+    // iterating the page would consume its rows
+    long rowSize = 0;
+    for (ColumnDefinition column : page.getColumnDefinitions()) {
+      rowSize += CELL_HEADER_SIZE + cellSize(column.getType());
+    }
+    return rowSize * page.remaining();
+  }
+
+  /**
+   * @return the size of a value of {@code type}, or an estimate for variable-size types
+   */
+  private static int cellSize(DataType type) {
+    if (type.equals(DataTypes.BOOLEAN) || type.equals(DataTypes.TINYINT)) {
+      return 1;
+    }
+    if (type.equals(DataTypes.SMALLINT)) {
+      return 2;
+    }
+    if (type.equals(DataTypes.INT) || type.equals(DataTypes.FLOAT) || type.equals(DataTypes.DATE)) {
+      return 4;
+    }
+    if (type.equals(DataTypes.BIGINT) || type.equals(DataTypes.COUNTER) || type.equals(DataTypes.DOUBLE)
+      || type.equals(DataTypes.TIMESTAMP) || type.equals(DataTypes.TIME)) {
+      return 8;
+    }
+    if (type.equals(DataTypes.UUID) || type.equals(DataTypes.TIMEUUID)) {
+      return 16;
+    }
+    return VARIABLE_CELL_SIZE;
+  }
+
+  /**
+   * The bytes held by an admitted operation.
+   */
+  class Lease {
+
+    private long held;
+    private long reservation;
+    private boolean released;
+    private long pausedTimerId = -1;
+
+    private Lease(long reservation) {
+      this.reservation = reservation;
+    }
+
+    /**
+     * Add a page to the bytes held by the operation.
+     */
+    AsyncResultSet charge(AsyncResultSet page) {
+      charge(sizeOf(page));
+      return page;
+    }
+
+    /**
+     * Add the bytes of a page to the bytes held by the operation.
+     */
+    void charge(long bytes) {
+      estimate(bytes);
+      long unreserved;
+      synchronized (this) {
+        if (released) {
+          return;
+        }
+        held += bytes;
+        unreserved = reservation;
+        reservation = 0;
+      }
+      add(bytes, -unreserved);
+    }
+
+    /**
+     * Remove the bytes of a page from the bytes held by the operation, when the page is no longer referenced.
+     */
+    void discharge(long bytes) {
+      synchronized (this) {
+        if (released) {
+          return;
+        }
+        held -= bytes;
+      }
+      add(-bytes, 0);
+    }
+
+    /**
+     * Replace the bytes held by the operation with a page, when the previous pages are no longer referenced.
+     */
+    AsyncResultSet replace(AsyncResultSet page) {
+      long bytes = sizeOf(page);
+      estimate(bytes);
+      long delta;
+      long unreserved;
+      synchronized (this) {
+        if (released) {
+          return page;
+        }
+        delta = bytes - held;
+        held = bytes;
+        unreserved = reservation;
+        reservation = 0;
+      }
+      add(delta, -unreserved);
+      return page;
+    }
+
+    void release() {
+      long bytes;
+      long unreserved;
+      synchronized (this) {
+        if (released) {
+          return;
+        }
+        released = true;
+        bytes = held;
+        held = 0;
+        unreserved = reservation;
+        reservation = 0;
+        cancelPausedTimer();
+      }
+      add(-bytes, -unreserved);
+    }
+
+    /**
+     * Start the paused stream timeout, if enabled.
+     *
+     * @param expired invoked when the stream stayed paused for too long, after the lease has been released
+     */
+    synchronized void paused(Handler<Throwable> expired) {
+      if (released || pausedStreamTimeout == 0 || pausedTimerId >= 0) {
+        return;
+      }
+      pausedTimerId = vertx.setTimer(pausedStreamTimeout, id -> {
+        synchronized (this) {
+          if (pausedTimerId != id) {
+            return;
+          }
+          pausedTimerId = -1;
+        }
+        release();
+        expired.handle(new VertxException("Stream paused for more than " + pausedStreamTimeout + " ms, buffered rows released", true));
+      });
+    }
+
+    synchronized void resumed() {
+      cancelPausedTimer();
+    }
+
+    private void cancelPausedTimer() {
+      if (pausedTimerId >= 0) {
+        vertx.cancelTimer(pausedTimerId);
+        pausedTimerId = -1;
+      }
+    }
+  }
+
+  private static class Waiter {
+
+    final Promise<Lease> promise;
+    long timerId;
+
+    Waiter(Promise<Lease> promise) {
+      this.promise = promise;
+    }
+  }
+}
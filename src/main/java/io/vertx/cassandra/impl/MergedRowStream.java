@@ -0,0 +1,295 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.ResultSet;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.impl.InboundBuffer;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges sorted result sets into a single sorted stream.
+ * <p>
+ * Sources are kept in a heap ordered by their next row. A source holds its current page, and fetches its next page as
+ * soon as the current one is received, so that it is usually available when the current one has been consumed. When
+ * it is not, merging waits for it since it may contain the smallest row. Ties are broken by source index, so that the
+ * merge is stable.
+ * <p>
+ * The stream is confined to its context: calls made from other threads are executed on the context, so that rows are
+ * merged without locking. The buffer holds a single row and merging resumes when it has been drained.
+ */
+public class MergedRowStream implements ReadStream<Row> {
+
+  private enum State {
+    IDLE, STARTED, EXHAUSTED, STOPPED
+  }
+
+  private final Context context;
+  private final Source[] sources;
+  private final long limit;
+  private final PriorityQueue<Source> heap;
+  private final InboundBuffer<Row> internalQueue;
+
+  // only accessed on the context
+  private State state;
+  private boolean merging;
+  private int pending;
+  private long emitted;
+  private Handler<Row> handler;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> endHandler;
+
+  /**
+   * @param limit the max number of rows to emit, {@code 0} meaning no limit
+   */
+  public MergedRowStream(Context context, List<ResultSet> resultSets, Comparator<Row> comparator, long limit) {
+    this.context = context;
+    this.limit = limit == 0 ? Long.MAX_VALUE : limit;
+    sources = new Source[resultSets.size()];
+    for (int i = 0; i < sources.length; i++) {
+      sources[i] = new Source(i, resultSets.get(i));
+    }
+    heap = new PriorityQueue<>(Math.max(1, sources.length), (s1, s2) -> {
+      int result = comparator.compare(s1.head, s2.head);
+      return result != 0 ? result : Integer.compare(s1.index, s2.index);
+    });
+    internalQueue = new InboundBuffer<Row>(context, 1)
+      .exceptionHandler(this::handleException)
+      .drainHandler(v -> merge())
+      .emptyHandler(v -> checkEnd());
+    state = State.IDLE;
+  }
+
+  @Override
+  public MergedRowStream exceptionHandler(Handler<Throwable> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        exceptionHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public MergedRowStream handler(Handler<Row> handler) {
+    runOnContext(v -> {
+      if (state == State.STOPPED) {
+        return;
+      }
+      if (handler == null) {
+        stop();
+        handleEnd();
+      } else {
+        this.handler = handler;
+        internalQueue.handler(this::handleRow);
+        if (state == State.IDLE) {
+          state = State.STARTED;
+          start();
+        }
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public MergedRowStream pause() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.pause();
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public MergedRowStream resume() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.resume();
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public MergedRowStream fetch(long amount) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.fetch(amount);
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public MergedRowStream endHandler(Handler<Void> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        endHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  private void start() {
+    for (Source source : sources) {
+      load(source);
+      advance(source);
+    }
+    merge();
+  }
+
+  private void merge() {
+    if (merging) {
+      return;
+    }
+    merging = true;
+    try {
+      while (true) {
+        if (state != State.STARTED || pending > 0) {
+          // fetching a page, merging resumes when it has been received
+          return;
+        }
+        if (emitted == limit || heap.isEmpty()) {
+          state = State.EXHAUSTED;
+          break;
+        }
+        Source source = heap.poll();
+        Row row = source.head;
+        advance(source);
+        emitted++;
+        if (!internalQueue.write(row)) {
+          // resumed by the drain handler
+          return;
+        }
+      }
+    } finally {
+      merging = false;
+    }
+    checkEnd();
+  }
+
+  /**
+   * Take the rows of the current page of a source, and fetch its next page.
+   */
+  private void load(Source source) {
+    ResultSet resultSet = source.resultSet;
+    int size = resultSet.remaining();
+    for (int i = 0; i < size; i++) {
+      source.rows.add(resultSet.one());
+    }
+    source.next = resultSet.hasMorePages() ? resultSet.fetchNextPage() : null;
+  }
+
+  private void advance(Source source) {
+    Row row = source.rows.poll();
+    if (row != null) {
+      source.head = row;
+      heap.add(source);
+      return;
+    }
+    source.head = null;
+    Future<ResultSet> next = source.next;
+    if (next == null) {
+      return;
+    }
+    source.next = null;
+    pending++;
+    next.onComplete(ar -> runOnContext(v -> {
+      pending--;
+      if (state == State.STOPPED) {
+        return;
+      }
+      if (ar.succeeded()) {
+        load(source);
+        advance(source);
+        merge();
+      } else {
+        handleException(ar.cause());
+      }
+    }));
+  }
+
+  private void handleRow(Row row) {
+    if (state != State.STOPPED) {
+      handler.handle(row);
+    }
+  }
+
+  private void checkEnd() {
+    if (state == State.EXHAUSTED && internalQueue.isEmpty()) {
+      stop();
+      handleEnd();
+    }
+  }
+
+  private void handleException(Throwable cause) {
+    if (state != State.STOPPED) {
+      stop();
+      Handler<Throwable> h = exceptionHandler;
+      if (h != null) {
+        h.handle(cause);
+      }
+    }
+  }
+
+  private void handleEnd() {
+    Handler<Void> h = endHandler;
+    if (h != null) {
+      h.handle(null);
+    }
+  }
+
+  private void stop() {
+    state = State.STOPPED;
+    // page fetches in progress are no longer needed
+    for (Source source : sources) {
+      source.resultSet.cancel();
+    }
+    internalQueue.handler(null).drainHandler(null).emptyHandler(null);
+  }
+
+  private void runOnContext(Handler<Void> action) {
+    if (context != Vertx.currentContext()) {
+      context.runOnContext(action);
+    } else {
+      action.handle(null);
+    }
+  }
+
+  private static class Source {
+
+    final int index;
+    final ResultSet resultSet;
+    final ArrayDeque<Row> rows = new ArrayDeque<>();
+    Future<ResultSet> next;
+    Row head;
+
+    Source(int index, ResultSet resultSet) {
+      this.index = index;
+      this.resultSet = resultSet;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * The cells of a group of rows sharing the same column definitions.
+ * <p>
+ * The value of cell {@code i} of row {@code r} is stored in {@code data}, between {@code offsets[r * columns + i]}
+ * and {@code offsets[r * columns + i + 1]}.
+ */
+class PackedPage {
+
+  final ColumnDefinitions definitions;
+  final int columns;
+  final int rows;
+  private final byte[] data;
+  private final int[] offsets;
+  private final BitSet nulls;
+
+  volatile CodecRegistry codecRegistry;
+  volatile ProtocolVersion protocolVersion;
+
+  PackedPage(ColumnDefinitions definitions, CodecRegistry codecRegistry, ProtocolVersion protocolVersion, int rows, byte[] data, int[] offsets, BitSet nulls) {
+    this.definitions = definitions;
+    this.columns = definitions.size();
+    this.codecRegistry = codecRegistry;
+    this.protocolVersion = protocolVersion;
+    this.rows = rows;
+    this.data = data;
+    this.offsets = offsets;
+    this.nulls = nulls;
+  }
+
+  ByteBuffer cell(int row, int column) {
+    int cell = row * columns + column;
+    if (nulls != null && nulls.get(cell)) {
+      return null;
+    }
+    int start = offsets[cell];
+    return ByteBuffer.wrap(data, start, offsets[cell + 1] - start).slice();
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A view over a row of a {@link PackedPage}.
+ */
+class PackedRow implements Row {
+
+  private final PackedPage page;
+  private final int row;
+
+  PackedRow(PackedPage page, int row) {
+    this.page = page;
+    this.row = row;
+  }
+
+  @Override
+  public ColumnDefinitions getColumnDefinitions() {
+    return page.definitions;
+  }
+
+  @Override
+  public ByteBuffer getBytesUnsafe(int i) {
+    if (i < 0 || i >= page.columns) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + page.columns);
+    }
+    return page.cell(row, i);
+  }
+
+  @Override
+  public int size() {
+    return page.columns;
+  }
+
+  @Override
+  public DataType getType(int i) {
+    return page.definitions.get(i).getType();
+  }
+
+  @Override
+  public int firstIndexOf(String name) {
+    int index = page.definitions.firstIndexOf(name);
+    if (index == -1) {
+      throw new IllegalArgumentException(name + " is not a column in this row");
+    }
+    return index;
+  }
+
+  @Override
+  public DataType getType(String name) {
+    return getType(firstIndexOf(name));
+  }
+
+  @Override
+  public int firstIndexOf(CqlIdentifier id) {
+    int index = page.definitions.firstIndexOf(id);
+    if (index == -1) {
+      throw new IllegalArgumentException(id + " is not a column in this row");
+    }
+    return index;
+  }
+
+  @Override
+  public DataType getType(CqlIdentifier id) {
+    return getType(firstIndexOf(id));
+  }
+
+  @Override
+  public CodecRegistry codecRegistry() {
+    return page.codecRegistry;
+  }
+
+  @Override
+  public ProtocolVersion protocolVersion() {
+    return page.protocolVersion;
+  }
+
+  @Override
+  public boolean isDetached() {
+    return false;
+  }
+
+  @Override
+  public void attach(AttachmentPoint attachmentPoint) {
+    // applies to all the rows of the page
+    page.codecRegistry = attachmentPoint.getCodecRegistry();
+    page.protocolVersion = attachmentPoint.getProtocolVersion();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("PackedRow[");
+    for (int i = 0; i < page.columns; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(page.definitions.get(i).getName().asCql(true)).append(':').append(getObject(i));
+    }
+    return sb.append(']').toString();
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of packed rows. Row views are created when elements are accessed.
+ */
+class PackedRowList extends AbstractList<Row> implements RandomAccess {
+
+  private final PackedPage[] pages;
+  private final int[] firstRows;
+  private final int size;
+
+  PackedRowList(PackedPage[] pages) {
+    this.pages = pages;
+    firstRows = new int[pages.length];
+    int count = 0;
+    for (int i = 0; i < pages.length; i++) {
+      firstRows[i] = count;
+      count += pages[i].rows;
+    }
+    size = count;
+  }
+
+  @Override
+  public Row get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    int page = Arrays.binarySearch(firstRows, index);
+    if (page < 0) {
+      page = -page - 2;
+    }
+    return new PackedRow(pages[page], index - firstRows[page]);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+}
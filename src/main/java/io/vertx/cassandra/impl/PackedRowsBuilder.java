@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Copies the cells of rows into pages made of a single byte array and an offsets table.
+ * <p>
+ * A page is sealed when the column definitions change, i.e. usually once per page of results, or when it grows
+ * beyond {@value #MAX_PAGE_BYTES} bytes.
+ */
+public class PackedRowsBuilder {
+
+  private static final int MAX_PAGE_BYTES = 1024 * 1024;
+
+  private final List<PackedPage> pages = new ArrayList<>();
+
+  private ColumnDefinitions definitions;
+  private CodecRegistry codecRegistry;
+  private ProtocolVersion protocolVersion;
+  private byte[] data = new byte[1024];
+  private int length;
+  private int[] offsets = new int[256];
+  private int cells;
+  private final BitSet nulls = new BitSet();
+  private int rows;
+
+  public PackedRowsBuilder add(Row row) {
+    ColumnDefinitions columnDefinitions = row.getColumnDefinitions();
+    if (columnDefinitions != definitions || length >= MAX_PAGE_BYTES) {
+      seal();
+      definitions = columnDefinitions;
+      codecRegistry = row.codecRegistry();
+      protocolVersion = row.protocolVersion();
+    }
+    int size = columnDefinitions.size();
+    if (cells + size + 1 > offsets.length) {
+      offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, cells + size + 1));
+    }
+    for (int i = 0; i < size; i++) {
+      offsets[cells] = length;
+      ByteBuffer bytes = row.getBytesUnsafe(i);
+      if (bytes == null) {
+        nulls.set(cells);
+      } else {
+        int remaining = bytes.remaining();
+        if (length + remaining > data.length) {
+          data = Arrays.copyOf(data, Math.max(data.length * 2, length + remaining));
+        }
+        bytes.duplicate().get(data, length, remaining);
+        length += remaining;
+      }
+      cells++;
+    }
+    rows++;
+    return this;
+  }
+
+  public PackedRowsBuilder combine(PackedRowsBuilder other) {
+    seal();
+    other.seal();
+    pages.addAll(other.pages);
+    return this;
+  }
+
+  public List<Row> build() {
+    seal();
+    return new PackedRowList(pages.toArray(new PackedPage[0]));
+  }
+
+  private void seal() {
+    if (rows == 0) {
+      return;
+    }
+    offsets[cells] = length;
+    // trim to size, packed rows are meant to be retained
+    pages.add(new PackedPage(
+      definitions, codecRegistry, protocolVersion, rows,
+      Arrays.copyOf(data, length), Arrays.copyOf(offsets, cells + 1), nulls.isEmpty() ? null : (BitSet) nulls.clone()));
+    length = 0;
+    cells = 0;
+    rows = 0;
+    nulls.clear();
+  }
+}
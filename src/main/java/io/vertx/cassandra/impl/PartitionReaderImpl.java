@@ -0,0 +1,269 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.servererrors.ReadFailureException;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.cassandra.PartitionReader;
+import io.vertx.cassandra.PartitionReaderOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.streams.ReadStream;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class PartitionReaderImpl implements PartitionReader {
+
+  /**
+   * How a slice query restricts the start of the range.
+   */
+  private enum Lower {
+    NONE, INCLUSIVE, EXCLUSIVE
+  }
+
+  private final VertxInternal vertx;
+  private final CassandraClient client;
+  private final int partitionKeySize;
+  private final List<String> clusteringColumns;
+  private final boolean descending;
+  private final int minSliceSize;
+  private final int maxSliceSize;
+  private final long targetLatency;
+  private final int parallelism;
+  private final String select;
+  private final String tuple;
+  private final String markers;
+  private final Map<String, Future<PreparedStatement>> preparedStatements = new ConcurrentHashMap<>();
+
+  private volatile int sliceSize;
+
+  public PartitionReaderImpl(Vertx vertx, CassandraClient client, PartitionReaderOptions options) {
+    this.vertx = (VertxInternal) Objects.requireNonNull(vertx, "vertx");
+    this.client = Objects.requireNonNull(client, "client");
+    Objects.requireNonNull(options, "options");
+    if (options.getTable() == null) {
+      throw new IllegalArgumentException("The table must be set");
+    }
+    List<String> partitionKeyColumns = options.getPartitionKeyColumns();
+    if (partitionKeyColumns.isEmpty()) {
+      throw new IllegalArgumentException("At least one partition key column must be set");
+    }
+    clusteringColumns = new ArrayList<>(options.getClusteringColumns());
+    if (clusteringColumns.isEmpty()) {
+      throw new IllegalArgumentException("At least one clustering column must be set");
+    }
+    List<String> columns = options.getColumns();
+    if (!columns.isEmpty() && !columns.containsAll(clusteringColumns)) {
+      throw new IllegalArgumentException("The columns must include the clustering columns");
+    }
+    if (options.getMinSliceSize() > options.getMaxSliceSize()) {
+      throw new IllegalArgumentException("minSliceSize must be <= maxSliceSize");
+    }
+    partitionKeySize = partitionKeyColumns.size();
+    descending = options.isDescending();
+    minSliceSize = options.getMinSliceSize();
+    maxSliceSize = options.getMaxSliceSize();
+    targetLatency = TimeUnit.MILLISECONDS.toNanos(options.getTargetSliceLatency());
+    parallelism = options.getParallelism();
+    sliceSize = Math.max(minSliceSize, Math.min(maxSliceSize, options.getInitialSliceSize()));
+    StringBuilder sb = new StringBuilder("SELECT ")
+      .append(columns.isEmpty() ? "*" : String.join(", ", columns))
+      .append(" FROM ").append(options.getTable())
+      .append(" WHERE ");
+    for (int i = 0; i < partitionKeySize; i++) {
+      sb.append(i > 0 ? " AND " : "").append(partitionKeyColumns.get(i)).append(" = ?");
+    }
+    select = sb.toString();
+    if (clusteringColumns.size() == 1) {
+      tuple = clusteringColumns.get(0);
+      markers = "?";
+    } else {
+      tuple = "(" + String.join(", ", clusteringColumns) + ")";
+      markers = "(" + String.join(", ", Collections.nCopies(clusteringColumns.size(), "?")) + ")";
+    }
+  }
+
+  @Override
+  public ReadStream<Row> read(List<Object> partitionKey) {
+    return read(partitionKey, Collections.emptyList());
+  }
+
+  @Override
+  public ReadStream<Row> read(List<Object> partitionKey, List<List<Object>> splits) {
+    Objects.requireNonNull(partitionKey, "partitionKey");
+    Objects.requireNonNull(splits, "splits");
+    if (partitionKey.size() != partitionKeySize) {
+      throw new IllegalArgumentException("Expected " + partitionKeySize + " partition key values, got " + partitionKey.size());
+    }
+    List<Range> ranges = new ArrayList<>(splits.size() + 1);
+    List<Object> start = null;
+    for (List<Object> split : splits) {
+      if (split.size() != clusteringColumns.size()) {
+        throw new IllegalArgumentException("Expected " + clusteringColumns.size() + " clustering values, got " + split.size());
+      }
+      ranges.add(new Range(start, split));
+      start = split;
+    }
+    ranges.add(new Range(start, null));
+    Object[] key = partitionKey.toArray();
+    // at most one slice of rows buffered beyond those in flight
+    return new PartitionSliceStream(vertx.getOrCreateContext(), ranges, parallelism, () -> sliceSize, range -> slice(key, range));
+  }
+
+  @Override
+  public int sliceSize() {
+    return sliceSize;
+  }
+
+  /**
+   * Read the next slice of {@code range}, and advance the range past it.
+   */
+  private Future<List<Row>> slice(Object[] partitionKey, Range range) {
+    int limit = sliceSize;
+    Lower lower = range.lastSeen != null ? Lower.EXCLUSIVE : range.start != null ? Lower.INCLUSIVE : Lower.NONE;
+    long start = System.nanoTime();
+    return prepare(lower, range.end != null)
+      .flatMap(prepared -> client.execute(bind(prepared, partitionKey, range, lower, limit)))
+      .flatMap(rs -> {
+        List<String> warnings = rs.getExecutionInfo().getWarnings();
+        return rs.all().map(rows -> {
+          adapt(limit, rows.size(), System.nanoTime() - start, warnings);
+          range.advance(rows, limit, clusteringColumns);
+          return rows;
+        });
+      })
+      .recover(t -> {
+        if (limit > minSliceSize && (t instanceof ReadTimeoutException || t instanceof ReadFailureException || t instanceof DriverTimeoutException)) {
+          // fewer rows, fewer cells and tombstones to read
+          sliceSize = Math.max(minSliceSize, limit / 2);
+          return slice(partitionKey, range);
+        }
+        return Future.failedFuture(t);
+      });
+  }
+
+  private Future<PreparedStatement> prepare(Lower lower, boolean upper) {
+    // in a descending table, the start of a range is its greatest key
+    StringBuilder sb = new StringBuilder(select);
+    if (lower == Lower.INCLUSIVE) {
+      sb.append(" AND ").append(tuple).append(descending ? " <= " : " >= ").append(markers);
+    } else if (lower == Lower.EXCLUSIVE) {
+      sb.append(" AND ").append(tuple).append(descending ? " < " : " > ").append(markers);
+    }
+    if (upper) {
+      sb.append(" AND ").append(tuple).append(descending ? " > " : " < ").append(markers);
+    }
+    String query = sb.append(" LIMIT ?").toString();
+    Future<PreparedStatement> future = preparedStatements.get(query);
+    if (future == null || future.failed()) {
+      future = client.prepare(query);
+      preparedStatements.put(query, future);
+    }
+    return future;
+  }
+
+  private BoundStatement bind(PreparedStatement prepared, Object[] partitionKey, Range range, Lower lower, int limit) {
+    int clusteringSize = clusteringColumns.size();
+    Object[] values = new Object[prepared.getVariableDefinitions().size()];
+    System.arraycopy(partitionKey, 0, values, 0, partitionKeySize);
+    int index = partitionKeySize;
+    if (lower == Lower.INCLUSIVE) {
+      System.arraycopy(range.start.toArray(), 0, values, index, clusteringSize);
+    }
+    if (lower != Lower.NONE) {
+      index += clusteringSize;
+    }
+    if (range.end != null) {
+      System.arraycopy(range.end.toArray(), 0, values, index, clusteringSize);
+      index += clusteringSize;
+    }
+    values[index] = limit;
+    BoundStatement statement = prepared.bind(values);
+    if (lower == Lower.EXCLUSIVE) {
+      // the last row seen is bound as it was read
+      for (int i = 0; i < clusteringSize; i++) {
+        statement = statement.setBytesUnsafe(partitionKeySize + i, range.lastSeen[i]);
+      }
+    }
+    // a slice is read in a single request
+    return statement.setPageSize(limit);
+  }
+
+  private void adapt(int limit, int rows, long latency, List<String> warnings) {
+    long next;
+    if (tombstoneWarning(warnings)) {
+      next = limit / 2;
+    } else if (latency > targetLatency) {
+      next = Math.max(limit / 4, limit * targetLatency / latency);
+    } else if (rows == limit && latency < targetLatency / 2) {
+      next = limit * 2L;
+    } else {
+      return;
+    }
+    sliceSize = (int) Math.max(minSliceSize, Math.min(maxSliceSize, next));
+  }
+
+  private static boolean tombstoneWarning(List<String> warnings) {
+    for (String warning : warnings) {
+      if (warning.toLowerCase().contains("tombstone")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A range of clustering keys, read slice after slice.
+   */
+  static class Range {
+
+    final List<Object> start;
+    final List<Object> end;
+    ByteBuffer[] lastSeen;
+    boolean exhausted;
+
+    Range(List<Object> start, List<Object> end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    void advance(List<Row> rows, int limit, List<String> clusteringColumns) {
+      if (rows.size() < limit) {
+        exhausted = true;
+        return;
+      }
+      Row last = rows.get(rows.size() - 1);
+      ByteBuffer[] key = new ByteBuffer[clusteringColumns.size()];
+      for (int i = 0; i < key.length; i++) {
+        key[i] = last.getBytesUnsafe(clusteringColumns.get(i));
+      }
+      lastSeen = key;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.impl.PartitionReaderImpl.Range;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+/**
+ * Emits the rows of the slices of a list of ranges.
+ * <p>
+ * A range has at most one slice in flight, so that its rows are emitted in order, and at most {@code parallelism}
+ * ranges are read at the same time. A slice is requested only while fewer rows than {@code highWaterMark} are buffered.
+ */
+class PartitionSliceStream extends ConfinedReadStream<Row> {
+
+  private final int parallelism;
+  private final IntSupplier highWaterMark;
+  private final Function<Range, Future<List<Row>>> slice;
+  private final ArrayDeque<Range> pending;
+  private final ArrayDeque<Range> started = new ArrayDeque<>();
+  private final ArrayDeque<Row> buffer = new ArrayDeque<>();
+
+  private int inFlight;
+
+  /**
+   * @param slice reads the next slice of a range, and advances the range past it
+   */
+  PartitionSliceStream(Context context, List<Range> ranges, int parallelism, IntSupplier highWaterMark, Function<Range, Future<List<Row>>> slice) {
+    super(context);
+    this.parallelism = parallelism;
+    this.highWaterMark = highWaterMark;
+    this.slice = slice;
+    pending = new ArrayDeque<>(ranges);
+  }
+
+  @Override
+  void start() {
+    emit();
+  }
+
+  @Override
+  Row next() {
+    return buffer.poll();
+  }
+
+  @Override
+  void emitted() {
+    if (buffer.isEmpty() && inFlight == 0 && started.isEmpty() && pending.isEmpty()) {
+      end();
+    } else {
+      requestSlices();
+    }
+  }
+
+  @Override
+  void stopped() {
+    buffer.clear();
+    pending.clear();
+    started.clear();
+  }
+
+  private void requestSlices() {
+    while (state == State.STARTED && inFlight < parallelism && buffer.size() < highWaterMark.getAsInt()) {
+      // ranges already started go first, so that no more than parallelism ranges are in progress
+      Range range = started.poll();
+      if (range == null) {
+        range = pending.poll();
+        if (range == null) {
+          return;
+        }
+      }
+      inFlight++;
+      Range r = range;
+      slice.apply(r).onComplete(ar -> runOnContext(v -> {
+        inFlight--;
+        if (state == State.STOPPED) {
+          return;
+        }
+        if (ar.failed()) {
+          handleException(ar.cause());
+          return;
+        }
+        buffer.addAll(ar.result());
+        if (!r.exhausted) {
+          started.add(r);
+        }
+        emit();
+      }));
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.ResultSet;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Collects the rows of a result set on the worker pool, page by page, while the next page is fetched.
+ * <p>
+ * The rows of each page are accumulated in a separate container, and containers are combined in page order, so that
+ * the result is the same as a sequential collection. At most {@code parallelism} pages are accumulated at the same
+ * time, while the next page is fetched: a page received while {@code parallelism} pages are being accumulated is held,
+ * and the page after is fetched when one of them is done.
+ * <p>
+ * When the operation holds a lease, each page is charged when it is received, and released when it has been
+ * accumulated.
+ * <p>
+ * The collector is confined to its context. Accumulation, combination and finishing run on the worker pool, the result
+ * is completed on the context.
+ */
+class PipelinedCollector<C, R> {
+
+  private final ContextInternal context;
+  private final int parallelism;
+  private final Supplier<C> supplier;
+  private final BiConsumer<C, Row> accumulator;
+  private final BinaryOperator<C> combiner;
+  private final Function<C, R> finisher;
+  private final boolean identityFinish;
+  private final Promise<R> promise;
+  private final MemoryGovernor.Lease lease;
+  // bytes charged for the pages received and not accumulated yet, in page order
+  private final Queue<Long> pageBytes = new ConcurrentLinkedQueue<>();
+
+  private ResultSet resultSet;
+  private Future<C> combined;
+  private int accumulating;
+  private List<Row> held;
+  private long heldBytes;
+
+  /**
+   * @param lease the bytes held by the operation, may be {@code null}
+   */
+  PipelinedCollector(ContextInternal context, Collector<Row, C, R> collector, int parallelism, MemoryGovernor.Lease lease) {
+    this.context = context;
+    this.parallelism = parallelism;
+    this.lease = lease;
+    supplier = collector.supplier();
+    accumulator = collector.accumulator();
+    combiner = collector.combiner();
+    finisher = collector.finisher();
+    identityFinish = collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH);
+    promise = context.promise();
+  }
+
+  /**
+   * Charge a page to the lease, when it is received.
+   */
+  AsyncResultSet charge(AsyncResultSet page) {
+    long bytes = MemoryGovernor.sizeOf(page);
+    lease.charge(bytes);
+    pageBytes.add(bytes);
+    return page;
+  }
+
+  Future<R> collect(ResultSet resultSet) {
+    this.resultSet = resultSet;
+    context.runOnContext(v -> handlePage());
+    return promise.future();
+  }
+
+  private void handlePage() {
+    List<Row> rows = new ArrayList<>(resultSet.remaining());
+    for (Row row : resultSet.currentPage()) {
+      rows.add(row);
+    }
+    Long charged = pageBytes.poll();
+    long bytes = charged == null ? 0 : charged;
+    if (accumulating < parallelism) {
+      start(rows, bytes);
+    } else {
+      // started when an accumulation is done
+      held = rows;
+      heldBytes = bytes;
+    }
+  }
+
+  /**
+   * Start the accumulation of a page, then fetch the next one, or finish after the last one.
+   */
+  private void start(List<Row> rows, long bytes) {
+    Future<C> partial = accumulate(rows, bytes);
+    if (combined == null) {
+      combined = partial;
+    } else {
+      Future<C> previous = combined;
+      combined = previous.flatMap(left -> partial.flatMap(right -> blocking(() -> combiner.apply(left, right))));
+    }
+    if (resultSet.hasMorePages()) {
+      fetchNextPage();
+    } else {
+      finish();
+    }
+  }
+
+  private Future<C> accumulate(List<Row> rows, long bytes) {
+    accumulating++;
+    return blocking(() -> {
+      C container = supplier.get();
+      for (Row row : rows) {
+        accumulator.accept(container, row);
+      }
+      return container;
+    }).onComplete(ar -> {
+      accumulating--;
+      if (lease != null) {
+        // the rows are no longer referenced
+        lease.discharge(bytes);
+      }
+      if (ar.failed()) {
+        promise.tryFail(ar.cause());
+      } else if (held != null) {
+        List<Row> next = held;
+        held = null;
+        start(next, heldBytes);
+      }
+    });
+  }
+
+  private void fetchNextPage() {
+    if (promise.future().isComplete()) {
+      return;
+    }
+    resultSet.fetchNextPage().onComplete(ar -> {
+      if (ar.failed()) {
+        promise.tryFail(ar.cause());
+      } else if (!promise.future().isComplete()) {
+        handlePage();
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private void finish() {
+    Future<R> result;
+    if (identityFinish) {
+      result = (Future<R>) combined;
+    } else {
+      result = combined.flatMap(container -> blocking(() -> finisher.apply(container)));
+    }
+    result.onComplete(ar -> {
+      if (ar.succeeded()) {
+        promise.tryComplete(ar.result());
+      } else {
+        promise.tryFail(ar.cause());
+      }
+    });
+  }
+
+  private <T> Future<T> blocking(Supplier<T> supplier) {
+    return context.executeBlocking(p -> p.complete(supplier.get()), false);
+  }
+}
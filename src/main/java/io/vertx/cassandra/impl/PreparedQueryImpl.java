@@ -0,0 +1,323 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.cassandra.PreparedQuery;
+import io.vertx.cassandra.ResultSet;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+import static io.vertx.cassandra.impl.Util.setHandler;
+
+/**
+ * Resolves the codec and the encoded width of each variable when the query is prepared.
+ */
+class PreparedQueryImpl implements PreparedQuery {
+
+  private enum Kind {
+    BIGINT(8), INT(4), SMALLINT(2), TINYINT(1), DOUBLE(8), FLOAT(4), BOOLEAN(1), UUID(16), TEXT(-1), OTHER(-1);
+
+    final int width;
+
+    Kind(int width) {
+      this.width = width;
+    }
+
+    static Kind of(DataType type) {
+      if (type.equals(DataTypes.BIGINT) || type.equals(DataTypes.COUNTER) || type.equals(DataTypes.TIMESTAMP) || type.equals(DataTypes.TIME)) {
+        return BIGINT;
+      } else if (type.equals(DataTypes.INT)) {
+        return INT;
+      } else if (type.equals(DataTypes.SMALLINT)) {
+        return SMALLINT;
+      } else if (type.equals(DataTypes.TINYINT)) {
+        return TINYINT;
+      } else if (type.equals(DataTypes.DOUBLE)) {
+        return DOUBLE;
+      } else if (type.equals(DataTypes.FLOAT)) {
+        return FLOAT;
+      } else if (type.equals(DataTypes.BOOLEAN)) {
+        return BOOLEAN;
+      } else if (type.equals(DataTypes.UUID) || type.equals(DataTypes.TIMEUUID)) {
+        return UUID;
+      } else if (type.equals(DataTypes.TEXT) || type.equals(DataTypes.ASCII)) {
+        return TEXT;
+      }
+      return OTHER;
+    }
+  }
+
+  private final CassandraClient client;
+  private final PreparedStatement preparedStatement;
+  private final ProtocolVersion protocolVersion;
+  private final BoundStatement template;
+  private final DataType[] types;
+  private final Kind[] kinds;
+  private final TypeCodec<Object>[] codecs;
+  private final int[] partitionKeyIndexes;
+  // the offset of each fixed-width variable in the buffers of the bindings, -1 for other variables
+  private final int[] offsets;
+  private final int fixedWidth;
+
+  @SuppressWarnings("unchecked")
+  PreparedQueryImpl(CassandraClient client, PreparedStatement preparedStatement, CodecRegistry codecRegistry, ProtocolVersion protocolVersion) {
+    this.client = client;
+    this.preparedStatement = preparedStatement;
+    this.protocolVersion = protocolVersion;
+    template = preparedStatement.bind();
+    ColumnDefinitions variables = preparedStatement.getVariableDefinitions();
+    types = new DataType[variables.size()];
+    kinds = new Kind[types.length];
+    codecs = new TypeCodec[types.length];
+    offsets = new int[types.length];
+    int width = 0;
+    for (int i = 0; i < types.length; i++) {
+      types[i] = variables.get(i).getType();
+      kinds[i] = Kind.of(types[i]);
+      codecs[i] = (TypeCodec<Object>) (TypeCodec<?>) codecRegistry.codecFor(types[i]);
+      offsets[i] = kinds[i].width > 0 ? width : -1;
+      width += Math.max(0, kinds[i].width);
+    }
+    fixedWidth = width;
+    List<Integer> indices = preparedStatement.getPartitionKeyIndices();
+    partitionKeyIndexes = new int[indices.size()];
+    for (int i = 0; i < partitionKeyIndexes.length; i++) {
+      partitionKeyIndexes[i] = indices.get(i);
+    }
+  }
+
+  @Override
+  public PreparedStatement preparedStatement() {
+    return preparedStatement;
+  }
+
+  @Override
+  public Binding binding() {
+    return new BindingImpl();
+  }
+
+  /**
+   * @return a slice of {@code buffer} per fixed-width variable, {@code null} for other variables
+   */
+  private ByteBuffer[] slices(ByteBuffer buffer) {
+    ByteBuffer[] slices = new ByteBuffer[types.length];
+    for (int i = 0; i < slices.length; i++) {
+      if (offsets[i] >= 0) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offsets[i]).limit(offsets[i] + kinds[i].width);
+        slices[i] = slice.slice();
+      }
+    }
+    return slices;
+  }
+
+  private class BindingImpl implements Binding {
+
+    // fixed-width values are written in place, each in its slice of a single buffer
+    final ByteBuffer buffer = ByteBuffer.allocate(fixedWidth);
+    final ByteBuffer[] slots = slices(buffer);
+    final ByteBuffer[] values = new ByteBuffer[types.length];
+    final boolean[] set = new boolean[types.length];
+
+    private ByteBuffer slot(int index, Kind kind) {
+      if (kinds[index] != kind) {
+        throw new IllegalArgumentException("Variable " + index + " is " + types[index].asCql(false, true) + ", not " + kind.name().toLowerCase());
+      }
+      set[index] = true;
+      values[index] = slots[index];
+      return slots[index];
+    }
+
+    private void set(int index, ByteBuffer value) {
+      set[index] = true;
+      values[index] = value;
+    }
+
+    @Override
+    public Binding setLong(int index, long value) {
+      slot(index, Kind.BIGINT).putLong(0, value);
+      return this;
+    }
+
+    @Override
+    public Binding setInt(int index, int value) {
+      slot(index, Kind.INT).putInt(0, value);
+      return this;
+    }
+
+    @Override
+    public Binding setShort(int index, short value) {
+      slot(index, Kind.SMALLINT).putShort(0, value);
+      return this;
+    }
+
+    @Override
+    public Binding setByte(int index, byte value) {
+      slot(index, Kind.TINYINT).put(0, value);
+      return this;
+    }
+
+    @Override
+    public Binding setDouble(int index, double value) {
+      slot(index, Kind.DOUBLE).putDouble(0, value);
+      return this;
+    }
+
+    @Override
+    public Binding setFloat(int index, float value) {
+      slot(index, Kind.FLOAT).putFloat(0, value);
+      return this;
+    }
+
+    @Override
+    public Binding setBoolean(int index, boolean value) {
+      slot(index, Kind.BOOLEAN).put(0, (byte) (value ? 1 : 0));
+      return this;
+    }
+
+    @Override
+    public Binding setUuid(int index, UUID value) {
+      if (value == null) {
+        return setNull(index);
+      }
+      ByteBuffer slot = slot(index, Kind.UUID);
+      slot.putLong(0, value.getMostSignificantBits());
+      slot.putLong(8, value.getLeastSignificantBits());
+      return this;
+    }
+
+    @Override
+    public Binding setString(int index, String value) {
+      if (kinds[index] != Kind.TEXT) {
+        throw new IllegalArgumentException("Variable " + index + " is " + types[index].asCql(false, true) + ", not text");
+      }
+      return setObject(index, value);
+    }
+
+    @Override
+    public Binding setObject(int index, Object value) {
+      if (value == null) {
+        return setNull(index);
+      }
+      TypeCodec<Object> codec = codecs[index];
+      if (!codec.accepts(value)) {
+        throw new IllegalArgumentException("Variable " + index + " is " + types[index].asCql(false, true) + ", cannot be set to a " + value.getClass().getName());
+      }
+      set(index, codec.encode(value, protocolVersion));
+      return this;
+    }
+
+    @Override
+    public Binding setNull(int index) {
+      set(index, null);
+      return this;
+    }
+
+    @Override
+    public Binding clear() {
+      for (int i = 0; i < values.length; i++) {
+        set[i] = false;
+        values[i] = null;
+      }
+      return this;
+    }
+
+    @Override
+    public BoundStatement statement() {
+      ByteBuffer[] bound = new ByteBuffer[values.length];
+      // the slots are rewritten by the next setters while the statement may still be sent, e.g. on retry, so the
+      // statement gets a copy of the whole fixed-width buffer
+      ByteBuffer[] snapshot = null;
+      BoundStatementBuilder builder = new BoundStatementBuilder(template);
+      for (int i = 0; i < values.length; i++) {
+        if (set[i]) {
+          ByteBuffer value = values[i];
+          if (value != null && value == slots[i]) {
+            if (snapshot == null) {
+              ByteBuffer copy = ByteBuffer.allocate(fixedWidth);
+              copy.put(buffer.duplicate());
+              snapshot = slices(copy);
+            }
+            value = snapshot[i];
+          }
+          bound[i] = value;
+          builder.setBytesUnsafe(i, value);
+        }
+      }
+      ByteBuffer routingKey = routingKey(bound);
+      if (routingKey != null) {
+        builder.setRoutingKey(routingKey);
+      }
+      return builder.build();
+    }
+
+    private ByteBuffer routingKey(ByteBuffer[] bound) {
+      if (partitionKeyIndexes.length == 0) {
+        return null;
+      }
+      for (int index : partitionKeyIndexes) {
+        if (!set[index] || bound[index] == null) {
+          // left to the driver
+          return null;
+        }
+      }
+      if (partitionKeyIndexes.length == 1) {
+        return bound[partitionKeyIndexes[0]];
+      }
+      // composite partition key: each component is written as its length, its bytes, and a 0 byte
+      int size = 0;
+      for (int index : partitionKeyIndexes) {
+        size += 2 + bound[index].remaining() + 1;
+      }
+      ByteBuffer composite = ByteBuffer.allocate(size);
+      for (int index : partitionKeyIndexes) {
+        ByteBuffer component = bound[index].duplicate();
+        composite.putShort((short) component.remaining());
+        composite.put(component);
+        composite.put((byte) 0);
+      }
+      composite.flip();
+      return composite;
+    }
+
+    @Override
+    public Future<ResultSet> execute() {
+      return client.execute(statement());
+    }
+
+    @Override
+    public Binding execute(Handler<AsyncResult<ResultSet>> resultHandler) {
+      Future<ResultSet> future = execute();
+      setHandler(future, resultHandler);
+      return this;
+    }
+  }
+}
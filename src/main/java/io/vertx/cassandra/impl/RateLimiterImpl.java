@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.cassandra.RateLimitOptions;
+import io.vertx.cassandra.RateLimiter;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class RateLimiterImpl implements RateLimiter {
+
+  private final VertxInternal vertx;
+  private final CopyOnWriteArrayList<Limit> limits = new CopyOnWriteArrayList<>();
+
+  public RateLimiterImpl(Vertx vertx) {
+    this.vertx = (VertxInternal) Objects.requireNonNull(vertx, "vertx");
+  }
+
+  @Override
+  public RateLimiter addLimit(RateLimitOptions options) {
+    limits.add(new Limit(new RateLimitOptions(Objects.requireNonNull(options, "options"))));
+    return this;
+  }
+
+  @Override
+  public JsonObject statistics() {
+    JsonObject json = new JsonObject();
+    for (Limit limit : limits) {
+      json.put(limit.name, limit.statistics());
+    }
+    return json;
+  }
+
+  @Override
+  public Future<AsyncResultSet> execute(Statement statement, Execution next) {
+    Limit[] snapshot = limits.toArray(new Limit[0]);
+    if (snapshot.length == 0) {
+      return next.execute(statement);
+    }
+    long[] rows = new long[snapshot.length];
+    long[] bytes = new long[snapshot.length];
+    String profile = statement.getExecutionProfileName();
+    if (statement instanceof BatchStatement) {
+      for (BatchableStatement<?> child : (BatchStatement) statement) {
+        count(snapshot, child, profile, rows, bytes);
+      }
+    } else {
+      count(snapshot, statement, profile, rows, bytes);
+    }
+    long now = System.nanoTime();
+    long delay = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      if (rows[i] > 0) {
+        delay = Math.max(delay, snapshot[i].reserve(rows[i], bytes[i], now));
+      }
+    }
+    if (delay == 0) {
+      return next.execute(statement);
+    }
+    ContextInternal context = vertx.getOrCreateContext();
+    Promise<AsyncResultSet> promise = context.promise();
+    // timers have a millisecond resolution
+    long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(delay + 999_999));
+    context.setTimer(millis, id -> next.execute(statement).onComplete(promise));
+    return promise.future();
+  }
+
+  private static void count(Limit[] limits, Statement<?> statement, String profile, long[] rows, long[] bytes) {
+    CqlTarget target = CqlTarget.of(statement);
+    if (target == null || !target.write) {
+      return;
+    }
+    long size = -1;
+    for (int i = 0; i < limits.length; i++) {
+      if (limits[i].matches(target, profile)) {
+        if (size < 0) {
+          size = sizeOf(statement);
+        }
+        rows[i]++;
+        bytes[i] += size;
+      }
+    }
+  }
+
+  private static long sizeOf(Statement<?> statement) {
+    if (statement instanceof BoundStatement) {
+      long size = 0;
+      for (ByteBuffer value : ((BoundStatement) statement).getValues()) {
+        if (value != null) {
+          size += value.remaining();
+        }
+      }
+      return size;
+    }
+    return ((SimpleStatement) statement).getQuery().length();
+  }
+
+  private static class Limit {
+
+    final String name;
+    final RateLimitOptions options;
+    final Bucket rowBucket;
+    final Bucket byteBucket;
+
+    long requests;
+    long delayed;
+    long totalWaitTime;
+    long maxWaitTime;
+
+    Limit(RateLimitOptions options) {
+      this.options = options;
+      rowBucket = options.getRowsPerSecond() > 0 ? new Bucket(options.getRowsPerSecond(), options.getBurst()) : null;
+      byteBucket = options.getBytesPerSecond() > 0 ? new Bucket(options.getBytesPerSecond(), options.getBurst()) : null;
+      StringBuilder sb = new StringBuilder();
+      sb.append(options.getKeyspace() == null ? "*" : options.getKeyspace());
+      if (options.getTable() != null) {
+        sb.append('.').append(options.getTable());
+      }
+      if (options.getExecutionProfile() != null) {
+        sb.append('@').append(options.getExecutionProfile());
+      }
+      name = sb.toString();
+    }
+
+    boolean matches(CqlTarget target, String profile) {
+      return (options.getKeyspace() == null || options.getKeyspace().equals(target.keyspace))
+        && (options.getTable() == null || options.getTable().equals(target.table))
+        && (options.getExecutionProfile() == null || options.getExecutionProfile().equals(profile));
+    }
+
+    /**
+     * @return the delay before the writes can be executed, in nanoseconds
+     */
+    long reserve(long rows, long bytes, long now) {
+      long delay = 0;
+      if (rowBucket != null) {
+        delay = rowBucket.reserve(rows, now);
+      }
+      if (byteBucket != null) {
+        delay = Math.max(delay, byteBucket.reserve(bytes, now));
+      }
+      long waitTime = TimeUnit.NANOSECONDS.toMillis(delay);
+      synchronized (this) {
+        requests++;
+        if (delay > 0) {
+          delayed++;
+          totalWaitTime += waitTime;
+          maxWaitTime = Math.max(maxWaitTime, waitTime);
+        }
+      }
+      return delay;
+    }
+
+    synchronized JsonObject statistics() {
+      return new JsonObject()
+        .put("requests", requests)
+        .put("delayed", delayed)
+        .put("totalWaitTime", totalWaitTime)
+        .put("maxWaitTime", maxWaitTime);
+    }
+  }
+
+  /**
+   * A token bucket which can go into debt: a reservation always succeeds, and the caller waits until the debt has been
+   * paid back. This keeps reservations in order without queuing them.
+   */
+  private static class Bucket {
+
+    final double tokensPerNano;
+    final double capacity;
+
+    double tokens;
+    long last;
+
+    Bucket(long perSecond, double burst) {
+      tokensPerNano = perSecond / 1e9;
+      capacity = perSecond * burst;
+      tokens = capacity;
+      last = System.nanoTime();
+    }
+
+    synchronized long reserve(long amount, long now) {
+      if (now > last) {
+        tokens = Math.min(capacity, tokens + (now - last) * tokensPerNano);
+        last = now;
+      }
+      tokens -= amount;
+      return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+  }
+}
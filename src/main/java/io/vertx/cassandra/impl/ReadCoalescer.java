@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Attaches identical reads to the execution already in flight.
+ * <p>
+ * Only {@code SELECT} bound statements are coalesced. Two statements are identical when they have the same prepared
+ * id, bound values, consistency level, execution profile, target node, page size and paging state.
+ * <p>
+ * When other reads have been attached to an execution, the first page is copied so that each caller can iterate it
+ * independently. The rows themselves are shared. Next pages are fetched separately by each caller.
+ */
+class ReadCoalescer {
+
+  private final ConcurrentMap<List<Object>, InFlight> inFlight = new ConcurrentHashMap<>();
+
+  Future<AsyncResultSet> execute(ContextInternal context, Statement statement, Function<Statement, Future<AsyncResultSet>> execution) {
+    List<Object> key = key(statement);
+    if (key == null) {
+      return execution.apply(statement);
+    }
+    InFlight current = new InFlight();
+    InFlight existing = inFlight.putIfAbsent(key, current);
+    if (existing != null) {
+      Promise<AsyncResultSet> promise = context.promise();
+      if (existing.join(context, promise)) {
+        return promise.future();
+      }
+      // completed in the meantime
+      return execution.apply(statement);
+    }
+    Future<AsyncResultSet> future;
+    try {
+      future = execution.apply(statement);
+    } catch (RuntimeException e) {
+      inFlight.remove(key, current);
+      current.complete(Future.failedFuture(e));
+      throw e;
+    }
+    Promise<AsyncResultSet> promise = context.promise();
+    future.onComplete(ar -> {
+      inFlight.remove(key, current);
+      promise.handle(current.complete(ar));
+    });
+    return promise.future();
+  }
+
+  int inFlight() {
+    return inFlight.size();
+  }
+
+  private static List<Object> key(Statement<?> statement) {
+    if (!(statement instanceof BoundStatement) || statement.isTracing()) {
+      return null;
+    }
+    BoundStatement boundStatement = (BoundStatement) statement;
+    PreparedStatement preparedStatement = boundStatement.getPreparedStatement();
+    if (preparedStatement.getResultSetDefinitions().size() == 0 || !CqlTarget.isSelect(preparedStatement.getQuery())) {
+      return null;
+    }
+    List<Object> key = new ArrayList<>(boundStatement.getValues().size() + 7);
+    key.add(preparedStatement.getId());
+    key.add(boundStatement.getConsistencyLevel());
+    key.add(boundStatement.getExecutionProfileName());
+    key.add(boundStatement.getExecutionProfile());
+    key.add(boundStatement.getNode());
+    key.add(boundStatement.getPageSize());
+    key.add(boundStatement.getPagingState());
+    key.addAll(boundStatement.getValues());
+    return key;
+  }
+
+  private static class InFlight {
+
+    private List<Waiter> waiters;
+    private boolean completed;
+
+    synchronized boolean join(ContextInternal context, Promise<AsyncResultSet> promise) {
+      if (completed) {
+        return false;
+      }
+      if (waiters == null) {
+        waiters = new ArrayList<>();
+      }
+      waiters.add(new Waiter(context, promise));
+      return true;
+    }
+
+    Future<AsyncResultSet> complete(AsyncResult<AsyncResultSet> ar) {
+      List<Waiter> joined;
+      synchronized (this) {
+        completed = true;
+        joined = waiters == null ? Collections.emptyList() : waiters;
+      }
+      if (ar.failed()) {
+        for (Waiter waiter : joined) {
+          waiter.handle(Future.failedFuture(ar.cause()));
+        }
+        return Future.failedFuture(ar.cause());
+      }
+      if (joined.isEmpty()) {
+        return Future.succeededFuture(ar.result());
+      }
+      SharedPage page = new SharedPage(ar.result());
+      for (Waiter waiter : joined) {
+        waiter.handle(Future.succeededFuture(page.view()));
+      }
+      return Future.succeededFuture(page.view());
+    }
+  }
+
+  private static class Waiter {
+
+    final ContextInternal context;
+    final Promise<AsyncResultSet> promise;
+
+    Waiter(ContextInternal context, Promise<AsyncResultSet> promise) {
+      this.context = context;
+      this.promise = promise;
+    }
+
+    void handle(AsyncResult<AsyncResultSet> ar) {
+      if (context == Vertx.currentContext()) {
+        promise.handle(ar);
+      } else {
+        context.runOnContext(v -> promise.handle(ar));
+      }
+    }
+  }
+}
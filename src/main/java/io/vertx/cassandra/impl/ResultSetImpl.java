@@ -15,6 +15,8 @@
  */
 package io.vertx.cassandra.impl;
 
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
 import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
 import com.datastax.oss.driver.api.core.cql.Row;
@@ -23,9 +25,13 @@ import io.vertx.core.*;
 import io.vertx.core.impl.ContextInternal;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * @author Pavel Drankou
@@ -35,15 +41,38 @@ public class ResultSetImpl implements ResultSet {
 
   private final Vertx vertx;
   private final AtomicReference<com.datastax.oss.driver.api.core.cql.AsyncResultSet> resultSetRef;
+  private final Function<AsyncResultSet, AsyncResultSet> pageInterceptor;
+  private final boolean packedRows;
+  private final long deadline;
+
+  private volatile boolean cancelled;
+  private volatile CompletableFuture<AsyncResultSet> inFlight;
 
   public ResultSetImpl(com.datastax.oss.driver.api.core.cql.AsyncResultSet resultSet, Vertx vertx) {
+    this(resultSet, vertx, null, false, 0);
+  }
+
+  /**
+   * @param pageInterceptor applied to pages fetched after the first one, may be {@code null}
+   * @param packedRows      whether {@link #all()} packs rows
+   * @param deadline        the {@link System#nanoTime()} after which fetches fail, {@code 0} for no deadline
+   */
+  ResultSetImpl(AsyncResultSet resultSet, Vertx vertx, Function<AsyncResultSet, AsyncResultSet> pageInterceptor, boolean packedRows, long deadline) {
     this.resultSetRef = new AtomicReference<>(resultSet);
     this.vertx = vertx;
+    this.pageInterceptor = pageInterceptor;
+    this.packedRows = packedRows;
+    this.deadline = deadline;
   }
 
   @Override
   public ResultSet all(Handler<AsyncResult<List<Row>>> handler) {
-    loadMore(vertx.getOrCreateContext(), Collections.emptyList(), handler);
+    Context context = vertx.getOrCreateContext();
+    if (packedRows) {
+      loadMore(context, new PackedRowsBuilder(), PackedRowsBuilder::add, PackedRowsBuilder::build, handler);
+    } else {
+      loadMore(context, new ArrayList<>(), List::add, Function.identity(), handler);
+    }
     return this;
   }
 
@@ -86,11 +115,9 @@ public class ResultSetImpl implements ResultSet {
 
   @Override
   public Future<ResultSet> fetchNextPage() throws IllegalStateException {
-    return Future.fromCompletionStage(
-      resultSetRef.get().fetchNextPage(),
-      vertx.getOrCreateContext())
+    return fetchPage(vertx.getOrCreateContext())
       .map(datastaxRS -> {
-        resultSetRef.set(datastaxRS);
+        resultSetRef.set(intercept(datastaxRS));
         return this;
       });
   }
@@ -100,19 +127,80 @@ public class ResultSetImpl implements ResultSet {
     return resultSetRef.get().wasApplied();
   }
 
-  private void loadMore(Context context, List<Row> loaded, Handler<AsyncResult<List<Row>>> handler) {
+  @Override
+  public void cancel() {
+    cancelled = true;
+    CompletableFuture<AsyncResultSet> future = inFlight;
+    if (future != null) {
+      future.cancel(false);
+    }
+  }
+
+  /**
+   * Fetch the next page, unless the result set has been cancelled or the deadline has passed. The driver request is
+   * cancelled when the deadline passes while it is in progress.
+   */
+  private Future<AsyncResultSet> fetchPage(Context context) {
+    if (cancelled) {
+      return Future.failedFuture(new CancellationException("The result set has been cancelled"));
+    }
+    long remaining = 0;
+    if (deadline != 0) {
+      remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (remaining <= 0) {
+        return Future.failedFuture(deadlineExceeded());
+      }
+    }
+    CompletableFuture<AsyncResultSet> future = resultSetRef.get().fetchNextPage().toCompletableFuture();
+    inFlight = future;
+    if (cancelled) {
+      // cancelled while the request was sent
+      future.cancel(false);
+    }
+    Promise<AsyncResultSet> promise = Promise.promise();
+    long timerId;
+    if (deadline != 0) {
+      timerId = vertx.setTimer(remaining, id -> {
+        if (promise.tryFail(deadlineExceeded())) {
+          future.cancel(false);
+        }
+      });
+    } else {
+      timerId = -1;
+    }
+    Future.fromCompletionStage(future, context).onComplete(ar -> {
+      inFlight = null;
+      if (timerId >= 0) {
+        vertx.cancelTimer(timerId);
+      }
+      if (ar.succeeded()) {
+        promise.tryComplete(ar.result());
+      } else {
+        promise.tryFail(ar.cause());
+      }
+    });
+    return promise.future();
+  }
+
+  private static DriverTimeoutException deadlineExceeded() {
+    return new DriverTimeoutException("Deadline exceeded");
+  }
+
+  private AsyncResultSet intercept(AsyncResultSet page) {
+    return pageInterceptor == null ? page : pageInterceptor.apply(page);
+  }
+
+  private <A> void loadMore(Context context, A loaded, BiConsumer<A, Row> accumulator, Function<A, List<Row>> finisher, Handler<AsyncResult<List<Row>>> handler) {
     int availableWithoutFetching = resultSetRef.get().remaining();
-    List<Row> rows = new ArrayList<>(loaded.size() + availableWithoutFetching);
-    rows.addAll(loaded);
     for (int i = 0; i < availableWithoutFetching; i++) {
-      rows.add(resultSetRef.get().one());
+      accumulator.accept(loaded, resultSetRef.get().one());
     }
 
     if (resultSetRef.get().hasMorePages()) {
-      Future.fromCompletionStage(resultSetRef.get().fetchNextPage(), context).onComplete(ar -> {
+      fetchPage(context).onComplete(ar -> {
         if (ar.succeeded()) {
-          resultSetRef.set(ar.result());
-          loadMore(context, rows, handler);
+          resultSetRef.set(intercept(ar.result()));
+          loadMore(context, loaded, accumulator, finisher, handler);
         } else {
           if (handler != null) {
             handler.handle(Future.failedFuture(ar.cause()));
@@ -121,7 +209,7 @@ public class ResultSetImpl implements ResultSet {
       });
     } else {
       if (handler != null) {
-        handler.handle(Future.succeededFuture(rows));
+        handler.handle(Future.succeededFuture(finisher.apply(loaded)));
       }
     }
   }
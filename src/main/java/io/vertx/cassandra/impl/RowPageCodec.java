@@ -0,0 +1,453 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.DefaultProtocolVersion;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.type.*;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.cassandra.RowPage;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Passes {@link RowPage} references to local consumers.
+ * <p>
+ * Wire form:
+ * <pre>
+ * length (4 bytes), protocol version (1 byte)
+ * column count (4 bytes, {@code -1} if unknown), then for each column: keyspace, table, name, CQL type
+ * row count (4 bytes, {@code 0} if the column count is unknown), then for each cell: length (4 bytes, {@code -1} for
+ * null) followed by its bytes
+ * </pre>
+ * Strings are encoded as in the native protocol: length (2 bytes) followed by their UTF-8 bytes. Types are encoded as
+ * their CQL string, so user defined types, which cannot be rebuilt from their name, are not supported. Decoded rows are
+ * packed, and share the array the message has been copied to.
+ */
+public class RowPageCodec implements MessageCodec<RowPage, RowPage> {
+
+  public static final String NAME = "cassandra-row-page";
+
+  private static final Map<String, DataType> PRIMITIVES = new HashMap<>();
+
+  static {
+    DataType[] primitives = {
+      DataTypes.ASCII, DataTypes.BIGINT, DataTypes.BLOB, DataTypes.BOOLEAN, DataTypes.COUNTER, DataTypes.DATE,
+      DataTypes.DECIMAL, DataTypes.DOUBLE, DataTypes.DURATION, DataTypes.FLOAT, DataTypes.INET, DataTypes.INT,
+      DataTypes.SMALLINT, DataTypes.TEXT, DataTypes.TIME, DataTypes.TIMESTAMP, DataTypes.TIMEUUID, DataTypes.TINYINT,
+      DataTypes.UUID, DataTypes.VARINT
+    };
+    for (DataType primitive : primitives) {
+      PRIMITIVES.put(primitive.asCql(false, false), primitive);
+    }
+    PRIMITIVES.put("varchar", DataTypes.TEXT);
+  }
+
+  @Override
+  public void encodeToWire(Buffer buffer, RowPage page) {
+    ColumnDefinitions definitions = page.columnDefinitions();
+    List<Row> rows = page.rows();
+    if (definitions == null && !rows.isEmpty()) {
+      throw new IllegalArgumentException("A page with rows must have column definitions");
+    }
+    ProtocolVersion protocolVersion = rows.isEmpty() ? DefaultProtocolVersion.DEFAULT : rows.get(0).protocolVersion();
+    ByteBuf out = Unpooled.buffer();
+    out.writeByte(protocolVersion.getCode());
+    int columns = definitions == null ? -1 : definitions.size();
+    out.writeInt(columns);
+    for (int i = 0; i < columns; i++) {
+      ColumnDefinition definition = definitions.get(i);
+      writeString(definition.getKeyspace().asInternal(), out);
+      writeString(definition.getTable().asInternal(), out);
+      writeString(definition.getName().asInternal(), out);
+      checkSupported(definition.getType());
+      writeString(definition.getType().asCql(true, false), out);
+    }
+    out.writeInt(rows.size());
+    for (Row row : rows) {
+      if (row.size() != columns) {
+        throw new IllegalArgumentException("The rows of a page must have the same columns");
+      }
+      for (int i = 0; i < columns; i++) {
+        ByteBuffer cell = row.getBytesUnsafe(i);
+        if (cell == null) {
+          out.writeInt(-1);
+        } else {
+          out.writeInt(cell.remaining());
+          out.writeBytes(cell.duplicate());
+        }
+      }
+    }
+    buffer.appendInt(out.readableBytes());
+    buffer.appendBytes(out.array(), out.arrayOffset() + out.readerIndex(), out.readableBytes());
+  }
+
+  @Override
+  public RowPage decodeFromWire(int pos, Buffer buffer) {
+    int length = buffer.getInt(pos);
+    byte[] data = buffer.getBytes(pos + 4, pos + 4 + length);
+    ByteBuf in = Unpooled.wrappedBuffer(data);
+    ProtocolVersion protocolVersion = protocolVersion(in.readByte());
+    int columns = in.readInt();
+    ColumnDefinitions definitions = null;
+    if (columns >= 0) {
+      List<ColumnDefinition> list = new ArrayList<>(columns);
+      for (int i = 0; i < columns; i++) {
+        CqlIdentifier keyspace = CqlIdentifier.fromInternal(readString(in));
+        CqlIdentifier table = CqlIdentifier.fromInternal(readString(in));
+        CqlIdentifier name = CqlIdentifier.fromInternal(readString(in));
+        DataType type = new TypeParser(readString(in)).parse();
+        list.add(new WireColumnDefinition(keyspace, table, name, type));
+      }
+      definitions = new WireColumnDefinitions(list);
+    }
+    int rows = in.readInt();
+    if (rows == 0) {
+      return new RowPage(definitions, Collections.emptyList());
+    }
+    if (definitions == null) {
+      throw new IllegalArgumentException("A page with rows must have column definitions");
+    }
+    // length prefixes are removed by moving cells in place, so that cells are contiguous as expected by packed pages
+    int cells = rows * columns;
+    int[] offsets = new int[cells + 1];
+    BitSet nulls = new BitSet();
+    int dataLength = 0;
+    for (int cell = 0; cell < cells; cell++) {
+      int cellLength = in.readInt();
+      offsets[cell] = dataLength;
+      if (cellLength < 0) {
+        nulls.set(cell);
+      } else {
+        System.arraycopy(data, in.readerIndex(), data, dataLength, cellLength);
+        in.skipBytes(cellLength);
+        dataLength += cellLength;
+      }
+    }
+    offsets[cells] = dataLength;
+    PackedPage packedPage = new PackedPage(definitions, CodecRegistry.DEFAULT, protocolVersion, rows, data, offsets, nulls.isEmpty() ? null : nulls);
+    return new RowPage(definitions, new PackedRowList(new PackedPage[]{packedPage}));
+  }
+
+  @Override
+  public RowPage transform(RowPage page) {
+    return page;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+
+  private static ProtocolVersion protocolVersion(int code) {
+    for (DefaultProtocolVersion version : DefaultProtocolVersion.values()) {
+      if (version.getCode() == code) {
+        return version;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported protocol version: " + code);
+  }
+
+  private static void writeString(String s, ByteBuf out) {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.writeBytes(bytes);
+  }
+
+  private static String readString(ByteBuf in) {
+    int length = in.readUnsignedShort();
+    String s = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+    in.skipBytes(length);
+    return s;
+  }
+
+  /**
+   * Fails if the type is, or holds, a user defined type.
+   */
+  private static void checkSupported(DataType type) {
+    if (type instanceof UserDefinedType) {
+      throw new IllegalArgumentException("Unsupported type: " + type.asCql(true, true));
+    } else if (type instanceof ListType) {
+      checkSupported(((ListType) type).getElementType());
+    } else if (type instanceof SetType) {
+      checkSupported(((SetType) type).getElementType());
+    } else if (type instanceof MapType) {
+      checkSupported(((MapType) type).getKeyType());
+      checkSupported(((MapType) type).getValueType());
+    } else if (type instanceof TupleType) {
+      ((TupleType) type).getComponentTypes().forEach(RowPageCodec::checkSupported);
+    }
+  }
+
+  /**
+   * Parses the CQL form of a type, as written by {@link DataType#asCql(boolean, boolean)}.
+   */
+  private static final class TypeParser {
+
+    private final String cql;
+    private int pos;
+
+    TypeParser(String cql) {
+      this.cql = cql;
+    }
+
+    DataType parse() {
+      DataType type = type();
+      skipSpaces();
+      if (pos != cql.length()) {
+        throw error();
+      }
+      return type;
+    }
+
+    private DataType type() {
+      skipSpaces();
+      if (pos < cql.length() && cql.charAt(pos) == '\'') {
+        int end = cql.indexOf('\'', pos + 1);
+        if (end < 0) {
+          throw error();
+        }
+        String className = cql.substring(pos + 1, end);
+        pos = end + 1;
+        return DataTypes.custom(className);
+      }
+      int start = pos;
+      while (pos < cql.length() && (Character.isLetterOrDigit(cql.charAt(pos)) || cql.charAt(pos) == '_')) {
+        pos++;
+      }
+      String name = cql.substring(start, pos).toLowerCase();
+      List<DataType> parameters = parameters();
+      switch (name) {
+        case "frozen":
+          return frozen(single(parameters));
+        case "list":
+          return DataTypes.listOf(single(parameters));
+        case "set":
+          return DataTypes.setOf(single(parameters));
+        case "map":
+          if (parameters.size() != 2) {
+            throw error();
+          }
+          return DataTypes.mapOf(parameters.get(0), parameters.get(1));
+        case "tuple":
+          if (parameters.isEmpty()) {
+            throw error();
+          }
+          return DataTypes.tupleOf(parameters.toArray(new DataType[0]));
+        default:
+          DataType primitive = PRIMITIVES.get(name);
+          if (primitive == null || !parameters.isEmpty()) {
+            throw error();
+          }
+          return primitive;
+      }
+    }
+
+    private List<DataType> parameters() {
+      skipSpaces();
+      if (pos == cql.length() || cql.charAt(pos) != '<') {
+        return Collections.emptyList();
+      }
+      pos++;
+      List<DataType> parameters = new ArrayList<>();
+      while (true) {
+        parameters.add(type());
+        skipSpaces();
+        if (pos == cql.length()) {
+          throw error();
+        }
+        char c = cql.charAt(pos++);
+        if (c == '>') {
+          return parameters;
+        } else if (c != ',') {
+          throw error();
+        }
+      }
+    }
+
+    private DataType single(List<DataType> parameters) {
+      if (parameters.size() != 1) {
+        throw error();
+      }
+      return parameters.get(0);
+    }
+
+    private DataType frozen(DataType type) {
+      if (type instanceof ListType) {
+        return DataTypes.frozenListOf(((ListType) type).getElementType());
+      } else if (type instanceof SetType) {
+        return DataTypes.frozenSetOf(((SetType) type).getElementType());
+      } else if (type instanceof MapType) {
+        MapType mapType = (MapType) type;
+        return DataTypes.frozenMapOf(mapType.getKeyType(), mapType.getValueType());
+      } else if (type instanceof TupleType) {
+        // tuples are always frozen
+        return type;
+      }
+      throw error();
+    }
+
+    private void skipSpaces() {
+      while (pos < cql.length() && cql.charAt(pos) == ' ') {
+        pos++;
+      }
+    }
+
+    private IllegalArgumentException error() {
+      return new IllegalArgumentException("Unsupported type: " + cql);
+    }
+  }
+
+  private static final class WireColumnDefinition implements ColumnDefinition {
+
+    private final CqlIdentifier keyspace;
+    private final CqlIdentifier table;
+    private final CqlIdentifier name;
+    private final DataType type;
+
+    WireColumnDefinition(CqlIdentifier keyspace, CqlIdentifier table, CqlIdentifier name, DataType type) {
+      this.keyspace = keyspace;
+      this.table = table;
+      this.name = name;
+      this.type = type;
+    }
+
+    @Override
+    public CqlIdentifier getKeyspace() {
+      return keyspace;
+    }
+
+    @Override
+    public CqlIdentifier getTable() {
+      return table;
+    }
+
+    @Override
+    public CqlIdentifier getName() {
+      return name;
+    }
+
+    @Override
+    public DataType getType() {
+      return type;
+    }
+
+    @Override
+    public boolean isDetached() {
+      return false;
+    }
+
+    @Override
+    public void attach(AttachmentPoint attachmentPoint) {
+    }
+
+    @Override
+    public String toString() {
+      return name.asCql(true) + " " + type.asCql(true, true);
+    }
+  }
+
+  private static final class WireColumnDefinitions implements ColumnDefinitions {
+
+    private final List<ColumnDefinition> definitions;
+
+    WireColumnDefinitions(List<ColumnDefinition> definitions) {
+      this.definitions = definitions;
+    }
+
+    @Override
+    public int size() {
+      return definitions.size();
+    }
+
+    @Override
+    public ColumnDefinition get(int i) {
+      return definitions.get(i);
+    }
+
+    @Override
+    public boolean contains(String name) {
+      return firstIndexOf(name) >= 0;
+    }
+
+    @Override
+    public boolean contains(CqlIdentifier id) {
+      return firstIndexOf(id) >= 0;
+    }
+
+    /**
+     * Follows the driver rules: a quoted name is case sensitive, an unquoted name is not.
+     */
+    @Override
+    public int firstIndexOf(String name) {
+      if (name.length() > 1 && name.startsWith("\"") && name.endsWith("\"")) {
+        return firstIndexOf(CqlIdentifier.fromCql(name));
+      }
+      for (int i = 0; i < definitions.size(); i++) {
+        if (definitions.get(i).getName().asInternal().equalsIgnoreCase(name)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public int firstIndexOf(CqlIdentifier id) {
+      for (int i = 0; i < definitions.size(); i++) {
+        if (definitions.get(i).getName().equals(id)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public Iterator<ColumnDefinition> iterator() {
+      return definitions.iterator();
+    }
+
+    @Override
+    public boolean isDetached() {
+      return false;
+    }
+
+    @Override
+    public void attach(AttachmentPoint attachmentPoint) {
+    }
+  }
+}
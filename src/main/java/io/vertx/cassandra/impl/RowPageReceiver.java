@@ -0,0 +1,245 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import io.vertx.cassandra.RowPage;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.impl.InboundBuffer;
+
+import java.util.UUID;
+
+import static io.vertx.cassandra.impl.RowPageSender.*;
+
+/**
+ * Receives the pages sent by a {@link RowPageSender}.
+ * <p>
+ * The receiver grants {@code prefetch} credits when the handler is set, and one more each time a page has been
+ * emitted: at most {@code prefetch} pages are in flight or buffered.
+ * <p>
+ * The receiver is confined to its context: calls made from other threads, and the pages received, are handled on the
+ * context, so that pages are emitted without locking.
+ */
+public class RowPageReceiver implements ReadStream<RowPage> {
+
+  private enum State {
+    IDLE, STARTED, ENDED, STOPPED
+  }
+
+  private final ContextInternal context;
+  private final EventBus eventBus;
+  private final int prefetch;
+  private final InboundBuffer<RowPage> internalQueue;
+
+  private MessageConsumer<Object> streamConsumer;
+  // only accessed on the context
+  private String creditAddress;
+  private State state;
+  private Handler<RowPage> handler;
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> endHandler;
+
+  public RowPageReceiver(VertxInternal vertx, int prefetch) {
+    this.context = vertx.getOrCreateContext();
+    this.eventBus = vertx.eventBus();
+    this.prefetch = prefetch;
+    internalQueue = new InboundBuffer<RowPage>(context, prefetch)
+      .exceptionHandler(this::handleException)
+      .emptyHandler(v -> checkEnd());
+    state = State.IDLE;
+  }
+
+  public Future<ReadStream<RowPage>> start(String address, Object body, DeliveryOptions options) {
+    Promise<ReadStream<RowPage>> promise = context.promise();
+    String streamAddress = UUID.randomUUID().toString();
+    streamConsumer = eventBus.consumer(streamAddress, message -> runOnContext(v -> handleMessage(message)));
+    streamConsumer.completionHandler(registered -> {
+      if (registered.failed()) {
+        promise.fail(registered.cause());
+        return;
+      }
+      DeliveryOptions deliveryOptions = options == null ? new DeliveryOptions() : new DeliveryOptions(options);
+      deliveryOptions.addHeader(STREAM_ADDRESS_HEADER, streamAddress);
+      eventBus.request(address, body, deliveryOptions).onComplete(ar -> runOnContext(v -> {
+        String creditAddress = ar.succeeded() ? ar.result().headers().get(CREDIT_ADDRESS_HEADER) : null;
+        if (creditAddress != null) {
+          this.creditAddress = creditAddress;
+          if (state == State.STARTED) {
+            sendCredit(prefetch);
+          }
+          promise.complete(this);
+        } else {
+          streamConsumer.unregister();
+          promise.fail(ar.succeeded() ? new VertxException("Not a stream reply") : ar.cause());
+        }
+      }));
+    });
+    return promise.future();
+  }
+
+  @Override
+  public RowPageReceiver exceptionHandler(Handler<Throwable> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        exceptionHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public RowPageReceiver handler(Handler<RowPage> handler) {
+    runOnContext(v -> {
+      if (state == State.STOPPED) {
+        return;
+      }
+      if (handler == null) {
+        if (state != State.ENDED) {
+          // cancel the stream
+          sendCredit(-1);
+        }
+        stop();
+        handleEnd();
+      } else {
+        this.handler = handler;
+        internalQueue.handler(this::handlePage);
+        if (state == State.IDLE) {
+          state = State.STARTED;
+          sendCredit(prefetch);
+        }
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public RowPageReceiver pause() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.pause();
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public RowPageReceiver resume() {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.resume();
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public RowPageReceiver fetch(long amount) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        internalQueue.fetch(amount);
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public RowPageReceiver endHandler(Handler<Void> handler) {
+    runOnContext(v -> {
+      if (state != State.STOPPED) {
+        endHandler = handler;
+      }
+    });
+    return this;
+  }
+
+  private void handleMessage(Message<Object> message) {
+    if (state == State.STOPPED) {
+      return;
+    }
+    if (message.headers().contains(ERROR_HEADER)) {
+      handleException(new VertxException(String.valueOf(message.body())));
+    } else if (message.headers().contains(END_HEADER)) {
+      state = State.ENDED;
+      checkEnd();
+    } else {
+      internalQueue.write((RowPage) message.body());
+    }
+  }
+
+  private void handlePage(RowPage page) {
+    if (state == State.STOPPED) {
+      return;
+    }
+    if (state == State.STARTED) {
+      sendCredit(1);
+    }
+    handler.handle(page);
+  }
+
+  private void checkEnd() {
+    if (state == State.ENDED && internalQueue.isEmpty()) {
+      stop();
+      handleEnd();
+    }
+  }
+
+  private void handleException(Throwable cause) {
+    if (state != State.STOPPED) {
+      stop();
+      Handler<Throwable> h = exceptionHandler;
+      if (h != null) {
+        h.handle(cause);
+      }
+    }
+  }
+
+  private void handleEnd() {
+    Handler<Void> h = endHandler;
+    if (h != null) {
+      h.handle(null);
+    }
+  }
+
+  private void sendCredit(int credit) {
+    if (creditAddress != null) {
+      eventBus.send(creditAddress, credit);
+    }
+  }
+
+  private void stop() {
+    state = State.STOPPED;
+    streamConsumer.unregister();
+    internalQueue.handler(null).emptyHandler(null);
+  }
+
+  private void runOnContext(Handler<Void> action) {
+    if (context != Vertx.currentContext()) {
+      context.runOnContext(action);
+    } else {
+      action.handle(null);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import io.vertx.cassandra.ResultSet;
+import io.vertx.cassandra.RowPage;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.VertxException;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+
+import java.util.UUID;
+
+/**
+ * Sends the pages of a result set to a {@link RowPageReceiver}.
+ * <p>
+ * The receiver sends its request with the address of the stream in a header. The sender replies with the address
+ * where it expects credits, and sends one page per credit. The next page is fetched while waiting for credits. A
+ * negative credit cancels the stream.
+ * <p>
+ * Must be used on a single context.
+ */
+public class RowPageSender {
+
+  static final String STREAM_ADDRESS_HEADER = "cassandra-stream-address";
+  static final String CREDIT_ADDRESS_HEADER = "cassandra-credit-address";
+  static final String END_HEADER = "cassandra-stream-end";
+  static final String ERROR_HEADER = "cassandra-stream-error";
+
+  private final ContextInternal context;
+  private final EventBus eventBus;
+  private final ResultSet resultSet;
+  private final long idleTimeout;
+  private final Promise<Void> promise;
+
+  private String streamAddress;
+  private MessageConsumer<Integer> creditConsumer;
+  private long credits;
+  private boolean fetching;
+  private boolean done;
+  private long idleTimer = -1;
+
+  public RowPageSender(VertxInternal vertx, ResultSet resultSet, long idleTimeout) {
+    this.context = vertx.getOrCreateContext();
+    this.eventBus = vertx.eventBus();
+    this.resultSet = resultSet;
+    this.idleTimeout = idleTimeout;
+    this.promise = context.promise();
+  }
+
+  public Future<Void> start(Message<?> request) {
+    streamAddress = request.headers().get(STREAM_ADDRESS_HEADER);
+    if (streamAddress == null) {
+      return context.failedFuture(new IllegalArgumentException("Not a stream request"));
+    }
+    String creditAddress = UUID.randomUUID().toString();
+    creditConsumer = eventBus.consumer(creditAddress, this::handleCredit);
+    creditConsumer.completionHandler(ar -> {
+      if (ar.succeeded()) {
+        request.reply(null, new DeliveryOptions().addHeader(CREDIT_ADDRESS_HEADER, creditAddress));
+        startIdleTimer();
+      } else {
+        finish(ar.cause());
+      }
+    });
+    return promise.future();
+  }
+
+  private void handleCredit(Message<Integer> message) {
+    if (done) {
+      return;
+    }
+    int credit = message.body();
+    if (credit < 0) {
+      finish(null);
+      return;
+    }
+    credits += credit;
+    cancelIdleTimer();
+    sendPages();
+  }
+
+  private void sendPages() {
+    while (!done) {
+      if (resultSet.remaining() > 0) {
+        if (credits == 0) {
+          startIdleTimer();
+          return;
+        }
+        credits--;
+        eventBus.send(streamAddress, RowPage.of(resultSet));
+      } else if (resultSet.hasMorePages()) {
+        // fetch ahead, so that the next page is available when credits arrive
+        if (!fetching) {
+          fetching = true;
+          resultSet.fetchNextPage().onComplete(ar -> {
+            fetching = false;
+            if (ar.succeeded()) {
+              sendPages();
+            } else {
+              sendError(ar.cause());
+            }
+          });
+        }
+        return;
+      } else {
+        eventBus.send(streamAddress, null, new DeliveryOptions().addHeader(END_HEADER, "true"));
+        finish(null);
+        return;
+      }
+    }
+  }
+
+  private void sendError(Throwable cause) {
+    if (!done) {
+      eventBus.send(streamAddress, String.valueOf(cause.getMessage()), new DeliveryOptions().addHeader(ERROR_HEADER, "true"));
+      finish(cause);
+    }
+  }
+
+  private void startIdleTimer() {
+    if (idleTimeout > 0 && idleTimer < 0 && !done) {
+      idleTimer = context.setTimer(idleTimeout, id -> {
+        idleTimer = -1;
+        sendError(new VertxException("The stream has not been read for " + idleTimeout + "ms", true));
+      });
+    }
+  }
+
+  private void cancelIdleTimer() {
+    if (idleTimer >= 0) {
+      context.owner().cancelTimer(idleTimer);
+      idleTimer = -1;
+    }
+  }
+
+  private void finish(Throwable failure) {
+    if (done) {
+      return;
+    }
+    done = true;
+    cancelIdleTimer();
+    creditConsumer.unregister();
+    if (failure == null) {
+      promise.complete();
+    } else {
+      promise.fail(failure);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A page of results which can be iterated independently by several callers.
+ */
+class SharedPage {
+
+  private final AsyncResultSet resultSet;
+  private final List<Row> rows;
+
+  SharedPage(AsyncResultSet resultSet) {
+    this.resultSet = resultSet;
+    rows = new ArrayList<>(resultSet.remaining());
+    for (Row row : resultSet.currentPage()) {
+      rows.add(row);
+    }
+  }
+
+  AsyncResultSet view() {
+    return new View();
+  }
+
+  private class View implements AsyncResultSet {
+
+    private final Iterator<Row> iterator = rows.iterator();
+    private int remaining = rows.size();
+
+    @Override
+    public ColumnDefinitions getColumnDefinitions() {
+      return resultSet.getColumnDefinitions();
+    }
+
+    @Override
+    public ExecutionInfo getExecutionInfo() {
+      return resultSet.getExecutionInfo();
+    }
+
+    @Override
+    public int remaining() {
+      return remaining;
+    }
+
+    @Override
+    public Iterable<Row> currentPage() {
+      return () -> new Iterator<Row>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Row next() {
+          Row row = iterator.next();
+          remaining--;
+          return row;
+        }
+      };
+    }
+
+    @Override
+    public boolean hasMorePages() {
+      return resultSet.hasMorePages();
+    }
+
+    @Override
+    public CompletionStage<AsyncResultSet> fetchNextPage() throws IllegalStateException {
+      return resultSet.fetchNextPage();
+    }
+
+    @Override
+    public boolean wasApplied() {
+      return resultSet.wasApplied();
+    }
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.data.ByteUtils;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import io.vertx.cassandra.StatementStatistics;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Statistics are split in stripes by key hash, each stripe being an LRU map guarded by its own lock. Normalized queries
+ * are cached the same way, in stripes by query hash.
+ */
+public class StatementStatisticsImpl implements StatementStatistics {
+
+  private static final int STRIPES = 16;
+  private static final int LATENCY_BUCKETS = 16;
+  private static final int MAX_NORMALIZED_QUERIES_PER_STRIPE = 10_000 / STRIPES;
+
+  // string literals, blobs, UUIDs, then numbers which are not part of an identifier
+  private static final Pattern LITERAL = Pattern.compile(
+    "'(?:[^']|'')*'|\\$\\$.*?\\$\\$|\\b0[xX][0-9a-fA-F]*\\b|\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b|(?<![\\w.])-?\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?\\b",
+    Pattern.DOTALL);
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final Stripe[] stripes;
+  private final AtomicLong evicted = new AtomicLong();
+
+  public StatementStatisticsImpl(int maxStatements) {
+    if (maxStatements < 1) {
+      throw new IllegalArgumentException("maxStatements must be strictly positive");
+    }
+    stripes = new Stripe[STRIPES];
+    int perStripe = Math.max(1, (maxStatements + STRIPES - 1) / STRIPES);
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe(perStripe);
+    }
+  }
+
+  @Override
+  public Future<AsyncResultSet> execute(Statement statement, Execution next) {
+    Key key = key(statement);
+    if (key == null) {
+      return next.execute(statement);
+    }
+    long start = System.nanoTime();
+    return next.execute(statement).onComplete(ar -> {
+      long duration = System.nanoTime() - start;
+      Stripe stripe = stripe(key);
+      synchronized (stripe) {
+        stripe.entry(key).executed(duration, ar.failed() ? ar.cause() : null);
+      }
+    });
+  }
+
+  @Override
+  public AsyncResultSet page(Statement statement, AsyncResultSet page) {
+    Key key = key(statement);
+    if (key != null) {
+      long bytes = page.getExecutionInfo().getResponseSizeInBytes();
+      Stripe stripe = stripe(key);
+      synchronized (stripe) {
+        stripe.entry(key).paged(page.remaining(), Math.max(0, bytes));
+      }
+    }
+    return page;
+  }
+
+  @Override
+  public JsonObject statistics() {
+    List<JsonObject> entries = new ArrayList<>();
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        for (Map.Entry<Key, Entry> entry : stripe.entries.entrySet()) {
+          entries.add(entry.getValue().toJson(entry.getKey()));
+        }
+      }
+    }
+    entries.sort((a, b) -> Double.compare(b.getDouble("totalTime"), a.getDouble("totalTime")));
+    return new JsonObject()
+      .put("evicted", evicted.get())
+      .put("statements", new JsonArray(new ArrayList<>(entries)));
+  }
+
+  @Override
+  public void reset() {
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        stripe.entries.clear();
+      }
+    }
+    evicted.set(0);
+  }
+
+  private Stripe stripe(Key key) {
+    return stripe(key.hashCode());
+  }
+
+  private Stripe stripe(int hash) {
+    return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+  }
+
+  private Key key(Statement<?> statement) {
+    if (statement instanceof BoundStatement) {
+      PreparedStatement prepared = ((BoundStatement) statement).getPreparedStatement();
+      return new Key(prepared.getQuery(), prepared.getId());
+    } else if (statement instanceof SimpleStatement) {
+      return new Key(normalize(((SimpleStatement) statement).getQuery()), null);
+    } else if (statement instanceof BatchStatement) {
+      BatchStatement batch = (BatchStatement) statement;
+      Set<String> queries = new LinkedHashSet<>();
+      for (BatchableStatement<?> child : batch) {
+        Key childKey = key(child);
+        if (childKey != null) {
+          queries.add(childKey.query);
+        }
+      }
+      return new Key("BEGIN " + batch.getBatchType() + " BATCH " + String.join("; ", queries) + "; APPLY BATCH", null);
+    }
+    return null;
+  }
+
+  private String normalize(String query) {
+    Stripe stripe = stripe(query.hashCode());
+    String normalized;
+    synchronized (stripe) {
+      normalized = stripe.normalizedQueries.get(query);
+    }
+    if (normalized == null) {
+      Matcher matcher = LITERAL.matcher(query);
+      normalized = WHITESPACE.matcher(matcher.replaceAll("?")).replaceAll(" ").trim();
+      synchronized (stripe) {
+        stripe.normalizedQueries.put(query, normalized);
+      }
+    }
+    return normalized;
+  }
+
+  private static boolean isTimeout(Throwable failure) {
+    return failure instanceof DriverTimeoutException || failure instanceof ReadTimeoutException || failure instanceof WriteTimeoutException;
+  }
+
+  private static class Key {
+
+    final String query;
+    final ByteBuffer preparedId;
+
+    Key(String query, ByteBuffer preparedId) {
+      this.query = query;
+      this.preparedId = preparedId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return preparedId != null ? preparedId.equals(other.preparedId) : other.preparedId == null && query.equals(other.query);
+    }
+
+    @Override
+    public int hashCode() {
+      return preparedId != null ? preparedId.hashCode() : query.hashCode();
+    }
+  }
+
+  private class Stripe {
+
+    final LinkedHashMap<Key, Entry> entries;
+    // queries with inlined values are not worth caching forever
+    final LinkedHashMap<String, String> normalizedQueries = new LinkedHashMap<String, String>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+        return size() > MAX_NORMALIZED_QUERIES_PER_STRIPE;
+      }
+    };
+
+    Stripe(int maxEntries) {
+      entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+          if (size() > maxEntries) {
+            evicted.incrementAndGet();
+            return true;
+          }
+          return false;
+        }
+      };
+    }
+
+    Entry entry(Key key) {
+      return entries.computeIfAbsent(key, k -> new Entry());
+    }
+  }
+
+  private static class Entry {
+
+    long calls;
+    long errors;
+    long timeouts;
+    long rows;
+    long pages;
+    long bytes;
+    long totalTime;
+    long maxTime;
+    final long[] latency = new long[LATENCY_BUCKETS + 1];
+
+    void executed(long duration, Throwable failure) {
+      calls++;
+      if (failure != null) {
+        errors++;
+        if (isTimeout(failure)) {
+          timeouts++;
+        }
+      }
+      totalTime += duration;
+      maxTime = Math.max(maxTime, duration);
+      // bucket i counts durations below 2^i milliseconds
+      long millis = duration / 1_000_000;
+      int bucket = 64 - Long.numberOfLeadingZeros(millis);
+      latency[Math.min(bucket, LATENCY_BUCKETS)]++;
+    }
+
+    void paged(int rowCount, long byteCount) {
+      pages++;
+      rows += rowCount;
+      bytes += byteCount;
+    }
+
+    JsonObject toJson(Key key) {
+      JsonObject histogram = new JsonObject();
+      for (int i = 0; i < latency.length; i++) {
+        if (latency[i] > 0) {
+          histogram.put(i < LATENCY_BUCKETS ? String.valueOf(1L << i) : "+Inf", latency[i]);
+        }
+      }
+      JsonObject json = new JsonObject().put("query", key.query);
+      if (key.preparedId != null) {
+        json.put("preparedId", ByteUtils.toHexString(key.preparedId).substring(2));
+      }
+      return json
+        .put("calls", calls)
+        .put("errors", errors)
+        .put("timeouts", timeouts)
+        .put("rows", rows)
+        .put("pages", pages)
+        .put("bytes", bytes)
+        .put("totalTime", totalTime / 1e6)
+        .put("meanTime", calls == 0 ? 0 : totalTime / 1e6 / calls)
+        .put("maxTime", maxTime / 1e6)
+        .put("latency", histogram);
+    }
+  }
+}
@@ -0,0 +1,546 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.cassandra.ResultSet;
+import io.vertx.cassandra.TableDump;
+import io.vertx.cassandra.TableDumpOptions;
+import io.vertx.core.*;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.RecordParser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static io.vertx.cassandra.impl.Util.setHandler;
+
+/**
+ * File layout:
+ * <pre>
+ * magic "VXCD", version (1 byte)
+ * header length (4 bytes), header (UTF-8 JSON: keyspace, table and columns)
+ * blocks: uncompressed length (4 bytes), compressed length (4 bytes), deflated rows
+ * end of file marker: a block with both lengths set to 0
+ * </pre>
+ * In a block, each row is a sequence of cells in header order, and each cell is its length (4 bytes, {@code -1} for
+ * null) followed by its bytes.
+ * <p>
+ * Blocks are deflated and inflated in order on the worker pool. When restoring, the next block is read while the
+ * inserts of the previous one are in flight, so that up to {@code maxConcurrentWrites} inserts are always in flight.
+ */
+public class TableDumpImpl implements TableDump {
+
+  private static final byte[] MAGIC = "VXCD".getBytes(StandardCharsets.US_ASCII);
+  private static final byte VERSION = 1;
+
+  private final VertxInternal vertx;
+  private final CassandraClient client;
+  private final int pageSize;
+  private final int blockSize;
+  private final int maxConcurrentWrites;
+
+  public TableDumpImpl(Vertx vertx, CassandraClient client, TableDumpOptions options) {
+    Objects.requireNonNull(vertx, "vertx");
+    Objects.requireNonNull(client, "client");
+    Objects.requireNonNull(options, "options");
+    this.vertx = (VertxInternal) vertx;
+    this.client = client;
+    this.pageSize = options.getPageSize();
+    this.blockSize = options.getBlockSize();
+    this.maxConcurrentWrites = options.getMaxConcurrentWrites();
+  }
+
+  @Override
+  public TableDump dump(String keyspace, String table, String path, Handler<AsyncResult<Long>> handler) {
+    Future<Long> future = dump(keyspace, table, path);
+    setHandler(future, handler);
+    return this;
+  }
+
+  @Override
+  public Future<Long> dump(String keyspace, String table, String path) {
+    Objects.requireNonNull(keyspace, "keyspace");
+    Objects.requireNonNull(table, "table");
+    Objects.requireNonNull(path, "path");
+    ContextInternal context = vertx.getOrCreateContext();
+    return client.metadata()
+      .flatMap(metadata -> {
+        TableMetadata tableMetadata = tableMetadata(metadata, keyspace, table);
+        OpenOptions openOptions = new OpenOptions().setWrite(true).setCreate(true).setTruncateExisting(true);
+        return vertx.fileSystem().open(path, openOptions)
+          .flatMap(file -> new Dump(context, tableMetadata, file).start());
+      });
+  }
+
+  private static TableMetadata tableMetadata(Metadata metadata, String keyspace, String table) {
+    TableMetadata tableMetadata = metadata.getKeyspace(CqlIdentifier.fromCql(keyspace))
+      .flatMap(keyspaceMetadata -> keyspaceMetadata.getTable(CqlIdentifier.fromCql(table)))
+      .orElseThrow(() -> new IllegalArgumentException("Unknown table: " + keyspace + "." + table));
+    for (ColumnMetadata column : tableMetadata.getColumns().values()) {
+      if (column.getType().equals(DataTypes.COUNTER)) {
+        throw new IllegalArgumentException("Counter tables cannot be dumped: " + keyspace + "." + table);
+      }
+    }
+    return tableMetadata;
+  }
+
+  @Override
+  public TableDump restore(String path, Handler<AsyncResult<Long>> handler) {
+    Future<Long> future = restore(path);
+    setHandler(future, handler);
+    return this;
+  }
+
+  @Override
+  public Future<Long> restore(String path) {
+    return restore(path, null, null);
+  }
+
+  @Override
+  public TableDump restore(String path, String keyspace, String table, Handler<AsyncResult<Long>> handler) {
+    Future<Long> future = restore(path, keyspace, table);
+    setHandler(future, handler);
+    return this;
+  }
+
+  @Override
+  public Future<Long> restore(String path, String keyspace, String table) {
+    Objects.requireNonNull(path, "path");
+    ContextInternal context = vertx.getOrCreateContext();
+    return vertx.fileSystem().open(path, new OpenOptions().setRead(true).setWrite(false))
+      .flatMap(file -> new Restore(context, file, keyspace, table).start());
+  }
+
+  private class Dump {
+
+    final ContextInternal context;
+    final TableMetadata table;
+    final AsyncFile file;
+    final Promise<Long> promise;
+    final Collection<ColumnMetadata> columns;
+    Buffer block;
+    long rows;
+    // completed when the blocks appended so far have been deflated and written
+    Future<Void> written = Future.succeededFuture();
+    // completed when the blocks of the pages before the current one have been deflated and written
+    Future<Void> previousPage = Future.succeededFuture();
+
+    Dump(ContextInternal context, TableMetadata table, AsyncFile file) {
+      this.context = context;
+      this.table = table;
+      this.file = file;
+      this.promise = context.promise();
+      this.columns = table.getColumns().values();
+      block = Buffer.buffer(blockSize);
+    }
+
+    Future<Long> start() {
+      file.exceptionHandler(this::fail);
+      write(header());
+      StringJoiner selection = new StringJoiner(", ");
+      for (ColumnMetadata column : columns) {
+        selection.add(column.getName().asCql(true));
+      }
+      String query = "SELECT " + selection + " FROM " + table.getKeyspace().asCql(true) + "." + table.getName().asCql(true);
+      client.execute(SimpleStatement.newInstance(query).setPageSize(pageSize)).onComplete(ar -> {
+        if (ar.succeeded()) {
+          handlePage(ar.result());
+        } else {
+          fail(ar.cause());
+        }
+      });
+      return promise.future();
+    }
+
+    Buffer header() {
+      JsonArray columnsJson = new JsonArray();
+      for (ColumnMetadata column : columns) {
+        columnsJson.add(new JsonObject()
+          .put("name", column.getName().asInternal())
+          .put("type", column.getType().asCql(true, true)));
+      }
+      Buffer json = new JsonObject()
+        .put("keyspace", table.getKeyspace().asInternal())
+        .put("table", table.getName().asInternal())
+        .put("columns", columnsJson)
+        .toBuffer();
+      return Buffer.buffer(MAGIC.length + 5 + json.length())
+        .appendBytes(MAGIC)
+        .appendByte(VERSION)
+        .appendInt(json.length())
+        .appendBuffer(json);
+    }
+
+    void handlePage(ResultSet resultSet) {
+      if (promise.future().isComplete()) {
+        return;
+      }
+      for (int i = resultSet.remaining(); i > 0; i--) {
+        append(resultSet.one());
+        if (block.length() >= blockSize) {
+          writeBlock();
+        }
+      }
+      if (!resultSet.hasMorePages()) {
+        writeBlock();
+        written.onSuccess(v -> {
+          if (promise.future().isComplete()) {
+            return;
+          }
+          write(Buffer.buffer(8).appendInt(0).appendInt(0));
+          file.close(ar -> {
+            if (ar.succeeded()) {
+              promise.tryComplete(rows);
+            } else {
+              promise.tryFail(ar.cause());
+            }
+          });
+        });
+        return;
+      }
+      // the next page is fetched while the blocks of this page are deflated, the page after it waits for them
+      Future<Void> previous = previousPage;
+      previousPage = written;
+      previous.onSuccess(v -> {
+        if (file.writeQueueFull()) {
+          file.drainHandler(v2 -> {
+            file.drainHandler(null);
+            fetchNextPage(resultSet);
+          });
+        } else {
+          fetchNextPage(resultSet);
+        }
+      });
+    }
+
+    void fetchNextPage(ResultSet resultSet) {
+      resultSet.fetchNextPage().onComplete(ar -> {
+        if (ar.succeeded()) {
+          handlePage(resultSet);
+        } else {
+          fail(ar.cause());
+        }
+      });
+    }
+
+    void append(Row row) {
+      for (int i = 0; i < row.size(); i++) {
+        ByteBuffer cell = row.getBytesUnsafe(i);
+        if (cell == null) {
+          block.appendInt(-1);
+        } else {
+          int length = cell.remaining();
+          block.appendInt(length);
+          if (cell.hasArray()) {
+            block.appendBytes(cell.array(), cell.arrayOffset() + cell.position(), length);
+          } else {
+            byte[] bytes = new byte[length];
+            cell.duplicate().get(bytes);
+            block.appendBytes(bytes);
+          }
+        }
+      }
+      rows++;
+    }
+
+    void writeBlock() {
+      if (block.length() == 0) {
+        return;
+      }
+      byte[] uncompressed = block.getBytes();
+      block = Buffer.buffer(blockSize);
+      // ordered, so that blocks are written in the order they have been filled
+      written = context.<byte[]>executeBlocking(p -> p.complete(deflate(uncompressed)), true).map(compressed -> {
+        write(Buffer.buffer(8 + compressed.length)
+          .appendInt(uncompressed.length)
+          .appendInt(compressed.length)
+          .appendBytes(compressed));
+        return null;
+      });
+      written.onFailure(this::fail);
+    }
+
+    void write(Buffer buffer) {
+      file.write(buffer).onFailure(this::fail);
+    }
+
+    void fail(Throwable cause) {
+      if (promise.tryFail(cause)) {
+        file.close();
+      }
+    }
+  }
+
+  private enum State {
+    MAGIC, HEADER_LENGTH, HEADER, BLOCK_HEADER, BLOCK, END
+  }
+
+  private class Restore {
+
+    final ContextInternal context;
+    final AsyncFile file;
+    final String keyspace;
+    final String table;
+    final Promise<Long> promise;
+    final RecordParser parser;
+    // decoded statements waiting for an insert slot
+    final ArrayDeque<BoundStatement> pending = new ArrayDeque<>();
+    State state = State.MAGIC;
+    int uncompressedLength;
+    PreparedStatement prepared;
+    int columns;
+    long rows;
+    int inFlight;
+    // whether the parser has been paused after a block
+    boolean paused;
+    boolean decoding;
+
+    Restore(ContextInternal context, AsyncFile file, String keyspace, String table) {
+      this.context = context;
+      this.file = file;
+      this.keyspace = keyspace;
+      this.table = table;
+      this.promise = context.promise();
+      parser = RecordParser.newFixed(MAGIC.length + 1, file);
+    }
+
+    Future<Long> start() {
+      parser.exceptionHandler(this::fail);
+      parser.endHandler(v -> {
+        if (state != State.END) {
+          fail(new VertxException("Truncated dump file"));
+        }
+      });
+      parser.handler(this::handle);
+      return promise.future();
+    }
+
+    void handle(Buffer buffer) {
+      if (promise.future().isComplete()) {
+        return;
+      }
+      switch (state) {
+        case MAGIC:
+          if (!Buffer.buffer(MAGIC).equals(buffer.getBuffer(0, MAGIC.length)) || buffer.getByte(MAGIC.length) != VERSION) {
+            fail(new VertxException("Not a dump file"));
+            return;
+          }
+          state = State.HEADER_LENGTH;
+          parser.fixedSizeMode(4);
+          break;
+        case HEADER_LENGTH:
+          state = State.HEADER;
+          parser.fixedSizeMode(buffer.getInt(0));
+          break;
+        case HEADER:
+          parser.pause();
+          prepare(new JsonObject(buffer)).onComplete(ar -> {
+            if (ar.succeeded()) {
+              prepared = ar.result();
+              state = State.BLOCK_HEADER;
+              parser.fixedSizeMode(8);
+              parser.resume();
+            } else {
+              fail(ar.cause());
+            }
+          });
+          break;
+        case BLOCK_HEADER:
+          uncompressedLength = buffer.getInt(0);
+          int compressedLength = buffer.getInt(4);
+          if (uncompressedLength == 0 && compressedLength == 0) {
+            state = State.END;
+            drain();
+          } else {
+            state = State.BLOCK;
+            parser.fixedSizeMode(compressedLength);
+          }
+          break;
+        case BLOCK:
+          parser.pause();
+          paused = true;
+          decoding = true;
+          int length = uncompressedLength;
+          // ordered, so that rows are inserted in file order
+          context.<List<BoundStatement>>executeBlocking(p -> {
+            try {
+              p.complete(decode(inflate(buffer, length)));
+            } catch (Exception e) {
+              p.fail(e);
+            }
+          }, true).onComplete(ar -> {
+            decoding = false;
+            if (promise.future().isComplete()) {
+              return;
+            }
+            if (ar.succeeded()) {
+              pending.addAll(ar.result());
+              state = State.BLOCK_HEADER;
+              parser.fixedSizeMode(8);
+              drain();
+            } else {
+              fail(ar.cause());
+            }
+          });
+          break;
+        default:
+          break;
+      }
+    }
+
+    Future<PreparedStatement> prepare(JsonObject header) {
+      String targetKeyspace = keyspace != null ? CqlIdentifier.fromCql(keyspace).asCql(true) : CqlIdentifier.fromInternal(header.getString("keyspace")).asCql(true);
+      String targetTable = table != null ? CqlIdentifier.fromCql(table).asCql(true) : CqlIdentifier.fromInternal(header.getString("table")).asCql(true);
+      JsonArray columnsJson = header.getJsonArray("columns");
+      columns = columnsJson.size();
+      StringJoiner names = new StringJoiner(", ");
+      StringJoiner markers = new StringJoiner(", ");
+      for (int i = 0; i < columns; i++) {
+        names.add(CqlIdentifier.fromInternal(columnsJson.getJsonObject(i).getString("name")).asCql(true));
+        markers.add("?");
+      }
+      return client.prepare("INSERT INTO " + targetKeyspace + "." + targetTable + " (" + names + ") VALUES (" + markers + ")");
+    }
+
+    List<BoundStatement> decode(ByteBuffer block) {
+      List<BoundStatement> statements = new ArrayList<>();
+      while (block.hasRemaining()) {
+        // null cells are left unset, inserting nulls would create tombstones
+        BoundStatement statement = prepared.bind().setIdempotent(true);
+        for (int i = 0; i < columns; i++) {
+          int length = block.getInt();
+          if (length >= 0) {
+            ByteBuffer cell = block.slice();
+            cell.limit(length);
+            block.position(block.position() + length);
+            statement = statement.setBytesUnsafe(i, cell);
+          }
+        }
+        statements.add(statement);
+      }
+      return statements;
+    }
+
+    void drain() {
+      while (inFlight < maxConcurrentWrites && !pending.isEmpty()) {
+        insert(pending.poll());
+      }
+      if (state == State.END) {
+        if (inFlight == 0 && pending.isEmpty()) {
+          file.close(ar -> {
+            if (ar.succeeded()) {
+              promise.tryComplete(rows);
+            } else {
+              promise.tryFail(ar.cause());
+            }
+          });
+        }
+      } else if (paused && !decoding && pending.size() <= maxConcurrentWrites) {
+        // read the next block before the inserts of this one are done, so that the insert window stays full
+        paused = false;
+        parser.resume();
+      }
+    }
+
+    void insert(BoundStatement statement) {
+      inFlight++;
+      client.execute(statement).onComplete(ar -> {
+        inFlight--;
+        if (promise.future().isComplete()) {
+          return;
+        }
+        if (ar.succeeded()) {
+          rows++;
+          drain();
+        } else {
+          fail(ar.cause());
+        }
+      });
+    }
+
+    void fail(Throwable cause) {
+      if (promise.tryFail(cause)) {
+        state = State.END;
+        parser.pause();
+        file.close();
+      }
+    }
+  }
+
+  private static byte[] deflate(byte[] input) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(input);
+      deflater.finish();
+      Buffer output = Buffer.buffer(input.length / 2 + 64);
+      byte[] chunk = new byte[8192];
+      while (!deflater.finished()) {
+        int count = deflater.deflate(chunk);
+        output.appendBytes(chunk, 0, count);
+      }
+      return output.getBytes();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static ByteBuffer inflate(Buffer input, int uncompressedLength) throws DataFormatException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(input.getBytes());
+      byte[] output = new byte[uncompressedLength];
+      int count = 0;
+      while (count < uncompressedLength && !inflater.finished()) {
+        int inflated = inflater.inflate(output, count, uncompressedLength - count);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        count += inflated;
+      }
+      if (count != uncompressedLength) {
+        throw new DataFormatException("Corrupted block");
+      }
+      return ByteBuffer.wrap(output);
+    } finally {
+      inflater.end();
+    }
+  }
+}
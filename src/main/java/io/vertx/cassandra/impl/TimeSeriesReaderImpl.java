@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.cassandra.CassandraRowStream;
+import io.vertx.cassandra.ResultSet;
+import io.vertx.cassandra.TimeSeriesOptions;
+import io.vertx.cassandra.TimeSeriesReader;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.streams.ReadStream;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+public class TimeSeriesReaderImpl implements TimeSeriesReader {
+
+  private final VertxInternal vertx;
+  private final CassandraClient client;
+  private final TimeSeriesOptions options;
+  private final TimeSeriesTable table;
+
+  private volatile Future<PreparedStatement> select;
+  private volatile Future<PreparedStatement> tailFrom;
+  private volatile Future<PreparedStatement> tailAfter;
+
+  public TimeSeriesReaderImpl(Vertx vertx, CassandraClient client, TimeSeriesOptions options) {
+    this.vertx = (VertxInternal) Objects.requireNonNull(vertx, "vertx");
+    this.client = Objects.requireNonNull(client, "client");
+    this.table = new TimeSeriesTable(options);
+    this.options = new TimeSeriesOptions(options);
+  }
+
+  @Override
+  public ReadStream<Row> read(Object series, long from, long to) {
+    Objects.requireNonNull(series, "series");
+    return new TimeSeriesRowStream(vertx.getOrCreateContext(), table, from, to, bucket -> query(series, bucket, from, to));
+  }
+
+  @Override
+  public ReadStream<Row> tail(Object series, long from) {
+    Objects.requireNonNull(series, "series");
+    return new TimeSeriesTailStream(vertx, vertx.getOrCreateContext(), table, options, from, (bucket, after, limit) -> poll(series, from, bucket, after, limit));
+  }
+
+  private Future<List<Row>> poll(Object series, long from, long bucket, ByteBuffer after, int limit) {
+    Future<PreparedStatement> future = after == null ? tailFrom : tailAfter;
+    if (future == null || future.failed()) {
+      future = client.prepare(after == null ? table.tailFrom : table.tailAfter);
+      if (after == null) {
+        tailFrom = future;
+      } else {
+        tailAfter = future;
+      }
+    }
+    return future.flatMap(prepared -> {
+      ColumnDefinitions variables = prepared.getVariableDefinitions();
+      BoundStatement statement;
+      if (after == null) {
+        statement = prepared.bind(series, TimeSeriesTable.time(variables, 1, bucket), TimeSeriesTable.time(variables, 2, from), limit);
+      } else {
+        statement = prepared.bind(series, TimeSeriesTable.time(variables, 1, bucket), null, limit).setBytesUnsafe(2, after);
+      }
+      // a poll is read in a single request
+      return client.execute(statement.setPageSize(limit));
+    }).flatMap(ResultSet::all);
+  }
+
+  private Future<CassandraRowStream> query(Object series, long bucket, long from, long to) {
+    Future<PreparedStatement> future = select;
+    if (future == null || future.failed()) {
+      future = client.prepare(table.select);
+      select = future;
+    }
+    return future.flatMap(prepared -> {
+      ColumnDefinitions variables = prepared.getVariableDefinitions();
+      BoundStatement statement = prepared.bind(series, TimeSeriesTable.time(variables, 1, bucket),
+        TimeSeriesTable.time(variables, 2, from), TimeSeriesTable.time(variables, 3, to));
+      return client.queryStream(statement);
+    });
+  }
+}
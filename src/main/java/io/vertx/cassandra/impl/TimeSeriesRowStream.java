@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.CassandraRowStream;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+
+import java.util.ArrayDeque;
+import java.util.function.LongFunction;
+
+/**
+ * Emits the rows of the buckets of a range, querying a bucket when the rows of the previous one have been received.
+ * <p>
+ * The stream of the current bucket is paused while rows are buffered, so that at most a few rows are held when the
+ * stream is paused.
+ */
+class TimeSeriesRowStream extends ConfinedReadStream<Row> {
+
+  private final long granularity;
+  private final long lastBucket;
+  private final LongFunction<Future<CassandraRowStream>> query;
+  private final ArrayDeque<Row> buffer = new ArrayDeque<>();
+
+  private long nextBucket;
+  private boolean querying;
+  private CassandraRowStream current;
+  private boolean currentPaused;
+
+  /**
+   * @param query queries a bucket
+   */
+  TimeSeriesRowStream(Context context, TimeSeriesTable table, long from, long to, LongFunction<Future<CassandraRowStream>> query) {
+    super(context);
+    this.granularity = table.granularity;
+    this.query = query;
+    nextBucket = table.bucket(from);
+    // an empty range has no bucket
+    lastBucket = to > from ? table.bucket(to - 1) : nextBucket - granularity;
+  }
+
+  @Override
+  void start() {
+    nextBucket();
+  }
+
+  @Override
+  Row next() {
+    return buffer.poll();
+  }
+
+  @Override
+  void emitted() {
+    CassandraRowStream stream = current;
+    if (stream != null) {
+      boolean pause = !buffer.isEmpty();
+      if (pause != currentPaused) {
+        currentPaused = pause;
+        if (pause) {
+          stream.pause();
+        } else {
+          stream.resume();
+        }
+      }
+    } else if (!querying && nextBucket > lastBucket && buffer.isEmpty()) {
+      end();
+    }
+  }
+
+  @Override
+  void stopped() {
+    buffer.clear();
+    CassandraRowStream stream = current;
+    if (stream != null) {
+      current = null;
+      stream.endHandler(null).exceptionHandler(null).handler(null);
+    }
+  }
+
+  private void nextBucket() {
+    current = null;
+    if (nextBucket > lastBucket) {
+      // ends once the buffered rows have been emitted
+      emit();
+      return;
+    }
+    long bucket = nextBucket;
+    nextBucket += granularity;
+    querying = true;
+    query.apply(bucket).onComplete(ar -> runOnContext(v -> {
+      querying = false;
+      if (ar.failed()) {
+        handleException(ar.cause());
+        return;
+      }
+      CassandraRowStream stream = ar.result();
+      if (state == State.STOPPED) {
+        stream.handler(null);
+        return;
+      }
+      current = stream;
+      currentPaused = false;
+      stream.exceptionHandler(this::handleException).endHandler(end -> nextBucket());
+      stream.handler(this::handleRow);
+    }));
+  }
+
+  private void handleRow(Row row) {
+    if (state != State.STOPPED) {
+      buffer.add(row);
+      emit();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.uuid.Uuids;
+import io.vertx.cassandra.TimeSeriesOptions;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The queries of a time series table, and the conversion of times to the types of its columns.
+ */
+class TimeSeriesTable {
+
+  final long granularity;
+  final int valueCount;
+  final String insert;
+  final String select;
+  final String tailFrom;
+  final String tailAfter;
+
+  TimeSeriesTable(TimeSeriesOptions options) {
+    Objects.requireNonNull(options, "options");
+    if (options.getTable() == null) {
+      throw new IllegalArgumentException("The table must be set");
+    }
+    List<String> valueColumns = options.getValueColumns();
+    if (valueColumns.isEmpty()) {
+      throw new IllegalArgumentException("At least one value column must be set");
+    }
+    granularity = options.getBucketGranularity();
+    valueCount = valueColumns.size();
+    String values = String.join(", ", valueColumns);
+    StringBuilder markers = new StringBuilder("?, ?, ?");
+    for (int i = 0; i < valueCount; i++) {
+      markers.append(", ?");
+    }
+    insert = "INSERT INTO " + options.getTable()
+      + " (" + options.getSeriesColumn() + ", " + options.getBucketColumn() + ", " + options.getTimestampColumn() + ", " + values + ")"
+      + " VALUES (" + markers + ")";
+    select = "SELECT " + options.getTimestampColumn() + ", " + values + " FROM " + options.getTable()
+      + " WHERE " + options.getSeriesColumn() + " = ? AND " + options.getBucketColumn() + " = ?"
+      + " AND " + options.getTimestampColumn() + " >= ? AND " + options.getTimestampColumn() + " < ?";
+    String tail = "SELECT " + options.getTimestampColumn() + ", " + values + " FROM " + options.getTable()
+      + " WHERE " + options.getSeriesColumn() + " = ? AND " + options.getBucketColumn() + " = ?"
+      + " AND " + options.getTimestampColumn();
+    tailFrom = tail + " >= ? LIMIT ?";
+    tailAfter = tail + " > ? LIMIT ?";
+  }
+
+  long bucket(long timestamp) {
+    return Math.floorDiv(timestamp, granularity) * granularity;
+  }
+
+  /**
+   * @return {@code millis} as an {@link Instant} if the variable is a {@code timestamp}, as the smallest
+   * {@link java.util.UUID} of that millisecond if it is a {@code timeuuid}, as a {@code Long} otherwise
+   */
+  static Object time(ColumnDefinitions variables, int index, long millis) {
+    DataType type = variables.get(index).getType();
+    if (type.equals(DataTypes.TIMESTAMP)) {
+      return Instant.ofEpochMilli(millis);
+    }
+    if (type.equals(DataTypes.TIMEUUID)) {
+      return Uuids.startOf(millis);
+    }
+    return millis;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.cassandra.TimeSeriesOptions;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Polls a series for the rows after the last one emitted, the watermark, rolling buckets forward as time passes.
+ * <p>
+ * The next poll is sent when the rows of the previous one have been emitted: immediately if it returned a full page,
+ * after the poll interval otherwise. The interval is halved after a poll which returned rows, and doubled after a poll
+ * which returned none.
+ * <p>
+ * A bucket which is over is polled until the allowed lateness has elapsed, for the rows written late. The first poll
+ * sent after that is the last one of the bucket, the stream then moves on to the next bucket.
+ */
+class TimeSeriesTailStream extends ConfinedReadStream<Row> {
+
+  /**
+   * Reads the rows of a bucket after a watermark.
+   */
+  interface Poller {
+
+    /**
+     * @param after the timestamp of the last row emitted, as read, {@code null} to read from the start of the tail
+     */
+    Future<List<Row>> poll(long bucket, ByteBuffer after, int limit);
+  }
+
+  private final Vertx vertx;
+  private final TimeSeriesTable table;
+  private final Poller poller;
+  private final int pollSize;
+  private final long minInterval;
+  private final long maxInterval;
+  private final long allowedLateness;
+  private final ArrayDeque<Row> buffer = new ArrayDeque<>();
+
+  private long bucket;
+  private ByteBuffer watermark;
+  private long interval;
+  private long nextDelay;
+  private boolean polling;
+  private long timerId = -1;
+
+  TimeSeriesTailStream(Vertx vertx, Context context, TimeSeriesTable table, TimeSeriesOptions options, long from, Poller poller) {
+    super(context);
+    this.vertx = vertx;
+    this.table = table;
+    this.poller = poller;
+    pollSize = options.getPollSize();
+    minInterval = options.getMinPollInterval();
+    maxInterval = Math.max(minInterval, options.getMaxPollInterval());
+    allowedLateness = Math.max(maxInterval, options.getAllowedLateness());
+    interval = minInterval;
+    bucket = table.bucket(from);
+  }
+
+  @Override
+  void start() {
+    poll();
+  }
+
+  @Override
+  Row next() {
+    return buffer.poll();
+  }
+
+  @Override
+  void emitted() {
+    if (buffer.isEmpty() && !polling && timerId == -1) {
+      if (nextDelay == 0) {
+        poll();
+      } else {
+        timerId = vertx.setTimer(nextDelay, id -> poll());
+      }
+    }
+  }
+
+  @Override
+  void stopped() {
+    buffer.clear();
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+  }
+
+  private void poll() {
+    timerId = -1;
+    polling = true;
+    long sent = System.currentTimeMillis();
+    poller.poll(bucket, watermark, pollSize).onComplete(ar -> runOnContext(v -> {
+      polling = false;
+      if (state == State.STOPPED) {
+        return;
+      }
+      if (ar.failed()) {
+        handleException(ar.cause());
+        return;
+      }
+      handleRows(ar.result(), sent);
+      emit();
+    }));
+  }
+
+  private void handleRows(List<Row> rows, long sent) {
+    if (rows.isEmpty()) {
+      interval = Math.min(maxInterval, interval * 2);
+    } else {
+      // the timestamp is the first column, it is bound as it was read
+      watermark = rows.get(rows.size() - 1).getBytesUnsafe(0);
+      buffer.addAll(rows);
+      interval = Math.max(minInterval, interval / 2);
+    }
+    long closed = bucket + table.granularity + allowedLateness;
+    if (rows.size() >= pollSize) {
+      nextDelay = 0;
+    } else if (sent >= closed) {
+      // last poll of the bucket, rows of the next one come after the watermark
+      bucket += table.granularity;
+      nextDelay = 0;
+    } else {
+      // the last poll of a bucket is sent once it is closed
+      nextDelay = Math.max(1, Math.min(interval, closed - System.currentTimeMillis()));
+    }
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.*;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.cassandra.TimeSeriesOptions;
+import io.vertx.cassandra.TimeSeriesWriter;
+import io.vertx.core.*;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+
+import java.util.*;
+
+/**
+ * All state is confined to the creating context, except the number of held points which can be read from any thread.
+ */
+public class TimeSeriesWriterImpl implements TimeSeriesWriter {
+
+  private final ContextInternal context;
+  private final CassandraClient client;
+  private final TimeSeriesTable table;
+  private final int maxSize;
+  private final int maxBatchSize;
+  private final int maxConcurrentWrites;
+  private final long timerId;
+  private final Map<List<Object>, Partition> partitions = new HashMap<>();
+  // partitions with a batch to write, in the order they became ready
+  private final Deque<Partition> ready = new ArrayDeque<>();
+
+  private volatile int held;
+  private volatile int buffered;
+
+  private Future<PreparedStatement> insert;
+  private int inFlight;
+  private int writing;
+  private boolean full;
+  private boolean ended;
+  private Handler<Void> drainHandler;
+  private Handler<Throwable> exceptionHandler;
+
+  public TimeSeriesWriterImpl(Vertx vertx, CassandraClient client, TimeSeriesOptions options) {
+    Objects.requireNonNull(vertx, "vertx");
+    Objects.requireNonNull(client, "client");
+    this.table = new TimeSeriesTable(options);
+    this.context = ((VertxInternal) vertx).getOrCreateContext();
+    this.client = client;
+    this.maxSize = options.getMaxBufferedPoints();
+    this.maxBatchSize = options.getMaxBatchSize();
+    this.maxConcurrentWrites = options.getMaxConcurrentWrites();
+    timerId = context.setPeriodic(options.getFlushInterval(), id -> {
+      flushPartitions();
+      writeReady();
+    });
+    context.addCloseHook(this::close);
+  }
+
+  @Override
+  public TimeSeriesWriter append(Object series, long timestamp, List<Object> values, Handler<AsyncResult<Void>> handler) {
+    Future<Void> future = append(series, timestamp, values);
+    if (handler != null) {
+      future.onComplete(handler);
+    }
+    return this;
+  }
+
+  @Override
+  public Future<Void> append(Object series, long timestamp, List<Object> values) {
+    Objects.requireNonNull(series, "series");
+    Objects.requireNonNull(values, "values");
+    if (values.size() != table.valueCount) {
+      throw new IllegalArgumentException("Expected " + table.valueCount + " values, got " + values.size());
+    }
+    Point point = new Point(timestamp, values.toArray(), context.promise());
+    runOnContext(v -> doAppend(series, point));
+    return point.promise.future();
+  }
+
+  private void doAppend(Object series, Point point) {
+    if (ended) {
+      point.promise.fail("Time series writer is closed");
+      return;
+    }
+    long bucket = table.bucket(point.timestamp);
+    List<Object> key = Arrays.asList(series, bucket);
+    Partition partition = partitions.get(key);
+    if (partition == null) {
+      partition = new Partition(key, series, bucket);
+      partitions.put(key, partition);
+    }
+    partition.points.add(point);
+    partition.last = point.promise.future();
+    if (partition.points.size() >= maxBatchSize) {
+      enqueue(partition);
+      writeReady();
+    }
+    updateHeld(1);
+  }
+
+  @Override
+  public long bucket(long timestamp) {
+    return table.bucket(timestamp);
+  }
+
+  @Override
+  public Future<Void> flush() {
+    Promise<Void> promise = context.promise();
+    runOnContext(v -> {
+      flushPartitions();
+      List<Future> lasts = new ArrayList<>(partitions.size());
+      for (Partition partition : partitions.values()) {
+        lasts.add(partition.last);
+      }
+      writeReady();
+      if (lasts.isEmpty()) {
+        promise.complete();
+      } else {
+        // points of a partition are written in order, failed points are reported by their own future
+        CompositeFuture.join(lasts).onComplete(ar -> promise.complete());
+      }
+    });
+    return promise.future();
+  }
+
+  private void flushPartitions() {
+    for (Partition partition : partitions.values()) {
+      if (!partition.points.isEmpty()) {
+        partition.flushing = true;
+        enqueue(partition);
+      }
+    }
+  }
+
+  private void enqueue(Partition partition) {
+    if (!partition.queued && !partition.writing) {
+      partition.queued = true;
+      ready.add(partition);
+    }
+  }
+
+  private void writeReady() {
+    while (writing < maxConcurrentWrites && !ready.isEmpty()) {
+      Partition partition = ready.poll();
+      partition.queued = false;
+      write(partition);
+    }
+  }
+
+  private void write(Partition partition) {
+    int size = Math.min(partition.points.size(), maxBatchSize);
+    List<Point> batch = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      batch.add(partition.points.poll());
+    }
+    if (partition.points.isEmpty()) {
+      partition.flushing = false;
+    }
+    partition.writing = true;
+    writing++;
+    inFlight += size;
+    updateHeld(0);
+    prepared()
+      .flatMap(prepared -> {
+        Statement<?> statement;
+        try {
+          statement = statement(prepared, partition, batch);
+        } catch (Exception e) {
+          return context.failedFuture(e);
+        }
+        return client.execute(statement);
+      })
+      .onComplete(ar -> {
+        partition.writing = false;
+        writing--;
+        inFlight -= size;
+        for (Point point : batch) {
+          if (ar.succeeded()) {
+            point.promise.complete();
+          } else {
+            point.promise.fail(ar.cause());
+          }
+        }
+        if (ar.failed() && exceptionHandler != null) {
+          exceptionHandler.handle(ar.cause());
+        }
+        if (partition.points.isEmpty()) {
+          partitions.remove(partition.key);
+        } else if (partition.flushing || partition.points.size() >= maxBatchSize) {
+          enqueue(partition);
+        }
+        writeReady();
+        updateHeld(-size);
+      });
+  }
+
+  private Future<PreparedStatement> prepared() {
+    if (insert == null || insert.failed()) {
+      insert = client.prepare(table.insert).flatMap(prepared -> {
+        if (prepared.getVariableDefinitions().get(2).getType().equals(DataTypes.TIMEUUID)) {
+          // points of the same millisecond would get the same clustering key, and overwrite each other
+          return context.failedFuture(new IllegalArgumentException("Time series with a timeuuid timestamp column cannot be written"));
+        }
+        return context.succeededFuture(prepared);
+      });
+    }
+    return insert;
+  }
+
+  private Statement<?> statement(PreparedStatement prepared, Partition partition, List<Point> batch) {
+    ColumnDefinitions variables = prepared.getVariableDefinitions();
+    Object bucket = TimeSeriesTable.time(variables, 1, partition.bucket);
+    List<BatchableStatement<?>> statements = new ArrayList<>(batch.size());
+    for (Point point : batch) {
+      Object[] values = new Object[3 + point.values.length];
+      values[0] = partition.series;
+      values[1] = bucket;
+      values[2] = TimeSeriesTable.time(variables, 2, point.timestamp);
+      System.arraycopy(point.values, 0, values, 3, point.values.length);
+      statements.add(prepared.bind(values));
+    }
+    if (statements.size() == 1) {
+      return statements.get(0);
+    }
+    return BatchStatement.newInstance(BatchType.UNLOGGED, statements);
+  }
+
+  /**
+   * @param delta the change of the number of points held
+   */
+  private void updateHeld(int delta) {
+    held += delta;
+    buffered = held - inFlight;
+    if (held >= maxSize) {
+      full = true;
+    } else if (full && held < maxSize / 2) {
+      full = false;
+      if (drainHandler != null) {
+        drainHandler.handle(null);
+      }
+    }
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return held >= maxSize;
+  }
+
+  @Override
+  public TimeSeriesWriter drainHandler(Handler<Void> handler) {
+    runOnContext(v -> drainHandler = handler);
+    return this;
+  }
+
+  @Override
+  public TimeSeriesWriter exceptionHandler(Handler<Throwable> handler) {
+    runOnContext(v -> exceptionHandler = handler);
+    return this;
+  }
+
+  @Override
+  public int size() {
+    return buffered;
+  }
+
+  @Override
+  public void close(Handler<AsyncResult<Void>> handler) {
+    Future<Void> future = close();
+    if (handler != null) {
+      future.onComplete(handler);
+    }
+  }
+
+  @Override
+  public Future<Void> close() {
+    Promise<Void> promise = context.promise();
+    runOnContext(v -> {
+      if (!ended) {
+        ended = true;
+        context.owner().cancelTimer(timerId);
+      }
+      flush().onComplete(promise);
+    });
+    return promise.future();
+  }
+
+  private void runOnContext(Handler<Void> action) {
+    if (Vertx.currentContext() == context) {
+      action.handle(null);
+    } else {
+      context.runOnContext(action);
+    }
+  }
+
+  private static class Point {
+
+    final long timestamp;
+    final Object[] values;
+    final Promise<Void> promise;
+
+    Point(long timestamp, Object[] values, Promise<Void> promise) {
+      this.timestamp = timestamp;
+      this.values = values;
+      this.promise = promise;
+    }
+  }
+
+  private static class Partition {
+
+    final List<Object> key;
+    final Object series;
+    final long bucket;
+    final Deque<Point> points = new ArrayDeque<>();
+    // the future of the last point appended
+    Future<Void> last;
+    boolean queued;
+    boolean writing;
+    // whether the points buffered must be written even if they do not fill a batch
+    boolean flushing;
+
+    Partition(List<Object> key, Object series, long bucket) {
+      this.key = key;
+      this.series = series;
+      this.bucket = bucket;
+    }
+  }
+}
@@ -18,6 +18,7 @@ package io.vertx.cassandra.impl;
 import io.vertx.core.*;
 import io.vertx.core.impl.ContextInternal;
 
+import java.util.Iterator;
 import java.util.Objects;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
@@ -37,4 +38,58 @@ class Util {
       future.onComplete(handler);
     }
   }
+
+  /**
+   * Apply {@code task} to each element of {@code items}, with at most {@code concurrency} tasks in progress at a time.
+   * <p>
+   * Must be invoked on {@code context}. The returned future is completed when all tasks are done, whether they
+   * succeeded or not: tasks are responsible for handling their own failures.
+   */
+  static <T> Future<Void> forEachBounded(ContextInternal context, Iterator<T> items, int concurrency, Function<T, Future<?>> task) {
+    Promise<Void> promise = context.promise();
+    new BoundedIteration<>(items, Math.max(1, concurrency), task, promise).drain();
+    return promise.future();
+  }
+
+  private static class BoundedIteration<T> {
+
+    final Iterator<T> items;
+    final int concurrency;
+    final Function<T, Future<?>> task;
+    final Promise<Void> promise;
+    int inProgress;
+    boolean draining;
+
+    BoundedIteration(Iterator<T> items, int concurrency, Function<T, Future<?>> task, Promise<Void> promise) {
+      this.items = items;
+      this.concurrency = concurrency;
+      this.task = task;
+      this.promise = promise;
+    }
+
+    void drain() {
+      if (draining) {
+        // tasks completed synchronously are picked up by the loop below
+        return;
+      }
+      draining = true;
+      while (inProgress < concurrency && items.hasNext()) {
+        inProgress++;
+        Future<?> future;
+        try {
+          future = task.apply(items.next());
+        } catch (Exception e) {
+          future = Future.failedFuture(e);
+        }
+        future.onComplete(ar -> {
+          inProgress--;
+          drain();
+        });
+      }
+      draining = false;
+      if (inProgress == 0 && !items.hasNext()) {
+        promise.tryComplete();
+      }
+    }
+  }
 }
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.impl;
+
+import com.datastax.oss.driver.api.core.cql.*;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.cassandra.WriteBehindBuffer;
+import io.vertx.cassandra.WriteBehindOptions;
+import io.vertx.core.*;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * All state is confined to the creating context, except the number of held writes which can be read from any thread.
+ */
+public class WriteBehindBufferImpl implements WriteBehindBuffer {
+
+  private final ContextInternal context;
+  private final CassandraClient client;
+  private final int maxBatchSize;
+  private final int maxConcurrentWrites;
+  private final long timerId;
+  private final Map<ByteBuffer, int[]> primaryKeyIndices = new HashMap<>();
+  private final Deque<Unresolved> unresolved = new ArrayDeque<>();
+
+  private volatile int maxSize;
+  private volatile int held;
+  private volatile int buffered;
+
+  private Map<List<Object>, Entry> buffer = new LinkedHashMap<>();
+  private int inFlight;
+  private boolean resolving;
+  private boolean flushing;
+  private Promise<Void> nextFlush;
+  private boolean full;
+  private boolean ended;
+  private long lastTimestamp;
+  private Handler<Void> drainHandler;
+  private Handler<Throwable> exceptionHandler;
+
+  public WriteBehindBufferImpl(Vertx vertx, CassandraClient client, WriteBehindOptions options) {
+    Objects.requireNonNull(vertx, "vertx");
+    Objects.requireNonNull(client, "client");
+    Objects.requireNonNull(options, "options");
+    this.context = ((VertxInternal) vertx).getOrCreateContext();
+    this.client = client;
+    this.maxSize = options.getMaxBufferedWrites();
+    this.maxBatchSize = options.getMaxBatchSize();
+    this.maxConcurrentWrites = options.getMaxConcurrentWrites();
+    timerId = context.setPeriodic(options.getFlushInterval(), id -> flush());
+    context.addCloseHook(this::end);
+  }
+
+  @Override
+  public WriteBehindBuffer exceptionHandler(Handler<Throwable> handler) {
+    runOnContext(v -> exceptionHandler = handler);
+    return this;
+  }
+
+  @Override
+  public Future<Void> write(BoundStatement statement) {
+    Promise<Void> promise = context.promise();
+    write(statement, promise);
+    return promise.future();
+  }
+
+  @Override
+  public void write(BoundStatement statement, Handler<AsyncResult<Void>> handler) {
+    Objects.requireNonNull(statement, "statement");
+    Promise<Void> promise = context.promise();
+    if (handler != null) {
+      promise.future().onComplete(handler);
+    }
+    runOnContext(v -> doWrite(statement, promise));
+  }
+
+  private void doWrite(BoundStatement statement, Promise<Void> promise) {
+    if (ended) {
+      promise.fail("Write-behind buffer is closed");
+      return;
+    }
+    BoundStatement timestamped = withTimestamp(statement);
+    int[] indices = primaryKeyIndices.get(timestamped.getPreparedStatement().getId());
+    if (indices == null || !unresolved.isEmpty()) {
+      // preserve ordering with writes waiting for schema metadata
+      unresolved.add(new Unresolved(timestamped, promise));
+      resolve();
+    } else {
+      buffer(timestamped, indices, promise);
+    }
+    updateHeld();
+  }
+
+  private BoundStatement withTimestamp(BoundStatement statement) {
+    if (statement.getQueryTimestamp() != Statement.NO_DEFAULT_TIMESTAMP) {
+      return statement;
+    }
+    long timestamp = Math.max(System.currentTimeMillis() * 1000, lastTimestamp + 1);
+    lastTimestamp = timestamp;
+    return statement.setQueryTimestamp(timestamp);
+  }
+
+  private void resolve() {
+    if (resolving) {
+      return;
+    }
+    resolving = true;
+    client.metadata().onComplete(ar -> {
+      resolving = false;
+      while (!unresolved.isEmpty()) {
+        Unresolved head = unresolved.poll();
+        ByteBuffer id = head.statement.getPreparedStatement().getId();
+        int[] indices = primaryKeyIndices.get(id);
+        if (indices == null) {
+          try {
+            if (ar.failed()) {
+              throw ar.cause();
+            }
+            indices = primaryKeyIndices(ar.result(), head.statement.getPreparedStatement());
+            primaryKeyIndices.put(id, indices);
+          } catch (Throwable t) {
+            head.promise.fail(t);
+            continue;
+          }
+        }
+        buffer(head.statement, indices, head.promise);
+      }
+      updateHeld();
+    });
+  }
+
+  private static int[] primaryKeyIndices(Metadata metadata, PreparedStatement preparedStatement) {
+    ColumnDefinitions variables = preparedStatement.getVariableDefinitions();
+    if (variables.size() == 0) {
+      throw new IllegalArgumentException("Statement has no bound values: " + preparedStatement.getQuery());
+    }
+    ColumnDefinition first = variables.get(0);
+    TableMetadata table = metadata.getKeyspace(first.getKeyspace())
+      .flatMap(keyspace -> keyspace.getTable(first.getTable()))
+      .orElseThrow(() -> new IllegalArgumentException("Unknown table: " + first.getKeyspace() + "." + first.getTable()));
+    List<ColumnMetadata> primaryKey = table.getPrimaryKey();
+    int[] indices = new int[primaryKey.size()];
+    int count = 0;
+    for (ColumnMetadata column : primaryKey) {
+      int index = variables.firstIndexOf(column.getName());
+      // a column missing from the variables is set with a literal, it does not differentiate writes of this statement
+      if (index >= 0) {
+        indices[count++] = index;
+      }
+    }
+    return Arrays.copyOf(indices, count);
+  }
+
+  private void buffer(BoundStatement statement, int[] indices, Promise<Void> promise) {
+    Object[] key = new Object[indices.length + 1];
+    key[0] = statement.getPreparedStatement().getId();
+    for (int i = 0; i < indices.length; i++) {
+      key[i + 1] = statement.getBytesUnsafe(indices[i]);
+    }
+    List<Object> primaryKey = Arrays.asList(key);
+    Entry entry = buffer.get(primaryKey);
+    if (entry == null) {
+      entry = new Entry(statement, context.promise());
+      buffer.put(primaryKey, entry);
+    } else if (statement.getQueryTimestamp() >= entry.statement.getQueryTimestamp()) {
+      entry.statement = statement;
+    }
+    entry.promise.future().onComplete(promise);
+    if (!flushing && buffer.size() >= maxSize / 2) {
+      flush(context.promise());
+    }
+  }
+
+  @Override
+  public Future<Void> flush() {
+    Promise<Void> promise = context.promise();
+    runOnContext(v -> flush(promise));
+    return promise.future();
+  }
+
+  private void flush(Promise<Void> promise) {
+    if (flushing) {
+      if (nextFlush == null) {
+        nextFlush = context.promise();
+      }
+      nextFlush.future().onComplete(promise);
+      return;
+    }
+    if (buffer.isEmpty()) {
+      promise.complete();
+      return;
+    }
+    flushing = true;
+    Collection<Entry> entries = buffer.values();
+    buffer = new LinkedHashMap<>();
+    inFlight += entries.size();
+    Util.forEachBounded(context, group(entries).iterator(), maxConcurrentWrites, this::execute).onComplete(v -> {
+      flushing = false;
+      promise.complete();
+      if (nextFlush != null) {
+        Promise<Void> next = nextFlush;
+        nextFlush = null;
+        flush(next);
+      } else if (buffer.size() >= maxSize / 2) {
+        flush(context.promise());
+      }
+    });
+  }
+
+  private List<List<Entry>> group(Collection<Entry> entries) {
+    if (maxBatchSize == 1) {
+      List<List<Entry>> groups = new ArrayList<>(entries.size());
+      for (Entry entry : entries) {
+        groups.add(Collections.singletonList(entry));
+      }
+      return groups;
+    }
+    Map<List<Object>, List<Entry>> partitions = new LinkedHashMap<>();
+    List<List<Entry>> groups = new ArrayList<>();
+    for (Entry entry : entries) {
+      BoundStatement statement = entry.statement;
+      ByteBuffer routingKey = statement.getRoutingKey();
+      if (routingKey == null) {
+        groups.add(Collections.singletonList(entry));
+        continue;
+      }
+      ColumnDefinition definition = statement.getPreparedStatement().getVariableDefinitions().get(0);
+      // a batch has a single timestamp, only writes with the same timestamp are grouped
+      List<Object> partition = Arrays.asList(definition.getKeyspace(), definition.getTable(), routingKey, statement.getQueryTimestamp());
+      List<Entry> group = partitions.computeIfAbsent(partition, k -> new ArrayList<>());
+      group.add(entry);
+      if (group.size() == maxBatchSize) {
+        groups.add(group);
+        partitions.remove(partition);
+      }
+    }
+    groups.addAll(partitions.values());
+    return groups;
+  }
+
+  private Future<?> execute(List<Entry> group) {
+    Statement statement;
+    if (group.size() == 1) {
+      statement = group.get(0).statement;
+    } else {
+      List<BatchableStatement<?>> statements = new ArrayList<>(group.size());
+      for (Entry entry : group) {
+        statements.add(entry.statement);
+      }
+      statement = BatchStatement.newInstance(BatchType.UNLOGGED, statements).setQueryTimestamp(group.get(0).statement.getQueryTimestamp());
+    }
+    return client.execute(statement).onComplete(ar -> {
+      inFlight -= group.size();
+      for (Entry entry : group) {
+        if (ar.succeeded()) {
+          entry.promise.complete();
+        } else {
+          entry.promise.fail(ar.cause());
+        }
+      }
+      if (ar.failed() && exceptionHandler != null) {
+        exceptionHandler.handle(ar.cause());
+      }
+      updateHeld();
+    });
+  }
+
+  private void updateHeld() {
+    buffered = buffer.size() + unresolved.size();
+    held = buffered + inFlight;
+    if (held >= maxSize) {
+      full = true;
+    } else if (full && held < maxSize / 2) {
+      full = false;
+      if (drainHandler != null) {
+        drainHandler.handle(null);
+      }
+    }
+  }
+
+  @Override
+  public void end(Handler<AsyncResult<Void>> handler) {
+    runOnContext(v -> {
+      if (!ended) {
+        ended = true;
+        context.owner().cancelTimer(timerId);
+      }
+      Future<Void> future = flush();
+      if (handler != null) {
+        future.onComplete(handler);
+      }
+    });
+  }
+
+  @Override
+  public WriteBehindBuffer setWriteQueueMaxSize(int maxSize) {
+    if (maxSize < 2) {
+      throw new IllegalArgumentException("maxSize must be greater than 1");
+    }
+    this.maxSize = maxSize;
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return held >= maxSize;
+  }
+
+  @Override
+  public WriteBehindBuffer drainHandler(Handler<Void> handler) {
+    runOnContext(v -> drainHandler = handler);
+    return this;
+  }
+
+  @Override
+  public int size() {
+    return buffered;
+  }
+
+  private void runOnContext(Handler<Void> action) {
+    if (Vertx.currentContext() == context) {
+      action.handle(null);
+    } else {
+      context.runOnContext(action);
+    }
+  }
+
+  private static class Unresolved {
+
+    final BoundStatement statement;
+    final Promise<Void> promise;
+
+    Unresolved(BoundStatement statement, Promise<Void> promise) {
+      this.statement = statement;
+      this.promise = promise;
+    }
+  }
+
+  private static class Entry {
+
+    BoundStatement statement;
+    final Promise<Void> promise;
+
+    Entry(BoundStatement statement, Promise<Void> promise) {
+      this.statement = statement;
+      this.promise = promise;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+@RunWith(VertxUnitRunner.class)
+public class AutoPrepareTest extends CassandraClientTestBase {
+
+  private static final String SELECT = "select name from names.names_by_first_letter where first_letter = ?";
+
+  @Override
+  protected CassandraClientOptions createClientOptions() {
+    return super.createClientOptions().setAutoPrepareThreshold(3);
+  }
+
+  @Test
+  public void testFrequentStatementIsPrepared(TestContext testContext) {
+    initializeNamesKeyspace();
+    insertNames("A", 2);
+    Async async = testContext.async();
+    List<Statement<?>> executed = new ArrayList<>();
+    executeSequentially(() -> SimpleStatement.newInstance(SELECT, "A"), 20, executed).onComplete(testContext.asyncAssertSuccess(v -> {
+      testContext.assertTrue(executed.get(0) instanceof SimpleStatement);
+      testContext.assertTrue(executed.get(1) instanceof SimpleStatement);
+      Statement<?> last = executed.get(executed.size() - 1);
+      testContext.assertTrue(last instanceof BoundStatement);
+      testContext.assertEquals(SELECT, ((BoundStatement) last).getPreparedStatement().getQuery());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testBoundExecutionReturnsSameRows(TestContext testContext) {
+    initializeNamesKeyspace();
+    insertNames("B", 5);
+    Async async = testContext.async();
+    executeSequentially(() -> SimpleStatement.newInstance(SELECT, "B"), 20, new ArrayList<>()).onComplete(testContext.asyncAssertSuccess(v -> {
+      client.executeWithFullFetch(SimpleStatement.newInstance(SELECT, "B").setPageSize(2), testContext.asyncAssertSuccess(rows -> {
+        testContext.assertEquals(5, rows.size());
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testNamedValuesAreNotPrepared(TestContext testContext) {
+    initializeNamesKeyspace();
+    Async async = testContext.async();
+    List<Statement<?>> executed = new ArrayList<>();
+    String query = "select name from names.names_by_first_letter where first_letter = :letter";
+    executeSequentially(() -> SimpleStatement.builder(query).addNamedValue("letter", "C").build(), 10, executed).onComplete(testContext.asyncAssertSuccess(v -> {
+      for (Statement<?> statement : executed) {
+        testContext.assertTrue(statement instanceof SimpleStatement);
+      }
+      async.complete();
+    }));
+  }
+
+  private Future<Void> executeSequentially(Supplier<Statement<?>> statement, int times, List<Statement<?>> executed) {
+    if (times == 0) {
+      return Future.succeededFuture();
+    }
+    return client.execute(statement.get())
+      .flatMap(rs -> {
+        executed.add(rs.getExecutionInfo().getStatement());
+        // leave time for the background preparation
+        return Future.<Void>future(p -> vertx.setTimer(10, id -> p.complete()));
+      })
+      .flatMap(v -> executeSequentially(statement, times - 1, executed));
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.Error;
+import io.vertx.cassandra.stub.StubCassandraServer;
+import io.vertx.cassandra.stub.StubQuery;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Blob writes and reads, against a {@link StubCassandraServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class BlobStoreTest extends StubServerTestBase {
+
+  private static final String INSERT = "INSERT INTO files.chunks (blob_id, chunk, data) VALUES (?, ?, ?)";
+  private static final String SELECT = "SELECT data FROM files.chunks WHERE blob_id = ? AND chunk = ?";
+  private static final String TRUNCATE = "DELETE FROM files.chunks WHERE blob_id = ? AND chunk >= ?";
+  private static final String UPDATE_MANIFEST = "UPDATE files.chunks SET chunk_count = ?, length = ? WHERE blob_id = ?";
+  private static final String SELECT_MANIFEST = "SELECT chunk_count, length FROM files.chunks WHERE blob_id = ? LIMIT 1";
+
+  private BlobStoreOptions options;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    options = new BlobStoreOptions()
+      .setTable("files.chunks")
+      .setChunkSize(4)
+      .setPrefetch(2);
+  }
+
+  private StubQuery scriptInsert() {
+    return server.when(INSERT)
+      .variable("blob_id", DataTypes.TEXT)
+      .variable("chunk", DataTypes.INT)
+      .variable("data", DataTypes.BLOB);
+  }
+
+  private StubQuery scriptTruncate() {
+    return server.when(TRUNCATE)
+      .variable("blob_id", DataTypes.TEXT)
+      .variable("chunk", DataTypes.INT);
+  }
+
+  private StubQuery scriptUpdateManifest() {
+    return server.when(UPDATE_MANIFEST)
+      .variable("chunk_count", DataTypes.INT)
+      .variable("length", DataTypes.BIGINT)
+      .variable("blob_id", DataTypes.TEXT);
+  }
+
+  private StubQuery scriptSelectManifest() {
+    return server.when(SELECT_MANIFEST)
+      .variable("blob_id", DataTypes.TEXT)
+      .column("chunk_count", DataTypes.INT)
+      .column("length", DataTypes.BIGINT);
+  }
+
+  private StubQuery scriptSelect() {
+    return server.when(SELECT)
+      .variable("blob_id", DataTypes.TEXT)
+      .variable("chunk", DataTypes.INT)
+      .column("data", DataTypes.BLOB);
+  }
+
+  @Test
+  public void testWrite(TestContext testContext) {
+    StubQuery insert = scriptInsert();
+    StubQuery manifest = scriptUpdateManifest();
+    StubQuery truncate = scriptTruncate();
+    BlobStore blobStore = BlobStore.create(vertx, client, options);
+    WriteStream<Buffer> stream = blobStore.writeStream("b1");
+    Async async = testContext.async();
+    stream.write(Buffer.buffer("012"));
+    stream.write(Buffer.buffer("3456789"));
+    stream.end(testContext.asyncAssertSuccess(v -> {
+      // 4 + 4 + 2 bytes
+      testContext.assertEquals(3, insert.executions());
+      testContext.assertEquals(1, manifest.executions());
+      List<ByteBuffer> values = manifest.boundValues().get(0);
+      testContext.assertEquals(3, values.get(0).getInt(values.get(0).position()));
+      testContext.assertEquals(10L, values.get(1).getLong(values.get(1).position()));
+      testContext.assertEquals(1, truncate.executions());
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testWriteFailure(TestContext testContext) {
+    server.when(INSERT)
+      .variable("blob_id", DataTypes.TEXT)
+      .variable("chunk", DataTypes.INT)
+      .variable("data", DataTypes.BLOB)
+      .error(new Error(ProtocolConstants.ErrorCode.OVERLOADED, "overloaded"));
+    StubQuery manifest = scriptUpdateManifest();
+    StubQuery truncate = scriptTruncate();
+    BlobStore blobStore = BlobStore.create(vertx, client, options);
+    WriteStream<Buffer> stream = blobStore.writeStream("b1");
+    Async async = testContext.async();
+    stream.write(Buffer.buffer("0123"), testContext.asyncAssertFailure());
+    stream.end(testContext.asyncAssertFailure(t -> {
+      testContext.assertEquals(0, manifest.executions());
+      testContext.assertEquals(0, truncate.executions());
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testReadMissing(TestContext testContext) {
+    StubQuery manifest = scriptSelectManifest();
+    StubQuery select = scriptSelect();
+    BlobStore blobStore = BlobStore.create(vertx, client, options);
+    Async async = testContext.async();
+    blobStore.read("b1").exceptionHandler(testContext::fail).endHandler(v -> {
+      testContext.assertEquals(1, manifest.executions());
+      testContext.assertEquals(0, select.executions());
+      async.countDown();
+    }).handler(chunk -> testContext.fail());
+  }
+
+  @Test
+  public void testRead(TestContext testContext) {
+    scriptSelectManifest().row(2, 8L);
+    // the stub answers the same chunk for every index
+    StubQuery select = scriptSelect().row(ByteBuffer.wrap("abcd".getBytes(StandardCharsets.UTF_8)));
+    BlobStore blobStore = BlobStore.create(vertx, client, options);
+    Async async = testContext.async();
+    List<String> chunks = new ArrayList<>();
+    blobStore.read("b1").exceptionHandler(testContext::fail).endHandler(v -> {
+      testContext.assertEquals(Arrays.asList("abcd", "abcd"), chunks);
+      // no chunk read beyond the chunk count
+      testContext.assertEquals(2, select.executions());
+      async.countDown();
+    }).handler(chunk -> chunks.add(chunk.toString()));
+  }
+
+  @Test
+  public void testReadMissingChunk(TestContext testContext) {
+    scriptSelectManifest().row(2, 8L);
+    scriptSelect();
+    BlobStore blobStore = BlobStore.create(vertx, client, options);
+    Async async = testContext.async();
+    blobStore.read("b1").exceptionHandler(t -> {
+      testContext.assertTrue(t instanceof VertxException);
+      async.countDown();
+    }).endHandler(v -> testContext.fail()).handler(chunk -> testContext.fail());
+  }
+
+  @Test
+  public void testReadWrongLength(TestContext testContext) {
+    scriptSelectManifest().row(2, 7L);
+    scriptSelect().row(ByteBuffer.wrap("abcd".getBytes(StandardCharsets.UTF_8)));
+    BlobStore blobStore = BlobStore.create(vertx, client, options);
+    Async async = testContext.async();
+    blobStore.read("b1").exceptionHandler(t -> {
+      testContext.assertTrue(t instanceof VertxException);
+      async.countDown();
+    }).endHandler(v -> testContext.fail()).handler(chunk -> {
+    });
+  }
+
+  @Test
+  public void testReadAhead(TestContext testContext) {
+    scriptSelectManifest().row(10, 40L);
+    // the stub answers the same chunk for every index
+    StubQuery select = scriptSelect().row(ByteBuffer.wrap("abcd".getBytes(StandardCharsets.UTF_8)));
+    BlobStore blobStore = BlobStore.create(vertx, client, options);
+    Async async = testContext.async();
+    List<String> chunks = new ArrayList<>();
+    ReadStream<Buffer> stream = blobStore.read("b1");
+    stream.pause();
+    stream.exceptionHandler(testContext::fail).handler(chunk -> chunks.add(chunk.toString()));
+    stream.fetch(3);
+    vertx.setTimer(200, id -> {
+      testContext.assertEquals(3, chunks.size());
+      testContext.assertEquals("abcd", chunks.get(0));
+      // 3 chunks emitted, 2 read ahead
+      testContext.assertEquals(5, select.executions());
+      stream.handler(null);
+      async.countDown();
+    });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingTable() {
+    BlobStore.create(vertx, client, new BlobStoreOptions());
+  }
+}
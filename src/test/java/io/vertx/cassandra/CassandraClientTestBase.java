@@ -93,6 +93,21 @@ public abstract class CassandraClientTestBase {
     embeddedServerSession.execute("create table names.names_by_first_letter (first_letter text, name text, primary key (first_letter, name))");
   }
 
+  protected void initializeCountersKeyspace() {
+    initializeKeyspace("counters");
+    embeddedServerSession.execute("create table counters.views_by_page (page text, day int, views counter, primary key (page, day))");
+  }
+
+  protected void initializeDevicesKeyspace() {
+    initializeKeyspace("devices");
+    embeddedServerSession.execute("create table devices.state_by_device (device text, sensor text, state text, primary key (device, sensor))");
+  }
+
+  protected void initializeMeasurementsKeyspace() {
+    initializeKeyspace("measurements");
+    embeddedServerSession.execute("create table measurements.by_sensor (sensor text, ts bigint, value double, quality int, unit text, tags set<text>, primary key (sensor, ts))");
+  }
+
   private void initializeKeyspace(String keyspace) {
     embeddedServerSession.execute("drop keyspace if exists " + keyspace);
     embeddedServerSession.execute("create keyspace if not exists " + keyspace + " WITH replication={'class' : 'SimpleStrategy', 'replication_factor':1} AND durable_writes = false");
@@ -113,6 +128,12 @@ public abstract class CassandraClientTestBase {
     CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
   }
 
+  protected void insertNames(String firstLetter, int count) {
+    for (int i = 0; i < count; i++) {
+      embeddedServerSession.execute(String.format("INSERT INTO names.names_by_first_letter (first_letter, name) VALUES ('%s', '%s%d')", firstLetter, firstLetter, i));
+    }
+  }
+
   protected void checkContext(TestContext testContext) {
     Context context = vertx.getOrCreateContext();
     if (capturedContext.compareAndSet(null, context)) {
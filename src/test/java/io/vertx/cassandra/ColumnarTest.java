@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static io.vertx.cassandra.ColumnarBatch.ColumnType.*;
+
+@RunWith(VertxUnitRunner.class)
+public class ColumnarTest extends CassandraClientTestBase {
+
+  @Test
+  public void testColumnarStream(TestContext testContext) {
+    initializeMeasurementsKeyspace();
+    for (int i = 0; i < 25; i++) {
+      String value = i % 5 == 0 ? "null" : String.valueOf(i * 0.5);
+      String unit = i % 7 == 0 ? "null" : i % 2 == 0 ? "'celsius'" : "'kelvin'";
+      embeddedServerSession.execute("insert into measurements.by_sensor (sensor, ts, value, quality, unit, tags) values ('s1', " + i + ", " + value + ", " + (i % 3) + ", " + unit + ", {'t" + i + "'})");
+    }
+    Statement statement = SimpleStatement.newInstance("select ts, value, quality, unit, tags from measurements.by_sensor where sensor = 's1'")
+      .setPageSize(10);
+    Async async = testContext.async();
+    client.columnarStream(statement, testContext.asyncAssertSuccess(stream -> {
+      List<ColumnarBatch> batches = Collections.synchronizedList(new ArrayList<>());
+      stream.exceptionHandler(testContext::fail).handler(batches::add).endHandler(v -> {
+        testContext.assertEquals(3, batches.size());
+        int ts = 0;
+        for (ColumnarBatch batch : batches) {
+          testContext.assertEquals(LONG, batch.columnType(0));
+          testContext.assertEquals(DOUBLE, batch.columnType(1));
+          testContext.assertEquals(INT, batch.columnType(2));
+          testContext.assertEquals(TEXT, batch.columnType(3));
+          testContext.assertEquals(OBJECT, batch.columnType(4));
+          testContext.assertTrue(batch.textDictionary(3).size() <= 2);
+          for (int row = 0; row < batch.size(); row++, ts++) {
+            testContext.assertEquals((long) ts, batch.longs(0)[row]);
+            testContext.assertEquals(ts % 5 == 0, batch.isNull(1, row));
+            if (ts % 5 != 0) {
+              testContext.assertEquals(ts * 0.5, batch.doubles(1)[row]);
+            }
+            testContext.assertEquals(ts % 3, batch.ints(2)[row]);
+            String unit = ts % 7 == 0 ? null : ts % 2 == 0 ? "celsius" : "kelvin";
+            testContext.assertEquals(unit, batch.text(3, row));
+            testContext.assertEquals(Collections.singleton("t" + ts), batch.objects(4)[row]);
+          }
+        }
+        testContext.assertEquals(25, ts);
+        async.countDown();
+      });
+    }));
+  }
+
+  @Test
+  public void testPausedColumnarStream(TestContext testContext) throws Exception {
+    initializeRandomStringKeyspace();
+    insertRandomStrings(20);
+    Statement statement = SimpleStatement.newInstance("select random_string from random_strings.random_string_by_first_letter where first_letter = 'B'")
+      .setPageSize(3);
+    Async async = testContext.async();
+    client.columnarStream(statement, testContext.asyncAssertSuccess(stream -> {
+      List<String> values = new ArrayList<>();
+      stream.pause();
+      stream.exceptionHandler(testContext::fail).handler(batch -> {
+        for (int row = 0; row < batch.size(); row++) {
+          values.add(batch.text(0, row));
+        }
+        vertx.setTimer(10, id -> stream.fetch(1));
+      }).endHandler(v -> {
+        testContext.assertEquals(20, values.size());
+        async.countDown();
+      });
+      stream.fetch(1);
+    }));
+  }
+
+  @Test
+  public void testWrongColumnType(TestContext testContext) {
+    initializeMeasurementsKeyspace();
+    embeddedServerSession.execute("insert into measurements.by_sensor (sensor, ts, value) values ('s1', 1, 1.0)");
+    Statement statement = SimpleStatement.newInstance("select ts from measurements.by_sensor");
+    Async async = testContext.async();
+    client.columnarStream(statement, testContext.asyncAssertSuccess(stream -> {
+      stream.exceptionHandler(testContext::fail).handler(batch -> {
+        try {
+          batch.doubles(0);
+          testContext.fail();
+        } catch (IllegalArgumentException expected) {
+          async.countDown();
+        }
+      });
+    }));
+  }
+}
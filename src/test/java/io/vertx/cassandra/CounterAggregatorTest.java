@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+@RunWith(VertxUnitRunner.class)
+public class CounterAggregatorTest extends CassandraClientTestBase {
+
+  private static final String UPDATE = "UPDATE counters.views_by_page SET views = views + ? WHERE page = ? AND day = ?";
+
+  @Test
+  public void testIncrementsAreSummed(TestContext testContext) {
+    initializeCountersKeyspace();
+    CounterAggregatorOptions options = new CounterAggregatorOptions().setFlushInterval(60_000);
+    CounterAggregator aggregator = CounterAggregator.create(vertx, client, UPDATE, options);
+    for (int i = 0; i < 1000; i++) {
+      aggregator.increment(Arrays.asList("page" + (i % 10), 1), 1);
+    }
+    aggregator.increment(Arrays.asList("page0", 2), 5);
+    aggregator.increment(Arrays.asList("page0", 2), -2);
+    testContext.assertEquals(11, aggregator.pendingKeys());
+    aggregator.flush(testContext.asyncAssertSuccess(v -> {
+      testContext.assertEquals(0, aggregator.pendingKeys());
+      client.executeWithFullFetch("select page, day, views from counters.views_by_page", testContext.asyncAssertSuccess(rows -> {
+        Map<String, Long> views = new HashMap<>();
+        for (Row row : rows) {
+          views.put(row.getString("page") + "/" + row.getInt("day"), row.getLong("views"));
+        }
+        testContext.assertEquals(11, views.size());
+        for (int i = 0; i < 10; i++) {
+          testContext.assertEquals(100L, views.get("page" + i + "/1"));
+        }
+        testContext.assertEquals(3L, views.get("page0/2"));
+        aggregator.close(testContext.asyncAssertSuccess());
+      }));
+    }));
+  }
+
+  @Test
+  public void testFlushWhenMaxPendingKeysReached(TestContext testContext) {
+    initializeCountersKeyspace();
+    CounterAggregatorOptions options = new CounterAggregatorOptions()
+      .setFlushInterval(60_000)
+      .setMaxPendingKeys(5);
+    CounterAggregator aggregator = CounterAggregator.create(vertx, client, UPDATE, options);
+    for (int i = 0; i < 5; i++) {
+      aggregator.increment(Arrays.asList("page" + i, 1), 1);
+    }
+    Async async = testContext.async();
+    vertx.setPeriodic(50, id -> {
+      client.executeWithFullFetch("select views from counters.views_by_page", testContext.asyncAssertSuccess(rows -> {
+        if (rows.size() == 5 && !async.isCompleted()) {
+          vertx.cancelTimer(id);
+          async.complete();
+        }
+      }));
+    });
+  }
+
+  @Test
+  public void testCloseFlushesPendingDeltas(TestContext testContext) {
+    initializeCountersKeyspace();
+    CounterAggregator aggregator = CounterAggregator.create(vertx, client, UPDATE, new CounterAggregatorOptions());
+    aggregator.increment(Arrays.asList("page", 1), 42);
+    aggregator.close(testContext.asyncAssertSuccess(v -> {
+      try {
+        aggregator.increment(Arrays.asList("page", 1), 1);
+        testContext.fail();
+      } catch (IllegalStateException expected) {
+      }
+      client.executeWithFullFetch("select views from counters.views_by_page where page = 'page' and day = 1", testContext.asyncAssertSuccess(rows -> {
+        testContext.assertEquals(42L, rows.get(0).getLong("views"));
+      }));
+    }));
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import io.vertx.cassandra.stub.StubCassandraServer;
+import io.vertx.cassandra.stub.StubQuery;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Deadlines and cancellation, against a {@link StubCassandraServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class DeadlineTest extends StubServerTestBase {
+
+  private static final String QUERY = "select ts from measurements.by_sensor";
+
+  private StubQuery pagedQuery(long latency) {
+    StubQuery query = server.when(QUERY)
+      .column("ts", DataTypes.BIGINT)
+      .pageSize(2)
+      .latency(StubQuery.fixedLatency(latency));
+    for (long ts = 0; ts < 6; ts++) {
+      query.row(ts);
+    }
+    return query;
+  }
+
+  @Test
+  public void testWithinDeadline(TestContext testContext) {
+    pagedQuery(10);
+    client.withTimeout(5000).executeWithFullFetch(QUERY, testContext.asyncAssertSuccess(rows -> {
+      testContext.assertEquals(6, rows.size());
+    }));
+  }
+
+  @Test
+  public void testDeadlineOnFirstPage(TestContext testContext) {
+    pagedQuery(1000);
+    long start = System.nanoTime();
+    client.withTimeout(100).execute(QUERY, testContext.asyncAssertFailure(t -> {
+      testContext.assertTrue(t instanceof DriverTimeoutException, t.toString());
+      testContext.assertTrue(System.nanoTime() - start < 1_000_000_000L);
+    }));
+  }
+
+  @Test
+  public void testDeadlineCoversAllPages(TestContext testContext) {
+    StubQuery query = pagedQuery(150);
+    // each page is within the deadline, not all of them
+    client.withTimeout(400).executeWithFullFetch(QUERY, testContext.asyncAssertFailure(t -> {
+      testContext.assertTrue(t instanceof DriverTimeoutException, t.toString());
+      testContext.assertEquals(3, query.executions());
+    }));
+  }
+
+  @Test
+  public void testDeadlineWithStream(TestContext testContext) {
+    pagedQuery(150);
+    Async async = testContext.async();
+    client.withTimeout(400).queryStream(QUERY, testContext.asyncAssertSuccess(stream -> {
+      stream.endHandler(v -> testContext.fail("Expected a timeout")).exceptionHandler(t -> {
+        testContext.assertTrue(t instanceof DriverTimeoutException, t.toString());
+        async.countDown();
+      }).handler(row -> {
+      });
+    }));
+  }
+
+  @Test
+  public void testCancel(TestContext testContext) {
+    StubQuery query = pagedQuery(200);
+    Async async = testContext.async();
+    client.execute(QUERY, testContext.asyncAssertSuccess(rs -> {
+      rs.fetchNextPage().onComplete(testContext.asyncAssertFailure(t -> {
+        testContext.assertTrue(t instanceof CancellationException, t.toString());
+        rs.fetchNextPage().onComplete(testContext.asyncAssertFailure(t2 -> {
+          testContext.assertTrue(t2 instanceof CancellationException, t2.toString());
+          // no page requested after the cancellation
+          vertx.setTimer(300, id -> {
+            testContext.assertEquals(2, query.executions());
+            async.countDown();
+          });
+        }));
+      }));
+      rs.cancel();
+    }));
+  }
+
+  @Test
+  public void testStopStreamCancelsFetch(TestContext testContext) {
+    StubQuery query = pagedQuery(200);
+    Async async = testContext.async();
+    client.queryStream(QUERY, testContext.asyncAssertSuccess(stream -> {
+      stream.handler(row -> {
+        vertx.setTimer(50, id -> {
+          stream.handler(null);
+          // no page requested after the stream has been stopped
+          vertx.setTimer(400, id2 -> {
+            testContext.assertEquals(2, query.executions());
+            async.countDown();
+          });
+        });
+        stream.pause();
+      });
+    }));
+  }
+}
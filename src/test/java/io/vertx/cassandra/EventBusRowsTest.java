@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import io.vertx.cassandra.impl.RowPageCodec;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(VertxUnitRunner.class)
+public class EventBusRowsTest extends CassandraClientTestBase {
+
+  private static final String QUERY = "select sensor, ts, value, quality, unit, tags from measurements.by_sensor where sensor = 's1'";
+
+  @Override
+  public void setUp() {
+    super.setUp();
+    EventBusRows.registerCodec(vertx);
+  }
+
+  @Test
+  public void testLocalPageIsPassedByReference(TestContext testContext) {
+    insertMeasurements();
+    RowPage page = new RowPage(null, embeddedServerSession.execute(QUERY).all());
+    vertx.eventBus().<RowPage>consumer("rows", message -> {
+      testContext.assertTrue(message.body() == page);
+      message.reply(null);
+    });
+    vertx.eventBus().request("rows", page, testContext.asyncAssertSuccess());
+  }
+
+  @Test
+  public void testWireForm(TestContext testContext) {
+    insertMeasurements();
+    List<Row> expected = embeddedServerSession.execute(QUERY).all();
+    RowPageCodec codec = new RowPageCodec();
+    Buffer buffer = Buffer.buffer("prefix");
+    codec.encodeToWire(buffer, new RowPage(null, expected));
+    RowPage decoded = codec.decodeFromWire(6, buffer);
+    testContext.assertEquals(expected.size(), decoded.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Row e = expected.get(i);
+      Row a = decoded.rows().get(i);
+      for (int j = 0; j < e.size(); j++) {
+        testContext.assertEquals(e.getColumnDefinitions().get(j).getName(), a.getColumnDefinitions().get(j).getName());
+        testContext.assertEquals(e.getColumnDefinitions().get(j).getType(), a.getColumnDefinitions().get(j).getType());
+        testContext.assertEquals(e.getObject(j), a.getObject(j));
+      }
+    }
+  }
+
+  @Test
+  public void testWireFormEmptyPage(TestContext testContext) {
+    RowPageCodec codec = new RowPageCodec();
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, new RowPage(null, new ArrayList<>()));
+    RowPage decoded = codec.decodeFromWire(0, buffer);
+    testContext.assertNull(decoded.columnDefinitions());
+    testContext.assertEquals(0, decoded.size());
+  }
+
+  @Test
+  public void testStream(TestContext testContext) {
+    insertMeasurements();
+    serve();
+    Async async = testContext.async();
+    List<Row> rows = new ArrayList<>();
+    EventBusRows.requestStream(vertx, "measurements", "s1", null, 1).onComplete(testContext.asyncAssertSuccess(stream -> {
+      stream.exceptionHandler(testContext::fail)
+        .endHandler(v -> {
+          testContext.assertEquals(20, rows.size());
+          async.complete();
+        })
+        .handler(page -> {
+          testContext.assertTrue(page.size() <= 7);
+          rows.addAll(page.rows());
+        });
+    }));
+  }
+
+  @Test
+  public void testPausedStream(TestContext testContext) {
+    insertMeasurements();
+    AtomicInteger served = serve();
+    Async async = testContext.async();
+    EventBusRows.requestStream(vertx, "measurements", "s1", null, 1).onComplete(testContext.asyncAssertSuccess(stream -> {
+      stream.pause();
+      AtomicInteger received = new AtomicInteger();
+      stream.handler(page -> received.incrementAndGet());
+      vertx.setTimer(200, id -> {
+        testContext.assertEquals(0, received.get());
+        stream.fetch(1);
+        vertx.setTimer(200, id2 -> {
+          testContext.assertEquals(1, received.get());
+          testContext.assertEquals(0, served.get());
+          stream.handler(null);
+          async.complete();
+        });
+      });
+    }));
+  }
+
+  @Test
+  public void testCancelledStream(TestContext testContext) {
+    insertMeasurements();
+    Async async = testContext.async();
+    vertx.eventBus().<String>consumer("measurements", message -> {
+      client.execute(SimpleStatement.newInstance(QUERY).setPageSize(7))
+        .flatMap(resultSet -> EventBusRows.replyWithStream(vertx, message, resultSet))
+        .onComplete(testContext.asyncAssertSuccess(v -> async.complete()));
+    });
+    EventBusRows.requestStream(vertx, "measurements", "s1").onComplete(testContext.asyncAssertSuccess(stream -> {
+      stream.handler(page -> stream.handler(null));
+    }));
+  }
+
+  @Test
+  public void testNotAStreamRequest(TestContext testContext) {
+    insertMeasurements();
+    vertx.eventBus().<String>consumer("measurements", message -> {
+      client.execute(QUERY)
+        .flatMap(resultSet -> EventBusRows.replyWithStream(vertx, message, resultSet))
+        .onComplete(testContext.asyncAssertFailure(t -> testContext.assertTrue(t instanceof IllegalArgumentException)));
+    });
+    vertx.eventBus().send("measurements", "s1");
+  }
+
+  private AtomicInteger serve() {
+    AtomicInteger done = new AtomicInteger();
+    vertx.eventBus().<String>consumer("measurements", message -> {
+      client.execute(SimpleStatement.newInstance(QUERY).setPageSize(7))
+        .flatMap(resultSet -> EventBusRows.replyWithStream(vertx, message, resultSet))
+        .onComplete(ar -> done.incrementAndGet());
+    });
+    return done;
+  }
+
+  private void insertMeasurements() {
+    initializeMeasurementsKeyspace();
+    for (int i = 0; i < 20; i++) {
+      String value = i % 4 == 0 ? "null" : String.valueOf(i * 1.5);
+      embeddedServerSession.execute("insert into measurements.by_sensor (sensor, ts, value, quality, unit, tags) values ('s1', " + i + ", " + value + ", " + i + ", 'unit" + (i % 3) + "', {'a', 'b" + i + "'})");
+    }
+  }
+}
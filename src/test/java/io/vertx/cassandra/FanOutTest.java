@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RunWith(VertxUnitRunner.class)
+public class FanOutTest extends CassandraClientTestBase {
+
+  private static final String SELECT = "select sensor, ts from measurements.by_sensor where sensor = ?";
+
+  private List<List<String>> insertMeasurements(int sensors) {
+    initializeMeasurementsKeyspace();
+    List<List<String>> values = new ArrayList<>();
+    for (int i = 0; i < sensors; i++) {
+      // sensor i has i rows
+      for (int ts = 0; ts < i; ts++) {
+        embeddedServerSession.execute("insert into measurements.by_sensor (sensor, ts) values ('s" + i + "', " + ts + ")");
+      }
+      values.add(Collections.singletonList("s" + i));
+    }
+    return values;
+  }
+
+  @Test
+  public void testExecuteAll(TestContext testContext) {
+    List<List<String>> values = insertMeasurements(20);
+    Async async = testContext.async();
+    client.prepare(SELECT, testContext.asyncAssertSuccess(prepared -> {
+      client.executeAll(prepared, values, 3, testContext.asyncAssertSuccess(result -> {
+        testContext.assertEquals(20, result.size());
+        testContext.assertEquals(0, result.failureCount());
+        for (int i = 0; i < 20; i++) {
+          testContext.assertEquals(values.get(i), result.values(i));
+          testContext.assertTrue(result.succeeded(i));
+          testContext.assertEquals(i, result.rows(i).size());
+          for (Row row : result.rows(i)) {
+            testContext.assertEquals("s" + i, row.getString("sensor"));
+          }
+        }
+        testContext.assertEquals(190, result.rows().size());
+        async.countDown();
+      }));
+    }));
+  }
+
+  @Test
+  public void testExecuteAllPartialFailure(TestContext testContext) {
+    initializeMeasurementsKeyspace();
+    embeddedServerSession.execute("insert into measurements.by_sensor (sensor, ts) values ('s1', 1)");
+    // the second set of values has too many values
+    List<List<String>> values = Arrays.asList(Collections.singletonList("s1"), Arrays.asList("s1", "s2"), Collections.singletonList("s3"));
+    Async async = testContext.async();
+    client.prepare(SELECT, testContext.asyncAssertSuccess(prepared -> {
+      client.executeAll(prepared, values, 2, testContext.asyncAssertSuccess(result -> {
+        testContext.assertEquals(1, result.failureCount());
+        testContext.assertEquals(1, result.rows(0).size());
+        testContext.assertFalse(result.succeeded(1));
+        testContext.assertNull(result.rows(1));
+        testContext.assertTrue(result.cause(1) instanceof IllegalArgumentException);
+        testContext.assertEquals(0, result.rows(2).size());
+        testContext.assertEquals(1, result.rows().size());
+        async.countDown();
+      }));
+    }));
+  }
+
+  @Test
+  public void testExecuteAllStream(TestContext testContext) {
+    List<List<String>> values = insertMeasurements(20);
+    Async async = testContext.async();
+    client.prepare(SELECT, testContext.asyncAssertSuccess(prepared -> {
+      ReadStream<Row> stream = client.executeAllStream(prepared, values, 4);
+      Set<String> rows = new HashSet<>();
+      stream.pause();
+      stream.exceptionHandler(testContext::fail).handler(row -> {
+        testContext.assertTrue(rows.add(row.getString("sensor") + ":" + row.getLong("ts")));
+        vertx.setTimer(1, id -> stream.fetch(1));
+      }).endHandler(v -> {
+        testContext.assertEquals(190, rows.size());
+        async.countDown();
+      });
+      stream.fetch(1);
+    }));
+  }
+
+  @Test
+  public void testExecuteAllStreamFailure(TestContext testContext) {
+    initializeMeasurementsKeyspace();
+    List<List<String>> values = Arrays.asList(Collections.singletonList("s1"), Arrays.asList("s1", "s2"));
+    Async async = testContext.async();
+    client.prepare(SELECT, testContext.asyncAssertSuccess(prepared -> {
+      client.executeAllStream(prepared, values, 1)
+        .exceptionHandler(t -> async.countDown())
+        .endHandler(v -> testContext.fail())
+        .handler(row -> testContext.fail());
+    }));
+  }
+}
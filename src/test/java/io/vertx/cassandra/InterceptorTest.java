@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(VertxUnitRunner.class)
+public class InterceptorTest extends CassandraClientTestBase {
+
+  private final List<String> invocations = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicInteger pages = new AtomicInteger();
+
+  @Override
+  protected CassandraClientOptions createClientOptions() {
+    return super.createClientOptions()
+      .addInterceptor(new CassandraInterceptor() {
+        @Override
+        public Future<AsyncResultSet> execute(Statement statement, Execution next) {
+          invocations.add("first");
+          return next.execute(statement);
+        }
+      })
+      .addInterceptor(new CassandraInterceptor() {
+        @Override
+        public Future<AsyncResultSet> execute(Statement statement, Execution next) {
+          invocations.add("second");
+          if (statement instanceof SimpleStatement && ((SimpleStatement) statement).getQuery().contains("forbidden")) {
+            return Future.failedFuture("short-circuited");
+          }
+          // make sure several pages are fetched
+          return next.execute(statement.setPageSize(3));
+        }
+
+        @Override
+        public AsyncResultSet page(Statement statement, AsyncResultSet page) {
+          pages.incrementAndGet();
+          return page;
+        }
+      });
+  }
+
+  @Test
+  public void testInterceptorsInvokedInOrder(TestContext testContext) {
+    client.execute("select release_version from system.local", testContext.asyncAssertSuccess(rs -> {
+      testContext.assertEquals(2, invocations.size());
+      testContext.assertEquals("first", invocations.get(0));
+      testContext.assertEquals("second", invocations.get(1));
+      testContext.assertEquals(1, pages.get());
+    }));
+  }
+
+  @Test
+  public void testShortCircuit(TestContext testContext) {
+    client.execute("select forbidden from system.local", testContext.asyncAssertFailure(t -> {
+      testContext.assertEquals("short-circuited", t.getMessage());
+    }));
+  }
+
+  @Test
+  public void testModifiedStatementAndPages(TestContext testContext) throws Exception {
+    initializeRandomStringKeyspace();
+    insertRandomStrings(10);
+    String query = "select random_string from random_strings.random_string_by_first_letter where first_letter = 'A'";
+    client.executeWithFullFetch(query, testContext.asyncAssertSuccess(rows -> {
+      testContext.assertEquals(10, rows.size());
+      // 10 rows with a page size of 3
+      testContext.assertEquals(4, pages.get());
+    }));
+  }
+}
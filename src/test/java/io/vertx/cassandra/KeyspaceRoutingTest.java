@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public class KeyspaceRoutingTest extends CassandraClientTestBase {
+
+  private void initializeTenants() {
+    for (String tenant : new String[]{"tenant_a", "tenant_b"}) {
+      embeddedServerSession.execute("drop keyspace if exists " + tenant);
+      embeddedServerSession.execute("create keyspace " + tenant + " WITH replication={'class' : 'SimpleStrategy', 'replication_factor':1} AND durable_writes = false");
+      embeddedServerSession.execute("create table " + tenant + ".users (id int primary key, name text)");
+    }
+  }
+
+  @Test
+  public void testSimpleStatements(TestContext testContext) {
+    initializeTenants();
+    CassandraClient tenantA = client.withKeyspace("tenant_a");
+    CassandraClient tenantB = client.withKeyspace("tenant_b");
+    Async async = testContext.async();
+    tenantA.execute("insert into users (id, name) values (1, 'alice')")
+      .flatMap(v -> tenantB.execute("insert into users (id, name) values (1, 'bob')"))
+      .flatMap(v -> tenantA.executeWithFullFetch("select name from users where id = 1"))
+      .onComplete(testContext.asyncAssertSuccess(rows -> {
+        testContext.assertEquals("alice", rows.get(0).getString("name"));
+        testContext.assertEquals("bob", embeddedServerSession.execute("select name from tenant_b.users where id = 1").one().getString("name"));
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testPreparedStatementsArePerKeyspace(TestContext testContext) {
+    initializeTenants();
+    embeddedServerSession.execute("insert into tenant_a.users (id, name) values (1, 'alice')");
+    embeddedServerSession.execute("insert into tenant_b.users (id, name) values (1, 'bob')");
+    String query = "select name from users where id = ?";
+    Async async = testContext.async();
+    client.withKeyspace("tenant_a").prepare(query, testContext.asyncAssertSuccess(preparedA -> {
+      client.withKeyspace("tenant_b").prepare(query, testContext.asyncAssertSuccess(preparedB -> {
+        testContext.assertNotEquals(preparedA.getQuery(), preparedB.getQuery());
+        client.withKeyspace("tenant_a").prepare(query, testContext.asyncAssertSuccess(cached -> {
+          testContext.assertTrue(cached == preparedA);
+          client.execute(preparedB.bind(1), testContext.asyncAssertSuccess(rs -> {
+            testContext.assertEquals("bob", rs.one().getString("name"));
+            async.complete();
+          }));
+        }));
+      }));
+    }));
+  }
+
+  @Test
+  public void testBatchAndStream(TestContext testContext) {
+    initializeTenants();
+    CassandraClient tenantB = client.withKeyspace("tenant_b");
+    BatchStatement batch = BatchStatement.newInstance(DefaultBatchType.LOGGED)
+      .add(SimpleStatement.newInstance("insert into users (id, name) values (1, 'bob')"))
+      .add(SimpleStatement.newInstance("insert into users (id, name) values (2, 'barbara')"));
+    Async async = testContext.async();
+    tenantB.execute(batch, testContext.asyncAssertSuccess(rs -> {
+      tenantB.queryStream("select name from users", testContext.asyncAssertSuccess(stream -> {
+        int[] count = {0};
+        stream.endHandler(v -> {
+          testContext.assertEquals(2, count[0]);
+          async.complete();
+        });
+        stream.handler(row -> count[0]++);
+      }));
+    }));
+  }
+
+  @Test
+  public void testQualifiedQueriesAreNotRouted(TestContext testContext) {
+    initializeTenants();
+    embeddedServerSession.execute("insert into tenant_b.users (id, name) values (1, 'bob')");
+    client.withKeyspace("tenant_a").executeWithFullFetch("select name from tenant_b.users where id = 1", testContext.asyncAssertSuccess(rows -> {
+      testContext.assertEquals("bob", rows.get(0).getString("name"));
+    }));
+  }
+
+  @Test
+  public void testClosingViewKeepsSession(TestContext testContext) {
+    initializeTenants();
+    CassandraClient tenantA = client.withKeyspace("tenant_a");
+    Async async = testContext.async();
+    client.execute("select release_version from system.local", testContext.asyncAssertSuccess(v -> {
+      tenantA.close(testContext.asyncAssertSuccess(closed -> {
+        testContext.assertTrue(client.isConnected());
+        tenantA.execute("select * from users", testContext.asyncAssertSuccess(rs -> async.complete()));
+      }));
+    }));
+  }
+}
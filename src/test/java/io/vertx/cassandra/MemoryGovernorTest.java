@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.core.VertxException;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public class MemoryGovernorTest extends CassandraClientTestBase {
+
+  private static final String QUERY = "select random_string from random_strings.random_string_by_first_letter where first_letter = 'A'";
+
+  @Override
+  protected CassandraClientOptions createClientOptions() {
+    return super.createClientOptions()
+      .setMaxBufferedBytes(1)
+      .setAdmissionTimeout(0)
+      .setPausedStreamTimeout(500);
+  }
+
+  @Test
+  public void testRejectWhileStreamHoldsBudget(TestContext testContext) throws Exception {
+    initializeRandomStringKeyspace();
+    insertRandomStrings(10);
+    Statement statement = SimpleStatement.newInstance(QUERY).setPageSize(2);
+    Async async = testContext.async();
+    client.queryStream(statement, testContext.asyncAssertSuccess(stream -> {
+      stream.pause();
+      stream.handler(row -> {
+      });
+      client.executeWithFullFetch(QUERY, testContext.asyncAssertFailure(t -> {
+        testContext.assertTrue(t instanceof VertxException);
+        stream.endHandler(v -> {
+          client.executeWithFullFetch(QUERY, testContext.asyncAssertSuccess(rows -> {
+            testContext.assertEquals(10, rows.size());
+            async.countDown();
+          }));
+        });
+        stream.resume();
+      }));
+    }));
+  }
+
+  @Test
+  public void testWaitForBudget(TestContext testContext) throws Exception {
+    initializeRandomStringKeyspace();
+    insertRandomStrings(10);
+    CassandraClient waitingClient = CassandraClient.create(vertx, createClientOptions().setAdmissionTimeout(5000));
+    Async async = testContext.async();
+    waitingClient.queryStream(QUERY, testContext.asyncAssertSuccess(stream -> {
+      stream.pause();
+      stream.handler(row -> {
+      });
+      waitingClient.executeWithFullFetch(QUERY, testContext.asyncAssertSuccess(rows -> {
+        testContext.assertEquals(10, rows.size());
+        waitingClient.close(testContext.asyncAssertSuccess(v -> async.countDown()));
+      }));
+      vertx.setTimer(100, id -> stream.resume());
+    }));
+  }
+
+  @Test
+  public void testPausedStreamTimeout(TestContext testContext) throws Exception {
+    initializeRandomStringKeyspace();
+    insertRandomStrings(10);
+    Async async = testContext.async();
+    client.queryStream(QUERY, testContext.asyncAssertSuccess(stream -> {
+      stream.pause();
+      stream.exceptionHandler(t -> {
+        client.executeWithFullFetch(QUERY, testContext.asyncAssertSuccess(rows -> async.countDown()));
+      });
+      stream.handler(row -> testContext.fail());
+    }));
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+@RunWith(VertxUnitRunner.class)
+public class MergedStreamTest extends CassandraClientTestBase {
+
+  private static final Comparator<Row> BY_TS = Comparator.comparingLong(row -> row.getLong("ts"));
+
+  private void insertMeasurements() {
+    initializeMeasurementsKeyspace();
+    // s1 gets multiples of 3, s2 of 3 plus 1, s3 of 3 plus 2
+    for (int ts = 0; ts < 60; ts++) {
+      embeddedServerSession.execute("insert into measurements.by_sensor (sensor, ts, value) values ('s" + (ts % 3 + 1) + "', " + ts + ", " + ts + ".0)");
+    }
+  }
+
+  private List<Statement> statements(String... sensors) {
+    List<Statement> statements = new ArrayList<>();
+    for (String sensor : sensors) {
+      statements.add(SimpleStatement.newInstance("select sensor, ts from measurements.by_sensor where sensor = ?", sensor)
+        .setPageSize(4));
+    }
+    return statements;
+  }
+
+  @Test
+  public void testMergedStream(TestContext testContext) {
+    insertMeasurements();
+    Async async = testContext.async();
+    client.mergedStream(statements("s1", "s2", "s3"), BY_TS, 0, testContext.asyncAssertSuccess(stream -> {
+      List<Long> timestamps = Collections.synchronizedList(new ArrayList<>());
+      stream.exceptionHandler(testContext::fail).handler(row -> {
+        long ts = row.getLong("ts");
+        testContext.assertEquals("s" + (ts % 3 + 1), row.getString("sensor"));
+        timestamps.add(ts);
+      }).endHandler(v -> {
+        testContext.assertEquals(60, timestamps.size());
+        for (int i = 0; i < 60; i++) {
+          testContext.assertEquals((long) i, timestamps.get(i));
+        }
+        async.countDown();
+      });
+    }));
+  }
+
+  @Test
+  public void testMergedStreamLimit(TestContext testContext) {
+    insertMeasurements();
+    Async async = testContext.async();
+    client.mergedStream(statements("s1", "s2", "s3"), BY_TS, 10, testContext.asyncAssertSuccess(stream -> {
+      List<Long> timestamps = Collections.synchronizedList(new ArrayList<>());
+      stream.exceptionHandler(testContext::fail).handler(row -> timestamps.add(row.getLong("ts"))).endHandler(v -> {
+        testContext.assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), timestamps);
+        async.countDown();
+      });
+    }));
+  }
+
+  @Test
+  public void testPausedMergedStream(TestContext testContext) {
+    insertMeasurements();
+    Async async = testContext.async();
+    // s4 has no rows
+    client.mergedStream(statements("s3", "s4", "s1"), BY_TS, 0, testContext.asyncAssertSuccess(stream -> {
+      List<Long> timestamps = new ArrayList<>();
+      stream.pause();
+      stream.exceptionHandler(testContext::fail).handler(row -> {
+        timestamps.add(row.getLong("ts"));
+        vertx.setTimer(1, id -> stream.fetch(1));
+      }).endHandler(v -> {
+        testContext.assertEquals(40, timestamps.size());
+        for (int i = 1; i < timestamps.size(); i++) {
+          testContext.assertTrue(timestamps.get(i - 1) < timestamps.get(i));
+        }
+        async.countDown();
+      });
+      stream.fetch(1);
+    }));
+  }
+
+  @Test
+  public void testMergedStreamFailure(TestContext testContext) {
+    List<Statement> statements = statements("s1");
+    statements.add(SimpleStatement.newInstance("select ts from measurements.missing"));
+    initializeMeasurementsKeyspace();
+    client.mergedStream(statements, BY_TS, 0, testContext.asyncAssertFailure());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+@RunWith(VertxUnitRunner.class)
+public class PackedRowsTest extends CassandraClientTestBase {
+
+  private static final String QUERY = "select sensor, ts, value, quality, unit, tags from measurements.by_sensor where sensor = 's1'";
+
+  @Override
+  protected CassandraClientOptions createClientOptions() {
+    return super.createClientOptions().setPackedRows(true);
+  }
+
+  @Test
+  public void testExecuteWithFullFetch(TestContext testContext) {
+    insertMeasurements();
+    SimpleStatement statement = SimpleStatement.newInstance(QUERY).setPageSize(7);
+    client.executeWithFullFetch(statement, testContext.asyncAssertSuccess(rows -> {
+      checkRows(testContext, embeddedServerSession.execute(QUERY).all(), rows);
+    }));
+  }
+
+  @Test
+  public void testCollector(TestContext testContext) {
+    insertMeasurements();
+    SimpleStatement statement = SimpleStatement.newInstance(QUERY).setPageSize(7);
+    client.execute(statement, PackedRows.toList(), testContext.asyncAssertSuccess(rows -> {
+      checkRows(testContext, embeddedServerSession.execute(QUERY).all(), rows);
+    }));
+  }
+
+  @Test
+  public void testPack(TestContext testContext) {
+    insertMeasurements();
+    List<Row> packed = PackedRows.pack(embeddedServerSession.execute(QUERY));
+    checkRows(testContext, embeddedServerSession.execute(QUERY).all(), packed);
+    try {
+      packed.remove(0);
+      testContext.fail();
+    } catch (UnsupportedOperationException ignore) {
+    }
+  }
+
+  private void insertMeasurements() {
+    initializeMeasurementsKeyspace();
+    for (int i = 0; i < 20; i++) {
+      String value = i % 4 == 0 ? "null" : String.valueOf(i * 1.5);
+      embeddedServerSession.execute("insert into measurements.by_sensor (sensor, ts, value, quality, unit, tags) values ('s1', " + i + ", " + value + ", " + i + ", 'unit" + (i % 3) + "', {'a', 'b" + i + "'})");
+    }
+  }
+
+  private static void checkRows(TestContext testContext, List<Row> expected, List<Row> actual) {
+    testContext.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Row e = expected.get(i);
+      Row a = actual.get(i);
+      testContext.assertEquals(e.size(), a.size());
+      testContext.assertEquals(e.getString("sensor"), a.getString("sensor"));
+      testContext.assertEquals(e.getLong("ts"), a.getLong("ts"));
+      testContext.assertEquals(e.isNull("value"), a.isNull("value"));
+      testContext.assertEquals(e.getDouble("value"), a.getDouble("value"));
+      testContext.assertEquals(e.getInt(3), a.getInt(3));
+      testContext.assertEquals(e.getString(4), a.getString(4));
+      testContext.assertEquals(e.getSet("tags", String.class), a.getSet("tags", String.class));
+      testContext.assertEquals(e.getBytesUnsafe(1), a.getBytesUnsafe(1));
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.protocol.internal.response.error.ReadTimeout;
+import io.vertx.cassandra.stub.StubCassandraServer;
+import io.vertx.cassandra.stub.StubQuery;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Slice reads of a partition, against a {@link StubCassandraServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class PartitionReaderTest extends StubServerTestBase {
+
+  private static final String SELECT = "SELECT ck, v FROM ks.events WHERE pk = ?";
+
+  private PartitionReaderOptions options;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    options = new PartitionReaderOptions()
+      .setTable("ks.events")
+      .addPartitionKeyColumn("pk")
+      .addClusteringColumn("ck")
+      .addColumn("ck")
+      .addColumn("v")
+      .setInitialSliceSize(2)
+      .setMinSliceSize(2)
+      .setMaxSliceSize(2);
+  }
+
+  private StubQuery script(String restriction, int bounds, int... values) {
+    StubQuery query = server.when(SELECT + restriction + " LIMIT ?").variable("pk", DataTypes.TEXT);
+    for (int i = 0; i < bounds; i++) {
+      query.variable("ck", DataTypes.INT);
+    }
+    query.variable("[limit]", DataTypes.INT)
+      .column("ck", DataTypes.INT)
+      .column("v", DataTypes.TEXT);
+    for (int value : values) {
+      query.row(value, "v" + value);
+    }
+    return query;
+  }
+
+  @Test
+  public void testReadSlices(TestContext testContext) {
+    StubQuery first = script("", 0, 1, 2);
+    // the stub ignores the bounds: the second slice is shorter, so it is the last one
+    StubQuery next = script(" AND ck > ?", 1, 3);
+    PartitionReader reader = PartitionReader.create(vertx, client, options);
+    Async async = testContext.async();
+    List<Integer> values = new ArrayList<>();
+    reader.read(Collections.singletonList("p1")).exceptionHandler(testContext::fail).endHandler(v -> {
+      testContext.assertEquals(Arrays.asList(1, 2, 3), values);
+      testContext.assertEquals(1, first.executions());
+      testContext.assertEquals(1, next.executions());
+      async.countDown();
+    }).handler(row -> values.add(row.getInt("ck")));
+  }
+
+  @Test
+  public void testReadOnDemand(TestContext testContext) {
+    script("", 0, 1, 2);
+    script(" AND ck > ?", 1, 3);
+    PartitionReader reader = PartitionReader.create(vertx, client, options);
+    Async async = testContext.async();
+    List<Integer> values = new ArrayList<>();
+    ReadStream<Row> stream = reader.read(Collections.singletonList("p1"));
+    stream.pause();
+    stream.exceptionHandler(testContext::fail).endHandler(v -> {
+      testContext.assertEquals(Arrays.asList(1, 2, 3), values);
+      async.countDown();
+    }).handler(row -> {
+      values.add(row.getInt("ck"));
+      vertx.setTimer(10, id -> stream.fetch(1));
+    });
+    stream.fetch(1);
+  }
+
+  @Test
+  public void testReadSplits(TestContext testContext) {
+    StubQuery head = script(" AND ck < ?", 1, 1);
+    StubQuery middle = script(" AND ck >= ? AND ck < ?", 2, 10);
+    StubQuery tail = script(" AND ck >= ?", 1, 20);
+    PartitionReader reader = PartitionReader.create(vertx, client, options);
+    Async async = testContext.async();
+    List<Integer> values = new ArrayList<>();
+    List<List<Object>> splits = Arrays.asList(Collections.singletonList(10), Collections.singletonList(20));
+    reader.read(Collections.singletonList("p1"), splits).exceptionHandler(testContext::fail).endHandler(v -> {
+      Collections.sort(values);
+      testContext.assertEquals(Arrays.asList(1, 10, 20), values);
+      testContext.assertEquals(1, head.executions());
+      testContext.assertEquals(1, middle.executions());
+      testContext.assertEquals(1, tail.executions());
+      async.countDown();
+    }).handler(row -> values.add(row.getInt("ck")));
+  }
+
+  @Test
+  public void testReadDescending(TestContext testContext) {
+    StubQuery head = script(" AND ck > ?", 1);
+    StubQuery first = script(" AND ck <= ? AND ck > ?", 2, 20, 19);
+    StubQuery next = script(" AND ck < ? AND ck > ?", 2, 18);
+    StubQuery tail = script(" AND ck <= ?", 1, 10);
+    options.setDescending(true).setParallelism(1);
+    PartitionReader reader = PartitionReader.create(vertx, client, options);
+    Async async = testContext.async();
+    List<Integer> values = new ArrayList<>();
+    List<List<Object>> splits = Arrays.asList(Collections.singletonList(20), Collections.singletonList(10));
+    reader.read(Collections.singletonList("p1"), splits).exceptionHandler(testContext::fail).endHandler(v -> {
+      testContext.assertEquals(Arrays.asList(20, 19, 18, 10), values);
+      testContext.assertEquals(1, head.executions());
+      testContext.assertEquals(1, first.executions());
+      testContext.assertEquals(1, next.executions());
+      testContext.assertEquals(1, tail.executions());
+      async.countDown();
+    }).handler(row -> values.add(row.getInt("ck")));
+  }
+
+  @Test
+  public void testReadTimeoutShrinksSlices(TestContext testContext) {
+    StubQuery first = script("", 0, 1, 2)
+      .error(new ReadTimeout("timeout", ConsistencyLevel.ONE.getProtocolCode(), 0, 1, false));
+    options.setInitialSliceSize(4).setMinSliceSize(1).setMaxSliceSize(4);
+    PartitionReader reader = PartitionReader.create(vertx, client, options);
+    Async async = testContext.async();
+    reader.read(Collections.singletonList("p1")).exceptionHandler(t -> {
+      testContext.assertTrue(t instanceof ReadTimeoutException);
+      // 4, 2 then 1 row
+      testContext.assertEquals(3, first.executions());
+      testContext.assertEquals(1, reader.sliceSize());
+      async.countDown();
+    }).handler(row -> testContext.fail());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingClusteringColumns() {
+    PartitionReader.create(vertx, client, options.setClusteringColumns(new ArrayList<>()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongPartitionKey() {
+    PartitionReader.create(vertx, client, options).read(Arrays.asList("p1", "p2"));
+  }
+}
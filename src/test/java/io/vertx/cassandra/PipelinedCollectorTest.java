@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import io.vertx.cassandra.stub.StubCassandraServer;
+import io.vertx.cassandra.stub.StubQuery;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Collector queries accumulating pages on the worker pool, against a {@link StubCassandraServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class PipelinedCollectorTest extends StubServerTestBase {
+
+  private static final String SELECT = "select sensor, ts from measurements.by_sensor";
+
+  private StubQuery query;
+
+  @Override
+  protected CassandraClientOptions createClientOptions() {
+    return super.createClientOptions().setCollectorParallelism(2);
+  }
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    query = server.when(SELECT)
+      .column("sensor", DataTypes.TEXT)
+      .column("ts", DataTypes.BIGINT)
+      .pageSize(3);
+    for (long ts = 0; ts < 10; ts++) {
+      query.row("s1", ts);
+    }
+  }
+
+  @Test
+  public void testPageOrder(TestContext testContext) {
+    Collector<Row, ?, List<Long>> collector = Collectors.mapping(row -> {
+      testContext.assertTrue(Context.isOnWorkerThread());
+      return row.getLong("ts");
+    }, Collectors.toList());
+    Async async = testContext.async();
+    vertx.runOnContext(v -> {
+      Context context = vertx.getOrCreateContext();
+      client.execute(SELECT, collector, testContext.asyncAssertSuccess(timestamps -> {
+        testContext.assertEquals(context, Vertx.currentContext());
+        testContext.assertEquals(LongStream.range(0, 10).boxed().collect(Collectors.toList()), timestamps);
+        testContext.assertEquals(4, query.executions());
+        async.countDown();
+      }));
+    });
+  }
+
+  @Test
+  public void testFetchWhileAccumulating(TestContext testContext) {
+    CountDownLatch latch = new CountDownLatch(1);
+    Collector<Row, ?, List<Long>> collector = Collectors.mapping(row -> {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      return row.getLong("ts");
+    }, Collectors.toList());
+    Async async = testContext.async();
+    client.execute(SELECT, collector, testContext.asyncAssertSuccess(timestamps -> {
+      testContext.assertEquals(LongStream.range(0, 10).boxed().collect(Collectors.toList()), timestamps);
+      async.countDown();
+    }));
+    vertx.setTimer(200, id -> {
+      // 2 pages accumulating, and the next one fetched
+      testContext.assertEquals(3, query.executions());
+      latch.countDown();
+    });
+  }
+
+  @Test
+  public void testFinisher(TestContext testContext) {
+    Async async = testContext.async();
+    client.execute(SELECT, Collectors.summingLong(row -> row.getLong("ts")), testContext.asyncAssertSuccess(sum -> {
+      testContext.assertEquals(45L, sum);
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testAccumulatorFailure(TestContext testContext) {
+    Collector<Row, List<Long>, List<Long>> collector = Collector.of(ArrayList::new, (list, row) -> {
+      if (row.getLong("ts") == 5) {
+        throw new IllegalStateException("boom");
+      }
+      list.add(row.getLong("ts"));
+    }, (left, right) -> {
+      left.addAll(right);
+      return left;
+    });
+    Async async = testContext.async();
+    client.execute(SELECT, collector, testContext.asyncAssertFailure(t -> {
+      testContext.assertEquals("boom", t.getMessage());
+      async.countDown();
+    }));
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+@RunWith(VertxUnitRunner.class)
+public class PreparedQueryTest extends CassandraClientTestBase {
+
+  private static final String INSERT = "insert into measurements.by_sensor (sensor, ts, value, quality, unit, tags) values (?, ?, ?, ?, ?, ?)";
+
+  @Test
+  public void testReusedBinding(TestContext testContext) {
+    initializeMeasurementsKeyspace();
+    Async async = testContext.async();
+    client.prepareQuery(INSERT, testContext.asyncAssertSuccess(query -> {
+      PreparedQuery.Binding binding = query.binding()
+        .setString(0, "s1")
+        .setLong(1, 1)
+        .setDouble(2, 1.5)
+        .setInt(3, 7)
+        .setString(4, "celsius")
+        .setObject(5, Collections.singleton("t1"));
+      binding.execute(testContext.asyncAssertSuccess(rs1 -> {
+        // only the changed values are set again
+        binding.setLong(1, 2).setDouble(2, 2.5).setNull(4);
+        binding.execute(testContext.asyncAssertSuccess(rs2 -> {
+          client.executeWithFullFetch("select ts, value, quality, unit, tags from measurements.by_sensor where sensor = 's1'", testContext.asyncAssertSuccess(rows -> {
+            testContext.assertEquals(2, rows.size());
+            Row first = rows.get(0);
+            testContext.assertEquals(1L, first.getLong("ts"));
+            testContext.assertEquals(1.5, first.getDouble("value"));
+            testContext.assertEquals(7, first.getInt("quality"));
+            testContext.assertEquals("celsius", first.getString("unit"));
+            testContext.assertEquals(Collections.singleton("t1"), first.getSet("tags", String.class));
+            Row second = rows.get(1);
+            testContext.assertEquals(2L, second.getLong("ts"));
+            testContext.assertEquals(2.5, second.getDouble("value"));
+            testContext.assertEquals(7, second.getInt("quality"));
+            testContext.assertNull(second.getString("unit"));
+            async.countDown();
+          }));
+        }));
+      }));
+    }));
+  }
+
+  @Test
+  public void testRoutingKey(TestContext testContext) {
+    initializeMeasurementsKeyspace();
+    Async async = testContext.async();
+    client.prepareQuery(INSERT, testContext.asyncAssertSuccess(query -> {
+      BoundStatement statement = query.binding().setString(0, "s1").setLong(1, 1).statement();
+      BoundStatement expected = query.preparedStatement().bind("s1", 1L);
+      testContext.assertEquals(expected.getRoutingKey(), statement.getRoutingKey());
+      testContext.assertEquals(expected.getBytesUnsafe(1), statement.getBytesUnsafe(1));
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testStatementKeepsValues(TestContext testContext) {
+    initializeMeasurementsKeyspace();
+    Async async = testContext.async();
+    client.prepareQuery(INSERT, testContext.asyncAssertSuccess(query -> {
+      PreparedQuery.Binding binding = query.binding().setString(0, "s1").setLong(1, 1);
+      BoundStatement statement = binding.statement();
+      binding.setLong(1, 2);
+      testContext.assertEquals(1L, statement.getLong(1));
+      testContext.assertEquals(2L, binding.statement().getLong(1));
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testWrongType(TestContext testContext) {
+    initializeMeasurementsKeyspace();
+    Async async = testContext.async();
+    client.prepareQuery(INSERT, testContext.asyncAssertSuccess(query -> {
+      PreparedQuery.Binding binding = query.binding();
+      try {
+        binding.setInt(1, 1);
+        testContext.fail();
+      } catch (IllegalArgumentException expected) {
+      }
+      try {
+        binding.setObject(5, 1);
+        testContext.fail();
+      } catch (IllegalArgumentException expected) {
+      }
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testBindingReusedWhileExecuting(TestContext testContext) {
+    initializeMeasurementsKeyspace();
+    Async async = testContext.async();
+    client.prepareQuery(INSERT, testContext.asyncAssertSuccess(query -> {
+      PreparedQuery.Binding binding = query.binding().setString(0, "s1").setLong(1, 1);
+      Future<ResultSet> first = binding.execute();
+      Future<ResultSet> second = binding.setLong(1, 2).execute();
+      CompositeFuture.all(first, second)
+        .flatMap(v -> client.executeWithFullFetch("select ts from measurements.by_sensor where sensor = 's1'"))
+        .onComplete(testContext.asyncAssertSuccess(rows -> {
+          testContext.assertEquals(2, rows.size());
+          testContext.assertEquals(1L, rows.get(0).getLong("ts"));
+          testContext.assertEquals(2L, rows.get(1).getLong("ts"));
+          async.countDown();
+        }));
+    }));
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@RunWith(VertxUnitRunner.class)
+public class RateLimiterTest extends CassandraClientTestBase {
+
+  @Test
+  public void testWritesAreDelayed(TestContext testContext) {
+    initializeNamesKeyspace();
+    RateLimiter rateLimiter = RateLimiter.create(vertx)
+      .addLimit(new RateLimitOptions().setKeyspace("names").setTable("names_by_first_letter").setRowsPerSecond(10).setBurst(0.5))
+      .addLimit(new RateLimitOptions().setKeyspace("other").setRowsPerSecond(1));
+    CassandraClient limited = CassandraClient.create(vertx, createClientOptions().addInterceptor(rateLimiter));
+    Async async = testContext.async();
+    long start = System.nanoTime();
+    List<Future> futures = new ArrayList<>();
+    for (int i = 0; i < 15; i++) {
+      futures.add(limited.execute("insert into names.names_by_first_letter (first_letter, name) values ('A', 'Adam" + i + "')"));
+    }
+    CompositeFuture.all(futures).onComplete(testContext.asyncAssertSuccess(v -> {
+      testContext.assertTrue(NANOSECONDS.toMillis(System.nanoTime() - start) >= 800);
+      long readStart = System.nanoTime();
+      limited.executeWithFullFetch("select name from names.names_by_first_letter where first_letter = 'A'", testContext.asyncAssertSuccess(rows -> {
+        testContext.assertEquals(15, rows.size());
+        testContext.assertTrue(NANOSECONDS.toMillis(System.nanoTime() - readStart) < 800);
+        JsonObject statistics = rateLimiter.statistics();
+        JsonObject names = statistics.getJsonObject("names.names_by_first_letter");
+        testContext.assertEquals(15L, names.getLong("requests"));
+        testContext.assertTrue(names.getLong("delayed") >= 9);
+        testContext.assertTrue(names.getLong("maxWaitTime") >= 800);
+        testContext.assertEquals(0L, statistics.getJsonObject("other").getLong("requests"));
+        limited.close(testContext.asyncAssertSuccess(c -> async.countDown()));
+      }));
+    }));
+  }
+}
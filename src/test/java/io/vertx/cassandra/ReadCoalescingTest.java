@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.*;
+
+@RunWith(VertxUnitRunner.class)
+public class ReadCoalescingTest extends CassandraClientTestBase {
+
+  @Override
+  protected CassandraClientOptions createClientOptions() {
+    return super.createClientOptions().setCoalesceReads(true);
+  }
+
+  @Test
+  public void testIdenticalReadsAreCoalesced(TestContext testContext) throws Exception {
+    initializeRandomStringKeyspace();
+    insertRandomStrings(5);
+    String query = "select random_string from random_strings.random_string_by_first_letter where first_letter = ?";
+    Async async = testContext.async();
+    client.prepare(query, testContext.asyncAssertSuccess(prepared -> {
+      List<Future> futures = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        futures.add(client.execute(prepared.bind(i % 2 == 0 ? "A" : "B")));
+      }
+      CompositeFuture.all(futures).onComplete(testContext.asyncAssertSuccess(cf -> {
+        Set<ExecutionInfo> executions = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 20; i++) {
+          ResultSet resultSet = cf.resultAt(i);
+          executions.add(resultSet.getExecutionInfo());
+          testContext.assertEquals(5, resultSet.remaining());
+          String prefix = i % 2 == 0 ? "A" : "B";
+          for (Row row : resultSet.currentPage()) {
+            testContext.assertTrue(row.getString(0).startsWith(prefix));
+          }
+          testContext.assertEquals(0, resultSet.remaining());
+        }
+        // one execution per first letter
+        testContext.assertEquals(2, executions.size());
+        async.countDown();
+      }));
+    }));
+  }
+
+  @Test
+  public void testWritesAreNotCoalesced(TestContext testContext) {
+    initializeNamesKeyspace();
+    String insert = "insert into names.names_by_first_letter (first_letter, name) values (?, ?)";
+    Async async = testContext.async();
+    client.prepare(insert, testContext.asyncAssertSuccess(prepared -> {
+      List<Future> futures = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        futures.add(client.execute(prepared.bind("J", "John")));
+      }
+      CompositeFuture.all(futures).onComplete(testContext.asyncAssertSuccess(cf -> {
+        Set<ExecutionInfo> executions = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 5; i++) {
+          executions.add(cf.<ResultSet>resultAt(i).getExecutionInfo());
+        }
+        testContext.assertEquals(5, executions.size());
+        async.countDown();
+      }));
+    }));
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(VertxUnitRunner.class)
+public class StatementStatisticsTest extends CassandraClientTestBase {
+
+  private final StatementStatistics statistics = StatementStatistics.create(64);
+
+  @Override
+  protected CassandraClientOptions createClientOptions() {
+    return super.createClientOptions().addInterceptor(statistics);
+  }
+
+  @Test
+  public void testSimpleStatementsAreNormalized(TestContext testContext) {
+    initializeNamesKeyspace();
+    Async async = testContext.async();
+    List<Future> futures = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      futures.add(client.execute("insert into names.names_by_first_letter (first_letter, name) values ('A', 'Adam" + i + "')"));
+    }
+    CompositeFuture.all(futures).onComplete(testContext.asyncAssertSuccess(v -> {
+      JsonObject insert = find("insert into names.names_by_first_letter (first_letter, name) values (?, ?)");
+      testContext.assertEquals(10L, insert.getLong("calls"));
+      testContext.assertEquals(0L, insert.getLong("errors"));
+      testContext.assertEquals(10L, insert.getLong("pages"));
+      testContext.assertEquals(10L, insert.getJsonObject("latency").stream().mapToLong(e -> ((Number) e.getValue()).longValue()).sum());
+      async.complete();
+    }));
+  }
+
+  @Test
+  public void testPreparedStatementRowsAndPages(TestContext testContext) {
+    initializeNamesKeyspace();
+    insertNames("B", 5);
+    Async async = testContext.async();
+    client.prepare("select name from names.names_by_first_letter where first_letter = ?", testContext.asyncAssertSuccess(prepared -> {
+      client.executeWithFullFetch(prepared.bind("B").setPageSize(2), testContext.asyncAssertSuccess(rows -> {
+        JsonObject select = find("select name from names.names_by_first_letter where first_letter = ?");
+        testContext.assertNotNull(select.getString("preparedId"));
+        testContext.assertEquals(1L, select.getLong("calls"));
+        testContext.assertEquals(5L, select.getLong("rows"));
+        testContext.assertEquals(3L, select.getLong("pages"));
+        testContext.assertTrue(select.getLong("bytes") > 0);
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testErrorsAndBatches(TestContext testContext) {
+    initializeNamesKeyspace();
+    Async async = testContext.async();
+    BatchStatement batch = BatchStatement.newInstance(DefaultBatchType.UNLOGGED)
+      .add(SimpleStatement.newInstance("insert into names.names_by_first_letter (first_letter, name) values ('C', 'Carl')"))
+      .add(SimpleStatement.newInstance("insert into names.names_by_first_letter (first_letter, name) values ('C', 'Cecil')"));
+    client.execute(batch, testContext.asyncAssertSuccess(rs -> {
+      client.execute("select * from names.unknown where id = 1", testContext.asyncAssertFailure(t -> {
+        testContext.assertEquals(1L, find("BEGIN UNLOGGED BATCH insert into names.names_by_first_letter (first_letter, name) values (?, ?); APPLY BATCH").getLong("calls"));
+        testContext.assertEquals(1L, find("select * from names.unknown where id = ?").getLong("errors"));
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testEvictionAndReset(TestContext testContext) {
+    StatementStatistics small = StatementStatistics.create(16);
+    CassandraClient tracked = CassandraClient.create(vertx, super.createClientOptions().addInterceptor(small));
+    initializeNamesKeyspace();
+    Async async = testContext.async();
+    List<Future> futures = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      futures.add(tracked.execute("select name from names.names_by_first_letter where first_letter = 'A' limit " + (i + 1) + " allow filtering")
+        .otherwiseEmpty());
+      futures.add(tracked.execute("select name" + i + " from names.names_by_first_letter").otherwiseEmpty());
+    }
+    CompositeFuture.all(futures).onComplete(testContext.asyncAssertSuccess(v -> {
+      JsonObject json = small.statistics();
+      testContext.assertTrue(json.getJsonArray("statements").size() <= 16);
+      testContext.assertTrue(json.getLong("evicted") > 0);
+      small.reset();
+      testContext.assertEquals(0, small.statistics().getJsonArray("statements").size());
+      tracked.close(testContext.asyncAssertSuccess(c -> async.complete()));
+    }));
+  }
+
+  private JsonObject find(String query) {
+    JsonArray statements = statistics.statistics().getJsonArray("statements");
+    for (int i = 0; i < statements.size(); i++) {
+      JsonObject statement = statements.getJsonObject(i);
+      if (statement.getString("query").equals(query)) {
+        return statement;
+      }
+    }
+    throw new AssertionError("Statement not found: " + query + " in " + statements.encodePrettily());
+  }
+}
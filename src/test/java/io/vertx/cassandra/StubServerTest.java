@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.Error;
+import io.vertx.cassandra.stub.StubCassandraServer;
+import io.vertx.cassandra.stub.StubQuery;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the client against a {@link StubCassandraServer}, without an embedded Cassandra.
+ */
+@RunWith(VertxUnitRunner.class)
+public class StubServerTest extends StubServerTestBase {
+
+  @Test
+  public void testPaging(TestContext testContext) {
+    StubQuery query = server.when("select sensor, ts from measurements.by_sensor")
+      .column("sensor", DataTypes.TEXT)
+      .column("ts", DataTypes.BIGINT)
+      .pageSize(4);
+    for (long ts = 0; ts < 10; ts++) {
+      query.row("s1", ts);
+    }
+    Async async = testContext.async();
+    client.queryStream("select sensor, ts from measurements.by_sensor", testContext.asyncAssertSuccess(stream -> {
+      List<Long> timestamps = new ArrayList<>();
+      stream.exceptionHandler(testContext::fail).handler(row -> timestamps.add(row.getLong("ts"))).endHandler(v -> {
+        testContext.assertEquals(10, timestamps.size());
+        testContext.assertEquals(3, query.executions());
+        async.countDown();
+      });
+    }));
+  }
+
+  @Test
+  public void testPausedStream(TestContext testContext) {
+    StubQuery query = server.when("select ts from measurements.by_sensor")
+      .column("ts", DataTypes.BIGINT)
+      .pageSize(3);
+    for (long ts = 0; ts < 10; ts++) {
+      query.row(ts);
+    }
+    Async async = testContext.async();
+    client.queryStream("select ts from measurements.by_sensor", testContext.asyncAssertSuccess(stream -> {
+      List<Long> timestamps = new ArrayList<>();
+      stream.pause();
+      stream.exceptionHandler(testContext::fail).endHandler(v -> {
+        testContext.assertEquals(10, timestamps.size());
+        async.countDown();
+      }).handler(row -> timestamps.add(row.getLong("ts")));
+      // requested from another thread
+      new Thread(() -> {
+        for (int i = 0; i < 10; i++) {
+          stream.fetch(1);
+        }
+      }).start();
+    }));
+  }
+
+  @Test
+  public void testPreparedQuery(TestContext testContext) {
+    server.when("select value from measurements.by_sensor where sensor = ?")
+      .variable("sensor", DataTypes.TEXT)
+      .column("value", DataTypes.DOUBLE)
+      .row(1.5);
+    Async async = testContext.async();
+    client.prepare("select value from measurements.by_sensor where sensor = ?", testContext.asyncAssertSuccess(prepared -> {
+      client.executeWithFullFetch(prepared.bind("s1"), testContext.asyncAssertSuccess(rows -> {
+        testContext.assertEquals(1, rows.size());
+        testContext.assertEquals(1.5, rows.get(0).getDouble("value"));
+        async.countDown();
+      }));
+    }));
+  }
+
+  @Test
+  public void testLatency(TestContext testContext) {
+    server.when("insert into t (k) values (1)").latency(StubQuery.fixedLatency(200));
+    Async async = testContext.async();
+    long start = System.nanoTime();
+    client.execute("insert into t (k) values (1)", testContext.asyncAssertSuccess(rs -> {
+      testContext.assertTrue(System.nanoTime() - start >= 200_000_000L);
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testError(TestContext testContext) {
+    server.when("insert into t (k) values (1)").error(new Error(ProtocolConstants.ErrorCode.OVERLOADED, "overloaded"));
+    Async async = testContext.async();
+    client.execute("insert into t (k) values (1)", testContext.asyncAssertFailure(t -> {
+      testContext.assertTrue(t instanceof OverloadedException);
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testTimeout(TestContext testContext) {
+    StubQuery query = server.when("insert into t (k) values (1)").drop(1);
+    SimpleStatement statement = SimpleStatement.newInstance("insert into t (k) values (1)").setTimeout(Duration.ofMillis(100));
+    Async async = testContext.async();
+    client.execute(statement, testContext.asyncAssertFailure(t -> {
+      testContext.assertTrue(t instanceof DriverTimeoutException);
+      testContext.assertEquals(1, query.executions());
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testNoScript(TestContext testContext) {
+    client.execute("select * from missing", testContext.asyncAssertFailure());
+  }
+}
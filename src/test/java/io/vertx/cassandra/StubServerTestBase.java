@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import io.vertx.cassandra.stub.StubCassandraServer;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+
+/**
+ * Runs tests against a {@link StubCassandraServer} started for each test, without an embedded Cassandra.
+ */
+@RunWith(VertxUnitRunner.class)
+public abstract class StubServerTestBase {
+
+  protected Vertx vertx;
+  protected StubCassandraServer server;
+  protected CassandraClient client;
+
+  @Before
+  public void setUp() throws Exception {
+    vertx = Vertx.vertx();
+    server = StubCassandraServer.start();
+    client = CassandraClient.create(vertx, createClientOptions());
+  }
+
+  @After
+  public void tearDown(TestContext testContext) {
+    Async async = testContext.async();
+    client.close(testContext.asyncAssertSuccess(v -> async.countDown()));
+    async.await();
+    server.close();
+    vertx.close(testContext.asyncAssertSuccess());
+  }
+
+  protected CassandraClientOptions createClientOptions() {
+    return server.clientOptions();
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(VertxUnitRunner.class)
+public class TableDumpTest extends CassandraClientTestBase {
+
+  private static final String QUERY = "select sensor, ts, value, quality, unit, tags from measurements.%s";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testDumpAndRestore(TestContext testContext) throws Exception {
+    insertMeasurements();
+    List<String> expected = rows("by_sensor");
+    String path = temporaryFolder.newFile().getAbsolutePath();
+    // small blocks and pages, so that the dump spans several of them
+    TableDump tableDump = TableDump.create(vertx, client, new TableDumpOptions().setPageSize(7).setBlockSize(256).setMaxConcurrentWrites(4));
+    Async async = testContext.async();
+    tableDump.dump("measurements", "by_sensor", path, testContext.asyncAssertSuccess(dumped -> {
+      testContext.assertEquals(60L, dumped);
+      embeddedServerSession.execute("truncate measurements.by_sensor");
+      tableDump.restore(path, testContext.asyncAssertSuccess(restored -> {
+        testContext.assertEquals(60L, restored);
+        testContext.assertEquals(expected, rows("by_sensor"));
+        async.complete();
+      }));
+    }));
+  }
+
+  @Test
+  public void testRestoreToAnotherTable(TestContext testContext) throws Exception {
+    insertMeasurements();
+    embeddedServerSession.execute("create table measurements.copy (sensor text, ts bigint, value double, quality int, unit text, tags set<text>, primary key (sensor, ts))");
+    String path = temporaryFolder.newFile().getAbsolutePath();
+    TableDump tableDump = TableDump.create(vertx, client, new TableDumpOptions());
+    Async async = testContext.async();
+    tableDump.dump("measurements", "by_sensor", path)
+      .flatMap(dumped -> tableDump.restore(path, "measurements", "copy"))
+      .onComplete(testContext.asyncAssertSuccess(restored -> {
+        testContext.assertEquals(60L, restored);
+        testContext.assertEquals(rows("by_sensor"), rows("copy"));
+        async.complete();
+      }));
+  }
+
+  @Test
+  public void testDumpUnknownTable(TestContext testContext) throws Exception {
+    initializeMeasurementsKeyspace();
+    String path = temporaryFolder.newFile().getAbsolutePath();
+    TableDump tableDump = TableDump.create(vertx, client, new TableDumpOptions());
+    tableDump.dump("measurements", "unknown", path, testContext.asyncAssertFailure(t -> {
+      testContext.assertTrue(t instanceof IllegalArgumentException);
+    }));
+  }
+
+  @Test
+  public void testRestoreTruncatedFile(TestContext testContext) throws Exception {
+    insertMeasurements();
+    String path = temporaryFolder.newFile().getAbsolutePath();
+    TableDump tableDump = TableDump.create(vertx, client, new TableDumpOptions().setBlockSize(256));
+    Async async = testContext.async();
+    tableDump.dump("measurements", "by_sensor", path, testContext.asyncAssertSuccess(dumped -> {
+      Buffer content = vertx.fileSystem().readFileBlocking(path);
+      vertx.fileSystem().writeFileBlocking(path, content.getBuffer(0, content.length() - 20));
+      tableDump.restore(path, testContext.asyncAssertFailure(t -> async.complete()));
+    }));
+  }
+
+  private void insertMeasurements() {
+    initializeMeasurementsKeyspace();
+    for (int s = 0; s < 3; s++) {
+      for (int i = 0; i < 20; i++) {
+        String value = i % 4 == 0 ? "null" : String.valueOf(i * 1.5);
+        String tags = i % 5 == 0 ? "null" : "{'a', 'b" + i + "'}";
+        embeddedServerSession.execute("insert into measurements.by_sensor (sensor, ts, value, quality, unit, tags) values ('s" + s + "', " + i + ", " + value + ", " + i + ", 'unit" + (i % 3) + "', " + tags + ")");
+      }
+    }
+  }
+
+  private List<String> rows(String table) {
+    return embeddedServerSession.execute(String.format(QUERY, table)).all().stream()
+      .map(Row::getFormattedContents)
+      .sorted()
+      .collect(Collectors.toList());
+  }
+}
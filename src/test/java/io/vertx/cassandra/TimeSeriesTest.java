@@ -0,0 +1,278 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import io.vertx.cassandra.stub.StubCassandraServer;
+import io.vertx.cassandra.stub.StubQuery;
+import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Time series writes and reads, against a {@link StubCassandraServer}.
+ */
+@RunWith(VertxUnitRunner.class)
+public class TimeSeriesTest extends StubServerTestBase {
+
+  private static final String INSERT = "INSERT INTO metrics.samples (series_id, bucket, ts, value) VALUES (?, ?, ?, ?)";
+  private static final String SELECT = "SELECT ts, value FROM metrics.samples WHERE series_id = ? AND bucket = ? AND ts >= ? AND ts < ?";
+  private static final String TAIL = "SELECT ts, value FROM metrics.samples WHERE series_id = ? AND bucket = ? AND ts";
+
+  private TimeSeriesOptions options;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    options = new TimeSeriesOptions()
+      .setTable("metrics.samples")
+      .addValueColumn("value")
+      .setBucketGranularity(1000)
+      .setMaxBatchSize(3)
+      .setFlushInterval(60_000);
+  }
+
+  @Test
+  public void testBucket() {
+    TimeSeriesWriter writer = TimeSeriesWriter.create(vertx, client, options);
+    assertEquals(0, writer.bucket(999));
+    assertEquals(1000, writer.bucket(1999));
+    assertEquals(-1000, writer.bucket(-1));
+  }
+
+  @Test
+  public void testBatching(TestContext testContext) {
+    StubQuery insert = server.when(INSERT)
+      .variable("series_id", DataTypes.TEXT)
+      .variable("bucket", DataTypes.BIGINT)
+      .variable("ts", DataTypes.TIMESTAMP)
+      .variable("value", DataTypes.DOUBLE);
+    TimeSeriesWriter writer = TimeSeriesWriter.create(vertx, client, options);
+    List<Future> appends = new ArrayList<>();
+    for (long ts = 0; ts < 7; ts++) {
+      appends.add(writer.append("s1", ts, Collections.singletonList(1.0)));
+    }
+    appends.add(writer.append("s1", 1000, Collections.singletonList(1.0)));
+    appends.add(writer.append("s1", 1001, Collections.singletonList(1.0)));
+    Async async = testContext.async();
+    writer.flush().onComplete(testContext.asyncAssertSuccess(v -> {
+      for (Future append : appends) {
+        testContext.assertTrue(append.succeeded());
+      }
+      testContext.assertEquals(9, insert.executions());
+      List<Integer> batches = server.batches();
+      Collections.sort(batches);
+      // a single point is not batched
+      testContext.assertEquals(Arrays.asList(2, 3, 3), batches);
+      testContext.assertEquals(0, writer.size());
+      async.countDown();
+    }));
+  }
+
+  @Test
+  public void testWriteTimeuuid(TestContext testContext) {
+    StubQuery insert = server.when(INSERT)
+      .variable("series_id", DataTypes.TEXT)
+      .variable("bucket", DataTypes.BIGINT)
+      .variable("ts", DataTypes.TIMEUUID)
+      .variable("value", DataTypes.DOUBLE);
+    TimeSeriesWriter writer = TimeSeriesWriter.create(vertx, client, options);
+    Async async = testContext.async();
+    writer.append("s1", 0, Collections.singletonList(1.0), testContext.asyncAssertFailure(t -> {
+      testContext.assertTrue(t instanceof IllegalArgumentException);
+      testContext.assertEquals(0, insert.executions());
+      async.countDown();
+    }));
+    writer.flush();
+  }
+
+  @Test
+  public void testAppendAfterClose(TestContext testContext) {
+    TimeSeriesWriter writer = TimeSeriesWriter.create(vertx, client, options);
+    Async async = testContext.async();
+    writer.close(testContext.asyncAssertSuccess(v -> {
+      writer.append("s1", 0, Collections.singletonList(1.0), testContext.asyncAssertFailure(t -> async.countDown()));
+    }));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAppendWrongValueCount() {
+    TimeSeriesWriter.create(vertx, client, options).append("s1", 0, Arrays.asList(1.0, 2.0));
+  }
+
+  private StubQuery scriptSelect() {
+    return server.when(SELECT)
+      .variable("series_id", DataTypes.TEXT)
+      .variable("bucket", DataTypes.BIGINT)
+      .variable("ts", DataTypes.TIMESTAMP)
+      .variable("ts", DataTypes.TIMESTAMP)
+      .column("ts", DataTypes.TIMESTAMP)
+      .column("value", DataTypes.DOUBLE)
+      .row(Instant.ofEpochMilli(1), 1.0)
+      .row(Instant.ofEpochMilli(2), 2.0);
+  }
+
+  @Test
+  public void testRead(TestContext testContext) {
+    StubQuery select = scriptSelect();
+    TimeSeriesReader reader = TimeSeriesReader.create(vertx, client, options);
+    Async async = testContext.async();
+    List<Double> values = new ArrayList<>();
+    ReadStream<Row> stream = reader.read("s1", 500, 3000);
+    stream.exceptionHandler(testContext::fail).endHandler(v -> {
+      // the stub answers the same rows for each of the 3 buckets
+      testContext.assertEquals(6, values.size());
+      testContext.assertEquals(3, select.executions());
+      async.countDown();
+    }).handler(row -> values.add(row.getDouble("value")));
+  }
+
+  @Test
+  public void testReadOnDemand(TestContext testContext) {
+    StubQuery select = scriptSelect();
+    TimeSeriesReader reader = TimeSeriesReader.create(vertx, client, options);
+    Async async = testContext.async();
+    List<Double> values = new ArrayList<>();
+    ReadStream<Row> stream = reader.read("s1", 0, 2000);
+    stream.pause();
+    stream.exceptionHandler(testContext::fail).endHandler(v -> {
+      testContext.assertEquals(4, values.size());
+      async.countDown();
+    }).handler(row -> {
+      values.add(row.getDouble("value"));
+      // buckets are queried lazily
+      testContext.assertEquals(values.size() <= 2 ? 1 : 2, select.executions());
+      vertx.setTimer(10, id -> stream.fetch(1));
+    });
+    stream.fetch(1);
+  }
+
+  @Test
+  public void testReadEmptyRange(TestContext testContext) {
+    StubQuery select = scriptSelect();
+    TimeSeriesReader reader = TimeSeriesReader.create(vertx, client, options);
+    Async async = testContext.async();
+    reader.read("s1", 1000, 1000).endHandler(v -> {
+      testContext.assertEquals(0, select.executions());
+      async.countDown();
+    }).handler(row -> testContext.fail());
+  }
+
+  private StubQuery scriptTail(String restriction) {
+    return server.when(TAIL + restriction + " ? LIMIT ?")
+      .variable("series_id", DataTypes.TEXT)
+      .variable("bucket", DataTypes.BIGINT)
+      .variable("ts", DataTypes.TIMESTAMP)
+      .variable("[limit]", DataTypes.INT)
+      .column("ts", DataTypes.TIMESTAMP)
+      .column("value", DataTypes.DOUBLE);
+  }
+
+  @Test
+  public void testTail(TestContext testContext) {
+    StubQuery tailFrom = scriptTail(" >=")
+      .row(Instant.ofEpochMilli(1), 1.0)
+      .row(Instant.ofEpochMilli(2), 2.0);
+    // no new rows after the watermark
+    StubQuery tailAfter = scriptTail(" >");
+    options.setMinPollInterval(10).setMaxPollInterval(20).setAllowedLateness(20);
+    TimeSeriesReader reader = TimeSeriesReader.create(vertx, client, options);
+    Async async = testContext.async();
+    List<Double> values = new ArrayList<>();
+    // three buckets ago, so that the tail rolls buckets forward
+    ReadStream<Row> stream = reader.tail("s1", System.currentTimeMillis() - 3000);
+    stream.exceptionHandler(testContext::fail).endHandler(v -> {
+      testContext.assertEquals(Arrays.asList(1.0, 2.0), values);
+      testContext.assertEquals(1, tailFrom.executions());
+      testContext.assertTrue(tailAfter.executions() > 3);
+      async.countDown();
+    }).handler(row -> values.add(row.getDouble("value")));
+    vertx.setTimer(200, id -> stream.handler(null));
+  }
+
+  private static long boundBucket(List<ByteBuffer> values) {
+    ByteBuffer bucket = values.get(1);
+    return bucket.getLong(bucket.position());
+  }
+
+  @Test
+  public void testTailLateRows(TestContext testContext) {
+    StubQuery tailFrom = scriptTail(" >=");
+    StubQuery tailAfter = scriptTail(" >");
+    options.setMinPollInterval(10).setMaxPollInterval(20).setAllowedLateness(300);
+    TimeSeriesReader reader = TimeSeriesReader.create(vertx, client, options);
+    Async async = testContext.async();
+    long now = System.currentTimeMillis();
+    long bucket = now - now % 1000;
+    long boundary = bucket + 1000;
+    List<Double> values = new ArrayList<>();
+    ReadStream<Row> stream = reader.tail("s1", now);
+    stream.exceptionHandler(testContext::fail).handler(row -> {
+      values.add(row.getDouble("value"));
+      // the late row is read from the bucket which is over
+      List<List<ByteBuffer>> polls = tailFrom.boundValues();
+      testContext.assertEquals(bucket, boundBucket(polls.get(polls.size() - 1)));
+    });
+    // written after the boundary, in the previous bucket
+    vertx.setTimer(boundary + 100 - now, id -> tailFrom.row(Instant.ofEpochMilli(boundary - 1), 1.0));
+    vertx.setTimer(boundary + 600 - now, id -> {
+      testContext.assertEquals(Collections.singletonList(1.0), values);
+      // one last poll of the bucket once closed, then the next bucket
+      List<List<ByteBuffer>> polls = tailAfter.boundValues();
+      testContext.assertEquals(bucket, boundBucket(polls.get(0)));
+      testContext.assertEquals(boundary, boundBucket(polls.get(polls.size() - 1)));
+      stream.handler(null);
+      async.countDown();
+    });
+  }
+
+  @Test
+  public void testTailOnDemand(TestContext testContext) {
+    StubQuery tailFrom = scriptTail(" >=")
+      .row(Instant.ofEpochMilli(1), 1.0)
+      .row(Instant.ofEpochMilli(2), 2.0);
+    StubQuery tailAfter = scriptTail(" >");
+    options.setMinPollInterval(10).setMaxPollInterval(20);
+    TimeSeriesReader reader = TimeSeriesReader.create(vertx, client, options);
+    Async async = testContext.async();
+    ReadStream<Row> stream = reader.tail("s1", System.currentTimeMillis());
+    stream.pause();
+    stream.exceptionHandler(testContext::fail).handler(row -> {
+      // the next poll waits for the rows to be emitted
+      vertx.setTimer(100, id -> {
+        testContext.assertEquals(1, tailFrom.executions());
+        testContext.assertEquals(0, tailAfter.executions());
+        stream.handler(null);
+        async.countDown();
+      });
+    });
+    stream.fetch(1);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RunWith(VertxUnitRunner.class)
+public class WriteBehindBufferTest extends CassandraClientTestBase {
+
+  private static final String UPSERT = "INSERT INTO devices.state_by_device (device, sensor, state) VALUES (?, ?, ?)";
+
+  @Test
+  public void testLatestWriteWins(TestContext testContext) {
+    initializeDevicesKeyspace();
+    WriteBehindOptions options = new WriteBehindOptions().setFlushInterval(60_000);
+    client.prepare(UPSERT, testContext.asyncAssertSuccess(prepared -> {
+      WriteBehindBuffer buffer = WriteBehindBuffer.create(vertx, client, options);
+      for (int i = 0; i < 100; i++) {
+        buffer.write(prepared.bind("device" + (i % 3), "temperature", "state" + i));
+      }
+      buffer.write(prepared.bind("device0", "humidity", "dry"));
+      buffer.flush().onComplete(testContext.asyncAssertSuccess(v -> {
+        client.executeWithFullFetch("select device, sensor, state from devices.state_by_device", testContext.asyncAssertSuccess(rows -> {
+          Map<String, String> states = new HashMap<>();
+          for (Row row : rows) {
+            states.put(row.getString("device") + "/" + row.getString("sensor"), row.getString("state"));
+          }
+          testContext.assertEquals(4, states.size());
+          testContext.assertEquals("state99", states.get("device0/temperature"));
+          testContext.assertEquals("state97", states.get("device1/temperature"));
+          testContext.assertEquals("state98", states.get("device2/temperature"));
+          testContext.assertEquals("dry", states.get("device0/humidity"));
+          buffer.end(testContext.asyncAssertSuccess());
+        }));
+      }));
+    }));
+  }
+
+  @Test
+  public void testWritesAreCoalesced(TestContext testContext) {
+    initializeDevicesKeyspace();
+    WriteBehindOptions options = new WriteBehindOptions().setFlushInterval(60_000);
+    client.prepare(UPSERT, testContext.asyncAssertSuccess(prepared -> {
+      WriteBehindBuffer buffer = WriteBehindBuffer.create(vertx, client, options);
+      buffer.write(prepared.bind("device", "temperature", "cold"));
+      buffer.write(prepared.bind("device", "temperature", "hot"), testContext.asyncAssertSuccess(v -> {
+        testContext.assertEquals(0, buffer.size());
+        buffer.end(testContext.asyncAssertSuccess());
+      }));
+      vertx.setTimer(100, id -> {
+        testContext.assertEquals(1, buffer.size());
+        buffer.flush();
+      });
+    }));
+  }
+
+  @Test
+  public void testWriteQueueFull(TestContext testContext) {
+    initializeDevicesKeyspace();
+    WriteBehindOptions options = new WriteBehindOptions()
+      .setFlushInterval(60_000)
+      .setMaxBufferedWrites(10);
+    client.prepare(UPSERT, testContext.asyncAssertSuccess(prepared -> {
+      WriteBehindBuffer buffer = WriteBehindBuffer.create(vertx, client, options);
+      buffer.drainHandler(v -> {
+        testContext.assertFalse(buffer.writeQueueFull());
+        buffer.end(testContext.asyncAssertSuccess());
+      });
+      for (int i = 0; !buffer.writeQueueFull(); i++) {
+        testContext.assertTrue(i < 10);
+        buffer.write(prepared.bind("device" + i, "temperature", "cold"));
+      }
+    }));
+  }
+}
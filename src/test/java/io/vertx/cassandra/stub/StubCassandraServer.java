@@ -0,0 +1,371 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra.stub;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.protocol.internal.Compressor;
+import com.datastax.oss.protocol.internal.Frame;
+import com.datastax.oss.protocol.internal.FrameCodec;
+import com.datastax.oss.protocol.internal.Message;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.request.Batch;
+import com.datastax.oss.protocol.internal.request.Execute;
+import com.datastax.oss.protocol.internal.request.Options;
+import com.datastax.oss.protocol.internal.request.Prepare;
+import com.datastax.oss.protocol.internal.request.Query;
+import com.datastax.oss.protocol.internal.request.Register;
+import com.datastax.oss.protocol.internal.request.Startup;
+import com.datastax.oss.protocol.internal.request.query.QueryOptions;
+import com.datastax.oss.protocol.internal.response.Error;
+import com.datastax.oss.protocol.internal.response.Ready;
+import com.datastax.oss.protocol.internal.response.Supported;
+import com.datastax.oss.protocol.internal.response.error.Unprepared;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.DefaultRows;
+import com.datastax.oss.protocol.internal.response.result.Prepared;
+import com.datastax.oss.protocol.internal.response.result.RowsMetadata;
+import com.datastax.oss.protocol.internal.response.result.SetKeyspace;
+import com.datastax.oss.protocol.internal.response.result.Void;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.vertx.cassandra.CassandraClientOptions;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * An in-process server speaking the native protocol v4, answering scripted queries.
+ * <p>
+ * The server answers the handshake and the queries of the driver on system tables as a single node cluster, other
+ * queries are answered by the first matching {@link StubQuery}. Queries without a script fail with an
+ * {@code Invalid} error.
+ * <p>
+ * Clients must be created with {@link #clientOptions()}: schema and token metadata are disabled, since the server does
+ * not answer schema queries.
+ */
+public class StubCassandraServer {
+
+  public static final String DATACENTER = "dc1";
+
+  private static final int PROTOCOL_VERSION = ProtocolConstants.Version.V4;
+  private static final int MAX_FRAME_LENGTH = 256 * 1024 * 1024;
+
+  private final List<StubQuery> queries = new CopyOnWriteArrayList<>();
+  private final Map<ByteBuffer, StubQuery> prepared = new ConcurrentHashMap<>();
+  private final List<Integer> batches = new CopyOnWriteArrayList<>();
+  private final FrameCodec<ByteBuf> frameCodec = FrameCodec.defaultServer(new StubPrimitiveCodec(ByteBufAllocator.DEFAULT), Compressor.none());
+  private final EventLoopGroup group = new NioEventLoopGroup(1);
+  private final Channel channel;
+  private final InetSocketAddress address;
+
+  private StubCassandraServer(int port) throws InterruptedException {
+    channel = new ServerBootstrap()
+      .group(group)
+      .channel(NioServerSocketChannel.class)
+      .childHandler(new ChannelInitializer<SocketChannel>() {
+        @Override
+        protected void initChannel(SocketChannel ch) {
+          // the length of the body follows the version, flags, stream and opcode
+          ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 5, 4, 0, 0), new RequestHandler());
+        }
+      })
+      .bind(InetAddress.getLoopbackAddress(), port)
+      .sync()
+      .channel();
+    address = (InetSocketAddress) channel.localAddress();
+  }
+
+  /**
+   * Start a server on an ephemeral port.
+   */
+  public static StubCassandraServer start() throws InterruptedException {
+    return start(0);
+  }
+
+  /**
+   * Start a server on {@code port}.
+   */
+  public static StubCassandraServer start(int port) throws InterruptedException {
+    return new StubCassandraServer(port);
+  }
+
+  /**
+   * @return the address the server is bound to
+   */
+  public InetSocketAddress address() {
+    return address;
+  }
+
+  /**
+   * @return options of a client connecting to this server
+   */
+  public CassandraClientOptions clientOptions() {
+    CassandraClientOptions options = new CassandraClientOptions();
+    options.dataStaxClusterBuilder()
+      .withLocalDatacenter(DATACENTER)
+      .withConfigLoader(DriverConfigLoader.programmaticBuilder()
+        .withBoolean(DefaultDriverOption.METADATA_SCHEMA_ENABLED, false)
+        .withBoolean(DefaultDriverOption.METADATA_TOKEN_MAP_ENABLED, false)
+        .build());
+    return options.addContactPoint(address);
+  }
+
+  /**
+   * Script the answer to {@code query}, compared after collapsing whitespace.
+   */
+  public StubQuery when(String query) {
+    String normalized = normalize(query);
+    return when(normalized::equals);
+  }
+
+  /**
+   * Script the answer to the queries matching {@code matcher}, which is given queries after collapsing whitespace.
+   */
+  public StubQuery when(Predicate<String> matcher) {
+    StubQuery query = new StubQuery(matcher);
+    queries.add(query);
+    return query;
+  }
+
+  /**
+   * Remove all the scripts.
+   */
+  public void reset() {
+    queries.clear();
+    prepared.clear();
+    batches.clear();
+  }
+
+  /**
+   * @return the number of statements of each batch received, the statements are counted in their query executions
+   */
+  public List<Integer> batches() {
+    return new ArrayList<>(batches);
+  }
+
+  public void close() {
+    channel.close().syncUninterruptibly();
+    group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+  }
+
+  private static String normalize(String query) {
+    return query.trim().replaceAll("\\s+", " ");
+  }
+
+  private StubQuery find(String query) {
+    for (StubQuery stubQuery : queries) {
+      if (stubQuery.matches(query)) {
+        return stubQuery;
+      }
+    }
+    return null;
+  }
+
+  private static byte[] preparedId(String query) {
+    try {
+      return MessageDigest.getInstance("MD5").digest(query.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private class RequestHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf buf) {
+      int version = buf.getByte(buf.readerIndex()) & 0x7F;
+      int streamId = buf.getShort(buf.readerIndex() + 2);
+      if (version != PROTOCOL_VERSION) {
+        // the driver negotiates down to v4
+        reply(ctx, streamId, new Error(ProtocolConstants.ErrorCode.PROTOCOL_ERROR, "Invalid or unsupported protocol version (" + version + ")"));
+        return;
+      }
+      Frame frame = frameCodec.decode(buf);
+      Message request = frame.message;
+      if (request instanceof Options) {
+        Map<String, List<String>> options = new HashMap<>();
+        options.put("CQL_VERSION", Collections.singletonList("3.4.4"));
+        options.put("COMPRESSION", Collections.emptyList());
+        reply(ctx, streamId, new Supported(options));
+      } else if (request instanceof Startup || request instanceof Register) {
+        reply(ctx, streamId, new Ready());
+      } else if (request instanceof Query) {
+        Query query = (Query) request;
+        String cql = normalize(query.query);
+        Message system = system(cql);
+        if (system != null) {
+          reply(ctx, streamId, system);
+        } else {
+          execute(ctx, streamId, find(cql), cql, query.options);
+        }
+      } else if (request instanceof Prepare) {
+        String cql = normalize(((Prepare) request).cqlQuery);
+        StubQuery stubQuery = find(cql);
+        if (stubQuery == null) {
+          reply(ctx, streamId, new Error(ProtocolConstants.ErrorCode.INVALID, "No script for " + cql));
+          return;
+        }
+        byte[] id = preparedId(cql);
+        prepared.put(ByteBuffer.wrap(id), stubQuery);
+        RowsMetadata variables = new RowsMetadata(stubQuery.variables(), null, new int[0], null);
+        RowsMetadata result = new RowsMetadata(stubQuery.columns(), null, null, null);
+        reply(ctx, streamId, new Prepared(id, null, variables, result));
+      } else if (request instanceof Execute) {
+        Execute execute = (Execute) request;
+        StubQuery stubQuery = prepared.get(ByteBuffer.wrap(execute.queryId));
+        if (stubQuery == null) {
+          reply(ctx, streamId, new Unprepared("Unknown prepared statement", execute.queryId));
+          return;
+        }
+        execute(ctx, streamId, stubQuery, null, execute.options);
+      } else if (request instanceof Batch) {
+        Batch batch = (Batch) request;
+        for (Object queryOrId : batch.queriesOrIds) {
+          StubQuery stubQuery = queryOrId instanceof String ? find(normalize((String) queryOrId)) : prepared.get(ByteBuffer.wrap((byte[]) queryOrId));
+          if (stubQuery != null) {
+            stubQuery.execute();
+          }
+        }
+        batches.add(batch.queriesOrIds.size());
+        reply(ctx, streamId, Void.INSTANCE);
+      } else {
+        reply(ctx, streamId, new Error(ProtocolConstants.ErrorCode.PROTOCOL_ERROR, "Unsupported request " + request));
+      }
+    }
+
+    private void execute(ChannelHandlerContext ctx, int streamId, StubQuery stubQuery, String cql, QueryOptions options) {
+      if (stubQuery == null) {
+        if (cql != null && cql.toUpperCase().startsWith("USE ")) {
+          reply(ctx, streamId, new SetKeyspace(cql.substring(4).trim()));
+        } else {
+          reply(ctx, streamId, new Error(ProtocolConstants.ErrorCode.INVALID, "No script for " + cql));
+        }
+        return;
+      }
+      stubQuery.execute(options.positionalValues);
+      if (stubQuery.drop()) {
+        return;
+      }
+      Message response = stubQuery.error();
+      if (response == null) {
+        response = page(stubQuery, options);
+      }
+      long latency = stubQuery.latency();
+      if (latency > 0) {
+        Message delayed = response;
+        ctx.executor().schedule(() -> reply(ctx, streamId, delayed), latency, TimeUnit.MILLISECONDS);
+      } else {
+        reply(ctx, streamId, response);
+      }
+    }
+
+    private Message page(StubQuery stubQuery, QueryOptions options) {
+      List<ColumnSpec> columns = stubQuery.columns();
+      if (columns.isEmpty()) {
+        return Void.INSTANCE;
+      }
+      List<List<ByteBuffer>> rows = stubQuery.rows();
+      int offset = options.pagingState == null ? 0 : options.pagingState.getInt(options.pagingState.position());
+      int pageSize = stubQuery.effectivePageSize(options.pageSize);
+      int end = pageSize > 0 ? Math.min(rows.size(), offset + pageSize) : rows.size();
+      ByteBuffer pagingState = null;
+      if (end < rows.size()) {
+        pagingState = ByteBuffer.allocate(4).putInt(0, end);
+      }
+      Queue<List<ByteBuffer>> data = new ArrayDeque<>(rows.subList(offset, end));
+      return new DefaultRows(new RowsMetadata(columns, pagingState, null, null), data);
+    }
+
+    private void reply(ChannelHandlerContext ctx, int streamId, Message response) {
+      Frame frame = Frame.forResponse(PROTOCOL_VERSION, streamId, null, Frame.NO_PAYLOAD, Collections.emptyList(), response);
+      ctx.writeAndFlush(frameCodec.encode(frame));
+    }
+  }
+
+  private Message system(String cql) {
+    String lower = cql.toLowerCase();
+    if (lower.contains("from system.local")) {
+      return local();
+    } else if (lower.contains("from system.peers_v2")) {
+      return new Error(ProtocolConstants.ErrorCode.INVALID, "unconfigured table peers_v2");
+    } else if (lower.contains("from system.") || lower.contains("from system_schema.")) {
+      return new DefaultRows(new RowsMetadata(Collections.emptyList(), null, null, null), new ArrayDeque<>());
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Message local() {
+    Object[][] columns = {
+      {"key", DataTypes.TEXT, "local"},
+      {"bootstrapped", DataTypes.TEXT, "COMPLETED"},
+      {"broadcast_address", DataTypes.INET, address.getAddress()},
+      {"cluster_name", DataTypes.TEXT, "stub"},
+      {"cql_version", DataTypes.TEXT, "3.4.4"},
+      {"data_center", DataTypes.TEXT, DATACENTER},
+      {"rack", DataTypes.TEXT, "rack1"},
+      {"release_version", DataTypes.TEXT, "3.11.4"},
+      {"partitioner", DataTypes.TEXT, "org.apache.cassandra.dht.Murmur3Partitioner"},
+      {"listen_address", DataTypes.INET, address.getAddress()},
+      {"native_protocol_version", DataTypes.TEXT, "4"},
+      {"host_id", DataTypes.UUID, UUID.nameUUIDFromBytes(address.toString().getBytes(StandardCharsets.UTF_8))},
+      {"rpc_address", DataTypes.INET, address.getAddress()},
+      {"schema_version", DataTypes.UUID, new UUID(0, 0)},
+      {"tokens", DataTypes.setOf(DataTypes.TEXT), Collections.singleton("0")}
+    };
+    List<ColumnSpec> specs = new ArrayList<>(columns.length);
+    List<ByteBuffer> row = new ArrayList<>(columns.length);
+    for (Object[] column : columns) {
+      DataType type = (DataType) column[1];
+      specs.add(new ColumnSpec("system", "local", (String) column[0], specs.size(), StubQuery.rawType(type)));
+      TypeCodec<Object> codec = (TypeCodec<Object>) (TypeCodec<?>) CodecRegistry.DEFAULT.codecFor(type);
+      row.add(codec.encode(column[2], ProtocolVersion.V4));
+    }
+    return new DefaultRows(new RowsMetadata(specs, null, null, null), new ArrayDeque<>(Collections.singletonList(row)));
+  }
+}
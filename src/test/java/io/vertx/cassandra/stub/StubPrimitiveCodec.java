@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra.stub;
+
+import com.datastax.oss.protocol.internal.PrimitiveCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads and writes the primitive types of the native protocol in Netty buffers, for the frames of the stub server.
+ */
+class StubPrimitiveCodec implements PrimitiveCodec<ByteBuf> {
+
+  private final ByteBufAllocator allocator;
+
+  StubPrimitiveCodec(ByteBufAllocator allocator) {
+    this.allocator = allocator;
+  }
+
+  @Override
+  public ByteBuf allocate(int size) {
+    return allocator.ioBuffer(size, size);
+  }
+
+  @Override
+  public void release(ByteBuf toRelease) {
+    toRelease.release();
+  }
+
+  @Override
+  public int sizeOf(ByteBuf toMeasure) {
+    return toMeasure.readableBytes();
+  }
+
+  @Override
+  public ByteBuf concat(ByteBuf left, ByteBuf right) {
+    if (!left.isReadable()) {
+      return right.duplicate();
+    } else if (!right.isReadable()) {
+      return left.duplicate();
+    }
+    CompositeByteBuf composite = allocator.compositeBuffer(2);
+    composite.addComponents(true, left, right);
+    return composite;
+  }
+
+  public void markReaderIndex(ByteBuf source) {
+    source.markReaderIndex();
+  }
+
+  public void resetReaderIndex(ByteBuf source) {
+    source.resetReaderIndex();
+  }
+
+  @Override
+  public byte readByte(ByteBuf source) {
+    return source.readByte();
+  }
+
+  @Override
+  public int readInt(ByteBuf source) {
+    return source.readInt();
+  }
+
+  public int readInt(ByteBuf source, int offset) {
+    return source.getInt(source.readerIndex() + offset);
+  }
+
+  @Override
+  public InetAddress readInetAddr(ByteBuf source) {
+    byte[] bytes = new byte[source.readUnsignedByte()];
+    source.readBytes(bytes);
+    try {
+      return InetAddress.getByAddress(bytes);
+    } catch (UnknownHostException e) {
+      throw new IllegalArgumentException("Invalid address length: " + bytes.length, e);
+    }
+  }
+
+  @Override
+  public long readLong(ByteBuf source) {
+    return source.readLong();
+  }
+
+  @Override
+  public int readUnsignedShort(ByteBuf source) {
+    return source.readUnsignedShort();
+  }
+
+  @Override
+  public ByteBuffer readBytes(ByteBuf source) {
+    int length = source.readInt();
+    if (length < 0) {
+      return null;
+    }
+    ByteBuffer bytes = ByteBuffer.allocate(length);
+    source.readBytes(bytes);
+    bytes.flip();
+    return bytes;
+  }
+
+  @Override
+  public byte[] readShortBytes(ByteBuf source) {
+    byte[] bytes = new byte[source.readUnsignedShort()];
+    source.readBytes(bytes);
+    return bytes;
+  }
+
+  @Override
+  public String readString(ByteBuf source) {
+    return readString(source, source.readUnsignedShort());
+  }
+
+  @Override
+  public String readLongString(ByteBuf source) {
+    return readString(source, source.readInt());
+  }
+
+  public ByteBuf readRetainedSlice(ByteBuf source, int sliceLength) {
+    return source.readRetainedSlice(sliceLength);
+  }
+
+  @Override
+  public void writeByte(byte b, ByteBuf dest) {
+    dest.writeByte(b);
+  }
+
+  @Override
+  public void writeInt(int i, ByteBuf dest) {
+    dest.writeInt(i);
+  }
+
+  @Override
+  public void writeInetAddr(InetAddress address, ByteBuf dest) {
+    byte[] bytes = address.getAddress();
+    dest.writeByte(bytes.length);
+    dest.writeBytes(bytes);
+  }
+
+  @Override
+  public void writeLong(long l, ByteBuf dest) {
+    dest.writeLong(l);
+  }
+
+  @Override
+  public void writeUnsignedShort(int i, ByteBuf dest) {
+    dest.writeShort(i);
+  }
+
+  @Override
+  public void writeString(String s, ByteBuf dest) {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    dest.writeShort(bytes.length);
+    dest.writeBytes(bytes);
+  }
+
+  @Override
+  public void writeLongString(String s, ByteBuf dest) {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    dest.writeInt(bytes.length);
+    dest.writeBytes(bytes);
+  }
+
+  @Override
+  public void writeBytes(ByteBuffer bytes, ByteBuf dest) {
+    if (bytes == null) {
+      dest.writeInt(-1);
+    } else {
+      dest.writeInt(bytes.remaining());
+      dest.writeBytes(bytes.duplicate());
+    }
+  }
+
+  @Override
+  public void writeBytes(byte[] bytes, ByteBuf dest) {
+    if (bytes == null) {
+      dest.writeInt(-1);
+    } else {
+      dest.writeInt(bytes.length);
+      dest.writeBytes(bytes);
+    }
+  }
+
+  @Override
+  public void writeShortBytes(byte[] bytes, ByteBuf dest) {
+    dest.writeShort(bytes.length);
+    dest.writeBytes(bytes);
+  }
+
+  private static String readString(ByteBuf source, int length) {
+    String s = source.toString(source.readerIndex(), length, StandardCharsets.UTF_8);
+    source.skipBytes(length);
+    return s;
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.vertx.cassandra.stub;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.ListType;
+import com.datastax.oss.driver.api.core.type.MapType;
+import com.datastax.oss.driver.api.core.type.SetType;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.protocol.internal.response.Error;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * The scripted answer of a {@link StubCassandraServer} to the queries matching a predicate.
+ * <p>
+ * Queries answer with the configured rows, or with an empty result when no column is configured. Rows are paged with
+ * the page size of the request, unless {@link #pageSize(int)} is set.
+ */
+public class StubQuery {
+
+  private final Predicate<String> matcher;
+  private final List<ColumnSpec> columns = new ArrayList<>();
+  private final List<DataType> columnTypes = new ArrayList<>();
+  private final List<ColumnSpec> variables = new ArrayList<>();
+  private final List<List<ByteBuffer>> rows = new ArrayList<>();
+  private final AtomicInteger executions = new AtomicInteger();
+  private final List<List<ByteBuffer>> boundValues = new ArrayList<>();
+  private volatile boolean recording = true;
+  private volatile int pageSize;
+  private volatile LongSupplier latency = () -> 0;
+  private volatile Error error;
+  private volatile double errorProbability;
+  private volatile double dropProbability;
+
+  StubQuery(Predicate<String> matcher) {
+    this.matcher = matcher;
+  }
+
+  /**
+   * A latency of {@code millis} ms.
+   */
+  public static LongSupplier fixedLatency(long millis) {
+    return () -> millis;
+  }
+
+  /**
+   * A latency uniformly distributed between {@code min} and {@code max} ms.
+   */
+  public static LongSupplier uniformLatency(long min, long max) {
+    return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+  }
+
+  /**
+   * A latency of {@code base} ms, and of {@code tail} ms for a fraction {@code probability} of the requests.
+   */
+  public static LongSupplier tailLatency(long base, long tail, double probability) {
+    return () -> ThreadLocalRandom.current().nextDouble() < probability ? tail : base;
+  }
+
+  /**
+   * Add a column to the result.
+   */
+  public synchronized StubQuery column(String name, DataType type) {
+    columns.add(new ColumnSpec("stub", "stub", name, columns.size(), rawType(type)));
+    columnTypes.add(type);
+    return this;
+  }
+
+  /**
+   * Add a variable, for prepared queries.
+   */
+  public synchronized StubQuery variable(String name, DataType type) {
+    variables.add(new ColumnSpec("stub", "stub", name, variables.size(), rawType(type)));
+    return this;
+  }
+
+  /**
+   * Add a row to the result, with one value per column.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized StubQuery row(Object... values) {
+    if (values.length != columns.size()) {
+      throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+    }
+    List<ByteBuffer> row = new ArrayList<>(values.length);
+    for (int i = 0; i < values.length; i++) {
+      TypeCodec<Object> codec = (TypeCodec<Object>) (TypeCodec<?>) CodecRegistry.DEFAULT.codecFor(columnTypes.get(i));
+      row.add(values[i] == null ? null : codec.encode(values[i], ProtocolVersion.V4));
+    }
+    rows.add(row);
+    return this;
+  }
+
+  /**
+   * Whether to record the values bound by each execution, enabled by default. Long runs, such as load tests, should
+   * disable it.
+   */
+  public StubQuery recordBoundValues(boolean recording) {
+    this.recording = recording;
+    return this;
+  }
+
+  /**
+   * Override the page size of the requests.
+   */
+  public StubQuery pageSize(int pageSize) {
+    this.pageSize = pageSize;
+    return this;
+  }
+
+  /**
+   * Delay each response, by a number of ms provided by {@code latency}.
+   */
+  public StubQuery latency(LongSupplier latency) {
+    this.latency = latency;
+    return this;
+  }
+
+  /**
+   * Answer all the requests with an error.
+   */
+  public StubQuery error(Error error) {
+    return error(error, 1);
+  }
+
+  /**
+   * Answer a fraction {@code probability} of the requests with an error.
+   */
+  public StubQuery error(Error error, double probability) {
+    this.error = error;
+    errorProbability = probability;
+    return this;
+  }
+
+  /**
+   * Do not answer a fraction {@code probability} of the requests, so that they time out on the client.
+   */
+  public StubQuery drop(double probability) {
+    dropProbability = probability;
+    return this;
+  }
+
+  /**
+   * @return the number of times the query has been executed
+   */
+  public int executions() {
+    return executions.get();
+  }
+
+  /**
+   * @return the values bound by each execution, in order
+   */
+  public synchronized List<List<ByteBuffer>> boundValues() {
+    return new ArrayList<>(boundValues);
+  }
+
+  boolean matches(String query) {
+    return matcher.test(query);
+  }
+
+  synchronized List<ColumnSpec> columns() {
+    return new ArrayList<>(columns);
+  }
+
+  synchronized List<ColumnSpec> variables() {
+    return new ArrayList<>(variables);
+  }
+
+  synchronized List<List<ByteBuffer>> rows() {
+    return new ArrayList<>(rows);
+  }
+
+  int effectivePageSize(int requested) {
+    int size = pageSize;
+    return size > 0 ? size : requested;
+  }
+
+  long latency() {
+    return latency.getAsLong();
+  }
+
+  int execute() {
+    return execute(Collections.emptyList());
+  }
+
+  int execute(List<ByteBuffer> values) {
+    if (recording) {
+      synchronized (this) {
+        boundValues.add(new ArrayList<>(values));
+      }
+    }
+    return executions.incrementAndGet();
+  }
+
+  Error error() {
+    Error e = error;
+    return e != null && ThreadLocalRandom.current().nextDouble() < errorProbability ? e : null;
+  }
+
+  boolean drop() {
+    return dropProbability > 0 && ThreadLocalRandom.current().nextDouble() < dropProbability;
+  }
+
+  static RawType rawType(DataType type) {
+    if (type instanceof ListType) {
+      return new RawType.RawList(rawType(((ListType) type).getElementType()));
+    } else if (type instanceof SetType) {
+      return new RawType.RawSet(rawType(((SetType) type).getElementType()));
+    } else if (type instanceof MapType) {
+      return new RawType.RawMap(rawType(((MapType) type).getKeyType()), rawType(((MapType) type).getValueType()));
+    }
+    RawType rawType = RawType.PRIMITIVES.get(type.getProtocolCode());
+    if (rawType == null) {
+      throw new IllegalArgumentException("Unsupported type " + type);
+    }
+    return rawType;
+  }
+}
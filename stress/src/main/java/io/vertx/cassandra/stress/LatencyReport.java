@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.stress;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency of operations in microseconds, and prints per-second and final reports.
+ * <p>
+ * Recording is thread-safe, reports are printed by a single thread.
+ */
+class LatencyReport {
+
+  enum Operation {
+    READ, WRITE
+  }
+
+  private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toMicros(1);
+
+  private final PrintStream out;
+  private final Recorder[] recorders = new Recorder[Operation.values().length];
+  private final LongAdder[] errors = new LongAdder[recorders.length];
+  private final Histogram[] totals = new Histogram[recorders.length];
+  private final long[] totalErrors = new long[recorders.length];
+  private Histogram[] intervals = new Histogram[recorders.length];
+  private volatile boolean recording = true;
+
+  LatencyReport(PrintStream out) {
+    this.out = out;
+    for (int i = 0; i < recorders.length; i++) {
+      recorders[i] = new Recorder(HIGHEST_TRACKABLE, 3);
+      errors[i] = new LongAdder();
+      totals[i] = new Histogram(HIGHEST_TRACKABLE, 3);
+    }
+  }
+
+  /**
+   * @param latency the latency in ns, from the intended start of the operation
+   */
+  void record(Operation operation, long latency, boolean succeeded) {
+    if (!recording) {
+      return;
+    }
+    if (succeeded) {
+      recorders[operation.ordinal()].recordValue(Math.min(HIGHEST_TRACKABLE, TimeUnit.NANOSECONDS.toMicros(latency)));
+    } else {
+      errors[operation.ordinal()].increment();
+    }
+  }
+
+  void stopRecording() {
+    recording = false;
+  }
+
+  /**
+   * Print the operations recorded since the previous interval.
+   *
+   * @param label the label of the line
+   * @param measured whether the interval is included in the final report
+   */
+  void printInterval(String label, boolean measured) {
+    StringBuilder line = new StringBuilder(String.format("%-8s", label));
+    for (Operation operation : Operation.values()) {
+      int i = operation.ordinal();
+      intervals[i] = recorders[i].getIntervalHistogram(intervals[i]);
+      long intervalErrors = errors[i].sumThenReset();
+      if (measured) {
+        totals[i].add(intervals[i]);
+        totalErrors[i] += intervalErrors;
+      }
+      Histogram interval = intervals[i];
+      line.append(String.format(" | %-5s %8d ops/s  p50 %8.2f  p99 %8.2f  max %8.2f ms  errors %d",
+        operation.name().toLowerCase(), interval.getTotalCount(), millis(interval.getValueAtPercentile(50)),
+        millis(interval.getValueAtPercentile(99)), millis(interval.getMaxValue()), intervalErrors));
+    }
+    out.println(line);
+  }
+
+  /**
+   * Print the operations recorded during the measured intervals.
+   *
+   * @param seconds the duration of the measured intervals
+   */
+  void printSummary(int seconds) {
+    out.println();
+    out.println("Results over " + seconds + " s, latencies in ms from the intended start of operations:");
+    for (Operation operation : Operation.values()) {
+      Histogram total = totals[operation.ordinal()];
+      out.println();
+      out.println(operation.name().toLowerCase());
+      out.println(String.format("  operations  %12d", total.getTotalCount()));
+      out.println(String.format("  errors      %12d", totalErrors[operation.ordinal()]));
+      out.println(String.format("  throughput  %12.1f ops/s", (double) total.getTotalCount() / seconds));
+      if (total.getTotalCount() == 0) {
+        continue;
+      }
+      out.println(String.format("  mean        %12.3f", total.getMean() / 1000));
+      for (String percentile : new String[]{"50", "90", "99", "99.9", "99.99"}) {
+        out.println(String.format("  p%-10s %12.3f", percentile, millis(total.getValueAtPercentile(Double.parseDouble(percentile)))));
+      }
+      out.println(String.format("  max         %12.3f", millis(total.getMaxValue())));
+    }
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000d;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.stress;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.cassandra.CassandraClientOptions;
+import io.vertx.cassandra.stub.StubCassandraServer;
+import io.vertx.cassandra.stub.StubQuery;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A load generator for the Vert.x Cassandra client.
+ * <p>
+ * One {@link StressVerticle} is deployed per event loop. Latencies are printed every second, then summarized over the
+ * measured period, warmup excluded. In stub mode, the verticles run against an in-process {@link StubCassandraServer}
+ * answering their queries immediately, which measures the overhead of the client alone.
+ */
+public class Stress {
+
+  public static void main(String[] args) {
+    StressOptions options;
+    try {
+      options = StressOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(StressOptions.USAGE);
+      System.exit(1);
+      return;
+    }
+    if (options.help) {
+      System.out.println(StressOptions.USAGE);
+      return;
+    }
+    new Stress(options).run();
+  }
+
+  private final StressOptions options;
+  private final Vertx vertx;
+  private final CassandraClientOptions clientOptions;
+  private final LatencyReport report = new LatencyReport(System.out);
+
+  private Stress(StressOptions options) {
+    this.options = options;
+    vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(options.eventLoops));
+    if (options.stub) {
+      clientOptions = startStub(options).clientOptions();
+    } else {
+      clientOptions = new CassandraClientOptions();
+      clientOptions.dataStaxClusterBuilder().withLocalDatacenter(options.datacenter);
+      for (InetSocketAddress contactPoint : options.contactPoints) {
+        clientOptions.addContactPoint(contactPoint);
+      }
+    }
+  }
+
+  /**
+   * Start a stub server answering the inserts, and the selects with {@code rowsPerPartition} rows.
+   */
+  private static StubCassandraServer startStub(StressOptions options) {
+    StubCassandraServer server;
+    try {
+      server = StubCassandraServer.start();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+    server.when(StressVerticle.insertQuery(options.keyspace))
+      .recordBoundValues(false)
+      .variable("pk", DataTypes.BIGINT)
+      .variable("ck", DataTypes.INT)
+      .variable("value", DataTypes.BLOB);
+    StubQuery select = server.when(StressVerticle.selectQuery(options.keyspace))
+      .recordBoundValues(false)
+      .variable("pk", DataTypes.BIGINT)
+      .column("ck", DataTypes.INT)
+      .column("value", DataTypes.BLOB);
+    ByteBuffer value = ByteBuffer.wrap(new byte[options.valueSize]);
+    for (int ck = 0; ck < options.rowsPerPartition; ck++) {
+      select.row(ck, value);
+    }
+    return server;
+  }
+
+  private void run() {
+    System.out.println("Running with " + options);
+    setup()
+      .compose(v -> deploy())
+      .onSuccess(id -> report(id))
+      .onFailure(t -> {
+        t.printStackTrace();
+        vertx.close(ar -> System.exit(1));
+      });
+  }
+
+  private Future<Void> setup() {
+    if (!options.setup || options.stub) {
+      return Future.succeededFuture();
+    }
+    CassandraClient client = CassandraClient.create(vertx, clientOptions);
+    String keyspace = "CREATE KEYSPACE IF NOT EXISTS " + options.keyspace
+      + " WITH replication = {'class': 'SimpleStrategy', 'replication_factor': " + options.replicationFactor + "}";
+    String table = "CREATE TABLE IF NOT EXISTS " + options.keyspace + ".data (pk bigint, ck int, value blob, PRIMARY KEY (pk, ck))";
+    return client.execute(keyspace)
+      .compose(rs -> client.execute(table))
+      .<Void>mapEmpty()
+      .onComplete(ar -> client.close());
+  }
+
+  private Future<String> deploy() {
+    // the target rate is spread over the verticles
+    AtomicInteger index = new AtomicInteger();
+    return vertx.deployVerticle(() -> {
+      int i = index.getAndIncrement();
+      long rate = options.rate / options.eventLoops + (i < options.rate % options.eventLoops ? 1 : 0);
+      return new StressVerticle(options, clientOptions, report, rate);
+    }, new DeploymentOptions().setInstances(options.eventLoops));
+  }
+
+  private void report(String deploymentId) {
+    AtomicInteger seconds = new AtomicInteger();
+    vertx.setPeriodic(1000, timerId -> {
+      int second = seconds.incrementAndGet();
+      if (second <= options.warmup) {
+        report.printInterval("warmup", false);
+        return;
+      }
+      report.printInterval((second - options.warmup) + "s", true);
+      if (second == options.warmup + options.duration) {
+        vertx.cancelTimer(timerId);
+        report.stopRecording();
+        report.printSummary(options.duration);
+        vertx.undeploy(deploymentId).onComplete(ar -> vertx.close(v -> System.exit(0)));
+      }
+    });
+  }
+}
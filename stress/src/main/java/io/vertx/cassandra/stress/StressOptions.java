@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.stress;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line options of the stress tool.
+ */
+public class StressOptions {
+
+  static final String USAGE = String.join("\n",
+    "Usage: java -jar vertx-cassandra-client-stress.jar [options]",
+    "",
+    "  --contact-points <host:port,...>  default 127.0.0.1:9042",
+    "  --datacenter <name>               local datacenter, default datacenter1",
+    "  --keyspace <name>                 default stress",
+    "  --replication-factor <n>          used when creating the keyspace, default 1",
+    "  --skip-setup                      do not create the keyspace and the table",
+    "  --stub                            run against an in-process stub server instead of a cluster",
+    "  --reads <ratio>                   ratio of reads in the mix, between 0 and 1, default 0.5",
+    "  --statements prepared|simple      default prepared",
+    "  --fetch full|stream               how reads fetch rows, default full",
+    "  --page-size <n>                   page size of reads, default 5000",
+    "  --rate <ops/s>                    target rate (open loop), 0 to run closed loop, default 0",
+    "  --concurrency <n>                 max operations in flight per event loop, default 128",
+    "  --event-loops <n>                 number of event loops, default the number of cores",
+    "  --shared                          use a single shared client instead of one client per event loop",
+    "  --partitions <n>                  number of partitions, default 100000",
+    "  --rows-per-partition <n>          default 10",
+    "  --value-size <bytes>              size of written values, default 100",
+    "  --warmup <seconds>                default 10",
+    "  --duration <seconds>              default 60",
+    "  --help");
+
+  List<InetSocketAddress> contactPoints = new ArrayList<>();
+  String datacenter = "datacenter1";
+  String keyspace = "stress";
+  int replicationFactor = 1;
+  boolean setup = true;
+  boolean stub;
+  double reads = 0.5;
+  boolean prepared = true;
+  boolean stream;
+  int pageSize = 5000;
+  long rate;
+  int concurrency = 128;
+  int eventLoops = Runtime.getRuntime().availableProcessors();
+  boolean shared;
+  long partitions = 100_000;
+  int rowsPerPartition = 10;
+  int valueSize = 100;
+  int warmup = 10;
+  int duration = 60;
+  boolean help;
+
+  /**
+   * @throws IllegalArgumentException if an option is unknown or invalid
+   */
+  static StressOptions parse(String[] args) {
+    StressOptions options = new StressOptions();
+    for (int i = 0; i < args.length; i++) {
+      String name = args[i];
+      switch (name) {
+        case "--skip-setup":
+          options.setup = false;
+          continue;
+        case "--shared":
+          options.shared = true;
+          continue;
+        case "--stub":
+          options.stub = true;
+          continue;
+        case "--help":
+          options.help = true;
+          continue;
+      }
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("Missing value of " + name);
+      }
+      String value = args[++i];
+      switch (name) {
+        case "--contact-points":
+          for (String contactPoint : value.split(",")) {
+            int colon = contactPoint.lastIndexOf(':');
+            if (colon < 0) {
+              options.contactPoints.add(InetSocketAddress.createUnresolved(contactPoint, 9042));
+            } else {
+              options.contactPoints.add(InetSocketAddress.createUnresolved(contactPoint.substring(0, colon), Integer.parseInt(contactPoint.substring(colon + 1))));
+            }
+          }
+          break;
+        case "--datacenter":
+          options.datacenter = value;
+          break;
+        case "--keyspace":
+          options.keyspace = value;
+          break;
+        case "--replication-factor":
+          options.replicationFactor = positive(name, Integer.parseInt(value));
+          break;
+        case "--reads":
+          options.reads = Double.parseDouble(value);
+          if (options.reads < 0 || options.reads > 1) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1");
+          }
+          break;
+        case "--statements":
+          options.prepared = choice(name, value, "prepared", "simple");
+          break;
+        case "--fetch":
+          options.stream = !choice(name, value, "full", "stream");
+          break;
+        case "--page-size":
+          options.pageSize = positive(name, Integer.parseInt(value));
+          break;
+        case "--rate":
+          options.rate = Long.parseLong(value);
+          if (options.rate < 0) {
+            throw new IllegalArgumentException(name + " must be >= 0");
+          }
+          break;
+        case "--concurrency":
+          options.concurrency = positive(name, Integer.parseInt(value));
+          break;
+        case "--event-loops":
+          options.eventLoops = positive(name, Integer.parseInt(value));
+          break;
+        case "--partitions":
+          options.partitions = positive(name, Long.parseLong(value));
+          break;
+        case "--rows-per-partition":
+          options.rowsPerPartition = positive(name, Integer.parseInt(value));
+          break;
+        case "--value-size":
+          options.valueSize = positive(name, Integer.parseInt(value));
+          break;
+        case "--warmup":
+          options.warmup = Integer.parseInt(value);
+          break;
+        case "--duration":
+          options.duration = positive(name, Integer.parseInt(value));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + name);
+      }
+    }
+    if (options.rate > 0 && options.rate < options.eventLoops) {
+      // each event loop needs a rate of at least 1 op/s
+      throw new IllegalArgumentException("--rate must be >= --event-loops");
+    }
+    if (options.contactPoints.isEmpty()) {
+      options.contactPoints.add(InetSocketAddress.createUnresolved("127.0.0.1", 9042));
+    }
+    return options;
+  }
+
+  private static <T extends Number> T positive(String name, T value) {
+    if (value.longValue() <= 0) {
+      throw new IllegalArgumentException(name + " must be > 0");
+    }
+    return value;
+  }
+
+  /**
+   * @return whether {@code value} is the first choice
+   */
+  private static boolean choice(String name, String value, String first, String second) {
+    if (first.equals(value)) {
+      return true;
+    } else if (second.equals(value)) {
+      return false;
+    }
+    throw new IllegalArgumentException(name + " must be " + first + " or " + second);
+  }
+
+  @Override
+  public String toString() {
+    return "target=" + (stub ? "stub server" : "cluster")
+      + ", reads=" + reads
+      + ", statements=" + (prepared ? "prepared" : "simple")
+      + ", fetch=" + (stream ? "stream" : "full")
+      + ", rate=" + (rate == 0 ? "closed loop" : rate + " ops/s")
+      + ", concurrency=" + concurrency
+      + ", event loops=" + eventLoops
+      + ", client=" + (shared ? "shared" : "per event loop")
+      + ", partitions=" + partitions
+      + ", rows per partition=" + rowsPerPartition;
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018 The Vert.x Community.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vertx.cassandra.stress;
+
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.vertx.cassandra.CassandraClient;
+import io.vertx.cassandra.CassandraClientOptions;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.vertx.cassandra.stress.LatencyReport.Operation.READ;
+import static io.vertx.cassandra.stress.LatencyReport.Operation.WRITE;
+
+/**
+ * Executes a mix of reads and writes on its event loop.
+ * <p>
+ * With a target rate, operations are scheduled at fixed intervals and their latency is measured from their intended
+ * start, so that operations delayed by a slow response are not omitted (coordinated omission). Otherwise, each of
+ * the {@code concurrency} slots starts an operation as soon as the previous one has completed.
+ */
+class StressVerticle extends AbstractVerticle {
+
+  static final String SHARED_CLIENT_NAME = "stress";
+
+  private final StressOptions options;
+  private final CassandraClientOptions clientOptions;
+  private final LatencyReport report;
+  private final long rate;
+  private final String insert;
+  private final String select;
+
+  private CassandraClient client;
+  private PreparedStatement preparedInsert;
+  private PreparedStatement preparedSelect;
+  private ByteBuffer value;
+  private boolean running;
+  private int inFlight;
+  private long interval;
+  private long next;
+  private long timerId = -1;
+
+  /**
+   * @param rate the target rate of this verticle in ops/s, {@code 0} to run closed loop
+   */
+  StressVerticle(StressOptions options, CassandraClientOptions clientOptions, LatencyReport report, long rate) {
+    this.options = options;
+    this.clientOptions = clientOptions;
+    this.report = report;
+    this.rate = rate;
+    insert = insertQuery(options.keyspace);
+    select = selectQuery(options.keyspace);
+  }
+
+  static String insertQuery(String keyspace) {
+    return "INSERT INTO " + keyspace + ".data (pk, ck, value) VALUES (?, ?, ?)";
+  }
+
+  static String selectQuery(String keyspace) {
+    return "SELECT ck, value FROM " + keyspace + ".data WHERE pk = ?";
+  }
+
+  @Override
+  public void start(Promise<Void> startPromise) {
+    if (options.shared) {
+      client = CassandraClient.createShared(vertx, SHARED_CLIENT_NAME, clientOptions);
+    } else {
+      client = CassandraClient.create(vertx, clientOptions);
+    }
+    byte[] bytes = new byte[options.valueSize];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    value = ByteBuffer.wrap(bytes);
+    Future<?> prepared;
+    if (options.prepared) {
+      prepared = CompositeFuture.all(
+        client.prepare(insert).onSuccess(ps -> preparedInsert = ps),
+        client.prepare(select).onSuccess(ps -> preparedSelect = ps));
+    } else {
+      prepared = Future.succeededFuture();
+    }
+    prepared.onComplete(ar -> {
+      if (ar.succeeded()) {
+        running = true;
+        if (rate > 0) {
+          interval = TimeUnit.SECONDS.toNanos(1) / rate;
+          next = System.nanoTime();
+          timerId = vertx.setPeriodic(1, id -> tick());
+        } else {
+          for (int i = 0; i < options.concurrency; i++) {
+            execute(System.nanoTime());
+          }
+        }
+        startPromise.complete();
+      } else {
+        startPromise.fail(ar.cause());
+      }
+    });
+  }
+
+  @Override
+  public void stop(Promise<Void> stopPromise) {
+    running = false;
+    if (timerId >= 0) {
+      vertx.cancelTimer(timerId);
+    }
+    client.close().onComplete(ar -> stopPromise.complete());
+  }
+
+  /**
+   * Start the operations whose intended start has passed, as long as slots are available.
+   */
+  private void tick() {
+    long now = System.nanoTime();
+    while (running && next <= now && inFlight < options.concurrency) {
+      execute(next);
+      next += interval;
+    }
+  }
+
+  private void execute(long intendedStart) {
+    inFlight++;
+    boolean read = ThreadLocalRandom.current().nextDouble() < options.reads;
+    Future<?> future;
+    try {
+      future = read ? read() : write();
+    } catch (Exception e) {
+      future = Future.failedFuture(e);
+    }
+    future.onComplete(ar -> {
+      inFlight--;
+      report.record(read ? READ : WRITE, System.nanoTime() - intendedStart, ar.succeeded());
+      if (!running) {
+        return;
+      }
+      if (rate > 0) {
+        // catch up with operations that were waiting for a slot
+        tick();
+      } else {
+        execute(System.nanoTime());
+      }
+    });
+  }
+
+  private Future<?> read() {
+    long pk = ThreadLocalRandom.current().nextLong(options.partitions);
+    Statement<?> statement;
+    if (options.prepared) {
+      statement = preparedSelect.bind(pk).setPageSize(options.pageSize);
+    } else {
+      statement = SimpleStatement.newInstance(select, pk).setPageSize(options.pageSize);
+    }
+    if (!options.stream) {
+      return client.executeWithFullFetch(statement);
+    }
+    return client.queryStream(statement).compose(stream -> {
+      Promise<Void> promise = Promise.promise();
+      stream.exceptionHandler(promise::tryFail).endHandler(v -> promise.tryComplete()).handler(row -> {
+      });
+      return promise.future();
+    });
+  }
+
+  private Future<?> write() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long pk = random.nextLong(options.partitions);
+    int ck = random.nextInt(options.rowsPerPartition);
+    Statement<?> statement;
+    if (options.prepared) {
+      statement = preparedInsert.bind(pk, ck, value.duplicate());
+    } else {
+      statement = SimpleStatement.newInstance(insert, pk, ck, value.duplicate());
+    }
+    return client.execute(statement);
+  }
+}